@@ -22,36 +22,50 @@ import org.wso2.carbon.identity.event.IdentityEventConstants;
 import org.wso2.identity.webhook.common.event.handler.api.constants.Constants;
 import org.wso2.identity.webhook.common.event.handler.api.model.EventMetadata;
 
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Objects;
 
 public class CAEPPayloadUtils {
 
+    /**
+     * Metadata resolved for the events not supported by the CAEP event profile.
+     */
+    private static final EventMetadata UNSUPPORTED_EVENT_METADATA = buildEventMetadata(null, null);
+
+    private static final Map<String, EventMetadata> EVENT_METADATA = new HashMap<>();
+
+    static {
+        EventMetadata sessionRevokedEventMetadata = buildEventMetadata(Constants.Channel.SESSION_CHANNEL,
+                Constants.Event.SESSION_REVOKED_EVENT);
+        EventMetadata sessionCreatedEventMetadata = buildEventMetadata(Constants.Channel.SESSION_CHANNEL,
+                Constants.Event.SESSION_CREATED_EVENT);
+        EventMetadata sessionPresentedEventMetadata = buildEventMetadata(Constants.Channel.SESSION_CHANNEL,
+                Constants.Event.SESSION_PRESENTED_EVENT);
+        EVENT_METADATA.put(IdentityEventConstants.Event.SESSION_TERMINATE_V2, sessionRevokedEventMetadata);
+        EVENT_METADATA.put(IdentityEventConstants.Event.SESSION_CREATE, sessionCreatedEventMetadata);
+        EVENT_METADATA.put(IdentityEventConstants.Event.SESSION_EXTEND, sessionPresentedEventMetadata);
+        EVENT_METADATA.put(IdentityEventConstants.Event.SESSION_UPDATE, sessionPresentedEventMetadata);
+    }
+
     /**
      * Resolve the event metadata based on the event name.
      *
      * @param eventName Event name.
-     * @return Event metadata containing event and channel information.
+     * @return Event metadata containing event and channel information, shared by all events of the same name. The
+     * event and the channel are null if the event is not supported.
      */
     public static EventMetadata resolveEventHandlerKey(String eventName) {
 
-        String event = null;
-        String channel = null;
-        if (Objects.requireNonNull(eventName).equals(
-                IdentityEventConstants.Event.SESSION_TERMINATE_V2)) {
-            channel = Constants.Channel.SESSION_CHANNEL;
-            event = Constants.Event.SESSION_REVOKED_EVENT;
-        } else if (IdentityEventConstants.Event.SESSION_CREATE.equals(eventName)) {
-            channel = Constants.Channel.SESSION_CHANNEL;
-            event = Constants.Event.SESSION_CREATED_EVENT;
-        } else if (IdentityEventConstants.Event.SESSION_EXTEND.equals(eventName) ||
-                IdentityEventConstants.Event.SESSION_UPDATE.equals(eventName)) {
-            channel = Constants.Channel.SESSION_CHANNEL;
-            event = Constants.Event.SESSION_PRESENTED_EVENT;
-        }
+        EventMetadata eventMetadata = EVENT_METADATA.get(Objects.requireNonNull(eventName));
+        return eventMetadata != null ? eventMetadata : UNSUPPORTED_EVENT_METADATA;
+    }
+
+    private static EventMetadata buildEventMetadata(String channel, String event) {
 
         return EventMetadata.builder()
-                .event(String.valueOf(event))
-                .channel(String.valueOf(channel))
+                .event(event)
+                .channel(channel)
                 .eventProfile(Constants.EventSchema.CAEP.name())
                 .build();
     }
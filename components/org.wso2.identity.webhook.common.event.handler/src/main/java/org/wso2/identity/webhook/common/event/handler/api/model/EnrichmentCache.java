@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.webhook.common.event.handler.api.model;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per event cache of the values the payload builders and event handlers resolve from backend services, such as users,
+ * sessions, tenant ids and subjects. An instance is attached to the {@link EventData} of an event, so each value is
+ * resolved at most once for the event, however many event profiles consume it.
+ * <p>
+ * A value is resolved on the first request of its key, and concurrent requests of the same key wait for it. A value
+ * that fails to resolve is not cached, so a later request resolves it again.
+ */
+public class EnrichmentCache {
+
+    private final Map<Key<?>, Entry<?>> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Get the value of the given key from the enrichment cache of the event data, resolving and caching it if absent.
+     * If the event data has no enrichment cache, the value is resolved without caching.
+     *
+     * @param eventData Event data.
+     * @param key       Key of the value.
+     * @param resolver  Resolver of the value.
+     * @param <T>       Type of the value.
+     * @param <E>       Type of the exception thrown by the resolver.
+     * @return Value, which may be null.
+     * @throws E If the value could not be resolved.
+     */
+    public static <T, E extends Exception> T get(EventData eventData, Key<T> key, Resolver<T, E> resolver) throws E {
+
+        EnrichmentCache enrichmentCache = eventData.getEnrichmentCache();
+        return enrichmentCache != null ? enrichmentCache.get(key, resolver) : resolver.resolve();
+    }
+
+    /**
+     * Get the value of the given key, resolving and caching it if absent.
+     *
+     * @param key      Key of the value.
+     * @param resolver Resolver of the value.
+     * @param <T>      Type of the value.
+     * @param <E>      Type of the exception thrown by the resolver.
+     * @return Value, which may be null.
+     * @throws E If the value could not be resolved.
+     */
+    @SuppressWarnings("unchecked")
+    public <T, E extends Exception> T get(Key<T> key, Resolver<T, E> resolver) throws E {
+
+        Entry<T> entry = (Entry<T>) entries.computeIfAbsent(key, k -> new Entry<>());
+        if (!entry.resolved) {
+            synchronized (entry) {
+                if (!entry.resolved) {
+                    entry.value = resolver.resolve();
+                    entry.resolved = true;
+                }
+            }
+        }
+        return entry.value;
+    }
+
+    /**
+     * Key of a cached value. Keys with the same name are equal, so keys of parameterized lookups can be built from
+     * the parameter, such as the id of the looked up entity.
+     *
+     * @param <T> Type of the value.
+     */
+    public static final class Key<T> {
+
+        private final String name;
+
+        private Key(String name) {
+
+            this.name = name;
+        }
+
+        /**
+         * Create a key. Keys are shared by all event profiles, so the name is to be qualified by the owner of the
+         * value, and the type of the value must be the same for all keys of the same name.
+         *
+         * @param name Name of the key.
+         * @param <T>  Type of the value.
+         * @return Key.
+         */
+        public static <T> Key<T> of(String name) {
+
+            return new Key<>(name);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+
+            return this == o || (o instanceof Key && name.equals(((Key<?>) o).name));
+        }
+
+        @Override
+        public int hashCode() {
+
+            return name.hashCode();
+        }
+
+        @Override
+        public String toString() {
+
+            return name;
+        }
+    }
+
+    /**
+     * Resolver of a cached value.
+     *
+     * @param <T> Type of the value.
+     * @param <E> Type of the exception thrown when the value could not be resolved.
+     */
+    @FunctionalInterface
+    public interface Resolver<T, E extends Exception> {
+
+        T resolve() throws E;
+    }
+
+    /**
+     * Cached value, resolved once.
+     *
+     * @param <T> Type of the value.
+     */
+    private static final class Entry<T> {
+
+        private volatile boolean resolved;
+        private T value;
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.webhook.common.event.handler.api.model;
+
+import org.slf4j.MDC;
+import org.wso2.carbon.context.PrivilegedCarbonContext;
+import org.wso2.carbon.identity.core.context.IdentityContext;
+import org.wso2.carbon.identity.core.context.model.Flow;
+import org.wso2.carbon.identity.core.context.model.Organization;
+import org.wso2.carbon.identity.core.context.model.RootOrganization;
+
+import static org.wso2.carbon.identity.application.authentication.framework.util.FrameworkUtils.CORRELATION_ID_MDC;
+
+/**
+ * Immutable snapshot of the identity context an event is fired in.
+ * <p>
+ * The snapshot is captured once when the event data is built, and handed to the payload builders and the security
+ * event token through {@link EventData}, so the thread local contexts are not looked up again for every field of a
+ * payload, and a payload can be built on a thread other than the one the event is fired in.
+ */
+public class EventContextSnapshot {
+
+    private static final int INVALID_TENANT_ID = -1;
+
+    private final int rootTenantId;
+    private final String rootTenantDomain;
+    private final Organization organization;
+    private final Flow flow;
+    private final String correlationId;
+    private final String tenantDomain;
+
+    private EventContextSnapshot(Builder builder) {
+
+        this.rootTenantId = builder.rootTenantId;
+        this.rootTenantDomain = builder.rootTenantDomain;
+        this.organization = builder.organization;
+        this.flow = builder.flow;
+        this.correlationId = builder.correlationId;
+        this.tenantDomain = builder.tenantDomain;
+    }
+
+    /**
+     * Capture the identity context, the carbon context and the correlation id of the current thread.
+     *
+     * @return Event context snapshot.
+     */
+    public static EventContextSnapshot capture() {
+
+        Builder builder = builder();
+        IdentityContext identityContext = IdentityContext.getThreadLocalIdentityContext();
+        if (identityContext != null) {
+            RootOrganization rootOrganization = identityContext.getRootOrganization();
+            if (rootOrganization != null) {
+                builder.rootTenantId(rootOrganization.getAssociatedTenantId())
+                        .rootTenantDomain(rootOrganization.getAssociatedTenantDomain());
+            }
+            builder.organization(identityContext.getOrganization())
+                    .flow(identityContext.getCurrentFlow());
+        }
+        return builder
+                .correlationId(MDC.get(CORRELATION_ID_MDC))
+                .tenantDomain(PrivilegedCarbonContext.getThreadLocalCarbonContext().getTenantDomain())
+                .build();
+    }
+
+    /**
+     * Get the tenant id of the root organization.
+     *
+     * @return Root tenant id, or -1 if the root organization is not resolved.
+     */
+    public int getRootTenantId() {
+
+        return rootTenantId;
+    }
+
+    public String getRootTenantDomain() {
+
+        return rootTenantDomain;
+    }
+
+    public Organization getOrganization() {
+
+        return organization;
+    }
+
+    public String getOrganizationHandle() {
+
+        return organization != null ? organization.getOrganizationHandle() : null;
+    }
+
+    public Flow getFlow() {
+
+        return flow;
+    }
+
+    public Flow.Name getFlowName() {
+
+        return flow != null ? flow.getName() : null;
+    }
+
+    public Flow.InitiatingPersona getInitiatingPersona() {
+
+        return flow != null ? flow.getInitiatingPersona() : null;
+    }
+
+    public String getCorrelationId() {
+
+        return correlationId;
+    }
+
+    public String getTenantDomain() {
+
+        return tenantDomain;
+    }
+
+    public static Builder builder() {
+
+        return new Builder();
+    }
+
+    /**
+     * Builder class to build EventContextSnapshot.
+     */
+    public static class Builder {
+
+        private int rootTenantId = INVALID_TENANT_ID;
+        private String rootTenantDomain;
+        private Organization organization;
+        private Flow flow;
+        private String correlationId;
+        private String tenantDomain;
+
+        public Builder rootTenantId(int rootTenantId) {
+
+            this.rootTenantId = rootTenantId;
+            return this;
+        }
+
+        public Builder rootTenantDomain(String rootTenantDomain) {
+
+            this.rootTenantDomain = rootTenantDomain;
+            return this;
+        }
+
+        public Builder organization(Organization organization) {
+
+            this.organization = organization;
+            return this;
+        }
+
+        public Builder flow(Flow flow) {
+
+            this.flow = flow;
+            return this;
+        }
+
+        public Builder correlationId(String correlationId) {
+
+            this.correlationId = correlationId;
+            return this;
+        }
+
+        public Builder tenantDomain(String tenantDomain) {
+
+            this.tenantDomain = tenantDomain;
+            return this;
+        }
+
+        public EventContextSnapshot build() {
+
+            return new EventContextSnapshot(this);
+        }
+    }
+}
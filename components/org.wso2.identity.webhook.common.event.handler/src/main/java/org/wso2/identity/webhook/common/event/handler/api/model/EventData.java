@@ -25,11 +25,19 @@ import org.wso2.carbon.identity.application.authentication.framework.model.Authe
 
 import java.util.Collections;
 import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 import javax.servlet.http.HttpServletRequest;
 
 /**
  * Event data model.
+ * <p>
+ * The facts derived from the event properties (authenticated user, user id, tenant domain, B2B user login flag and
+ * session id) can be given as resolvers. A resolver runs on the first access of its fact and the result is memoized,
+ * so a single instance can be shared by all event profiles of an event, and nothing is resolved for a skipped event.
+ * The values resolved from backend services while building the payloads are shared the same way, through the
+ * {@link EnrichmentCache} of the event data.
  */
 public class EventData {
 
@@ -38,11 +46,15 @@ public class EventData {
     private final Map<String, Object> eventParams;
     private final AuthenticationContext authenticationContext;
     private final AuthenticatorStatus authenticatorStatus;
-    private final AuthenticatedUser authenticatedUser;
+    private final Memoized<AuthenticatedUser> authenticatedUser;
     private final SessionContext sessionContext;
-    private final String userId;
-    private final String tenantDomain;
+    private final Memoized<String> userId;
+    private final Memoized<String> tenantDomain;
+    private final Memoized<Boolean> b2bUserLogin;
+    private final Memoized<String> sessionId;
+    private final Memoized<EventContextSnapshot> eventContextSnapshot;
     private final Map<String, Object> properties;
+    private final EnrichmentCache enrichmentCache = new EnrichmentCache();
 
     private EventData(Builder builder) {
 
@@ -50,10 +62,17 @@ public class EventData {
         this.request = builder.request;
         this.authenticationContext = builder.authenticationContext;
         this.authenticatorStatus = builder.authenticatorStatus;
-        this.authenticatedUser = builder.authenticatedUser;
+        this.authenticatedUser = Memoized.of(builder.authenticatedUser);
         this.sessionContext = builder.sessionContext;
-        this.userId = builder.userId;
-        this.tenantDomain = builder.tenantDomain;
+        Function<EventData, String> userIdResolver = builder.userId;
+        // The user id resolver may derive the user id from the other facts of this event data, on first access.
+        this.userId = userIdResolver != null ? Memoized.of(() -> userIdResolver.apply(this)) : null;
+        this.tenantDomain = Memoized.of(builder.tenantDomain);
+        this.b2bUserLogin = Memoized.of(builder.b2bUserLogin);
+        this.sessionId = Memoized.of(builder.sessionId);
+        // Captured from the thread that first reads it, if not captured when the event data is built.
+        this.eventContextSnapshot = Memoized.of(builder.eventContextSnapshot != null ?
+                builder.eventContextSnapshot : EventContextSnapshot::capture);
         this.eventParams =
                 builder.eventParams != null ? Collections.unmodifiableMap(builder.eventParams) : Collections.emptyMap();
         this.properties =
@@ -87,7 +106,7 @@ public class EventData {
 
     public AuthenticatedUser getAuthenticatedUser() {
 
-        return authenticatedUser;
+        return authenticatedUser != null ? authenticatedUser.get() : null;
     }
 
     public SessionContext getSessionContext() {
@@ -97,12 +116,27 @@ public class EventData {
 
     public String getUserId() {
 
-        return userId;
+        return userId != null ? userId.get() : null;
     }
 
     public String getTenantDomain() {
 
-        return tenantDomain;
+        return tenantDomain != null ? tenantDomain.get() : null;
+    }
+
+    /**
+     * Check whether the event is triggered for a B2B user login through the organization authenticator.
+     *
+     * @return True if the event is triggered for a B2B user login, false if not or if unknown.
+     */
+    public boolean isB2BUserLogin() {
+
+        return b2bUserLogin != null && Boolean.TRUE.equals(b2bUserLogin.get());
+    }
+
+    public String getSessionId() {
+
+        return sessionId != null ? sessionId.get() : null;
     }
 
     public Map<String, Object> getProperties() {
@@ -110,6 +144,26 @@ public class EventData {
         return properties;
     }
 
+    /**
+     * Get the snapshot of the identity context the event is fired in.
+     *
+     * @return Event context snapshot.
+     */
+    public EventContextSnapshot getEventContextSnapshot() {
+
+        return eventContextSnapshot.get();
+    }
+
+    /**
+     * Get the cache of the values resolved for the event, shared by all event profiles of the event.
+     *
+     * @return Enrichment cache.
+     */
+    public EnrichmentCache getEnrichmentCache() {
+
+        return enrichmentCache;
+    }
+
     public static Builder builder() {
 
         return new Builder();
@@ -125,10 +179,13 @@ public class EventData {
         private Map<String, Object> eventParams;
         private AuthenticationContext authenticationContext;
         private AuthenticatorStatus authenticatorStatus;
-        private AuthenticatedUser authenticatedUser;
+        private Supplier<AuthenticatedUser> authenticatedUser;
         private SessionContext sessionContext;
-        private String userId;
-        private String tenantDomain;
+        private Function<EventData, String> userId;
+        private Supplier<String> tenantDomain;
+        private Supplier<Boolean> b2bUserLogin;
+        private Supplier<String> sessionId;
+        private Supplier<EventContextSnapshot> eventContextSnapshot;
 
         private Map<String, Object> properties;
 
@@ -164,7 +221,13 @@ public class EventData {
 
         public Builder authenticatedUser(AuthenticatedUser authenticatedUser) {
 
-            this.authenticatedUser = authenticatedUser;
+            this.authenticatedUser = () -> authenticatedUser;
+            return this;
+        }
+
+        public Builder authenticatedUserResolver(Supplier<AuthenticatedUser> authenticatedUserResolver) {
+
+            this.authenticatedUser = authenticatedUserResolver;
             return this;
         }
 
@@ -176,13 +239,68 @@ public class EventData {
 
         public Builder userId(String userId) {
 
-            this.userId = userId;
+            this.userId = eventData -> userId;
+            return this;
+        }
+
+        public Builder userIdResolver(Supplier<String> userIdResolver) {
+
+            this.userId = userIdResolver != null ? eventData -> userIdResolver.get() : null;
+            return this;
+        }
+
+        /**
+         * Set a resolver of the user id that derives it from the built event data, e.g. from its memoized
+         * authenticated user.
+         *
+         * @param userIdResolver Resolver receiving the built event data.
+         * @return Builder.
+         */
+        public Builder userIdResolver(Function<EventData, String> userIdResolver) {
+
+            this.userId = userIdResolver;
             return this;
         }
 
         public Builder tenantDomain(String tenantDomain) {
 
-            this.tenantDomain = tenantDomain;
+            this.tenantDomain = () -> tenantDomain;
+            return this;
+        }
+
+        public Builder tenantDomainResolver(Supplier<String> tenantDomainResolver) {
+
+            this.tenantDomain = tenantDomainResolver;
+            return this;
+        }
+
+        public Builder b2bUserLogin(boolean b2bUserLogin) {
+
+            this.b2bUserLogin = () -> b2bUserLogin;
+            return this;
+        }
+
+        public Builder b2bUserLoginResolver(Supplier<Boolean> b2bUserLoginResolver) {
+
+            this.b2bUserLogin = b2bUserLoginResolver;
+            return this;
+        }
+
+        public Builder sessionId(String sessionId) {
+
+            this.sessionId = () -> sessionId;
+            return this;
+        }
+
+        public Builder sessionIdResolver(Supplier<String> sessionIdResolver) {
+
+            this.sessionId = sessionIdResolver;
+            return this;
+        }
+
+        public Builder eventContextSnapshot(EventContextSnapshot eventContextSnapshot) {
+
+            this.eventContextSnapshot = () -> eventContextSnapshot;
             return this;
         }
 
@@ -197,4 +315,41 @@ public class EventData {
             return new EventData(this);
         }
     }
+
+    /**
+     * Thread safe holder of a value resolved on first access.
+     *
+     * @param <T> Type of the value.
+     */
+    private static final class Memoized<T> {
+
+        private Supplier<T> resolver;
+        private volatile boolean resolved;
+        private T value;
+
+        private Memoized(Supplier<T> resolver) {
+
+            this.resolver = resolver;
+        }
+
+        static <T> Memoized<T> of(Supplier<T> resolver) {
+
+            return resolver != null ? new Memoized<>(resolver) : null;
+        }
+
+        T get() {
+
+            if (!resolved) {
+                synchronized (this) {
+                    if (!resolved) {
+                        value = resolver.get();
+                        // Release the resolver, it may hold on to the event properties.
+                        resolver = null;
+                        resolved = true;
+                    }
+                }
+            }
+            return value;
+        }
+    }
 }
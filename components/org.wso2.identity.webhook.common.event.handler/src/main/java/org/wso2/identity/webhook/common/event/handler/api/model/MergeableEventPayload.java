@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.webhook.common.event.handler.api.model;
+
+import org.wso2.carbon.identity.event.publisher.api.model.EventPayload;
+
+/**
+ * This interface is implemented by event payloads that can be merged with a later payload of the same event type and
+ * subject, when the events are coalesced. Payloads that do not implement it are replaced by the later payload.
+ */
+public interface MergeableEventPayload {
+
+    /**
+     * Merge this payload with a later payload of the same event type and subject.
+     *
+     * @param laterEventPayload Payload of the later event.
+     * @return Payload describing both events.
+     */
+    EventPayload merge(EventPayload laterEventPayload);
+}
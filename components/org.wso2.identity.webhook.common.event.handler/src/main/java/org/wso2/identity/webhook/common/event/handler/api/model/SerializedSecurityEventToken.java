@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.webhook.common.event.handler.api.model;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.wso2.carbon.identity.event.IdentityEventException;
+import org.wso2.carbon.identity.event.publisher.api.model.SecurityEventTokenPayload;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Security event token serialized to JSON once, for publishers sending the same token to several subscribers or
+ * adapters.
+ * <p>
+ * The token is serialized on the first request of its bytes with a shared object mapper, the serializers of which are
+ * built once per type instead of once per token. The UTF-8 bytes are cached and shared by all later requests, so they
+ * must not be modified.
+ */
+public class SerializedSecurityEventToken {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final SecurityEventTokenPayload securityEventTokenPayload;
+    private volatile byte[] bytes;
+
+    public SerializedSecurityEventToken(SecurityEventTokenPayload securityEventTokenPayload) {
+
+        this.securityEventTokenPayload = securityEventTokenPayload;
+    }
+
+    public SecurityEventTokenPayload getSecurityEventTokenPayload() {
+
+        return securityEventTokenPayload;
+    }
+
+    /**
+     * Get the UTF-8 JSON bytes of the token, serializing it if not serialized yet.
+     *
+     * @return JSON bytes of the token, shared by all callers.
+     * @throws IdentityEventException If the token cannot be serialized.
+     */
+    public byte[] getBytes() throws IdentityEventException {
+
+        byte[] serialized = bytes;
+        if (serialized == null) {
+            synchronized (this) {
+                serialized = bytes;
+                if (serialized == null) {
+                    try {
+                        serialized = OBJECT_MAPPER.writeValueAsBytes(securityEventTokenPayload);
+                    } catch (JsonProcessingException e) {
+                        throw new IdentityEventException("Error while serializing the security event token.", e);
+                    }
+                    bytes = serialized;
+                }
+            }
+        }
+        return serialized;
+    }
+
+    /**
+     * Write the UTF-8 JSON bytes of the token to the given stream.
+     *
+     * @param outputStream Stream to write to.
+     * @throws IdentityEventException If the token cannot be serialized.
+     * @throws IOException            If the bytes cannot be written.
+     */
+    public void writeTo(OutputStream outputStream) throws IdentityEventException, IOException {
+
+        outputStream.write(getBytes());
+    }
+
+    /**
+     * Get the size of the serialized token.
+     *
+     * @return Size of the token in bytes.
+     * @throws IdentityEventException If the token cannot be serialized.
+     */
+    public int getSize() throws IdentityEventException {
+
+        return getBytes().length;
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.webhook.common.event.handler.api.service;
+
+import org.wso2.carbon.identity.event.publisher.api.exception.EventPublisherException;
+import org.wso2.carbon.identity.event.publisher.api.model.EventContext;
+import org.wso2.carbon.identity.event.publisher.api.model.SecurityEventTokenPayload;
+
+import java.util.List;
+
+/**
+ * This interface is implemented by event publisher services that can publish a batch of security event tokens in a
+ * single call. Tokens are only batched for publisher services implementing it, and other publisher services receive
+ * each token as it is published.
+ */
+public interface BatchEventPublisher {
+
+    /**
+     * Publish a batch of security event tokens of the same tenant, channel and event profile.
+     *
+     * @param securityEventTokenPayloads Security event tokens in the order they were published.
+     * @param eventContext               Event context shared by all the tokens of the batch.
+     * @throws EventPublisherException If the batch could not be published.
+     */
+    void publish(List<SecurityEventTokenPayload> securityEventTokenPayloads, EventContext eventContext)
+            throws EventPublisherException;
+}
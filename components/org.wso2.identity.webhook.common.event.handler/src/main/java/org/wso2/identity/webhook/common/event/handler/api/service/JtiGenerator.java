@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.identity.webhook.common.event.handler.api.service;
+
+/**
+ * This interface is implemented by services generating the identifiers (jti) of the security event tokens. A
+ * registered generator replaces the configured built in generator.
+ * <p>
+ * The generator is called once for each security event token, by the threads publishing events concurrently, so it
+ * must be thread safe and should not block.
+ */
+public interface JtiGenerator {
+
+    /**
+     * Generate a unique identifier for a security event token.
+     *
+     * @return Identifier of the token.
+     */
+    String generate();
+}
@@ -0,0 +1,268 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.webhook.common.event.handler.api.util;
+
+import org.apache.commons.lang.StringUtils;
+import org.wso2.carbon.identity.core.URLBuilderException;
+import org.wso2.carbon.identity.core.context.model.Organization;
+import org.wso2.identity.webhook.common.event.handler.api.model.EventContextSnapshot;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache of the service URLs of the event payloads, such as the issuer URL of the security event tokens and the prefix
+ * of the SCIM2 user references.
+ * <p>
+ * A service URL depends only on the tenant and the organization the event is fired in, so it is built once per
+ * root tenant domain, sub organization and URL name, and the URLs of an event are built by appending to the cached
+ * URL. All service URLs are keyed by the same rule, see {@link #getURL(EventContextSnapshot, String, URLResolver)}.
+ * <p>
+ * No configuration change hook invalidates the cache. The hostname and the proxy configuration the URLs are built
+ * from are read at server startup, and a change made at runtime is only seen once a cached URL outlives the
+ * configured time to live. {@link #invalidate()} discards all cached URLs for callers changing the URL configuration
+ * programmatically. The number of cached URLs is bounded.
+ */
+public class ServiceURLCache {
+
+    public static final long DEFAULT_TTL_SECONDS = 300;
+    public static final int DEFAULT_MAX_ENTRIES = 1000;
+
+    private static final ServiceURLCache instance = new ServiceURLCache();
+
+    private final Map<Key, Entry> urls = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private volatile long ttlMillis = TimeUnit.SECONDS.toMillis(DEFAULT_TTL_SECONDS);
+    private volatile int maxEntries = DEFAULT_MAX_ENTRIES;
+
+    public static ServiceURLCache getInstance() {
+
+        return instance;
+    }
+
+    /**
+     * Get the service URL of the given name in the context the event is fired in, building it with the given resolver
+     * if absent or expired. The URL is keyed by the root tenant domain and, for an event fired in a sub organization,
+     * the organization id. Without a root tenant domain, the URL is built and not cached.
+     *
+     * @param eventContextSnapshot Context the event is fired in.
+     * @param name                 Name of the URL, such as the endpoint it points to.
+     * @param resolver             Resolver building the URL.
+     * @return Service URL.
+     * @throws URLBuilderException If the URL cannot be built.
+     */
+    public String getURL(EventContextSnapshot eventContextSnapshot, String name, URLResolver resolver)
+            throws URLBuilderException {
+
+        String rootTenantDomain = eventContextSnapshot.getRootTenantDomain();
+        if (StringUtils.isBlank(rootTenantDomain)) {
+            missCount.increment();
+            return resolver.resolve();
+        }
+        return getURL(rootTenantDomain, getOrganizationId(eventContextSnapshot), name, resolver);
+    }
+
+    /**
+     * Get the id of the sub organization the event is fired in, which the service URLs are keyed by.
+     *
+     * @param eventContextSnapshot Context the event is fired in.
+     * @return Organization id, or null if the event is fired in a root organization.
+     */
+    public static String getOrganizationId(EventContextSnapshot eventContextSnapshot) {
+
+        Organization organization = eventContextSnapshot.getOrganization();
+        if (organization == null || organization.getDepth() == 0 || StringUtils.isBlank(organization.getId())) {
+            return null;
+        }
+        return organization.getId();
+    }
+
+    /**
+     * Get the service URL of the given name in the given tenant and organization, building it with the given resolver
+     * if absent or expired. A URL resolved to null is not cached.
+     *
+     * @param tenantDomain     Tenant domain, such as the root tenant domain of the issuer URL.
+     * @param organizationId   Organization id, or null if the event is not fired in an organization.
+     * @param name             Name of the URL, such as the endpoint it points to.
+     * @param resolver         Resolver building the URL.
+     * @return Service URL.
+     * @throws URLBuilderException If the URL cannot be built.
+     */
+    public String getURL(String tenantDomain, String organizationId, String name, URLResolver resolver)
+            throws URLBuilderException {
+
+        Key key = new Key(tenantDomain, organizationId, name);
+        Entry entry = urls.get(key);
+        if (isValid(entry)) {
+            hitCount.increment();
+            return entry.url;
+        }
+
+        missCount.increment();
+        long resolvedGeneration = generation.get();
+        String url = resolver.resolve();
+        // Do not keep a URL built across an invalidation, it may be built from a stale configuration.
+        if (url != null && resolvedGeneration == generation.get()) {
+            evictIfFull(key);
+            urls.put(key, new Entry(url, System.currentTimeMillis()));
+        }
+        return url;
+    }
+
+    /**
+     * Discard all cached URLs. They are built again on the next lookup.
+     */
+    public void invalidate() {
+
+        generation.incrementAndGet();
+        urls.clear();
+    }
+
+    /**
+     * Set the time to live of a cached URL.
+     *
+     * @param ttlMillis Time to live in milliseconds. A non-positive value disables expiry.
+     */
+    public void setTtl(long ttlMillis) {
+
+        this.ttlMillis = ttlMillis;
+    }
+
+    public long getTtl() {
+
+        return ttlMillis;
+    }
+
+    /**
+     * Set the maximum number of cached URLs.
+     *
+     * @param maxEntries Maximum number of cached URLs.
+     */
+    public void setMaxEntries(int maxEntries) {
+
+        this.maxEntries = Math.max(maxEntries, 1);
+    }
+
+    public long getHitCount() {
+
+        return hitCount.sum();
+    }
+
+    public long getMissCount() {
+
+        return missCount.sum();
+    }
+
+    public int size() {
+
+        return urls.size();
+    }
+
+    private void evictIfFull(Key key) {
+
+        if (urls.size() < maxEntries || urls.containsKey(key)) {
+            return;
+        }
+        // Evict an arbitrary URL, which is built again on its next lookup.
+        Iterator<Key> iterator = urls.keySet().iterator();
+        if (iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    private boolean isValid(Entry entry) {
+
+        if (entry == null) {
+            return false;
+        }
+        long ttl = ttlMillis;
+        return ttl <= 0 || System.currentTimeMillis() - entry.cachedTime < ttl;
+    }
+
+    /**
+     * Resolver building a service URL.
+     */
+    @FunctionalInterface
+    public interface URLResolver {
+
+        String resolve() throws URLBuilderException;
+    }
+
+    /**
+     * Tenant, organization and name of a cached URL.
+     */
+    private static final class Key {
+
+        private final String tenantDomain;
+        private final String organizationId;
+        private final String name;
+        private final int hashCode;
+
+        Key(String tenantDomain, String organizationId, String name) {
+
+            this.tenantDomain = tenantDomain;
+            this.organizationId = organizationId;
+            this.name = name;
+            this.hashCode = Objects.hash(tenantDomain, organizationId, name);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return Objects.equals(tenantDomain, key.tenantDomain) &&
+                    Objects.equals(organizationId, key.organizationId) && Objects.equals(name, key.name);
+        }
+
+        @Override
+        public int hashCode() {
+
+            return hashCode;
+        }
+    }
+
+    /**
+     * Cached URL.
+     */
+    private static final class Entry {
+
+        private final String url;
+        private final long cachedTime;
+
+        Entry(String url, long cachedTime) {
+
+            this.url = url;
+            this.cachedTime = cachedTime;
+        }
+    }
+}
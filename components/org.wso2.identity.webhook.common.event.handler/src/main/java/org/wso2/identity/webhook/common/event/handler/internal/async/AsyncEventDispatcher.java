@@ -0,0 +1,502 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.webhook.common.event.handler.internal.async;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.event.IdentityEventException;
+import org.wso2.carbon.identity.event.event.Event;
+import org.wso2.identity.webhook.common.event.handler.internal.routing.EventRouter;
+import org.wso2.identity.webhook.common.event.handler.internal.util.EventHookHandlerUtils;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Opt-in dispatcher that handles webhook events off the request thread.
+ * <p>
+ * The request thread only captures a {@link DetachedEvent} and enqueues it into the bounded lane of the event's
+ * {@link EventPriority}, resolved from the URIs of the event's routes through the {@link EventPriorityPolicy}. Each
+ * lane has its own queue and workers, so high volume events cannot delay security critical ones. When a lane is full, a
+ * high priority event overflows into the normal priority lane and a low priority event is shed, optionally keeping
+ * every n-th shed event. Any other event, and a kept low priority event, overflows into a bounded spill queue with its
+ * own worker, and is dropped if the spill queue is full as well. Dropped events are counted by tenant and event. The
+ * request thread never waits for a lane, and never handles an event the lanes cannot take. When the dispatcher is not
+ * started or is shut down, all events are handled synchronously.
+ */
+public class AsyncEventDispatcher {
+
+    private static final Log log = LogFactory.getLog(AsyncEventDispatcher.class);
+    public static final int DEFAULT_QUEUE_SIZE = 1000;
+    public static final int DEFAULT_WORKER_COUNT = 4;
+    public static final long DEFAULT_SHUTDOWN_TIMEOUT_SECONDS = 10;
+    public static final int DEFAULT_SPILL_QUEUE_SIZE = 1000;
+    private static final String WORKER_THREAD_NAME_PREFIX = "webhook-event-worker-";
+    private static final String SPILL_LANE_NAME = "spill";
+    private static final String UNKNOWN_TENANT_DOMAIN = "unknown";
+
+    private final LongAdder submittedCount = new LongAdder();
+    private final LongAdder rejectedCount = new LongAdder();
+    private final LongAdder spilledCount = new LongAdder();
+    private final LongAdder completedCount = new LongAdder();
+    private final LongAdder failedCount = new LongAdder();
+    private final Map<String, Map<String, LongAdder>> droppedCounts = new ConcurrentHashMap<>();
+    private volatile Map<EventPriority, PriorityLane> lanes;
+    private volatile ThreadPoolExecutor spillExecutor;
+    private int spillQueueSize = DEFAULT_SPILL_QUEUE_SIZE;
+    private volatile EventPriorityPolicy eventPriorityPolicy = EventPriorityPolicy.getDefaultPolicy();
+    private long shutdownTimeoutMillis = TimeUnit.SECONDS.toMillis(DEFAULT_SHUTDOWN_TIMEOUT_SECONDS);
+
+    /**
+     * Start the lanes, sharing the given workers and queue capacity between the lanes by the default share of each
+     * priority. Events are handled synchronously until the dispatcher is started.
+     *
+     * @param workerCount           Number of worker threads.
+     * @param queueSize             Maximum number of events waiting for a worker.
+     * @param virtualThreads        Whether to run the workers on virtual threads, if supported by the runtime.
+     * @param shutdownTimeoutMillis Maximum time to wait for the queued events on shutdown, in milliseconds.
+     */
+    public synchronized void start(int workerCount, int queueSize, boolean virtualThreads,
+                                   long shutdownTimeoutMillis) {
+
+        start(LaneSettings.share(workerCount, queueSize), virtualThreads, shutdownTimeoutMillis);
+    }
+
+    /**
+     * Start the lanes with the given settings. Events are handled synchronously until the dispatcher is started.
+     *
+     * @param laneSettings          Settings of the lane of each priority. Lanes without settings get the default share
+     *                              of the default workers and queue capacity.
+     * @param virtualThreads        Whether to run the workers on virtual threads, if supported by the runtime.
+     * @param shutdownTimeoutMillis Maximum time to wait for the queued events on shutdown, in milliseconds.
+     */
+    public synchronized void start(Map<EventPriority, LaneSettings> laneSettings, boolean virtualThreads,
+                                   long shutdownTimeoutMillis) {
+
+        if (lanes != null) {
+            log.debug("Asynchronous event dispatcher is already started.");
+            return;
+        }
+        Map<EventPriority, LaneSettings> defaultLaneSettings =
+                LaneSettings.share(DEFAULT_WORKER_COUNT, DEFAULT_QUEUE_SIZE);
+        Map<EventPriority, PriorityLane> priorityLanes = new EnumMap<>(EventPriority.class);
+        for (EventPriority eventPriority : EventPriority.values()) {
+            LaneSettings settings = laneSettings.get(eventPriority);
+            if (settings == null) {
+                settings = defaultLaneSettings.get(eventPriority);
+            }
+            priorityLanes.put(eventPriority, new PriorityLane(eventPriority, settings,
+                    createThreadFactory(virtualThreads, eventPriority.name())));
+            if (log.isDebugEnabled()) {
+                log.debug("Started " + eventPriority + " priority event lane with " + settings.getWorkerCount() +
+                        " workers and a queue size of " + settings.getQueueSize() + ".");
+            }
+        }
+        this.shutdownTimeoutMillis = shutdownTimeoutMillis;
+        spillExecutor = createExecutor(1, spillQueueSize, createThreadFactory(virtualThreads, SPILL_LANE_NAME));
+        lanes = priorityLanes;
+    }
+
+    /**
+     * Set the size of the spill queue taking the events the lanes cannot take. Applied when the dispatcher is started.
+     *
+     * @param spillQueueSize Maximum number of events waiting in the spill queue.
+     */
+    public synchronized void setSpillQueueSize(int spillQueueSize) {
+
+        this.spillQueueSize = Math.max(spillQueueSize, 1);
+    }
+
+    /**
+     * Stop accepting events and wait for the queued events to be handled, up to the configured shutdown timeout.
+     * Events dispatched afterwards are handled synchronously by the caller.
+     */
+    public synchronized void shutdown() {
+
+        Map<EventPriority, PriorityLane> priorityLanes = lanes;
+        if (priorityLanes == null) {
+            return;
+        }
+        lanes = null;
+        Map<String, ThreadPoolExecutor> executors = new LinkedHashMap<>();
+        for (PriorityLane priorityLane : priorityLanes.values()) {
+            executors.put(priorityLane.eventPriority + " priority", priorityLane.executor);
+        }
+        executors.put(SPILL_LANE_NAME, spillExecutor);
+        spillExecutor = null;
+        for (ThreadPoolExecutor executor : executors.values()) {
+            executor.shutdown();
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(shutdownTimeoutMillis);
+        for (Map.Entry<String, ThreadPoolExecutor> executor : executors.entrySet()) {
+            try {
+                long remainingNanos = Math.max(deadline - System.nanoTime(), 0);
+                if (!executor.getValue().awaitTermination(remainingNanos, TimeUnit.NANOSECONDS)) {
+                    List<Runnable> dropped = executor.getValue().shutdownNow();
+                    log.warn("Asynchronous " + executor.getKey() + " event lane did not drain within " +
+                            shutdownTimeoutMillis + " ms. Dropped " + dropped.size() + " queued webhook events.");
+                }
+            } catch (InterruptedException e) {
+                executor.getValue().shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
+        log.debug("Asynchronous event dispatcher is shut down.");
+    }
+
+    public boolean isStarted() {
+
+        return lanes != null;
+    }
+
+    /**
+     * Set the policy classifying events into priority lanes.
+     *
+     * @param eventPriorityPolicy Event priority policy.
+     */
+    public void setEventPriorityPolicy(EventPriorityPolicy eventPriorityPolicy) {
+
+        this.eventPriorityPolicy = eventPriorityPolicy;
+    }
+
+    public EventPriorityPolicy getEventPriorityPolicy() {
+
+        return eventPriorityPolicy;
+    }
+
+    /**
+     * Enqueue the given event to be handled by a worker thread of the lane of its priority. If the lane is full, the
+     * event is shed if it is of low priority, or enqueued into the spill queue, or dropped if the spill queue is full.
+     *
+     * @param event     Event to handle.
+     * @param eventTask Task handling the event on the worker thread.
+     * @return True if the event is enqueued, shed or dropped, false if the dispatcher is not started and the event
+     * must be handled by the caller.
+     */
+    public boolean dispatch(Event event, DetachedEvent.EventTask eventTask) {
+
+        Map<EventPriority, PriorityLane> priorityLanes = lanes;
+        if (priorityLanes == null) {
+            return false;
+        }
+        EventPriority eventPriority =
+                eventPriorityPolicy.getPriority(EventRouter.getInstance().getRoutes(event.getEventName()));
+        DetachedEvent detachedEvent = DetachedEvent.capture(event);
+        Runnable task = () -> handle(detachedEvent, eventTask);
+        PriorityLane priorityLane = priorityLanes.get(eventPriority);
+        if (priorityLane.execute(task) ||
+                (eventPriority == EventPriority.HIGH && priorityLanes.get(EventPriority.NORMAL).execute(task))) {
+            submittedCount.increment();
+            return true;
+        }
+
+        if (priorityLane.executor.isShutdown()) {
+            // Shut down meanwhile. The event is handled by the caller, as the events dispatched after the shutdown.
+            return false;
+        }
+
+        rejectedCount.increment();
+        if (priorityLane.shouldShed()) {
+            recordDrop(event);
+            if (log.isDebugEnabled()) {
+                log.debug("Asynchronous " + eventPriority + " priority event lane is full. Shed event: " +
+                        event.getEventName());
+            }
+            return true;
+        }
+        ThreadPoolExecutor spill = spillExecutor;
+        if (spill != null && execute(spill, task)) {
+            spilledCount.increment();
+            return true;
+        }
+        recordDrop(event);
+        if (log.isDebugEnabled()) {
+            log.debug("Asynchronous " + eventPriority + " priority event lane and the spill queue are full. " +
+                    "Dropped event: " + event.getEventName());
+        }
+        return true;
+    }
+
+    public int getQueueDepth() {
+
+        int queueDepth = 0;
+        for (EventPriority eventPriority : EventPriority.values()) {
+            queueDepth += getQueueDepth(eventPriority);
+        }
+        return queueDepth + getSpillQueueDepth();
+    }
+
+    /**
+     * Get the number of events waiting in the lane of the given priority.
+     *
+     * @param eventPriority Event priority.
+     * @return Queue depth of the lane.
+     */
+    public int getQueueDepth(EventPriority eventPriority) {
+
+        Map<EventPriority, PriorityLane> priorityLanes = lanes;
+        return priorityLanes != null ? priorityLanes.get(eventPriority).executor.getQueue().size() : 0;
+    }
+
+    public int getSpillQueueDepth() {
+
+        ThreadPoolExecutor spill = spillExecutor;
+        return spill != null ? spill.getQueue().size() : 0;
+    }
+
+    public long getSpilledCount() {
+
+        return spilledCount.sum();
+    }
+
+    public long getSubmittedCount() {
+
+        return submittedCount.sum();
+    }
+
+    public long getRejectedCount() {
+
+        return rejectedCount.sum();
+    }
+
+    public long getCompletedCount() {
+
+        return completedCount.sum();
+    }
+
+    public long getFailedCount() {
+
+        return failedCount.sum();
+    }
+
+    /**
+     * Get the number of events of the given type dropped for the given tenant.
+     *
+     * @param tenantDomain Tenant domain.
+     * @param eventName    Event name.
+     * @return Dropped event count.
+     */
+    public long getDroppedCount(String tenantDomain, String eventName) {
+
+        Map<String, LongAdder> tenantDroppedCounts =
+                droppedCounts.get(tenantDomain != null ? tenantDomain : UNKNOWN_TENANT_DOMAIN);
+        LongAdder droppedCount = tenantDroppedCounts != null ? tenantDroppedCounts.get(eventName) : null;
+        return droppedCount != null ? droppedCount.sum() : 0;
+    }
+
+    /**
+     * Get the number of dropped events by tenant domain and event name.
+     *
+     * @return Dropped event counts.
+     */
+    public Map<String, Map<String, Long>> getDroppedCounts() {
+
+        Map<String, Map<String, Long>> counts = new HashMap<>();
+        for (Map.Entry<String, Map<String, LongAdder>> tenantEntry : droppedCounts.entrySet()) {
+            Map<String, Long> tenantCounts = new HashMap<>();
+            for (Map.Entry<String, LongAdder> eventEntry : tenantEntry.getValue().entrySet()) {
+                tenantCounts.put(eventEntry.getKey(), eventEntry.getValue().sum());
+            }
+            counts.put(tenantEntry.getKey(), Collections.unmodifiableMap(tenantCounts));
+        }
+        return Collections.unmodifiableMap(counts);
+    }
+
+    private void recordDrop(Event event) {
+
+        String tenantDomain = EventHookHandlerUtils.resolveTenantDomain(event);
+        droppedCounts.computeIfAbsent(tenantDomain != null ? tenantDomain : UNKNOWN_TENANT_DOMAIN,
+                        key -> new ConcurrentHashMap<>())
+                .computeIfAbsent(event.getEventName(), key -> new LongAdder())
+                .increment();
+    }
+
+    private void handle(DetachedEvent detachedEvent, DetachedEvent.EventTask eventTask) {
+
+        try {
+            detachedEvent.handle(eventTask);
+            completedCount.increment();
+        } catch (IdentityEventException | RuntimeException e) {
+            failedCount.increment();
+            log.warn("Error while handling webhook event: " + detachedEvent.getEvent().getEventName() +
+                    " asynchronously.", e);
+        }
+    }
+
+    private static boolean execute(ThreadPoolExecutor executor, Runnable task) {
+
+        try {
+            executor.execute(task);
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    private static ThreadPoolExecutor createExecutor(int workerCount, int queueSize, ThreadFactory threadFactory) {
+
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(workerCount, workerCount, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+        executor.prestartAllCoreThreads();
+        return executor;
+    }
+
+    private static ThreadFactory createThreadFactory(boolean virtualThreads, String laneName) {
+
+        String threadNamePrefix = WORKER_THREAD_NAME_PREFIX + laneName.toLowerCase(Locale.ENGLISH) + "-";
+        if (virtualThreads) {
+            ThreadFactory virtualThreadFactory = createVirtualThreadFactory(threadNamePrefix);
+            if (virtualThreadFactory != null) {
+                return virtualThreadFactory;
+            }
+        }
+        ThreadFactory defaultThreadFactory = Executors.defaultThreadFactory();
+        AtomicInteger threadCount = new AtomicInteger();
+        return runnable -> {
+            Thread thread = defaultThreadFactory.newThread(runnable);
+            thread.setName(threadNamePrefix + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static ThreadFactory createVirtualThreadFactory(String threadNamePrefix) {
+
+        // Resolved reflectively, as the bundle is compiled for runtimes without virtual threads.
+        try {
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderClass.getMethod("name", String.class, long.class)
+                    .invoke(builder, threadNamePrefix, 1L);
+            return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            log.debug("Virtual threads are not supported by the runtime. Using platform worker threads.");
+            return null;
+        }
+    }
+
+    /**
+     * Settings of the lane of a priority.
+     */
+    public static class LaneSettings {
+
+        private final int workerCount;
+        private final int queueSize;
+        private final int shedSampleInterval;
+
+        /**
+         * Create lane settings.
+         *
+         * @param workerCount        Number of worker threads of the lane.
+         * @param queueSize          Maximum number of events waiting in the lane.
+         * @param shedSampleInterval If positive, every n-th event of a low priority lane that would be shed is enqueued
+         *                           into the spill queue instead. If zero, all such events are dropped.
+         */
+        public LaneSettings(int workerCount, int queueSize, int shedSampleInterval) {
+
+            this.workerCount = Math.max(workerCount, 1);
+            this.queueSize = Math.max(queueSize, 1);
+            this.shedSampleInterval = Math.max(shedSampleInterval, 0);
+        }
+
+        /**
+         * Share the given workers and queue capacity between the lanes by the default share of each priority. Each
+         * lane gets at least one worker and a queue size of one.
+         *
+         * @param workerCount Total number of worker threads.
+         * @param queueSize   Total queue capacity.
+         * @return Settings of the lane of each priority.
+         */
+        public static Map<EventPriority, LaneSettings> share(int workerCount, int queueSize) {
+
+            Map<EventPriority, LaneSettings> laneSettings = new EnumMap<>(EventPriority.class);
+            for (EventPriority eventPriority : EventPriority.values()) {
+                laneSettings.put(eventPriority, new LaneSettings(
+                        (int) Math.round(workerCount * eventPriority.getDefaultShare()),
+                        (int) Math.round(queueSize * eventPriority.getDefaultShare()), 0));
+            }
+            return laneSettings;
+        }
+
+        public int getWorkerCount() {
+
+            return workerCount;
+        }
+
+        public int getQueueSize() {
+
+            return queueSize;
+        }
+
+        public int getShedSampleInterval() {
+
+            return shedSampleInterval;
+        }
+    }
+
+    /**
+     * Bounded lane of a priority.
+     */
+    private static class PriorityLane {
+
+        private final EventPriority eventPriority;
+        private final ThreadPoolExecutor executor;
+        private final int shedSampleInterval;
+        private final AtomicLong shedCandidateCount = new AtomicLong();
+
+        PriorityLane(EventPriority eventPriority, LaneSettings laneSettings, ThreadFactory threadFactory) {
+
+            this.eventPriority = eventPriority;
+            this.shedSampleInterval = laneSettings.getShedSampleInterval();
+            this.executor = createExecutor(laneSettings.getWorkerCount(), laneSettings.getQueueSize(), threadFactory);
+        }
+
+        boolean execute(Runnable task) {
+
+            return AsyncEventDispatcher.execute(executor, task);
+        }
+
+        /**
+         * Whether an event rejected by the lane should be dropped rather than enqueued into the spill queue. Only low
+         * priority events are shed.
+         */
+        boolean shouldShed() {
+
+            if (eventPriority != EventPriority.LOW) {
+                return false;
+            }
+            return shedSampleInterval == 0 || shedCandidateCount.incrementAndGet() % shedSampleInterval != 0;
+        }
+    }
+}
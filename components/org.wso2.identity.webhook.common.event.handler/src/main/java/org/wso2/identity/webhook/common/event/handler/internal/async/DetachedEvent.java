@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.webhook.common.event.handler.internal.async;
+
+import org.wso2.carbon.identity.application.authentication.framework.context.AuthenticationContext;
+import org.wso2.carbon.identity.event.IdentityEventException;
+import org.wso2.carbon.identity.event.event.Event;
+import org.wso2.identity.webhook.common.event.handler.internal.constant.Constants;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Copy of an event and the thread local context of the request thread it was fired in.
+ * <p>
+ * The event properties, the event parameters and the {@link RequestThreadContext} are captured on the request thread,
+ * and the context is restored on the worker thread for the duration of the event handling, so the handlers and
+ * payload builders see the same context as in a synchronous handling. The mutable objects bound to the request, such
+ * as the authentication context, the authenticated user and the session context, are copied on the request thread as
+ * well, see {@link RequestBoundObjects}, so the worker reads them as they were when the event was fired.
+ */
+public class DetachedEvent {
+
+    private final Event event;
+    private final RequestThreadContext requestThreadContext;
+
+    private DetachedEvent(Event event) {
+
+        this.event = new Event(event.getEventName(), copyProperties(event.getEventProperties()));
+        this.requestThreadContext = RequestThreadContext.capture();
+    }
+
+    /**
+     * Capture the given event and the context of the current thread.
+     *
+     * @param event Event to capture.
+     * @return Detached event.
+     */
+    public static DetachedEvent capture(Event event) {
+
+        return new DetachedEvent(event);
+    }
+
+    public Event getEvent() {
+
+        return event;
+    }
+
+    /**
+     * Handle the captured event with the captured context restored on the current thread. The context of the current
+     * thread is cleared afterwards.
+     *
+     * @param eventTask Task handling the event.
+     * @throws IdentityEventException If the event handling fails.
+     */
+    public void handle(EventTask eventTask) throws IdentityEventException {
+
+        try {
+            requestThreadContext.restore();
+            eventTask.handle(event);
+        } finally {
+            requestThreadContext.clear();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> copyProperties(Map<String, Object> properties) {
+
+        if (properties == null) {
+            return null;
+        }
+        Map<String, Object> copy = copyValues(properties);
+        Map<String, Object> params = copy;
+        Object originalParams = properties.get(Constants.EventDataProperties.PARAMS);
+        if (originalParams instanceof Map) {
+            params = copyValues((Map<String, Object>) originalParams);
+            copy.put(Constants.EventDataProperties.PARAMS, params);
+        }
+        // The session id is resolved from the authentication context, which may get a new session afterwards.
+        Object authenticationContext = properties.get(Constants.EventDataProperties.CONTEXT);
+        if (authenticationContext instanceof AuthenticationContext &&
+                params.get(Constants.EventDataProperties.SESSION_ID) == null) {
+            String sessionId = ((AuthenticationContext) authenticationContext).getSessionIdentifier();
+            if (sessionId != null) {
+                params.put(Constants.EventDataProperties.SESSION_ID, sessionId);
+            }
+        }
+        return copy;
+    }
+
+    private static Map<String, Object> copyValues(Map<String, Object> values) {
+
+        Map<String, Object> copy = new HashMap<>(values.size());
+        for (Map.Entry<String, Object> value : values.entrySet()) {
+            copy.put(value.getKey(), RequestBoundObjects.detach(value.getValue()));
+        }
+        return copy;
+    }
+
+    /**
+     * Handling of an event.
+     */
+    @FunctionalInterface
+    public interface EventTask {
+
+        /**
+         * Handle the event.
+         *
+         * @param event Event.
+         * @throws IdentityEventException If the event handling fails.
+         */
+        void handle(Event event) throws IdentityEventException;
+    }
+}
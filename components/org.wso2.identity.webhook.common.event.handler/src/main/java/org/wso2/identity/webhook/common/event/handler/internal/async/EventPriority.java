@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.webhook.common.event.handler.internal.async;
+
+/**
+ * Priority classes of webhook events. Each class is handled in its own lane of the {@link AsyncEventDispatcher}.
+ */
+public enum EventPriority {
+
+    /**
+     * Security critical events, such as session revocations, credential updates and account locks. Never shed.
+     */
+    HIGH(0.25),
+
+    /**
+     * Events not classified as high or low priority.
+     */
+    NORMAL(0.5),
+
+    /**
+     * High volume events of low value, such as token issuance and session presentation. Shed first.
+     */
+    LOW(0.25);
+
+    private final double defaultShare;
+
+    EventPriority(double defaultShare) {
+
+        this.defaultShare = defaultShare;
+    }
+
+    /**
+     * Get the share of the configured workers and queue capacity the lane of this priority gets by default.
+     *
+     * @return Default share between 0 and 1.
+     */
+    public double getDefaultShare() {
+
+        return defaultShare;
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.webhook.common.event.handler.internal.async;
+
+import org.wso2.identity.webhook.common.event.handler.api.constants.Constants;
+import org.wso2.identity.webhook.common.event.handler.internal.routing.EventRoute;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable mapping of event URIs to the priority classes of the {@link AsyncEventDispatcher} lanes. Event URIs that
+ * are not mapped belong to the {@link EventPriority#NORMAL} class.
+ */
+public class EventPriorityPolicy {
+
+    private static final List<String> DEFAULT_HIGH_PRIORITY_EVENT_URIS = Collections.unmodifiableList(Arrays.asList(
+            Constants.Event.SESSION_REVOKED_EVENT,
+            Constants.Event.POST_UPDATE_USER_CREDENTIAL,
+            Constants.Event.POST_LOCK_ACCOUNT_EVENT,
+            Constants.Event.POST_ACCOUNT_DISABLE_EVENT,
+            Constants.Event.POST_DELETE_USER_EVENT,
+            Constants.Event.TOKEN_REVOKED_EVENT));
+    private static final List<String> DEFAULT_LOW_PRIORITY_EVENT_URIS = Collections.unmodifiableList(Arrays.asList(
+            Constants.Event.TOKEN_ISSUED_EVENT,
+            Constants.Event.SESSION_PRESENTED_EVENT));
+    private static final EventPriorityPolicy DEFAULT_POLICY = new EventPriorityPolicy(
+            buildEventPriorities(DEFAULT_HIGH_PRIORITY_EVENT_URIS, DEFAULT_LOW_PRIORITY_EVENT_URIS));
+
+    private final Map<String, EventPriority> eventPriorities;
+
+    private EventPriorityPolicy(Map<String, EventPriority> eventPriorities) {
+
+        this.eventPriorities = Collections.unmodifiableMap(eventPriorities);
+    }
+
+    /**
+     * Get the default policy, which classifies revocations, credential updates, account locks and disables, and user
+     * deletions as high priority, and token issuance and session presentation as low priority.
+     *
+     * @return Default event priority policy.
+     */
+    public static EventPriorityPolicy getDefaultPolicy() {
+
+        return DEFAULT_POLICY;
+    }
+
+    /**
+     * Create a policy from the given high and low priority event URIs. A priority class that is not configured, i.e.
+     * whose URIs are null or empty, keeps the URIs of the default policy, so configuring only one class does not drop
+     * the defaults of the other. If a URI is in both classes, it is high priority.
+     *
+     * @param highPriorityEventUris High priority event URIs, or null or empty to keep the defaults.
+     * @param lowPriorityEventUris  Low priority event URIs, or null or empty to keep the defaults.
+     * @return Event priority policy.
+     */
+    public static EventPriorityPolicy of(Collection<String> highPriorityEventUris,
+                                         Collection<String> lowPriorityEventUris) {
+
+        if ((highPriorityEventUris == null || highPriorityEventUris.isEmpty()) &&
+                (lowPriorityEventUris == null || lowPriorityEventUris.isEmpty())) {
+            return DEFAULT_POLICY;
+        }
+        return new EventPriorityPolicy(buildEventPriorities(
+                highPriorityEventUris == null || highPriorityEventUris.isEmpty() ?
+                        DEFAULT_HIGH_PRIORITY_EVENT_URIS : highPriorityEventUris,
+                lowPriorityEventUris == null || lowPriorityEventUris.isEmpty() ?
+                        DEFAULT_LOW_PRIORITY_EVENT_URIS : lowPriorityEventUris));
+    }
+
+    /**
+     * Get the priority of the given event URI.
+     *
+     * @param eventUri Event URI.
+     * @return Priority of the event URI.
+     */
+    public EventPriority getPriority(String eventUri) {
+
+        EventPriority eventPriority = eventUri != null ? eventPriorities.get(eventUri) : null;
+        return eventPriority != null ? eventPriority : EventPriority.NORMAL;
+    }
+
+    /**
+     * Get the highest priority of the event URIs of the given routes.
+     *
+     * @param eventRoutes Routes of an event.
+     * @return Highest priority among the routes, or {@link EventPriority#NORMAL} if there are no routes.
+     */
+    public EventPriority getPriority(List<EventRoute> eventRoutes) {
+
+        if (eventRoutes.isEmpty()) {
+            return EventPriority.NORMAL;
+        }
+        EventPriority highestPriority = EventPriority.LOW;
+        for (EventRoute eventRoute : eventRoutes) {
+            EventPriority eventPriority = getPriority(eventRoute.getEventUri());
+            if (eventPriority.ordinal() < highestPriority.ordinal()) {
+                highestPriority = eventPriority;
+            }
+        }
+        return highestPriority;
+    }
+
+    private static Map<String, EventPriority> buildEventPriorities(Collection<String> highPriorityEventUris,
+                                                                   Collection<String> lowPriorityEventUris) {
+
+        Map<String, EventPriority> eventPriorities = new HashMap<>();
+        for (String eventUri : lowPriorityEventUris) {
+            eventPriorities.put(eventUri, EventPriority.LOW);
+        }
+        for (String eventUri : highPriorityEventUris) {
+            eventPriorities.put(eventUri, EventPriority.HIGH);
+        }
+        return eventPriorities;
+    }
+}
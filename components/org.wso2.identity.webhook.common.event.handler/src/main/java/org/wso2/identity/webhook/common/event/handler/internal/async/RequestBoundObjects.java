@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.webhook.common.event.handler.internal.async;
+
+import org.wso2.carbon.identity.application.authentication.framework.context.AuthHistory;
+import org.wso2.carbon.identity.application.authentication.framework.context.AuthenticationContext;
+import org.wso2.carbon.identity.application.authentication.framework.context.SessionContext;
+import org.wso2.carbon.identity.application.authentication.framework.model.AuthenticatedUser;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * Copies of the mutable objects an event carries that are bound to its request.
+ * <p>
+ * The request keeps changing the authentication context, the authenticated user and the session context after the
+ * event is fired, so a {@link DetachedEvent} carries copies of them, taken on the request thread, with the fields the
+ * handlers and payload builders read: the subject and its id, username, user store domain and claims, the session id,
+ * the application, the identity providers and the authentication steps. The servlet request is recycled once the
+ * request completes, so it is not carried at all. Other values, such as the user store manager of the tenant, are not
+ * bound to the request and are shared.
+ */
+final class RequestBoundObjects {
+
+    private RequestBoundObjects() {
+
+    }
+
+    /**
+     * Get the value to carry to the worker thread in place of the given event property value.
+     *
+     * @param value Event property value.
+     * @return Copy of the value if it is bound to the request, null if it must not outlive the request, otherwise
+     * the value.
+     */
+    static Object detach(Object value) {
+
+        if (value instanceof AuthenticationContext) {
+            return copy((AuthenticationContext) value);
+        }
+        if (value instanceof AuthenticatedUser) {
+            return copy((AuthenticatedUser) value);
+        }
+        if (value instanceof SessionContext) {
+            return copy((SessionContext) value);
+        }
+        if (value instanceof HttpServletRequest) {
+            return null;
+        }
+        return value;
+    }
+
+    static AuthenticationContext copy(AuthenticationContext authenticationContext) {
+
+        AuthenticationContext copy = new AuthenticationContext();
+        copy.setTenantDomain(authenticationContext.getTenantDomain());
+        copy.setLoginTenantDomain(authenticationContext.getLoginTenantDomain());
+        copy.setServiceProviderName(authenticationContext.getServiceProviderName());
+        copy.setServiceProviderResourceId(authenticationContext.getServiceProviderResourceId());
+        copy.setPassiveAuthenticate(authenticationContext.isPassiveAuthenticate());
+        copy.setSelectedAcr(authenticationContext.getSelectedAcr());
+        copy.setSubject(copy(authenticationContext.getSubject()));
+        copy.setExternalIdP(authenticationContext.getExternalIdP());
+        copy.setCurrentStep(authenticationContext.getCurrentStep());
+        copy.setCurrentAuthenticator(authenticationContext.getCurrentAuthenticator());
+        if (authenticationContext.getCurrentAuthenticatedIdPs() != null) {
+            copy.setCurrentAuthenticatedIdPs(new HashMap<>(authenticationContext.getCurrentAuthenticatedIdPs()));
+        }
+        if (authenticationContext.getAuthenticationStepHistory() != null) {
+            for (AuthHistory authHistory : authenticationContext.getAuthenticationStepHistory()) {
+                copy.addAuthenticationStepHistory(authHistory);
+            }
+        }
+        if (authenticationContext.getParameters() != null) {
+            copy.addParameters(copyParameters(authenticationContext.getParameters()));
+        }
+        return copy;
+    }
+
+    static AuthenticatedUser copy(AuthenticatedUser authenticatedUser) {
+
+        if (authenticatedUser == null) {
+            return null;
+        }
+        AuthenticatedUser copy = new AuthenticatedUser(authenticatedUser);
+        if (authenticatedUser.getUserAttributes() != null) {
+            copy.setUserAttributes(new HashMap<>(authenticatedUser.getUserAttributes()));
+        }
+        return copy;
+    }
+
+    static SessionContext copy(SessionContext sessionContext) {
+
+        SessionContext copy = new SessionContext();
+        if (sessionContext.getProperties() != null) {
+            for (Map.Entry<String, Object> property : sessionContext.getProperties().entrySet()) {
+                copy.addProperty(property.getKey(), detach(property.getValue()));
+            }
+        }
+        return copy;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Serializable> copyParameters(Map<String, Serializable> parameters) {
+
+        // The parameters read by the payload builders, such as the claim mappings and the error data, are maps.
+        Map<String, Serializable> copy = new HashMap<>();
+        for (Map.Entry<String, Serializable> parameter : parameters.entrySet()) {
+            Serializable value = parameter.getValue();
+            copy.put(parameter.getKey(), value instanceof HashMap ? new HashMap<>((HashMap<Object, Object>) value) :
+                    value);
+        }
+        return copy;
+    }
+}
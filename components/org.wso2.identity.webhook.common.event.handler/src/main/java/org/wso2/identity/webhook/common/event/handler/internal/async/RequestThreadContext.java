@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.webhook.common.event.handler.internal.async;
+
+import org.slf4j.MDC;
+import org.wso2.carbon.context.PrivilegedCarbonContext;
+import org.wso2.carbon.identity.core.context.IdentityContext;
+import org.wso2.carbon.identity.core.context.model.Flow;
+import org.wso2.carbon.identity.core.context.model.Organization;
+import org.wso2.carbon.identity.core.context.model.RootOrganization;
+import org.wso2.carbon.identity.core.util.IdentityUtil;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import static org.wso2.carbon.identity.application.authentication.framework.util.FrameworkUtils.CORRELATION_ID_MDC;
+
+/**
+ * Thread local context of a request thread, captured to be restored on another thread.
+ * <p>
+ * Holds the tenant and username of the carbon context, the flow and organizations of the identity context, the
+ * correlation id and the identity thread local properties, which the handlers, payload builders and event publishers
+ * read from the thread they run on.
+ */
+public final class RequestThreadContext {
+
+    private final String tenantDomain;
+    private final int tenantId;
+    private final String username;
+    private final Flow flow;
+    private final Organization organization;
+    private final RootOrganization rootOrganization;
+    private final String correlationId;
+    private final Map<String, Object> threadLocalProperties;
+
+    private RequestThreadContext() {
+
+        PrivilegedCarbonContext carbonContext = PrivilegedCarbonContext.getThreadLocalCarbonContext();
+        this.tenantDomain = carbonContext.getTenantDomain();
+        this.tenantId = carbonContext.getTenantId();
+        this.username = carbonContext.getUsername();
+
+        IdentityContext identityContext = IdentityContext.getThreadLocalIdentityContext();
+        this.flow = identityContext.getCurrentFlow();
+        this.organization = identityContext.getOrganization();
+        this.rootOrganization = identityContext.getRootOrganization();
+
+        this.correlationId = MDC.get(CORRELATION_ID_MDC);
+        Map<String, Object> properties = IdentityUtil.threadLocalProperties.get();
+        this.threadLocalProperties = properties != null && !properties.isEmpty() ?
+                Collections.unmodifiableMap(new HashMap<>(properties)) : Collections.emptyMap();
+    }
+
+    /**
+     * Capture the context of the current thread.
+     *
+     * @return Captured context.
+     */
+    public static RequestThreadContext capture() {
+
+        return new RequestThreadContext();
+    }
+
+    /**
+     * Restore the captured context on the current thread. Must be followed by {@link #clear()}.
+     */
+    public void restore() {
+
+        PrivilegedCarbonContext.startTenantFlow();
+        PrivilegedCarbonContext carbonContext = PrivilegedCarbonContext.getThreadLocalCarbonContext();
+        carbonContext.setTenantDomain(tenantDomain);
+        carbonContext.setTenantId(tenantId);
+        carbonContext.setUsername(username);
+
+        IdentityContext identityContext = IdentityContext.getThreadLocalIdentityContext();
+        if (rootOrganization != null) {
+            identityContext.setRootOrganization(rootOrganization);
+        }
+        if (organization != null) {
+            identityContext.setOrganization(organization);
+        }
+        if (flow != null) {
+            identityContext.enterFlow(flow);
+        }
+        if (correlationId != null) {
+            MDC.put(CORRELATION_ID_MDC, correlationId);
+        }
+        IdentityUtil.threadLocalProperties.get().putAll(threadLocalProperties);
+    }
+
+    /**
+     * Clear the context of the current thread restored by {@link #restore()}.
+     */
+    public void clear() {
+
+        IdentityUtil.threadLocalProperties.remove();
+        MDC.remove(CORRELATION_ID_MDC);
+        IdentityContext.destroyCurrentContext();
+        PrivilegedCarbonContext.endTenantFlow();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof RequestThreadContext)) {
+            return false;
+        }
+        RequestThreadContext that = (RequestThreadContext) o;
+        return tenantId == that.tenantId &&
+                Objects.equals(tenantDomain, that.tenantDomain) &&
+                Objects.equals(username, that.username) &&
+                Objects.equals(flow, that.flow) &&
+                Objects.equals(organization, that.organization) &&
+                Objects.equals(rootOrganization, that.rootOrganization) &&
+                Objects.equals(correlationId, that.correlationId) &&
+                Objects.equals(threadLocalProperties, that.threadLocalProperties);
+    }
+
+    @Override
+    public int hashCode() {
+
+        return Objects.hash(tenantDomain, tenantId, username, flow, organization, rootOrganization, correlationId);
+    }
+}
@@ -0,0 +1,438 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.webhook.common.event.handler.internal.batch;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.event.publisher.api.exception.EventPublisherException;
+import org.wso2.carbon.identity.event.publisher.api.model.EventContext;
+import org.wso2.carbon.identity.event.publisher.api.model.SecurityEventTokenPayload;
+import org.wso2.carbon.identity.event.publisher.api.service.EventPublisherService;
+import org.wso2.identity.webhook.common.event.handler.api.service.BatchEventPublisher;
+import org.wso2.identity.webhook.common.event.handler.internal.async.RequestThreadContext;
+import org.wso2.identity.webhook.common.event.handler.internal.component.EventHookHandlerDataHolder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Opt-in stage that batches the security event tokens published for the same tenant, channel and event profile.
+ * <p>
+ * Tokens are batched only if the publisher service implements {@link BatchEventPublisher}. A batch is flushed on the
+ * flusher thread once it reaches the maximum batch size, or once its oldest token has waited for the linger time, in
+ * one call per run of tokens with the same context, so the request threads never publish. The
+ * {@link RequestThreadContext} of the thread publishing each token is captured with the token, and restored while the
+ * token is published. Other publisher services gain nothing from a batch, and would publish the tokens of all tenants
+ * one by one on the flusher thread, so their tokens are published directly on the publishing thread, as are all
+ * tokens until the batcher is started. The latencies of each batch
+ * publish, and of each token from enqueue to publish, are recorded so the throughput gained can be weighed against
+ * the delay added.
+ */
+public class EventBatcher {
+
+    private static final Log log = LogFactory.getLog(EventBatcher.class);
+    public static final int DEFAULT_MAX_BATCH_SIZE = 50;
+    public static final long DEFAULT_LINGER_MILLIS = 20;
+    private static final String FLUSHER_THREAD_NAME = "webhook-event-batch-flusher";
+
+    private final Map<BatchKey, Batch> batches = new ConcurrentHashMap<>();
+    private final LatencyHistogram batchLatency = new LatencyHistogram();
+    private final LatencyHistogram eventLatency = new LatencyHistogram();
+    private final LongAdder batchCount = new LongAdder();
+    private final LongAdder publishedCount = new LongAdder();
+    private final LongAdder failedCount = new LongAdder();
+    private volatile ScheduledExecutorService flusher;
+    private volatile int maxBatchSize = DEFAULT_MAX_BATCH_SIZE;
+    private volatile long lingerNanos = TimeUnit.MILLISECONDS.toNanos(DEFAULT_LINGER_MILLIS);
+
+    /**
+     * Start batching. Tokens are published directly until the batcher is started.
+     *
+     * @param maxBatchSize Maximum number of tokens in a batch.
+     * @param lingerMillis Maximum time a token waits for its batch to fill, in milliseconds.
+     */
+    public synchronized void start(int maxBatchSize, long lingerMillis) {
+
+        if (flusher != null) {
+            log.debug("Event batcher is already started.");
+            return;
+        }
+        this.maxBatchSize = maxBatchSize;
+        this.lingerNanos = TimeUnit.MILLISECONDS.toNanos(lingerMillis);
+        ScheduledExecutorService scheduledExecutorService = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, FLUSHER_THREAD_NAME);
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduledExecutorService.scheduleWithFixedDelay(this::flushLingering, lingerMillis, lingerMillis,
+                TimeUnit.MILLISECONDS);
+        flusher = scheduledExecutorService;
+        if (log.isDebugEnabled()) {
+            log.debug("Started event batcher with a maximum batch size of " + maxBatchSize + " and a linger time of " +
+                    lingerMillis + " ms.");
+        }
+    }
+
+    /**
+     * Stop batching and flush all pending batches. Tokens published afterwards are published directly.
+     */
+    public synchronized void shutdown() {
+
+        ScheduledExecutorService scheduledExecutorService = flusher;
+        if (scheduledExecutorService == null) {
+            return;
+        }
+        flusher = null;
+        scheduledExecutorService.shutdown();
+        try {
+            scheduledExecutorService.awaitTermination(TimeUnit.NANOSECONDS.toMillis(lingerNanos) + 1000,
+                    TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (Map.Entry<BatchKey, Batch> entry : batches.entrySet()) {
+            Batch batch = entry.getValue();
+            List<PendingEvent> pendingEvents;
+            synchronized (batch) {
+                batch.closed = true;
+                pendingEvents = batch.drain();
+            }
+            batches.remove(entry.getKey(), batch);
+            flushInContext(batch, pendingEvents);
+        }
+        log.debug("Event batcher is shut down.");
+    }
+
+    public boolean isStarted() {
+
+        return flusher != null;
+    }
+
+    /**
+     * Publish the given security event token, either directly or as part of the batch of its tenant, channel and
+     * event profile.
+     *
+     * @param securityEventTokenPayload Security event token.
+     * @param eventContext              Event context.
+     * @throws EventPublisherException If the token is published directly and publishing fails.
+     */
+    public void publish(SecurityEventTokenPayload securityEventTokenPayload, EventContext eventContext)
+            throws EventPublisherException {
+
+        EventPublisherService eventPublisherService =
+                EventHookHandlerDataHolder.getInstance().getEventPublisherService();
+        if (!(eventPublisherService instanceof BatchEventPublisher)) {
+            // Publishing the tokens of all tenants one by one on the flusher thread would serialize them.
+            eventPublisherService.publish(securityEventTokenPayload, eventContext);
+            return;
+        }
+
+        BatchKey batchKey = new BatchKey(eventContext);
+        PendingEvent pendingEvent = null;
+        while (flusher != null) {
+            if (pendingEvent == null) {
+                pendingEvent = new PendingEvent(securityEventTokenPayload, RequestThreadContext.capture(),
+                        System.nanoTime());
+            }
+            Batch batch = batches.computeIfAbsent(batchKey, key -> new Batch(eventContext));
+            boolean scheduleFlush = false;
+            synchronized (batch) {
+                if (batch.closed) {
+                    // The batch was flushed and discarded meanwhile. Retry with a new batch.
+                    continue;
+                }
+                if (flusher == null) {
+                    break;
+                }
+                batch.add(pendingEvent);
+                if (batch.size() >= maxBatchSize && !batch.flushScheduled) {
+                    batch.flushScheduled = true;
+                    scheduleFlush = true;
+                }
+            }
+            if (scheduleFlush) {
+                scheduleFlush(batch);
+            }
+            return;
+        }
+        eventPublisherService.publish(securityEventTokenPayload, eventContext);
+    }
+
+    public LatencyHistogram getBatchLatency() {
+
+        return batchLatency;
+    }
+
+    public LatencyHistogram getEventLatency() {
+
+        return eventLatency;
+    }
+
+    public long getBatchCount() {
+
+        return batchCount.sum();
+    }
+
+    public long getPublishedCount() {
+
+        return publishedCount.sum();
+    }
+
+    public long getFailedCount() {
+
+        return failedCount.sum();
+    }
+
+    /**
+     * Get the number of tokens waiting in batches.
+     *
+     * @return Number of pending tokens.
+     */
+    public int getPendingCount() {
+
+        int pendingCount = 0;
+        for (Batch batch : batches.values()) {
+            synchronized (batch) {
+                pendingCount += batch.size();
+            }
+        }
+        return pendingCount;
+    }
+
+    private void scheduleFlush(Batch batch) {
+
+        ScheduledExecutorService scheduledExecutorService = flusher;
+        try {
+            if (scheduledExecutorService != null) {
+                scheduledExecutorService.execute(() -> flushFull(batch));
+            }
+        } catch (RejectedExecutionException e) {
+            // The batcher is shutting down, and the shutdown flushes the pending tokens of the batch.
+            log.debug("Event batcher is shut down. The batch is flushed by the shutdown.", e);
+        }
+    }
+
+    private void flushFull(Batch batch) {
+
+        List<PendingEvent> pendingEvents;
+        synchronized (batch) {
+            batch.flushScheduled = false;
+            pendingEvents = batch.drain();
+        }
+        try {
+            flushInContext(batch, pendingEvents);
+        } catch (RuntimeException e) {
+            log.warn("Error while flushing the webhook event batch of tenant: " + batch.tenantDomain, e);
+        }
+    }
+
+    private void flushLingering() {
+
+        long now = System.nanoTime();
+        for (Map.Entry<BatchKey, Batch> entry : batches.entrySet()) {
+            Batch batch = entry.getValue();
+            List<PendingEvent> pendingEvents = null;
+            synchronized (batch) {
+                if (batch.size() == 0) {
+                    // Discard idle batches, so the batches of tenants that stopped publishing are not retained.
+                    batch.closed = true;
+                    batches.remove(entry.getKey(), batch);
+                } else if (now - batch.getOldestEnqueueTime() >= lingerNanos) {
+                    pendingEvents = batch.drain();
+                }
+            }
+            if (pendingEvents != null) {
+                try {
+                    flushInContext(batch, pendingEvents);
+                } catch (RuntimeException e) {
+                    log.warn("Error while flushing the webhook event batch of tenant: " + batch.tenantDomain, e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Flush the given tokens of a batch, in runs of at most the maximum batch size of consecutive tokens published
+     * in the same context, with the context of each run restored on the current thread.
+     */
+    private void flushInContext(Batch batch, List<PendingEvent> pendingEvents) {
+
+        int start = 0;
+        while (start < pendingEvents.size()) {
+            RequestThreadContext publishContext = pendingEvents.get(start).publishContext;
+            int end = start + 1;
+            while (end < pendingEvents.size() && end - start < maxBatchSize &&
+                    publishContext.equals(pendingEvents.get(end).publishContext)) {
+                end++;
+            }
+            try {
+                publishContext.restore();
+                flush(batch, pendingEvents.subList(start, end));
+            } finally {
+                publishContext.clear();
+            }
+            start = end;
+        }
+    }
+
+    private void flush(Batch batch, List<PendingEvent> pendingEvents) {
+
+        EventPublisherService eventPublisherService =
+                EventHookHandlerDataHolder.getInstance().getEventPublisherService();
+        long startTime = System.nanoTime();
+        if (eventPublisherService instanceof BatchEventPublisher) {
+            List<SecurityEventTokenPayload> securityEventTokenPayloads = new ArrayList<>(pendingEvents.size());
+            for (PendingEvent pendingEvent : pendingEvents) {
+                securityEventTokenPayloads.add(pendingEvent.securityEventTokenPayload);
+            }
+            try {
+                ((BatchEventPublisher) eventPublisherService).publish(securityEventTokenPayloads, batch.eventContext);
+                publishedCount.add(pendingEvents.size());
+            } catch (EventPublisherException | RuntimeException e) {
+                failedCount.add(pendingEvents.size());
+                log.warn("Error while publishing a batch of " + pendingEvents.size() +
+                        " webhook events for tenant: " + batch.tenantDomain, e);
+            }
+        } else {
+            // The batch publisher was unbound after the tokens were batched.
+            for (PendingEvent pendingEvent : pendingEvents) {
+                try {
+                    eventPublisherService.publish(pendingEvent.securityEventTokenPayload, batch.eventContext);
+                    publishedCount.increment();
+                } catch (EventPublisherException | RuntimeException e) {
+                    failedCount.increment();
+                    log.warn("Error while publishing a batched webhook event for tenant: " + batch.tenantDomain, e);
+                }
+            }
+        }
+        long endTime = System.nanoTime();
+        batchCount.increment();
+        batchLatency.record(endTime - startTime);
+        for (PendingEvent pendingEvent : pendingEvents) {
+            eventLatency.record(endTime - pendingEvent.enqueueTime);
+        }
+    }
+
+    /**
+     * Security event token waiting in a batch.
+     */
+    private static class PendingEvent {
+
+        private final SecurityEventTokenPayload securityEventTokenPayload;
+        private final RequestThreadContext publishContext;
+        private final long enqueueTime;
+
+        PendingEvent(SecurityEventTokenPayload securityEventTokenPayload, RequestThreadContext publishContext,
+                     long enqueueTime) {
+
+            this.securityEventTokenPayload = securityEventTokenPayload;
+            this.publishContext = publishContext;
+            this.enqueueTime = enqueueTime;
+        }
+    }
+
+    /**
+     * Tokens of a tenant, channel and event profile waiting to be published. Guarded by its own monitor.
+     */
+    private static class Batch {
+
+        private final EventContext eventContext;
+        private final String tenantDomain;
+        private List<PendingEvent> pendingEvents = new ArrayList<>();
+        private boolean closed;
+        private boolean flushScheduled;
+
+        Batch(EventContext eventContext) {
+
+            this.eventContext = eventContext;
+            this.tenantDomain = eventContext.getTenantDomain();
+        }
+
+        void add(PendingEvent pendingEvent) {
+
+            pendingEvents.add(pendingEvent);
+        }
+
+        int size() {
+
+            return pendingEvents.size();
+        }
+
+        long getOldestEnqueueTime() {
+
+            return pendingEvents.get(0).enqueueTime;
+        }
+
+        List<PendingEvent> drain() {
+
+            List<PendingEvent> drained = pendingEvents;
+            pendingEvents = new ArrayList<>();
+            return drained;
+        }
+    }
+
+    /**
+     * Key of a batch.
+     */
+    private static class BatchKey {
+
+        private final String tenantDomain;
+        private final String eventUri;
+        private final String eventProfileName;
+        private final String eventProfileVersion;
+
+        BatchKey(EventContext eventContext) {
+
+            this.tenantDomain = eventContext.getTenantDomain();
+            this.eventUri = eventContext.getEventUri();
+            this.eventProfileName = eventContext.getEventProfileName();
+            this.eventProfileVersion = eventContext.getEventProfileVersion();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof BatchKey)) {
+                return false;
+            }
+            BatchKey batchKey = (BatchKey) o;
+            return Objects.equals(tenantDomain, batchKey.tenantDomain) &&
+                    Objects.equals(eventUri, batchKey.eventUri) &&
+                    Objects.equals(eventProfileName, batchKey.eventProfileName) &&
+                    Objects.equals(eventProfileVersion, batchKey.eventProfileVersion);
+        }
+
+        @Override
+        public int hashCode() {
+
+            return Objects.hash(tenantDomain, eventUri, eventProfileName, eventProfileVersion);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.webhook.common.event.handler.internal.batch;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock free latency histogram with fixed millisecond buckets.
+ * <p>
+ * Each bucket counts the latencies up to its upper bound, and the last bucket counts the latencies above the largest
+ * bound. Percentiles are reported as the upper bound of the bucket they fall in.
+ */
+public class LatencyHistogram {
+
+    private static final long[] BUCKET_UPPER_BOUNDS_MILLIS =
+            {1, 2, 5, 10, 20, 50, 100, 200, 500, 1000, 2000, 5000, 10000};
+
+    private final AtomicLongArray bucketCounts = new AtomicLongArray(BUCKET_UPPER_BOUNDS_MILLIS.length + 1);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+
+    /**
+     * Record a latency.
+     *
+     * @param latencyNanos Latency in nanoseconds.
+     */
+    public void record(long latencyNanos) {
+
+        long latencyMillis = TimeUnit.NANOSECONDS.toMillis(Math.max(latencyNanos, 0));
+        int bucket = 0;
+        while (bucket < BUCKET_UPPER_BOUNDS_MILLIS.length && latencyMillis > BUCKET_UPPER_BOUNDS_MILLIS[bucket]) {
+            bucket++;
+        }
+        bucketCounts.incrementAndGet(bucket);
+        count.increment();
+        totalNanos.add(Math.max(latencyNanos, 0));
+    }
+
+    public long getCount() {
+
+        return count.sum();
+    }
+
+    /**
+     * Get the mean of the recorded latencies.
+     *
+     * @return Mean latency in milliseconds, or 0 if nothing is recorded.
+     */
+    public double getMeanMillis() {
+
+        long recordedCount = count.sum();
+        return recordedCount == 0 ? 0 : (double) totalNanos.sum() / recordedCount / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /**
+     * Get the upper bound of the bucket the given percentile of the recorded latencies falls in.
+     *
+     * @param percentile Percentile between 0 and 100.
+     * @return Latency in milliseconds, Long.MAX_VALUE if the percentile exceeds the largest bucket, or 0 if nothing is
+     * recorded.
+     */
+    public long getPercentileMillis(double percentile) {
+
+        long[] counts = getBucketCounts();
+        long total = 0;
+        for (long bucketCount : counts) {
+            total += bucketCount;
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(total * Math.min(Math.max(percentile, 0), 100) / 100);
+        long cumulative = 0;
+        for (int i = 0; i < BUCKET_UPPER_BOUNDS_MILLIS.length; i++) {
+            cumulative += counts[i];
+            if (cumulative >= Math.max(rank, 1)) {
+                return BUCKET_UPPER_BOUNDS_MILLIS[i];
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+
+    /**
+     * Get the upper bounds of the buckets. The counts of the latencies above the largest bound are reported in an
+     * extra bucket.
+     *
+     * @return Bucket upper bounds in milliseconds.
+     */
+    public long[] getBucketUpperBoundsMillis() {
+
+        return BUCKET_UPPER_BOUNDS_MILLIS.clone();
+    }
+
+    public long[] getBucketCounts() {
+
+        long[] counts = new long[bucketCounts.length()];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = bucketCounts.get(i);
+        }
+        return counts;
+    }
+}
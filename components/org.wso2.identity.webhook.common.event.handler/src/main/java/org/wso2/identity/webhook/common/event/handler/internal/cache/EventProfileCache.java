@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.webhook.common.event.handler.internal.cache;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.webhook.metadata.api.exception.WebhookMetadataException;
+import org.wso2.carbon.identity.webhook.metadata.api.service.WebhookMetadataService;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache of the event profiles supported by the webhook metadata service.
+ * <p>
+ * The profiles are loaded once into an immutable {@link EventProfileSnapshot} and served without locking until the
+ * cache is invalidated, or the snapshot outlives the configured time to live. A non-positive time to live keeps the
+ * snapshot until it is invalidated.
+ */
+public class EventProfileCache {
+
+    private static final Log log = LogFactory.getLog(EventProfileCache.class);
+    public static final long DEFAULT_TTL_SECONDS = 300;
+
+    private final AtomicReference<EventProfileSnapshot> snapshot = new AtomicReference<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final Object loadLock = new Object();
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder refreshCount = new LongAdder();
+    private volatile long ttlMillis = TimeUnit.SECONDS.toMillis(DEFAULT_TTL_SECONDS);
+
+    /**
+     * Get the event profile snapshot, loading it from the given webhook metadata service if absent or expired.
+     *
+     * @param webhookMetadataService Webhook metadata service to load the profiles from.
+     * @return Event profile snapshot.
+     * @throws WebhookMetadataException If the profiles cannot be loaded.
+     */
+    public EventProfileSnapshot getSnapshot(WebhookMetadataService webhookMetadataService)
+            throws WebhookMetadataException {
+
+        EventProfileSnapshot current = snapshot.get();
+        if (isValid(current)) {
+            hitCount.increment();
+            return current;
+        }
+
+        missCount.increment();
+        synchronized (loadLock) {
+            current = snapshot.get();
+            if (isValid(current)) {
+                return current;
+            }
+            long loadedGeneration = generation.get();
+            EventProfileSnapshot loaded = new EventProfileSnapshot(
+                    webhookMetadataService.getSupportedEventProfiles(), System.currentTimeMillis());
+            // Do not keep a snapshot loaded across an invalidation, it may come from a stale metadata service.
+            if (loadedGeneration == generation.get()) {
+                snapshot.set(loaded);
+            }
+            refreshCount.increment();
+            if (log.isDebugEnabled()) {
+                log.debug("Loaded " + loaded.getEventProfiles().size() + " event profiles into the event " +
+                        "profile cache.");
+            }
+            return loaded;
+        }
+    }
+
+    /**
+     * Discard the cached snapshot. The profiles are loaded again on the next lookup.
+     */
+    public void invalidate() {
+
+        generation.incrementAndGet();
+        snapshot.set(null);
+    }
+
+    /**
+     * Set the time to live of a loaded snapshot.
+     *
+     * @param ttlMillis Time to live in milliseconds. A non-positive value disables expiry.
+     */
+    public void setTtl(long ttlMillis) {
+
+        this.ttlMillis = ttlMillis;
+    }
+
+    public long getTtl() {
+
+        return ttlMillis;
+    }
+
+    public long getHitCount() {
+
+        return hitCount.sum();
+    }
+
+    public long getMissCount() {
+
+        return missCount.sum();
+    }
+
+    public long getRefreshCount() {
+
+        return refreshCount.sum();
+    }
+
+    private boolean isValid(EventProfileSnapshot eventProfileSnapshot) {
+
+        if (eventProfileSnapshot == null) {
+            return false;
+        }
+        long ttl = ttlMillis;
+        return ttl <= 0 || System.currentTimeMillis() - eventProfileSnapshot.getLoadedTime() < ttl;
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.webhook.common.event.handler.internal.cache;
+
+import org.wso2.carbon.identity.webhook.metadata.api.model.EventProfile;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of the event profiles supported by the webhook metadata service, indexed by profile name.
+ */
+public class EventProfileSnapshot {
+
+    private final List<EventProfile> eventProfiles;
+    private final Map<String, EventProfile> eventProfilesByName;
+    private final long loadedTime;
+
+    EventProfileSnapshot(List<EventProfile> eventProfiles, long loadedTime) {
+
+        List<EventProfile> profiles = new ArrayList<>();
+        Map<String, EventProfile> profilesByName = new LinkedHashMap<>();
+        if (eventProfiles != null) {
+            for (EventProfile eventProfile : eventProfiles) {
+                if (eventProfile == null) {
+                    continue;
+                }
+                profiles.add(eventProfile);
+                if (eventProfile.getProfile() != null) {
+                    profilesByName.putIfAbsent(eventProfile.getProfile(), eventProfile);
+                }
+            }
+        }
+        this.eventProfiles = Collections.unmodifiableList(profiles);
+        this.eventProfilesByName = Collections.unmodifiableMap(profilesByName);
+        this.loadedTime = loadedTime;
+    }
+
+    /**
+     * Get the supported event profiles, in the order returned by the webhook metadata service.
+     *
+     * @return Unmodifiable list of event profiles.
+     */
+    public List<EventProfile> getEventProfiles() {
+
+        return eventProfiles;
+    }
+
+    /**
+     * Get a supported event profile by name.
+     *
+     * @param eventProfileName Event profile name.
+     * @return Event profile, or null if the profile is not supported.
+     */
+    public EventProfile getEventProfile(String eventProfileName) {
+
+        return eventProfileName != null ? eventProfilesByName.get(eventProfileName) : null;
+    }
+
+    /**
+     * Check whether no event profile is supported.
+     *
+     * @return True if the snapshot has no event profiles.
+     */
+    public boolean isEmpty() {
+
+        return eventProfiles.isEmpty();
+    }
+
+    /**
+     * Get the time the snapshot was loaded at.
+     *
+     * @return Load time in milliseconds.
+     */
+    public long getLoadedTime() {
+
+        return loadedTime;
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.webhook.common.event.handler.internal.cache;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per tenant index of the channels that no subscriber of the tenant can handle.
+ * <p>
+ * The index is fed with the results of the event publisher's can handle checks, made by every handler through
+ * {@code EventRouter#canHandleEvent}. Handlers consult it with the channel key of an event route before building the
+ * event data, so events of channels known to have no subscriber in the tenant are dropped early. Both the results and
+ * the lookups are keyed by the tenant domain resolved from the event, and a result is only recorded if the event is
+ * published for that tenant. Entries expire after the configured time to live, so a new subscription is picked up
+ * without an explicit invalidation. Only unsubscribed channels are kept, as a subscribed channel is always confirmed by
+ * the publisher before publishing.
+ * <p>
+ * The index is not built from the topics of the topic management service, as whether a channel has a subscriber is
+ * decided by the event publisher adapter, and not every adapter registers topics. Webhook subscription changes are not
+ * notified to this component either, so the events of a channel subscribed to by a tenant are dropped until the
+ * unsubscribed entry of the channel expires. The index is therefore disabled unless enabled by the configuration, for
+ * deployments accepting the delay of new subscriptions up to the time to live.
+ */
+public class SubscriptionIndex {
+
+    private static final Log log = LogFactory.getLog(SubscriptionIndex.class);
+    public static final long DEFAULT_TTL_SECONDS = 30;
+    static final int MAX_TENANTS = 10000;
+
+    private final ConcurrentMap<String, ConcurrentMap<String, Long>> unsubscribedChannels = new ConcurrentHashMap<>();
+    private final LongAdder lookupCount = new LongAdder();
+    private final LongAdder unsubscribedCount = new LongAdder();
+    private volatile long ttlMillis = TimeUnit.SECONDS.toMillis(DEFAULT_TTL_SECONDS);
+    private volatile boolean enabled;
+
+    /**
+     * Check whether the channel is known to have no subscriber in the tenant.
+     *
+     * @param tenantDomain Tenant domain.
+     * @param channelKey   Channel key of the event route.
+     * @return True if the channel is known to be unsubscribed, false if it is subscribed or unknown.
+     */
+    public boolean isUnsubscribed(String tenantDomain, String channelKey) {
+
+        if (!enabled || tenantDomain == null || channelKey == null) {
+            return false;
+        }
+        lookupCount.increment();
+        ConcurrentMap<String, Long> channels = unsubscribedChannels.get(tenantDomain);
+        if (channels == null) {
+            return false;
+        }
+        Long expiryTime = channels.get(channelKey);
+        if (expiryTime == null) {
+            return false;
+        }
+        if (expiryTime <= System.currentTimeMillis()) {
+            channels.remove(channelKey, expiryTime);
+            return false;
+        }
+        unsubscribedCount.increment();
+        return true;
+    }
+
+    /**
+     * Record the result of a can handle check of the event publisher.
+     *
+     * @param tenantDomain Tenant domain.
+     * @param channelKey   Channel key of the event route.
+     * @param subscribed   Whether the publisher can handle events of the channel in the tenant.
+     */
+    public void record(String tenantDomain, String channelKey, boolean subscribed) {
+
+        long ttl = ttlMillis;
+        if (!enabled || tenantDomain == null || channelKey == null || ttl <= 0) {
+            return;
+        }
+        if (subscribed) {
+            ConcurrentMap<String, Long> channels = unsubscribedChannels.get(tenantDomain);
+            if (channels != null) {
+                channels.remove(channelKey);
+            }
+            return;
+        }
+        if (unsubscribedChannels.size() >= MAX_TENANTS && !unsubscribedChannels.containsKey(tenantDomain)) {
+            log.debug("Subscription index reached the maximum number of tenants. Clearing the index.");
+            unsubscribedChannels.clear();
+        }
+        unsubscribedChannels.computeIfAbsent(tenantDomain, key -> new ConcurrentHashMap<>())
+                .put(channelKey, System.currentTimeMillis() + ttl);
+    }
+
+    /**
+     * Discard the entries of a tenant, e.g. when a webhook of the tenant is added or updated.
+     *
+     * @param tenantDomain Tenant domain.
+     */
+    public void invalidate(String tenantDomain) {
+
+        if (tenantDomain != null) {
+            unsubscribedChannels.remove(tenantDomain);
+        }
+    }
+
+    /**
+     * Discard the entries of all tenants.
+     */
+    public void invalidateAll() {
+
+        unsubscribedChannels.clear();
+    }
+
+    /**
+     * Set the time to live of an unsubscribed channel entry.
+     *
+     * @param ttlMillis Time to live in milliseconds. A non-positive value disables the index.
+     */
+    public void setTtl(long ttlMillis) {
+
+        this.ttlMillis = ttlMillis;
+        if (ttlMillis <= 0) {
+            invalidateAll();
+        }
+    }
+
+    /**
+     * Enable or disable the index. A disabled index reports no channel as unsubscribed.
+     *
+     * @param enabled Whether the index is enabled.
+     */
+    public void setEnabled(boolean enabled) {
+
+        this.enabled = enabled;
+        if (!enabled) {
+            invalidateAll();
+        }
+    }
+
+    public boolean isEnabled() {
+
+        return enabled;
+    }
+
+    public long getTtl() {
+
+        return ttlMillis;
+    }
+
+    public long getLookupCount() {
+
+        return lookupCount.sum();
+    }
+
+    public long getUnsubscribedCount() {
+
+        return unsubscribedCount.sum();
+    }
+}
@@ -0,0 +1,459 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.webhook.common.event.handler.internal.coalesce;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.context.PrivilegedCarbonContext;
+import org.wso2.carbon.identity.event.IdentityEventException;
+import org.wso2.carbon.identity.event.publisher.api.exception.EventPublisherException;
+import org.wso2.carbon.identity.event.publisher.api.model.EventContext;
+import org.wso2.carbon.identity.event.publisher.api.model.EventPayload;
+import org.wso2.carbon.identity.event.publisher.api.model.SecurityEventTokenPayload;
+import org.wso2.carbon.identity.event.publisher.api.model.common.Subject;
+import org.wso2.identity.webhook.common.event.handler.api.constants.Constants;
+import org.wso2.identity.webhook.common.event.handler.api.model.EventContextSnapshot;
+import org.wso2.identity.webhook.common.event.handler.api.model.MergeableEventPayload;
+import org.wso2.identity.webhook.common.event.handler.internal.component.EventHookHandlerDataHolder;
+import org.wso2.identity.webhook.common.event.handler.internal.util.EventHookHandlerUtils;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Opt-in stage that coalesces high frequency events of the same tenant, event URI and subject, such as the session
+ * presented events of each SSO hop or the profile updates of a user patched several times in a row.
+ * <p>
+ * The first event of a key is held for the coalescing window, and the events of the same key arriving within the
+ * window are merged into it: payloads implementing {@link MergeableEventPayload} are merged, and other payloads are
+ * replaced by the latest one. When the window ends, a single security event token is built and published. Windows
+ * are tracked on a hashed timing wheel advanced by one thread, and the number of held events is bounded; once the
+ * bound is reached, events are published without coalescing. Coalesced events are published after the events of
+ * other types that follow them within the window.
+ */
+public class EventCoalescer {
+
+    private static final Log log = LogFactory.getLog(EventCoalescer.class);
+    public static final long DEFAULT_WINDOW_MILLIS = 1000;
+    public static final int DEFAULT_MAX_PENDING_EVENTS = 10000;
+    public static final List<String> DEFAULT_EVENT_URIS = Collections.unmodifiableList(Arrays.asList(
+            Constants.Event.SESSION_PRESENTED_EVENT,
+            Constants.Event.POST_USER_PROFILE_UPDATED_EVENT));
+    private static final int TICKS_PER_WINDOW = 8;
+    private static final int WHEEL_BUCKET_COUNT = 32;
+    private static final String TIMER_THREAD_NAME = "webhook-event-coalescing-timer";
+
+    private final Map<CoalescingKey, PendingEvent> pendingEvents = new ConcurrentHashMap<>();
+    private final Map<CoalescingKey, PendingEvent> publishingEvents = new ConcurrentHashMap<>();
+    private final Map<String, CoalescingCounters> coalescingCounters = new ConcurrentHashMap<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private volatile ScheduledExecutorService timer;
+    private volatile TimingWheel<PendingEvent> timingWheel;
+    private volatile Set<String> coalescedEventUris = Collections.emptySet();
+    private volatile long windowNanos = TimeUnit.MILLISECONDS.toNanos(DEFAULT_WINDOW_MILLIS);
+    private volatile int maxPendingEvents = DEFAULT_MAX_PENDING_EVENTS;
+
+    /**
+     * Start coalescing the events of the given event URIs. Events are not coalesced until the coalescer is started.
+     *
+     * @param windowMillis     Time an event is held for the later events of its key, in milliseconds.
+     * @param maxPendingEvents Maximum number of events held at once.
+     * @param eventUris        Event URIs of the events to coalesce.
+     */
+    public synchronized void start(long windowMillis, int maxPendingEvents, Collection<String> eventUris) {
+
+        if (timer != null) {
+            log.debug("Event coalescer is already started.");
+            return;
+        }
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+        this.maxPendingEvents = maxPendingEvents;
+        this.coalescedEventUris = Collections.unmodifiableSet(new HashSet<>(eventUris));
+        long tickMillis = Math.max(windowMillis / TICKS_PER_WINDOW, 1);
+        timingWheel = new TimingWheel<>(TimeUnit.MILLISECONDS.toNanos(tickMillis), WHEEL_BUCKET_COUNT,
+                System.nanoTime());
+        ScheduledExecutorService scheduledExecutorService = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, TIMER_THREAD_NAME);
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduledExecutorService.scheduleWithFixedDelay(this::publishExpired, tickMillis, tickMillis,
+                TimeUnit.MILLISECONDS);
+        timer = scheduledExecutorService;
+        if (log.isDebugEnabled()) {
+            log.debug("Started event coalescer with a window of " + windowMillis + " ms for the events: " +
+                    coalescedEventUris);
+        }
+    }
+
+    /**
+     * Stop coalescing and publish all held events.
+     */
+    public synchronized void shutdown() {
+
+        ScheduledExecutorService scheduledExecutorService = timer;
+        if (scheduledExecutorService == null) {
+            return;
+        }
+        timer = null;
+        timingWheel = null;
+        scheduledExecutorService.shutdown();
+        try {
+            scheduledExecutorService.awaitTermination(TimeUnit.NANOSECONDS.toMillis(windowNanos) + 1000,
+                    TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (PendingEvent pendingEvent : pendingEvents.values()) {
+            publishIfPending(pendingEvent);
+        }
+        log.debug("Event coalescer is shut down.");
+    }
+
+    public boolean isStarted() {
+
+        return timer != null;
+    }
+
+    /**
+     * Check whether the events of the given event URI are coalesced.
+     *
+     * @param eventUri Event URI.
+     * @return True if the coalescer is started and coalesces the event URI.
+     */
+    public boolean isCoalesced(String eventUri) {
+
+        return timer != null && coalescedEventUris.contains(eventUri);
+    }
+
+    /**
+     * Hold the given event payload to be merged with the later events of the same tenant, event URI and subject. If
+     * the event is not held, the caller publishes it.
+     *
+     * @param subjectKey           Identifier of the subject of the event, such as the session id or the user id.
+     * @param eventPayload         Event payload.
+     * @param eventUri             Event URI.
+     * @param subject              Subject of the security event token, or null.
+     * @param eventContextSnapshot Context the event is fired in.
+     * @param eventContext         Event context.
+     * @return True if the event is held and published by the coalescer.
+     */
+    public boolean coalesce(String subjectKey, EventPayload eventPayload, String eventUri, Subject subject,
+                            EventContextSnapshot eventContextSnapshot, EventContext eventContext) {
+
+        if (subjectKey == null || eventPayload == null || !isCoalesced(eventUri)) {
+            return false;
+        }
+        CoalescingCounters counters = coalescingCounters.computeIfAbsent(eventUri, uri -> new CoalescingCounters());
+        CoalescingKey coalescingKey = new CoalescingKey(eventContext.getTenantDomain(), eventUri, subjectKey);
+        PendingEvent heldEvent = pendingEvents.compute(coalescingKey, (key, pendingEvent) -> {
+            if (pendingEvent != null) {
+                pendingEvent.merge(eventPayload, subject, eventContextSnapshot, eventContext);
+                counters.coalescedCount.increment();
+                return pendingEvent;
+            }
+            // Read within the compute, so events held during a shutdown are seen by the shutdown.
+            TimingWheel<PendingEvent> wheel = timingWheel;
+            if (wheel == null || pendingCount.get() >= maxPendingEvents) {
+                return null;
+            }
+            pendingCount.incrementAndGet();
+            PendingEvent createdEvent = new PendingEvent(key, counters, eventPayload, subject,
+                    eventContextSnapshot, eventContext);
+            wheel.schedule(createdEvent, System.nanoTime() + windowNanos);
+            return createdEvent;
+        });
+        if (heldEvent == null) {
+            counters.overflowCount.increment();
+            return false;
+        }
+        counters.receivedCount.increment();
+        return true;
+    }
+
+    /**
+     * Publish the events held for the given subject of the tenant on the calling thread. Called before a later event
+     * of the subject, such as a session revocation or a user deletion, is published, so that the held event is never
+     * delivered after it. If the timer is publishing a held event of the subject, wait until it is published.
+     *
+     * @param tenantDomain Tenant domain.
+     * @param subjectKey   Identifier of the subject of the events, such as the session id or the user id.
+     */
+    public void flush(String tenantDomain, String subjectKey) {
+
+        if (subjectKey == null || timer == null) {
+            return;
+        }
+        for (String eventUri : coalescedEventUris) {
+            CoalescingKey coalescingKey = new CoalescingKey(tenantDomain, eventUri, subjectKey);
+            // A held event is added to the publishing events before it leaves the pending events.
+            PendingEvent pendingEvent = pendingEvents.get(coalescingKey);
+            if (pendingEvent == null) {
+                pendingEvent = publishingEvents.get(coalescingKey);
+            }
+            if (pendingEvent != null) {
+                publishIfPending(pendingEvent);
+            }
+        }
+    }
+
+    /**
+     * Check whether any event is held or being published, so that a caller can skip resolving the subject of a flush.
+     *
+     * @return True if an event is held or being published.
+     */
+    public boolean hasHeldEvents() {
+
+        // A held event is added to the publishing events before the pending count is decremented.
+        return pendingCount.get() > 0 || !publishingEvents.isEmpty();
+    }
+
+    /**
+     * Get the coalescing counters by event URI.
+     *
+     * @return Coalescing counters by event URI.
+     */
+    public Map<String, CoalescingCounters> getCoalescingCounters() {
+
+        return Collections.unmodifiableMap(coalescingCounters);
+    }
+
+    /**
+     * Get the number of events held.
+     *
+     * @return Number of held events.
+     */
+    public int getPendingCount() {
+
+        return pendingCount.get();
+    }
+
+    private void publishExpired() {
+
+        TimingWheel<PendingEvent> wheel = timingWheel;
+        if (wheel == null) {
+            return;
+        }
+        try {
+            for (PendingEvent pendingEvent : wheel.advance(System.nanoTime())) {
+                publishIfPending(pendingEvent);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Error while publishing coalesced webhook events.", e);
+        }
+    }
+
+    private void publishIfPending(PendingEvent pendingEvent) {
+
+        // Publishing under the lock of the held event lets a flush wait for a publish the timer has started.
+        synchronized (pendingEvent) {
+            publishingEvents.put(pendingEvent.coalescingKey, pendingEvent);
+            try {
+                // The held event is merged into only while it is in the map, so its state is final once removed.
+                if (pendingEvents.remove(pendingEvent.coalescingKey, pendingEvent)) {
+                    pendingCount.decrementAndGet();
+                    publish(pendingEvent);
+                }
+            } finally {
+                publishingEvents.remove(pendingEvent.coalescingKey, pendingEvent);
+            }
+        }
+    }
+
+    private void publish(PendingEvent pendingEvent) {
+
+        PrivilegedCarbonContext.startTenantFlow();
+        try {
+            PrivilegedCarbonContext carbonContext = PrivilegedCarbonContext.getThreadLocalCarbonContext();
+            carbonContext.setTenantDomain(pendingEvent.tenantDomain);
+            carbonContext.setTenantId(pendingEvent.tenantId);
+            SecurityEventTokenPayload securityEventTokenPayload = EventHookHandlerUtils.buildSecurityEventToken(
+                    pendingEvent.eventPayload, pendingEvent.coalescingKey.eventUri, pendingEvent.subject,
+                    pendingEvent.eventContextSnapshot);
+            EventHookHandlerDataHolder.getInstance().getEventBatcher()
+                    .publish(securityEventTokenPayload, pendingEvent.eventContext);
+            pendingEvent.counters.emittedCount.increment();
+        } catch (IdentityEventException | EventPublisherException | RuntimeException e) {
+            log.warn("Error while publishing coalesced webhook event: " + pendingEvent.coalescingKey.eventUri +
+                    " for tenant: " + pendingEvent.coalescingKey.tenantDomain, e);
+        } finally {
+            PrivilegedCarbonContext.endTenantFlow();
+        }
+    }
+
+    /**
+     * Counters of the coalesced events of an event URI.
+     */
+    public static class CoalescingCounters {
+
+        private final LongAdder receivedCount = new LongAdder();
+        private final LongAdder coalescedCount = new LongAdder();
+        private final LongAdder emittedCount = new LongAdder();
+        private final LongAdder overflowCount = new LongAdder();
+
+        /**
+         * Get the number of events held by the coalescer.
+         *
+         * @return Number of held events.
+         */
+        public long getReceivedCount() {
+
+            return receivedCount.sum();
+        }
+
+        /**
+         * Get the number of events merged into an earlier held event.
+         *
+         * @return Number of merged events.
+         */
+        public long getCoalescedCount() {
+
+            return coalescedCount.sum();
+        }
+
+        /**
+         * Get the number of security event tokens published for the held events.
+         *
+         * @return Number of published tokens.
+         */
+        public long getEmittedCount() {
+
+            return emittedCount.sum();
+        }
+
+        /**
+         * Get the number of events published without coalescing, because the maximum number of held events was
+         * reached.
+         *
+         * @return Number of events not coalesced.
+         */
+        public long getOverflowCount() {
+
+            return overflowCount.sum();
+        }
+
+        /**
+         * Get the fraction of the held events that were merged into an earlier event.
+         *
+         * @return Coalescing ratio between 0 and 1.
+         */
+        public double getCoalescingRatio() {
+
+            long received = receivedCount.sum();
+            return received == 0 ? 0 : (double) coalescedCount.sum() / received;
+        }
+    }
+
+    /**
+     * Event held for the later events of its key. Merged into only within the compute of its map entry.
+     */
+    private static class PendingEvent {
+
+        private final CoalescingKey coalescingKey;
+        private final CoalescingCounters counters;
+        private final String tenantDomain;
+        private final int tenantId;
+        private EventPayload eventPayload;
+        private Subject subject;
+        private EventContextSnapshot eventContextSnapshot;
+        private EventContext eventContext;
+
+        PendingEvent(CoalescingKey coalescingKey, CoalescingCounters counters, EventPayload eventPayload,
+                     Subject subject, EventContextSnapshot eventContextSnapshot, EventContext eventContext) {
+
+            this.coalescingKey = coalescingKey;
+            this.counters = counters;
+            this.eventPayload = eventPayload;
+            this.subject = subject;
+            this.eventContextSnapshot = eventContextSnapshot;
+            this.eventContext = eventContext;
+            // The carbon tenant of the thread holding the event is restored when the timer thread publishes it.
+            PrivilegedCarbonContext carbonContext = PrivilegedCarbonContext.getThreadLocalCarbonContext();
+            this.tenantDomain = carbonContext.getTenantDomain();
+            this.tenantId = carbonContext.getTenantId();
+        }
+
+        void merge(EventPayload laterEventPayload, Subject laterSubject, EventContextSnapshot laterSnapshot,
+                   EventContext laterEventContext) {
+
+            EventPayload mergedEventPayload = laterEventPayload;
+            if (eventPayload instanceof MergeableEventPayload) {
+                try {
+                    mergedEventPayload = ((MergeableEventPayload) eventPayload).merge(laterEventPayload);
+                } catch (RuntimeException e) {
+                    log.debug("Error while merging coalesced event payloads. Using the latest payload.", e);
+                }
+            }
+            eventPayload = mergedEventPayload;
+            subject = laterSubject;
+            eventContextSnapshot = laterSnapshot;
+            eventContext = laterEventContext;
+        }
+    }
+
+    /**
+     * Key of a held event.
+     */
+    private static class CoalescingKey {
+
+        private final String tenantDomain;
+        private final String eventUri;
+        private final String subjectKey;
+
+        CoalescingKey(String tenantDomain, String eventUri, String subjectKey) {
+
+            this.tenantDomain = tenantDomain;
+            this.eventUri = eventUri;
+            this.subjectKey = subjectKey;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof CoalescingKey)) {
+                return false;
+            }
+            CoalescingKey coalescingKey = (CoalescingKey) o;
+            return Objects.equals(tenantDomain, coalescingKey.tenantDomain) &&
+                    Objects.equals(eventUri, coalescingKey.eventUri) &&
+                    Objects.equals(subjectKey, coalescingKey.subjectKey);
+        }
+
+        @Override
+        public int hashCode() {
+
+            return Objects.hash(tenantDomain, eventUri, subjectKey);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.webhook.common.event.handler.internal.coalesce;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Hashed timing wheel of deadlines, with a fixed number of buckets of one tick each.
+ * <p>
+ * Scheduling appends to the bucket of the deadline tick in constant time, from any thread. The wheel is advanced by a
+ * single thread, which only visits the buckets of the ticks that passed. Deadlines further away than one rotation stay
+ * in their bucket until the rotation they are due in.
+ *
+ * @param <T> Type of the scheduled items.
+ */
+class TimingWheel<T> {
+
+    private final Queue<Timeout<T>>[] buckets;
+    private final int mask;
+    private final long tickNanos;
+    private final long startTime;
+    private volatile long lastTick;
+
+    /**
+     * Create a timing wheel.
+     *
+     * @param tickNanos   Duration of a tick, in nanoseconds.
+     * @param bucketCount Number of buckets, rounded up to a power of two.
+     * @param startTime   Time the wheel starts at, in nanoseconds.
+     */
+    @SuppressWarnings("unchecked")
+    TimingWheel(long tickNanos, int bucketCount, long startTime) {
+
+        int size = Integer.highestOneBit(Math.max(bucketCount, 2) - 1) << 1;
+        this.buckets = new Queue[size];
+        for (int i = 0; i < size; i++) {
+            buckets[i] = new ConcurrentLinkedQueue<>();
+        }
+        this.mask = size - 1;
+        this.tickNanos = Math.max(tickNanos, 1);
+        this.startTime = startTime;
+    }
+
+    /**
+     * Schedule an item to expire at the given deadline.
+     *
+     * @param item     Item.
+     * @param deadline Deadline, in nanoseconds.
+     */
+    void schedule(T item, long deadline) {
+
+        // Deadlines of ticks already passed go to the bucket of the last tick, which is visited again next.
+        long tick = Math.max(getTick(deadline), lastTick);
+        buckets[(int) (tick & mask)].add(new Timeout<>(item, deadline));
+    }
+
+    /**
+     * Advance the wheel to the given time, and get the items whose deadlines passed. Must be called by one thread at
+     * a time.
+     *
+     * @param now Current time, in nanoseconds.
+     * @return Expired items.
+     */
+    List<T> advance(long now) {
+
+        List<T> expiredItems = new ArrayList<>();
+        long currentTick = getTick(now);
+        // The bucket of the last tick is visited again, for the items scheduled into it after it was visited.
+        long firstTick = Math.max(lastTick, currentTick - mask);
+        for (long tick = firstTick; tick <= currentTick; tick++) {
+            Queue<Timeout<T>> bucket = buckets[(int) (tick & mask)];
+            int pendingCount = bucket.size();
+            for (int i = 0; i < pendingCount; i++) {
+                Timeout<T> timeout = bucket.poll();
+                if (timeout == null) {
+                    break;
+                }
+                if (timeout.deadline - now <= 0) {
+                    expiredItems.add(timeout.item);
+                } else {
+                    bucket.add(timeout);
+                }
+            }
+        }
+        lastTick = currentTick;
+        return expiredItems;
+    }
+
+    /**
+     * Remove all scheduled items.
+     *
+     * @return Removed items.
+     */
+    List<T> drain() {
+
+        List<T> items = new ArrayList<>();
+        for (Queue<Timeout<T>> bucket : buckets) {
+            Timeout<T> timeout;
+            while ((timeout = bucket.poll()) != null) {
+                items.add(timeout.item);
+            }
+        }
+        return items;
+    }
+
+    private long getTick(long time) {
+
+        return Math.max(time - startTime, 0) / tickNanos;
+    }
+
+    /**
+     * Item scheduled with its deadline.
+     *
+     * @param <T> Type of the item.
+     */
+    private static class Timeout<T> {
+
+        private final T item;
+        private final long deadline;
+
+        Timeout(T item, long deadline) {
+
+            this.item = item;
+            this.deadline = deadline;
+        }
+    }
+}
@@ -26,15 +26,25 @@ import org.wso2.carbon.identity.topic.management.api.service.TopicManagementServ
 import org.wso2.carbon.identity.webhook.metadata.api.service.WebhookMetadataService;
 import org.wso2.identity.webhook.common.event.handler.api.builder.TokenEventPayloadBuilder;
 import org.wso2.identity.webhook.common.event.handler.api.service.EventProfileManager;
+import org.wso2.identity.webhook.common.event.handler.api.service.JtiGenerator;
 import org.wso2.identity.webhook.common.event.handler.api.builder.CredentialEventPayloadBuilder;
 import org.wso2.identity.webhook.common.event.handler.api.builder.LoginEventPayloadBuilder;
 import org.wso2.identity.webhook.common.event.handler.api.builder.RegistrationEventPayloadBuilder;
 import org.wso2.identity.webhook.common.event.handler.api.builder.SessionEventPayloadBuilder;
 import org.wso2.identity.webhook.common.event.handler.api.builder.UserOperationEventPayloadBuilder;
 import org.wso2.identity.webhook.common.event.handler.api.builder.VerificationEventPayloadBuilder;
+import org.wso2.identity.webhook.common.event.handler.internal.async.AsyncEventDispatcher;
+import org.wso2.identity.webhook.common.event.handler.internal.batch.EventBatcher;
+import org.wso2.identity.webhook.common.event.handler.internal.cache.EventProfileCache;
+import org.wso2.identity.webhook.common.event.handler.internal.cache.SubscriptionIndex;
+import org.wso2.identity.webhook.common.event.handler.internal.coalesce.EventCoalescer;
+import org.wso2.identity.webhook.common.event.handler.internal.jti.TimeOrderedJtiGenerator;
+import org.wso2.identity.webhook.common.event.handler.internal.payload.CompactPayloadPolicy;
+import org.wso2.identity.webhook.common.event.handler.internal.payload.PayloadSizeTracker;
+import org.wso2.identity.webhook.common.event.handler.internal.ratelimit.EventRateLimiter;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * A data holder class to keep the data of the event handler component.
@@ -45,17 +55,35 @@ public class EventHookHandlerDataHolder {
     private OrganizationManager organizationManager;
     private ConfigurationManager configurationManager;
     private EventPublisherService eventPublisherService;
-    private WebhookMetadataService webhookMetadataService;
+    private volatile WebhookMetadataService webhookMetadataService;
     private TopicManagementService topicManagementService;
     private ApplicationManagementService applicationManagementService;
-    private final List<EventProfileManager> eventProfileManagers = new ArrayList<>();
-    private final List<LoginEventPayloadBuilder> loginEventPayloadBuilders = new ArrayList<>();
-    private final List<UserOperationEventPayloadBuilder> userOperationEventPayloadBuilders = new ArrayList<>();
-    private final List<SessionEventPayloadBuilder> sessionEventPayloadBuilders = new ArrayList<>();
-    private final List<CredentialEventPayloadBuilder> credentialEventPayloadBuilders = new ArrayList<>();
-    private final List<VerificationEventPayloadBuilder> verificationEventPayloadBuilders = new ArrayList<>();
-    private final List<RegistrationEventPayloadBuilder> registrationEventPayloadBuilders = new ArrayList<>();
-    private final List<TokenEventPayloadBuilder> tokenEventPayloadBuilders = new ArrayList<>();
+    private final EventProfileCache eventProfileCache = new EventProfileCache();
+    private final SubscriptionIndex subscriptionIndex = new SubscriptionIndex();
+    private final AsyncEventDispatcher asyncEventDispatcher = new AsyncEventDispatcher();
+    private final EventBatcher eventBatcher = new EventBatcher();
+    private final EventRateLimiter eventRateLimiter = new EventRateLimiter();
+    private final EventCoalescer eventCoalescer = new EventCoalescer();
+    private volatile JtiGenerator configuredJtiGenerator = new TimeOrderedJtiGenerator();
+    private volatile JtiGenerator registeredJtiGenerator;
+    private volatile CompactPayloadPolicy compactPayloadPolicy = CompactPayloadPolicy.DISABLED;
+    private final PayloadSizeTracker payloadSizeTracker = new PayloadSizeTracker();
+    private final AtomicLong registryVersion = new AtomicLong();
+    private final SnapshotRegistry<EventProfileManager> eventProfileManagers = new SnapshotRegistry<>(registryVersion);
+    private final SnapshotRegistry<LoginEventPayloadBuilder> loginEventPayloadBuilders =
+            new SnapshotRegistry<>(registryVersion);
+    private final SnapshotRegistry<UserOperationEventPayloadBuilder> userOperationEventPayloadBuilders =
+            new SnapshotRegistry<>(registryVersion);
+    private final SnapshotRegistry<SessionEventPayloadBuilder> sessionEventPayloadBuilders =
+            new SnapshotRegistry<>(registryVersion);
+    private final SnapshotRegistry<CredentialEventPayloadBuilder> credentialEventPayloadBuilders =
+            new SnapshotRegistry<>(registryVersion);
+    private final SnapshotRegistry<VerificationEventPayloadBuilder> verificationEventPayloadBuilders =
+            new SnapshotRegistry<>(registryVersion);
+    private final SnapshotRegistry<RegistrationEventPayloadBuilder> registrationEventPayloadBuilders =
+            new SnapshotRegistry<>(registryVersion);
+    private final SnapshotRegistry<TokenEventPayloadBuilder> tokenEventPayloadBuilders =
+            new SnapshotRegistry<>(registryVersion);
 
     private EventHookHandlerDataHolder() {
 
@@ -66,6 +94,17 @@ public class EventHookHandlerDataHolder {
         return instance;
     }
 
+    /**
+     * Get the version of the registered event profile managers, payload builders and webhook metadata service.
+     * The version changes whenever any of them is bound or unbound, so derived state can be rebuilt lazily.
+     *
+     * @return Registry version.
+     */
+    public long getRegistryVersion() {
+
+        return registryVersion.get();
+    }
+
     /**
      * Get the list of event profile managers available.
      *
@@ -73,7 +112,7 @@ public class EventHookHandlerDataHolder {
      */
     public List<EventProfileManager> getEventProfileManagers() {
 
-        return eventProfileManagers;
+        return eventProfileManagers.getSnapshot();
     }
 
     /**
@@ -103,7 +142,7 @@ public class EventHookHandlerDataHolder {
      */
     public List<VerificationEventPayloadBuilder> getVerificationEventPayloadBuilders() {
 
-        return verificationEventPayloadBuilders;
+        return verificationEventPayloadBuilders.getSnapshot();
     }
 
     /**
@@ -133,7 +172,7 @@ public class EventHookHandlerDataHolder {
      */
     public List<CredentialEventPayloadBuilder> getCredentialEventPayloadBuilders() {
 
-        return credentialEventPayloadBuilders;
+        return credentialEventPayloadBuilders.getSnapshot();
     }
 
     /**
@@ -163,7 +202,7 @@ public class EventHookHandlerDataHolder {
      */
     public List<SessionEventPayloadBuilder> getSessionEventPayloadBuilders() {
 
-        return sessionEventPayloadBuilders;
+        return sessionEventPayloadBuilders.getSnapshot();
     }
 
     /**
@@ -193,7 +232,7 @@ public class EventHookHandlerDataHolder {
      */
     public List<LoginEventPayloadBuilder> getLoginEventPayloadBuilders() {
 
-        return loginEventPayloadBuilders;
+        return loginEventPayloadBuilders.getSnapshot();
     }
 
     /**
@@ -218,7 +257,7 @@ public class EventHookHandlerDataHolder {
 
     public List<UserOperationEventPayloadBuilder> getUserOperationEventPayloadBuilders() {
 
-        return userOperationEventPayloadBuilders;
+        return userOperationEventPayloadBuilders.getSnapshot();
     }
 
     /**
@@ -249,7 +288,7 @@ public class EventHookHandlerDataHolder {
      */
     public List<TokenEventPayloadBuilder> getTokenEventPayloadBuilders() {
 
-        return tokenEventPayloadBuilders;
+        return tokenEventPayloadBuilders.getSnapshot();
     }
 
     /**
@@ -310,11 +349,12 @@ public class EventHookHandlerDataHolder {
     public void setEventPublisherService(EventPublisherService eventPublisherService) {
 
         this.eventPublisherService = eventPublisherService;
+        subscriptionIndex.invalidateAll();
     }
 
     public List<RegistrationEventPayloadBuilder> getRegistrationEventPayloadBuilders() {
 
-        return registrationEventPayloadBuilders;
+        return registrationEventPayloadBuilders.getSnapshot();
     }
 
     public void addRegistrationEventPayloadBuilder(RegistrationEventPayloadBuilder registrationEventPayloadBuilder) {
@@ -345,6 +385,130 @@ public class EventHookHandlerDataHolder {
     public void setWebhookMetadataService(WebhookMetadataService webhookMetadataService) {
 
         this.webhookMetadataService = webhookMetadataService;
+        eventProfileCache.invalidate();
+        registryVersion.incrementAndGet();
+    }
+
+    /**
+     * Get the cache of the event profiles supported by the webhook metadata service.
+     *
+     * @return Event profile cache.
+     */
+    public EventProfileCache getEventProfileCache() {
+
+        return eventProfileCache;
+    }
+
+    /**
+     * Get the index of the channels that have no subscriber in a tenant.
+     *
+     * @return Subscription index.
+     */
+    public SubscriptionIndex getSubscriptionIndex() {
+
+        return subscriptionIndex;
+    }
+
+    /**
+     * Get the dispatcher that handles events off the request thread when asynchronous publishing is enabled.
+     *
+     * @return Asynchronous event dispatcher.
+     */
+    public AsyncEventDispatcher getAsyncEventDispatcher() {
+
+        return asyncEventDispatcher;
+    }
+
+    /**
+     * Get the batcher the security event tokens are published through.
+     *
+     * @return Event batcher.
+     */
+    public EventBatcher getEventBatcher() {
+
+        return eventBatcher;
+    }
+
+    /**
+     * Get the rate limiter admitting events before their event data is built.
+     *
+     * @return Event rate limiter.
+     */
+    public EventRateLimiter getEventRateLimiter() {
+
+        return eventRateLimiter;
+    }
+
+    /**
+     * Get the coalescer merging high frequency events of the same subject.
+     *
+     * @return Event coalescer.
+     */
+    public EventCoalescer getEventCoalescer() {
+
+        return eventCoalescer;
+    }
+
+    /**
+     * Get the generator of the identifiers of the security event tokens. A registered generator takes precedence over
+     * the configured one.
+     *
+     * @return Token identifier generator.
+     */
+    public JtiGenerator getJtiGenerator() {
+
+        JtiGenerator jtiGenerator = registeredJtiGenerator;
+        return jtiGenerator != null ? jtiGenerator : configuredJtiGenerator;
+    }
+
+    /**
+     * Set the built in token identifier generator selected by the configuration.
+     *
+     * @param configuredJtiGenerator Token identifier generator.
+     */
+    public void setConfiguredJtiGenerator(JtiGenerator configuredJtiGenerator) {
+
+        this.configuredJtiGenerator = configuredJtiGenerator;
+    }
+
+    /**
+     * Set the token identifier generator registered as a service, or null if none is registered.
+     *
+     * @param registeredJtiGenerator Token identifier generator.
+     */
+    public void setRegisteredJtiGenerator(JtiGenerator registeredJtiGenerator) {
+
+        this.registeredJtiGenerator = registeredJtiGenerator;
+    }
+
+    public JtiGenerator getRegisteredJtiGenerator() {
+
+        return registeredJtiGenerator;
+    }
+
+    /**
+     * Get the policy of the tenants publishing compact event payloads.
+     *
+     * @return Compact payload policy.
+     */
+    public CompactPayloadPolicy getCompactPayloadPolicy() {
+
+        return compactPayloadPolicy;
+    }
+
+    public void setCompactPayloadPolicy(CompactPayloadPolicy compactPayloadPolicy) {
+
+        this.compactPayloadPolicy = compactPayloadPolicy;
+    }
+
+    /**
+     * Get the tracker of the serialized sizes of the security event tokens.
+     *
+     * @return Payload size tracker.
+     */
+    public PayloadSizeTracker getPayloadSizeTracker() {
+
+        return payloadSizeTracker;
     }
 
     /**
@@ -365,6 +529,7 @@ public class EventHookHandlerDataHolder {
     public void setTopicManagementService(TopicManagementService topicManagementService) {
 
         this.topicManagementService = topicManagementService;
+        subscriptionIndex.invalidateAll();
     }
 
     public ApplicationManagementService getApplicationManagementService() {
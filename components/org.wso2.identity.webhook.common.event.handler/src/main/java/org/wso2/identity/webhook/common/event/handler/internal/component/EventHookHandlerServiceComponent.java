@@ -18,6 +18,7 @@
 
 package org.wso2.identity.webhook.common.event.handler.internal.component;
 
+import org.apache.commons.lang.StringUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.osgi.framework.BundleContext;
@@ -41,12 +42,20 @@ import org.wso2.carbon.identity.topic.management.api.service.TopicManagementServ
 import org.wso2.carbon.identity.webhook.metadata.api.service.WebhookMetadataService;
 import org.wso2.identity.webhook.common.event.handler.api.builder.TokenEventPayloadBuilder;
 import org.wso2.identity.webhook.common.event.handler.api.service.EventProfileManager;
+import org.wso2.identity.webhook.common.event.handler.api.service.JtiGenerator;
 import org.wso2.identity.webhook.common.event.handler.api.builder.CredentialEventPayloadBuilder;
 import org.wso2.identity.webhook.common.event.handler.api.builder.LoginEventPayloadBuilder;
 import org.wso2.identity.webhook.common.event.handler.api.builder.RegistrationEventPayloadBuilder;
 import org.wso2.identity.webhook.common.event.handler.api.builder.SessionEventPayloadBuilder;
 import org.wso2.identity.webhook.common.event.handler.api.builder.UserOperationEventPayloadBuilder;
 import org.wso2.identity.webhook.common.event.handler.api.builder.VerificationEventPayloadBuilder;
+import org.wso2.identity.webhook.common.event.handler.internal.async.AsyncEventDispatcher;
+import org.wso2.identity.webhook.common.event.handler.internal.async.EventPriority;
+import org.wso2.identity.webhook.common.event.handler.internal.async.EventPriorityPolicy;
+import org.wso2.identity.webhook.common.event.handler.internal.batch.EventBatcher;
+import org.wso2.identity.webhook.common.event.handler.internal.cache.EventProfileCache;
+import org.wso2.identity.webhook.common.event.handler.internal.cache.SubscriptionIndex;
+import org.wso2.identity.webhook.common.event.handler.internal.coalesce.EventCoalescer;
 import org.wso2.identity.webhook.common.event.handler.internal.constant.Constants;
 import org.wso2.identity.webhook.common.event.handler.internal.handler.CredentialEventHookHandler;
 import org.wso2.identity.webhook.common.event.handler.internal.handler.LoginEventHookHandler;
@@ -54,6 +63,23 @@ import org.wso2.identity.webhook.common.event.handler.internal.handler.Registrat
 import org.wso2.identity.webhook.common.event.handler.internal.handler.SessionEventHookHandler;
 import org.wso2.identity.webhook.common.event.handler.internal.handler.TokenEventHookHandler;
 import org.wso2.identity.webhook.common.event.handler.internal.handler.UserOperationEventHookHandler;
+import org.wso2.identity.webhook.common.event.handler.internal.handler.WebhookEventDispatcherHandler;
+import org.wso2.identity.webhook.common.event.handler.internal.jti.SecureRandomJtiGenerator;
+import org.wso2.identity.webhook.common.event.handler.internal.jti.TimeOrderedJtiGenerator;
+import org.wso2.identity.webhook.common.event.handler.internal.payload.CompactPayloadPolicy;
+import org.wso2.identity.webhook.common.event.handler.internal.payload.PayloadSizeTracker;
+import org.wso2.identity.webhook.common.event.handler.internal.ratelimit.EventRateLimiter;
+import org.wso2.identity.webhook.common.event.handler.internal.ratelimit.RateLimitPolicy;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 /**
  * WSO2 Event Handler service component class.
@@ -70,54 +96,41 @@ public class EventHookHandlerServiceComponent {
 
         try {
             log.debug("Event Handler is activated.");
-            String isLoginEventHandlerEnabled = getIdentityEventProperty(Constants.LOGIN_EVENT_HOOK_NAME,
-                    Constants.LOGIN_EVENT_HOOK_ENABLED);
-            String isUserOperationEventHandlerEnabled =
-                    getIdentityEventProperty(Constants.USER_OPERATION_EVENT_HOOK_NAME,
-                            Constants.USER_OPERATION_EVENT_HOOK_ENABLED);
-            String isRegistrationEventHandlerEnabled =
-                    getIdentityEventProperty(Constants.REGISTRATION_EVENT_HOOK_NAME,
-                            Constants.REGISTRATION_EVENT_HOOK_ENABLED);
+            WebhookEventDispatcherHandler.Builder dispatcherBuilder = WebhookEventDispatcherHandler.builder();
+            boolean isUnifiedDispatcherEnabled = isUnifiedDispatcherEnabled();
             BundleContext bundleContext = context.getBundleContext();
 
-            if (isLoginEventHandlerEnabled != null && isLoginEventHandlerEnabled
-                    .equalsIgnoreCase(Boolean.TRUE.toString())) {
-                bundleContext.registerService(AbstractEventHandler.class.getName(),
-                        new LoginEventHookHandler(), null);
-            }
-            if (isUserOperationEventHandlerEnabled != null && isUserOperationEventHandlerEnabled
-                    .equalsIgnoreCase(Boolean.TRUE.toString())) {
-                bundleContext.registerService(AbstractEventHandler.class.getName(),
-                        new UserOperationEventHookHandler(), null);
-            }
-            if (isRegistrationEventHandlerEnabled != null && isRegistrationEventHandlerEnabled
-                    .equalsIgnoreCase(Boolean.TRUE.toString())) {
-                bundleContext.registerService(AbstractEventHandler.class.getName(),
-                        new RegistrationEventHookHandler(), null);
-            }
-
-            String isSessionEventHandlerEnabled = getIdentityEventProperty(Constants.SESSION_EVENT_HOOK_NAME,
-                    Constants.SESSION_EVENT_HOOK_ENABLED);
-            if (isSessionEventHandlerEnabled != null &&
-                    isSessionEventHandlerEnabled.equalsIgnoreCase(Boolean.TRUE.toString())) {
-                bundleContext.registerService(AbstractEventHandler.class.getName(),
-                        new SessionEventHookHandler(), null);
+            registerEventHandler(bundleContext, dispatcherBuilder, isUnifiedDispatcherEnabled,
+                    Constants.LOGIN_EVENT_HOOK_NAME, Constants.LOGIN_EVENT_HOOK_ENABLED,
+                    new LoginEventHookHandler(), LoginEventHookHandler.HANDLED_EVENT_NAMES);
+            registerEventHandler(bundleContext, dispatcherBuilder, isUnifiedDispatcherEnabled,
+                    Constants.USER_OPERATION_EVENT_HOOK_NAME, Constants.USER_OPERATION_EVENT_HOOK_ENABLED,
+                    new UserOperationEventHookHandler(), UserOperationEventHookHandler.HANDLED_EVENT_NAMES);
+            registerEventHandler(bundleContext, dispatcherBuilder, isUnifiedDispatcherEnabled,
+                    Constants.REGISTRATION_EVENT_HOOK_NAME, Constants.REGISTRATION_EVENT_HOOK_ENABLED,
+                    new RegistrationEventHookHandler(), RegistrationEventHookHandler.HANDLED_EVENT_NAMES);
+            registerEventHandler(bundleContext, dispatcherBuilder, isUnifiedDispatcherEnabled,
+                    Constants.SESSION_EVENT_HOOK_NAME, Constants.SESSION_EVENT_HOOK_ENABLED,
+                    new SessionEventHookHandler(), SessionEventHookHandler.HANDLED_EVENT_NAMES);
+            registerEventHandler(bundleContext, dispatcherBuilder, isUnifiedDispatcherEnabled,
+                    Constants.CREDENTIAL_EVENT_HOOK_NAME, Constants.CREDENTIAL_EVENT_HOOK_ENABLED,
+                    new CredentialEventHookHandler(), CredentialEventHookHandler.HANDLED_EVENT_NAMES);
+            registerEventHandler(bundleContext, dispatcherBuilder, isUnifiedDispatcherEnabled,
+                    Constants.TOKEN_EVENT_HOOK_NAME, Constants.TOKEN_EVENT_HOOK_ENABLED,
+                    new TokenEventHookHandler(), TokenEventHookHandler.HANDLED_EVENT_NAMES);
+            if (isUnifiedDispatcherEnabled) {
+                bundleContext.registerService(AbstractEventHandler.class.getName(), dispatcherBuilder.build(), null);
             }
 
-            String isCredentialEventHandlerEnabled = getIdentityEventProperty(Constants.CREDENTIAL_EVENT_HOOK_NAME,
-                    Constants.CREDENTIAL_EVENT_HOOK_ENABLED);
-            if (isCredentialEventHandlerEnabled != null &&
-                    isCredentialEventHandlerEnabled.equalsIgnoreCase(Boolean.TRUE.toString())) {
-                bundleContext.registerService(AbstractEventHandler.class.getName(),
-                        new CredentialEventHookHandler(), null);
-            }
-
-            String isTokenEventHandlerEnabled =
-                    getIdentityEventProperty(Constants.TOKEN_EVENT_HOOK_NAME, Constants.TOKEN_EVENT_HOOK_ENABLED);
-            if (isTokenEventHandlerEnabled != null && isTokenEventHandlerEnabled
-                    .equalsIgnoreCase(Boolean.TRUE.toString())) {
-                bundleContext.registerService(AbstractEventHandler.class.getName(), new TokenEventHookHandler(), null);
-            }
+            configureEventProfileCache();
+            configureSubscriptionIndex();
+            configureAsyncPublishing();
+            configureBatchPublishing();
+            configureRateLimiting();
+            configureCoalescing();
+            configureJtiGenerator();
+            configureCompactPayload();
+            configurePayloadSizeTracking();
         } catch (IdentityEventServerException e) {
             log.error("Error while activating event handler.", e);
         }
@@ -126,6 +139,9 @@ public class EventHookHandlerServiceComponent {
     @Deactivate
     protected void deactivate(ComponentContext context) {
 
+        EventHookHandlerDataHolder.getInstance().getAsyncEventDispatcher().shutdown();
+        EventHookHandlerDataHolder.getInstance().getEventCoalescer().shutdown();
+        EventHookHandlerDataHolder.getInstance().getEventBatcher().shutdown();
         log.debug("Event Handler is deactivated.");
     }
 
@@ -398,6 +414,368 @@ public class EventHookHandlerServiceComponent {
         log.debug("Remove Token Event Payload Builder service " + tokenEventPayloadBuilder.getEventSchemaType());
         EventHookHandlerDataHolder.getInstance().removeTokenEventPayloadBuilder(tokenEventPayloadBuilder);
     }
+
+    @Reference(
+            name = "jti.generator",
+            service = JtiGenerator.class,
+            cardinality = ReferenceCardinality.OPTIONAL,
+            policy = ReferencePolicy.DYNAMIC,
+            unbind = "unsetJtiGenerator"
+    )
+    protected void setJtiGenerator(JtiGenerator jtiGenerator) {
+
+        log.debug("Set JTI Generator service " + jtiGenerator.getClass().getName());
+        EventHookHandlerDataHolder.getInstance().setRegisteredJtiGenerator(jtiGenerator);
+    }
+
+    protected void unsetJtiGenerator(JtiGenerator jtiGenerator) {
+
+        log.debug("Unset JTI Generator service " + jtiGenerator.getClass().getName());
+        if (EventHookHandlerDataHolder.getInstance().getRegisteredJtiGenerator() == jtiGenerator) {
+            EventHookHandlerDataHolder.getInstance().setRegisteredJtiGenerator(null);
+        }
+    }
+
+    private void configureEventProfileCache() throws IdentityEventServerException {
+
+        String ttl = getIdentityEventProperty(Constants.WEBHOOK_EVENT_HANDLER_CONFIG,
+                Constants.EVENT_PROFILE_CACHE_TTL);
+        if (StringUtils.isBlank(ttl)) {
+            return;
+        }
+        try {
+            EventHookHandlerDataHolder.getInstance().getEventProfileCache()
+                    .setTtl(TimeUnit.SECONDS.toMillis(Long.parseLong(ttl.trim())));
+        } catch (NumberFormatException e) {
+            log.warn("Invalid event profile cache TTL: " + ttl + ". Using the default TTL of " +
+                    EventProfileCache.DEFAULT_TTL_SECONDS + " seconds.");
+        }
+    }
+
+    private void configureSubscriptionIndex() throws IdentityEventServerException {
+
+        String isSubscriptionIndexEnabled = getIdentityEventProperty(Constants.WEBHOOK_EVENT_HANDLER_CONFIG,
+                Constants.SUBSCRIPTION_INDEX_ENABLED);
+        if (!Boolean.parseBoolean(StringUtils.trim(isSubscriptionIndexEnabled))) {
+            return;
+        }
+        EventHookHandlerDataHolder.getInstance().getSubscriptionIndex().setEnabled(true);
+        String ttl = getIdentityEventProperty(Constants.WEBHOOK_EVENT_HANDLER_CONFIG,
+                Constants.SUBSCRIPTION_INDEX_TTL);
+        if (StringUtils.isBlank(ttl)) {
+            return;
+        }
+        try {
+            EventHookHandlerDataHolder.getInstance().getSubscriptionIndex()
+                    .setTtl(TimeUnit.SECONDS.toMillis(Long.parseLong(ttl.trim())));
+        } catch (NumberFormatException e) {
+            log.warn("Invalid subscription index TTL: " + ttl + ". Using the default TTL of " +
+                    SubscriptionIndex.DEFAULT_TTL_SECONDS + " seconds.");
+        }
+    }
+
+    private void configureAsyncPublishing() throws IdentityEventServerException {
+
+        String isAsyncPublishingEnabled = getIdentityEventProperty(Constants.WEBHOOK_EVENT_HANDLER_CONFIG,
+                Constants.ASYNC_PUBLISHING_ENABLED);
+        if (!Boolean.parseBoolean(StringUtils.trim(isAsyncPublishingEnabled))) {
+            return;
+        }
+        int workerCount = (int) getLongProperty(Constants.ASYNC_PUBLISHING_WORKER_COUNT,
+                AsyncEventDispatcher.DEFAULT_WORKER_COUNT);
+        int queueSize = (int) getLongProperty(Constants.ASYNC_PUBLISHING_QUEUE_SIZE,
+                AsyncEventDispatcher.DEFAULT_QUEUE_SIZE);
+        boolean virtualThreads = Boolean.parseBoolean(StringUtils.trim(getIdentityEventProperty(
+                Constants.WEBHOOK_EVENT_HANDLER_CONFIG, Constants.ASYNC_PUBLISHING_VIRTUAL_THREADS)));
+        long shutdownTimeoutSeconds = getLongProperty(Constants.ASYNC_PUBLISHING_SHUTDOWN_TIMEOUT,
+                AsyncEventDispatcher.DEFAULT_SHUTDOWN_TIMEOUT_SECONDS);
+        Map<EventPriority, AsyncEventDispatcher.LaneSettings> laneSettings =
+                AsyncEventDispatcher.LaneSettings.share(workerCount, queueSize);
+        for (EventPriority eventPriority : EventPriority.values()) {
+            String lanePropertyPrefix = Constants.ASYNC_LANE_PROPERTY_PREFIX +
+                    eventPriority.name().toLowerCase(Locale.ENGLISH);
+            AsyncEventDispatcher.LaneSettings defaultSettings = laneSettings.get(eventPriority);
+            laneSettings.put(eventPriority, new AsyncEventDispatcher.LaneSettings(
+                    (int) getLongProperty(lanePropertyPrefix + Constants.ASYNC_LANE_WORKER_COUNT,
+                            defaultSettings.getWorkerCount()),
+                    (int) getLongProperty(lanePropertyPrefix + Constants.ASYNC_LANE_QUEUE_SIZE,
+                            defaultSettings.getQueueSize()),
+                    (int) getLongProperty(lanePropertyPrefix + Constants.ASYNC_LANE_SHED_SAMPLE_INTERVAL, 0)));
+        }
+
+        AsyncEventDispatcher asyncEventDispatcher = EventHookHandlerDataHolder.getInstance().getAsyncEventDispatcher();
+        asyncEventDispatcher.setEventPriorityPolicy(getEventPriorityPolicy());
+        asyncEventDispatcher.setSpillQueueSize((int) getLongProperty(Constants.ASYNC_PUBLISHING_SPILL_QUEUE_SIZE,
+                AsyncEventDispatcher.DEFAULT_SPILL_QUEUE_SIZE));
+        asyncEventDispatcher.start(laneSettings, virtualThreads, TimeUnit.SECONDS.toMillis(shutdownTimeoutSeconds));
+    }
+
+    /**
+     * Get the event priority policy, classifying the event URIs into the priority classes of the asynchronous
+     * dispatcher lanes and the security critical events exempt from rate limiting.
+     *
+     * @return Configured event priority policy, keeping the default events of the priority classes not configured.
+     */
+    private EventPriorityPolicy getEventPriorityPolicy() throws IdentityEventServerException {
+
+        String highPriorityEvents = getIdentityEventProperty(Constants.WEBHOOK_EVENT_HANDLER_CONFIG,
+                Constants.ASYNC_LANE_PROPERTY_PREFIX + "high" + Constants.ASYNC_LANE_EVENTS);
+        String lowPriorityEvents = getIdentityEventProperty(Constants.WEBHOOK_EVENT_HANDLER_CONFIG,
+                Constants.ASYNC_LANE_PROPERTY_PREFIX + "low" + Constants.ASYNC_LANE_EVENTS);
+        return EventPriorityPolicy.of(splitPropertyValues(highPriorityEvents), splitPropertyValues(lowPriorityEvents));
+    }
+
+    /**
+     * Check whether the enabled event hook handlers are dispatched by a single webhook event dispatcher handler,
+     * instead of being registered as separate event handlers. Disabled unless configured otherwise, so the event
+     * handlers are registered separately as before by default.
+     *
+     * @return True if the unified dispatcher is enabled.
+     */
+    private boolean isUnifiedDispatcherEnabled() throws IdentityEventServerException {
+
+        String isUnifiedDispatcherEnabled = getIdentityEventProperty(Constants.WEBHOOK_EVENT_HANDLER_CONFIG,
+                Constants.UNIFIED_DISPATCHER_ENABLED);
+        return Boolean.parseBoolean(StringUtils.trim(isUnifiedDispatcherEnabled));
+    }
+
+    /**
+     * Register an event hook handler if it is enabled, either with the unified dispatcher or as a separate event
+     * handler.
+     *
+     * @param bundleContext              Bundle context.
+     * @param dispatcherBuilder          Builder of the unified dispatcher.
+     * @param isUnifiedDispatcherEnabled Whether the unified dispatcher is enabled.
+     * @param moduleName                 Module name of the event hook.
+     * @param enabledPropertyName        Name of the property enabling the event hook.
+     * @param eventHandler               Event hook handler.
+     * @param eventNames                 Names of the events handled by the event hook handler.
+     */
+    private void registerEventHandler(BundleContext bundleContext,
+                                      WebhookEventDispatcherHandler.Builder dispatcherBuilder,
+                                      boolean isUnifiedDispatcherEnabled, String moduleName,
+                                      String enabledPropertyName, AbstractEventHandler eventHandler,
+                                      Set<String> eventNames) throws IdentityEventServerException {
+
+        String isEventHandlerEnabled = getIdentityEventProperty(moduleName, enabledPropertyName);
+        if (isEventHandlerEnabled == null || !isEventHandlerEnabled.equalsIgnoreCase(Boolean.TRUE.toString())) {
+            return;
+        }
+        if (isUnifiedDispatcherEnabled) {
+            dispatcherBuilder.handler(eventHandler, eventNames);
+        } else {
+            bundleContext.registerService(AbstractEventHandler.class.getName(), eventHandler, null);
+        }
+    }
+
+    private static List<String> splitPropertyValues(String values) {
+
+        List<String> valueList = new ArrayList<>();
+        if (StringUtils.isBlank(values)) {
+            return valueList;
+        }
+        for (String value : values.split(",")) {
+            if (StringUtils.isNotBlank(value)) {
+                valueList.add(value.trim());
+            }
+        }
+        return valueList;
+    }
+
+    private void configureBatchPublishing() throws IdentityEventServerException {
+
+        String isBatchPublishingEnabled = getIdentityEventProperty(Constants.WEBHOOK_EVENT_HANDLER_CONFIG,
+                Constants.BATCH_PUBLISHING_ENABLED);
+        if (!Boolean.parseBoolean(StringUtils.trim(isBatchPublishingEnabled))) {
+            return;
+        }
+        int maxBatchSize = (int) getLongProperty(Constants.BATCH_PUBLISHING_MAX_SIZE,
+                EventBatcher.DEFAULT_MAX_BATCH_SIZE);
+        long lingerMillis = getLongProperty(Constants.BATCH_PUBLISHING_LINGER, EventBatcher.DEFAULT_LINGER_MILLIS);
+        EventHookHandlerDataHolder.getInstance().getEventBatcher().start(maxBatchSize, lingerMillis);
+    }
+
+    private void configureRateLimiting() throws IdentityEventServerException {
+
+        String isRateLimitEnabled = getIdentityEventProperty(Constants.WEBHOOK_EVENT_HANDLER_CONFIG,
+                Constants.RATE_LIMIT_ENABLED);
+        if (!Boolean.parseBoolean(StringUtils.trim(isRateLimitEnabled))) {
+            return;
+        }
+        RateLimitPolicy defaultPolicy = getRateLimitPolicy(Constants.RATE_LIMIT_PROPERTY_PREFIX,
+                new RateLimitPolicy(RateLimitPolicy.UNLIMITED, EventRateLimiter.DEFAULT_BURST,
+                        RateLimitPolicy.FULL_SAMPLING_PERCENTAGE));
+        Map<String, RateLimitPolicy> tenantPolicies = new HashMap<>();
+        Map<String, RateLimitPolicy> eventPolicies = new HashMap<>();
+        Set<String> tenantEventPropertyPrefixes = new HashSet<>();
+        for (String propertyName : getIdentityEventPropertyNames(Constants.WEBHOOK_EVENT_HANDLER_CONFIG)) {
+            // Policy properties are named <prefix><tenant domain or event type>.<policy property>, and tenant domains
+            // may have dots. Event type properties of a tenant are named <prefix><tenant domain>.event.<event type>.
+            int policyPropertyIndex = propertyName.lastIndexOf('.');
+            if (propertyName.startsWith(Constants.RATE_LIMIT_EVENT_PROPERTY_PREFIX) &&
+                    policyPropertyIndex > Constants.RATE_LIMIT_EVENT_PROPERTY_PREFIX.length()) {
+                String eventType = propertyName.substring(Constants.RATE_LIMIT_EVENT_PROPERTY_PREFIX.length(),
+                        policyPropertyIndex);
+                if (!eventPolicies.containsKey(eventType)) {
+                    eventPolicies.put(eventType, getRateLimitPolicy(
+                            Constants.RATE_LIMIT_EVENT_PROPERTY_PREFIX + eventType + ".", defaultPolicy));
+                }
+                continue;
+            }
+            if (!propertyName.startsWith(Constants.RATE_LIMIT_TENANT_PROPERTY_PREFIX) ||
+                    policyPropertyIndex <= Constants.RATE_LIMIT_TENANT_PROPERTY_PREFIX.length()) {
+                continue;
+            }
+            String policyKey = propertyName.substring(Constants.RATE_LIMIT_TENANT_PROPERTY_PREFIX.length(),
+                    policyPropertyIndex);
+            if (policyKey.contains(Constants.RATE_LIMIT_TENANT_EVENT_SEGMENT)) {
+                tenantEventPropertyPrefixes.add(policyKey);
+            } else if (!tenantPolicies.containsKey(policyKey)) {
+                tenantPolicies.put(policyKey, getRateLimitPolicy(
+                        Constants.RATE_LIMIT_TENANT_PROPERTY_PREFIX + policyKey + ".", defaultPolicy));
+            }
+        }
+
+        Map<String, Map<String, RateLimitPolicy>> tenantEventPolicies = new HashMap<>();
+        for (String policyKey : tenantEventPropertyPrefixes) {
+            int eventSegmentIndex = policyKey.indexOf(Constants.RATE_LIMIT_TENANT_EVENT_SEGMENT);
+            String tenantDomain = policyKey.substring(0, eventSegmentIndex);
+            String eventType = policyKey.substring(eventSegmentIndex +
+                    Constants.RATE_LIMIT_TENANT_EVENT_SEGMENT.length());
+            if (tenantDomain.isEmpty() || eventType.isEmpty()) {
+                continue;
+            }
+            // A tenant's event type policy inherits the unset properties of the event type or tenant policy.
+            RateLimitPolicy inheritedPolicy = eventPolicies.get(eventType);
+            if (inheritedPolicy == null) {
+                inheritedPolicy = tenantPolicies.getOrDefault(tenantDomain, defaultPolicy);
+            }
+            tenantEventPolicies.computeIfAbsent(tenantDomain, key -> new HashMap<>()).put(eventType,
+                    getRateLimitPolicy(Constants.RATE_LIMIT_TENANT_PROPERTY_PREFIX + policyKey + ".",
+                            inheritedPolicy));
+        }
+
+        EventRateLimiter eventRateLimiter = EventHookHandlerDataHolder.getInstance().getEventRateLimiter();
+        eventRateLimiter.setEventPriorityPolicy(getEventPriorityPolicy());
+        eventRateLimiter.configure(defaultPolicy, tenantPolicies, eventPolicies, tenantEventPolicies);
+    }
+
+    private void configureCoalescing() throws IdentityEventServerException {
+
+        String isCoalescingEnabled = getIdentityEventProperty(Constants.WEBHOOK_EVENT_HANDLER_CONFIG,
+                Constants.COALESCING_ENABLED);
+        if (!Boolean.parseBoolean(StringUtils.trim(isCoalescingEnabled))) {
+            return;
+        }
+        long windowMillis = getLongProperty(Constants.COALESCING_WINDOW, EventCoalescer.DEFAULT_WINDOW_MILLIS);
+        int maxPendingEvents = (int) getLongProperty(Constants.COALESCING_MAX_PENDING_EVENTS,
+                EventCoalescer.DEFAULT_MAX_PENDING_EVENTS);
+        List<String> eventUris = splitPropertyValues(getIdentityEventProperty(Constants.WEBHOOK_EVENT_HANDLER_CONFIG,
+                Constants.COALESCING_EVENTS));
+        EventHookHandlerDataHolder.getInstance().getEventCoalescer().start(windowMillis, maxPendingEvents,
+                eventUris.isEmpty() ? EventCoalescer.DEFAULT_EVENT_URIS : eventUris);
+    }
+
+    private void configureJtiGenerator() throws IdentityEventServerException {
+
+        String jtiGenerator = StringUtils.trim(getIdentityEventProperty(Constants.WEBHOOK_EVENT_HANDLER_CONFIG,
+                Constants.JTI_GENERATOR));
+        if (StringUtils.isBlank(jtiGenerator) || TimeOrderedJtiGenerator.NAME.equalsIgnoreCase(jtiGenerator)) {
+            EventHookHandlerDataHolder.getInstance().setConfiguredJtiGenerator(new TimeOrderedJtiGenerator());
+        } else if (SecureRandomJtiGenerator.NAME.equalsIgnoreCase(jtiGenerator)) {
+            EventHookHandlerDataHolder.getInstance().setConfiguredJtiGenerator(new SecureRandomJtiGenerator());
+        } else {
+            log.warn("Invalid JTI generator: " + jtiGenerator + ". Using the " + TimeOrderedJtiGenerator.NAME +
+                    " generator.");
+            EventHookHandlerDataHolder.getInstance().setConfiguredJtiGenerator(new TimeOrderedJtiGenerator());
+        }
+    }
+
+    private void configureCompactPayload() throws IdentityEventServerException {
+
+        boolean isCompactPayloadEnabled = Boolean.parseBoolean(StringUtils.trim(getIdentityEventProperty(
+                Constants.WEBHOOK_EVENT_HANDLER_CONFIG, Constants.COMPACT_PAYLOAD_ENABLED)));
+        List<String> tenantDomains = splitPropertyValues(getIdentityEventProperty(
+                Constants.WEBHOOK_EVENT_HANDLER_CONFIG, Constants.COMPACT_PAYLOAD_TENANTS));
+        EventHookHandlerDataHolder.getInstance().setCompactPayloadPolicy(
+                CompactPayloadPolicy.of(isCompactPayloadEnabled, tenantDomains));
+    }
+
+    private void configurePayloadSizeTracking() throws IdentityEventServerException {
+
+        String sampleInterval = getIdentityEventProperty(Constants.WEBHOOK_EVENT_HANDLER_CONFIG,
+                Constants.PAYLOAD_SIZE_SAMPLE_INTERVAL);
+        if (StringUtils.isBlank(sampleInterval)) {
+            return;
+        }
+        try {
+            // A sample interval of zero disables the tracking.
+            EventHookHandlerDataHolder.getInstance().getPayloadSizeTracker()
+                    .setSampleInterval(Integer.parseInt(sampleInterval.trim()));
+        } catch (NumberFormatException e) {
+            log.warn("Invalid payload size sample interval: " + sampleInterval + ". Using the default interval of " +
+                    PayloadSizeTracker.DEFAULT_SAMPLE_INTERVAL + ".");
+        }
+    }
+
+    private RateLimitPolicy getRateLimitPolicy(String propertyPrefix, RateLimitPolicy defaultPolicy)
+            throws IdentityEventServerException {
+
+        // Zero events per second blocks the events, and a sampling percentage of zero drops them.
+        return new RateLimitPolicy(
+                getLongProperty(propertyPrefix + Constants.RATE_LIMIT_EVENTS_PER_SECOND,
+                        defaultPolicy.getEventsPerSecond(), 0),
+                getLongProperty(propertyPrefix + Constants.RATE_LIMIT_BURST, defaultPolicy.getBurst()),
+                (int) getLongProperty(propertyPrefix + Constants.RATE_LIMIT_SAMPLING_PERCENTAGE,
+                        defaultPolicy.getSamplingPercentage(), 0));
+    }
+
+    private long getLongProperty(String propertyName, long defaultValue) throws IdentityEventServerException {
+
+        return getLongProperty(propertyName, defaultValue, 1);
+    }
+
+    private long getLongProperty(String propertyName, long defaultValue, long minValue)
+            throws IdentityEventServerException {
+
+        String value = getIdentityEventProperty(Constants.WEBHOOK_EVENT_HANDLER_CONFIG, propertyName);
+        if (StringUtils.isBlank(value)) {
+            return defaultValue;
+        }
+        try {
+            long longValue = Long.parseLong(value.trim());
+            if (longValue >= minValue) {
+                return longValue;
+            }
+        } catch (NumberFormatException e) {
+            // Falls back to the default value below.
+        }
+        log.warn("Invalid value: " + value + " for " + propertyName + ". Using the default value of " +
+                defaultValue + ".");
+        return defaultValue;
+    }
+
+    /**
+     * Get the names of the identity properties of a module specified in identity-event.properties.
+     *
+     * @param moduleName The name of the module
+     * @return Property names of the module
+     */
+    private Set<String> getIdentityEventPropertyNames(String moduleName) throws IdentityEventServerException {
+
+        try {
+            ModuleConfiguration moduleConfiguration = IdentityEventConfigBuilder.getInstance()
+                    .getModuleConfigurations(moduleName);
+            if (moduleConfiguration != null && moduleConfiguration.getModuleProperties() != null) {
+                return moduleConfiguration.getModuleProperties().stringPropertyNames();
+            }
+        } catch (IdentityEventException e) {
+            throw new IdentityEventServerException("An error occurred while retrieving module properties because " +
+                    e.getMessage());
+        }
+        return Collections.emptySet();
+    }
+
     /**
      * Get the identity property specified in identity-event.properties.
      *
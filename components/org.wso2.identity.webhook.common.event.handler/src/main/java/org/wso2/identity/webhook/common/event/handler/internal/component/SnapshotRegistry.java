@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.webhook.common.event.handler.internal.component;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Copy-on-write registry of services bound through dynamic OSGi references.
+ * <p>
+ * Every bind or unbind publishes a new immutable snapshot array with a compare-and-set, so readers iterate a stable
+ * snapshot without locking and never observe a concurrent modification. Each successful change increments the
+ * shared version counter of the data holder, after the new snapshot is visible.
+ *
+ * @param <T> Type of the registered services.
+ */
+class SnapshotRegistry<T> {
+
+    private final AtomicReference<List<T>> snapshot = new AtomicReference<>(Collections.<T>emptyList());
+    private final AtomicLong version;
+
+    SnapshotRegistry(AtomicLong version) {
+
+        this.version = version;
+    }
+
+    /**
+     * Get the current snapshot of the registered services.
+     *
+     * @return Unmodifiable snapshot of the registered services, in registration order.
+     */
+    List<T> getSnapshot() {
+
+        return snapshot.get();
+    }
+
+    /**
+     * Register a service.
+     *
+     * @param service Service to register.
+     */
+    void add(T service) {
+
+        List<T> current;
+        List<T> updated;
+        do {
+            current = snapshot.get();
+            Object[] services = Arrays.copyOf(current.toArray(), current.size() + 1);
+            services[current.size()] = service;
+            updated = toSnapshot(services);
+        } while (!snapshot.compareAndSet(current, updated));
+        version.incrementAndGet();
+    }
+
+    /**
+     * Unregister the first occurrence of a service.
+     *
+     * @param service Service to unregister.
+     * @return True if the service was registered.
+     */
+    boolean remove(T service) {
+
+        List<T> current;
+        List<T> updated;
+        do {
+            current = snapshot.get();
+            int index = current.indexOf(service);
+            if (index < 0) {
+                return false;
+            }
+            Object[] services = new Object[current.size() - 1];
+            for (int i = 0, j = 0; i < current.size(); i++) {
+                if (i != index) {
+                    services[j++] = current.get(i);
+                }
+            }
+            updated = toSnapshot(services);
+        } while (!snapshot.compareAndSet(current, updated));
+        version.incrementAndGet();
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<T> toSnapshot(Object[] services) {
+
+        if (services.length == 0) {
+            return Collections.emptyList();
+        }
+        return Collections.unmodifiableList((List<T>) Arrays.asList(services));
+    }
+}
@@ -47,6 +47,43 @@ public class Constants {
     public static final String TOKEN_EVENT_HOOK_NAME = "TokenEventHook";
     public static final String TOKEN_EVENT_HOOK_ENABLED = "TokenEventHook.enable";
 
+    public static final String WEBHOOK_EVENT_HANDLER_CONFIG = "WebhookEventHandler";
+    public static final String UNIFIED_DISPATCHER_ENABLED = "WebhookEventHandler.unifiedDispatcher.enable";
+    public static final String EVENT_PROFILE_CACHE_TTL = "WebhookEventHandler.eventProfileCache.ttlSeconds";
+    public static final String SUBSCRIPTION_INDEX_ENABLED = "WebhookEventHandler.subscriptionIndex.enable";
+    public static final String SUBSCRIPTION_INDEX_TTL = "WebhookEventHandler.subscriptionIndex.ttlSeconds";
+    public static final String ASYNC_PUBLISHING_ENABLED = "WebhookEventHandler.async.enable";
+    public static final String ASYNC_PUBLISHING_WORKER_COUNT = "WebhookEventHandler.async.workerCount";
+    public static final String ASYNC_PUBLISHING_QUEUE_SIZE = "WebhookEventHandler.async.queueSize";
+    public static final String ASYNC_PUBLISHING_VIRTUAL_THREADS = "WebhookEventHandler.async.virtualThreads";
+    public static final String ASYNC_PUBLISHING_SHUTDOWN_TIMEOUT =
+            "WebhookEventHandler.async.shutdownTimeoutSeconds";
+    public static final String ASYNC_PUBLISHING_SPILL_QUEUE_SIZE = "WebhookEventHandler.async.spillQueueSize";
+    public static final String ASYNC_LANE_PROPERTY_PREFIX = "WebhookEventHandler.async.lane.";
+    public static final String ASYNC_LANE_WORKER_COUNT = ".workerCount";
+    public static final String ASYNC_LANE_QUEUE_SIZE = ".queueSize";
+    public static final String ASYNC_LANE_EVENTS = ".events";
+    public static final String ASYNC_LANE_SHED_SAMPLE_INTERVAL = ".shedSampleInterval";
+    public static final String RATE_LIMIT_ENABLED = "WebhookEventHandler.rateLimit.enable";
+    public static final String RATE_LIMIT_PROPERTY_PREFIX = "WebhookEventHandler.rateLimit.";
+    public static final String RATE_LIMIT_TENANT_PROPERTY_PREFIX = "WebhookEventHandler.rateLimit.tenant.";
+    public static final String RATE_LIMIT_EVENT_PROPERTY_PREFIX = "WebhookEventHandler.rateLimit.event.";
+    public static final String RATE_LIMIT_TENANT_EVENT_SEGMENT = ".event.";
+    public static final String RATE_LIMIT_EVENTS_PER_SECOND = "eventsPerSecond";
+    public static final String RATE_LIMIT_BURST = "burst";
+    public static final String RATE_LIMIT_SAMPLING_PERCENTAGE = "samplingPercentage";
+    public static final String BATCH_PUBLISHING_ENABLED = "WebhookEventHandler.batch.enable";
+    public static final String BATCH_PUBLISHING_MAX_SIZE = "WebhookEventHandler.batch.maxSize";
+    public static final String BATCH_PUBLISHING_LINGER = "WebhookEventHandler.batch.lingerMillis";
+    public static final String COALESCING_ENABLED = "WebhookEventHandler.coalescing.enable";
+    public static final String COALESCING_WINDOW = "WebhookEventHandler.coalescing.windowMillis";
+    public static final String COALESCING_MAX_PENDING_EVENTS = "WebhookEventHandler.coalescing.maxPendingEvents";
+    public static final String COALESCING_EVENTS = "WebhookEventHandler.coalescing.events";
+    public static final String JTI_GENERATOR = "WebhookEventHandler.jti.generator";
+    public static final String COMPACT_PAYLOAD_ENABLED = "WebhookEventHandler.compactPayload.enable";
+    public static final String COMPACT_PAYLOAD_TENANTS = "WebhookEventHandler.compactPayload.tenants";
+    public static final String PAYLOAD_SIZE_SAMPLE_INTERVAL = "WebhookEventHandler.payloadSize.sampleInterval";
+
     /**
      * Constants for event data keys.
      * These names will be equal to the keys in the event data map.
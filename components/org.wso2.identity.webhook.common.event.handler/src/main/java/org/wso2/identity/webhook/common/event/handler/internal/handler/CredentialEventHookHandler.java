@@ -33,18 +33,19 @@ import org.wso2.carbon.identity.event.publisher.api.exception.EventPublisherExce
 import org.wso2.carbon.identity.event.publisher.api.model.EventContext;
 import org.wso2.carbon.identity.event.publisher.api.model.EventPayload;
 import org.wso2.carbon.identity.event.publisher.api.model.SecurityEventTokenPayload;
-import org.wso2.carbon.identity.webhook.metadata.api.model.Channel;
-import org.wso2.carbon.identity.webhook.metadata.api.model.EventProfile;
 import org.wso2.identity.webhook.common.event.handler.api.builder.CredentialEventPayloadBuilder;
 import org.wso2.identity.webhook.common.event.handler.api.model.EventData;
-import org.wso2.identity.webhook.common.event.handler.api.model.EventMetadata;
 import org.wso2.identity.webhook.common.event.handler.internal.component.EventHookHandlerDataHolder;
 import org.wso2.identity.webhook.common.event.handler.internal.constant.Constants;
+import org.wso2.identity.webhook.common.event.handler.internal.routing.EventRoute;
+import org.wso2.identity.webhook.common.event.handler.internal.routing.EventRouter;
 import org.wso2.identity.webhook.common.event.handler.internal.util.EventHookHandlerUtils;
-import org.wso2.identity.webhook.common.event.handler.internal.util.PayloadBuilderFactory;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Objects;
+import java.util.Set;
 
 import static org.wso2.identity.webhook.common.event.handler.internal.constant.Constants.EVENT_PROFILE_VERSION;
 
@@ -55,6 +56,14 @@ public class CredentialEventHookHandler extends AbstractEventHandler {
 
     private static final Log log = LogFactory.getLog(CredentialEventHookHandler.class);
 
+    /**
+     * Names of the events handled by this handler. Whether an event of these names is handled may further depend on
+     * the flow it is triggered in.
+     */
+    public static final Set<String> HANDLED_EVENT_NAMES = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            IdentityEventConstants.Event.POST_ADD_NEW_PASSWORD,
+            IdentityEventConstants.Event.POST_UPDATE_CREDENTIAL_BY_SCIM)));
+
     @Override
     public String getName() {
 
@@ -87,65 +96,48 @@ public class CredentialEventHookHandler extends AbstractEventHandler {
     @Override
     public void handleEvent(Event event) throws IdentityEventException {
 
-        try {
-            List<EventProfile> eventProfileList =
-                    EventHookHandlerDataHolder.getInstance().getWebhookMetadataService().getSupportedEventProfiles();
+        if (EventHookHandlerDataHolder.getInstance().getAsyncEventDispatcher().dispatch(event, this::processEvent)) {
+            return;
+        }
+        processEvent(event);
+    }
+
+    private void processEvent(Event event) throws IdentityEventException {
 
-            if (eventProfileList.isEmpty()) {
-                log.warn(
-                        "No event profiles found in the webhook metadata service. Skipping credential event handling.");
+        try {
+            List<EventRoute> eventRoutes = EventRouter.getInstance()
+                    .admit(event, EventRouter.getInstance().getRoutes(event));
+            if (eventRoutes.isEmpty()) {
+                log.debug("No event routes found for event: " + event.getEventName() +
+                        ". Skipping credential event handling.");
                 return;
             }
 
-            for (EventProfile eventProfile : eventProfileList) {
-                handleEventForProfile(event, eventProfile);
+            EventData eventData = EventHookHandlerUtils.buildEventDataProvider(event);
+            for (EventRoute eventRoute : eventRoutes) {
+                handleEventForRoute(event, eventData, eventRoute);
             }
         } catch (Exception e) {
             log.warn("Error while retrieving credential change event publisher configuration for tenant.", e);
         }
     }
 
-    private void handleEventForProfile(Event event, EventProfile eventProfile)
+    private void handleEventForRoute(Event event, EventData eventData, EventRoute eventRoute)
             throws IdentityEventException, EventPublisherException {
-        // Prepare schema, payload builder, and event data
-        org.wso2.identity.webhook.common.event.handler.api.constants.Constants.EventSchema schema =
-                org.wso2.identity.webhook.common.event.handler.api.constants.Constants.EventSchema.valueOf(
-                        eventProfile.getProfile());
-        EventData eventData = EventHookHandlerUtils.buildEventDataProvider(event);
-        CredentialEventPayloadBuilder payloadBuilder = PayloadBuilderFactory.getCredentialEventPayloadBuilder(schema);
 
-        if (payloadBuilder == null) {
-            log.debug("Skipping credential change event handling for profile " + eventProfile.getProfile());
-            return;
-        }
+        CredentialEventPayloadBuilder payloadBuilder =
+                eventRoute.getPayloadBuilder(CredentialEventPayloadBuilder.class);
 
-        // Get event metadata and channel
-        EventMetadata eventMetadata = EventHookHandlerUtils.getEventProfileManagerByProfile(
-                eventProfile.getProfile(), event.getEventName());
-        if (eventMetadata == null) {
-            log.debug("No event metadata found for event: " + event.getEventName() + " in profile: " +
-                    eventProfile.getProfile());
-            return;
-        }
-
-        Channel credentialChangeChannel = eventProfile.getChannels().stream()
-                .filter(channel -> eventMetadata.getChannel().equals(channel.getUri()))
-                .findFirst().orElse(null);
-        if (credentialChangeChannel == null) {
-            log.debug("No channel found for credential change event profile: " + eventProfile.getProfile());
+        if (payloadBuilder == null) {
+            log.debug("Skipping credential change event handling for profile " + eventRoute.getEventProfileName());
             return;
         }
 
-        String eventUri = credentialChangeChannel.getEvents().stream()
-                .filter(channelEvent -> Objects.equals(eventMetadata.getEvent(), channelEvent.getEventUri()))
-                .findFirst().map(org.wso2.carbon.identity.webhook.metadata.api.model.Event::getEventUri)
-                .orElse(null);
-
         // Publish for current accessing org
         String tenantDomain = String.valueOf(
                 eventData.getEventParams().get(IdentityEventConstants.EventProperty.TENANT_DOMAIN));
-        publishCredentialEvent(tenantDomain, credentialChangeChannel, eventUri, eventProfile.getProfile(),
-                payloadBuilder, eventData, event.getEventName());
+        publishCredentialEvent(tenantDomain, eventRoute, eventRoute.getEventUri(),
+                eventRoute.getEventProfileName(), payloadBuilder, eventData, event);
     }
 
     private boolean isSupportedEvent(String eventName) {
@@ -172,19 +164,20 @@ public class CredentialEventHookHandler extends AbstractEventHandler {
         return IdentityEventConstants.Event.POST_UPDATE_CREDENTIAL_BY_SCIM.equals(eventName);
     }
 
-    private void publishCredentialEvent(String tenantDomain, Channel credentialChangeChannel, String eventUri,
+    private void publishCredentialEvent(String tenantDomain, EventRoute eventRoute, String eventUri,
                                         String eventProfileName, CredentialEventPayloadBuilder payloadBuilder,
-                                        EventData eventData, String eventName)
+                                        EventData eventData, Event event)
             throws IdentityEventException, EventPublisherException {
 
+        String eventName = event.getEventName();
         EventContext eventContext = EventContext.builder()
                 .tenantDomain(tenantDomain)
-                .eventUri(credentialChangeChannel.getUri())
+                .eventUri(eventRoute.getChannel().getUri())
                 .eventProfileName(eventProfileName)
                 .eventProfileVersion(EVENT_PROFILE_VERSION)
                 .build();
 
-        if (!EventHookHandlerDataHolder.getInstance().getEventPublisherService().canHandleEvent(eventContext)) {
+        if (!EventRouter.getInstance().canHandleEvent(event, eventRoute, eventContext)) {
             return;
         }
 
@@ -196,8 +189,9 @@ public class CredentialEventHookHandler extends AbstractEventHandler {
         }
 
         SecurityEventTokenPayload securityEventTokenPayload =
-                EventHookHandlerUtils.buildSecurityEventToken(eventPayload, eventUri);
-        EventHookHandlerDataHolder.getInstance().getEventPublisherService()
+                EventHookHandlerUtils.buildSecurityEventToken(eventPayload, eventUri, null,
+                        eventData.getEventContextSnapshot());
+        EventHookHandlerDataHolder.getInstance().getEventBatcher()
                 .publish(securityEventTokenPayload, eventContext);
     }
 }
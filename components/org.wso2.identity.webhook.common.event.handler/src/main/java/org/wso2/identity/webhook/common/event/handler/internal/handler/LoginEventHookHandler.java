@@ -32,18 +32,19 @@ import org.wso2.carbon.identity.event.publisher.api.exception.EventPublisherExce
 import org.wso2.carbon.identity.event.publisher.api.model.EventContext;
 import org.wso2.carbon.identity.event.publisher.api.model.EventPayload;
 import org.wso2.carbon.identity.event.publisher.api.model.SecurityEventTokenPayload;
-import org.wso2.carbon.identity.webhook.metadata.api.model.Channel;
-import org.wso2.carbon.identity.webhook.metadata.api.model.EventProfile;
 import org.wso2.identity.webhook.common.event.handler.api.builder.LoginEventPayloadBuilder;
 import org.wso2.identity.webhook.common.event.handler.api.model.EventData;
-import org.wso2.identity.webhook.common.event.handler.api.model.EventMetadata;
 import org.wso2.identity.webhook.common.event.handler.internal.component.EventHookHandlerDataHolder;
 import org.wso2.identity.webhook.common.event.handler.internal.constant.Constants;
+import org.wso2.identity.webhook.common.event.handler.internal.routing.EventRoute;
+import org.wso2.identity.webhook.common.event.handler.internal.routing.EventRouter;
 import org.wso2.identity.webhook.common.event.handler.internal.util.EventHookHandlerUtils;
-import org.wso2.identity.webhook.common.event.handler.internal.util.PayloadBuilderFactory;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Objects;
+import java.util.Set;
 
 /**
  * Login Event Hook Handler.
@@ -52,6 +53,15 @@ public class LoginEventHookHandler extends AbstractEventHandler {
 
     private static final Log log = LogFactory.getLog(LoginEventHookHandler.class);
 
+    /**
+     * Names of the events handled by this handler. Whether an event of these names is handled may further depend on
+     * the flow it is triggered in.
+     */
+    public static final Set<String> HANDLED_EVENT_NAMES = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            IdentityEventConstants.EventName.AUTHENTICATION_SUCCESS.name(),
+            IdentityEventConstants.EventName.AUTHENTICATION_STEP_FAILURE.name(),
+            IdentityEventConstants.EventName.AUTHENTICATION_FAILURE.name())));
+
     @Override
     public String getName() {
 
@@ -83,14 +93,29 @@ public class LoginEventHookHandler extends AbstractEventHandler {
 
     private boolean isSupportedEvent(String eventName) {
 
-        return IdentityEventConstants.EventName.AUTHENTICATION_SUCCESS.name().equals(eventName) ||
-                IdentityEventConstants.EventName.AUTHENTICATION_STEP_FAILURE.name().equals(eventName) ||
-                IdentityEventConstants.EventName.AUTHENTICATION_FAILURE.name().equals(eventName);
+        return HANDLED_EVENT_NAMES.contains(eventName);
     }
 
     @Override
     public void handleEvent(Event event) throws IdentityEventException {
 
+        if (EventHookHandlerDataHolder.getInstance().getAsyncEventDispatcher().dispatch(event, this::processEvent)) {
+            return;
+        }
+        processEvent(event);
+    }
+
+    private void processEvent(Event event) throws IdentityEventException {
+
+        // Skip before building the event data if no subscriber of the tenant can handle the event.
+        List<EventRoute> eventRoutes = EventRouter.getInstance().getRoutes(event);
+        eventRoutes = EventRouter.getInstance().admit(event, eventRoutes);
+        if (eventRoutes.isEmpty()) {
+            log.debug("No subscribed event routes found for event: " + event.getEventName() +
+                    ". Skipping login event handling.");
+            return;
+        }
+
         EventData eventData = EventHookHandlerUtils.buildEventDataProvider(event);
 
         if (eventData.getAuthenticationContext().isPassiveAuthenticate()) {
@@ -98,95 +123,62 @@ public class LoginEventHookHandler extends AbstractEventHandler {
         }
 
         try {
-            List<EventProfile> eventProfileList =
-                    EventHookHandlerDataHolder.getInstance().getWebhookMetadataService().getSupportedEventProfiles();
-            if (eventProfileList.isEmpty()) {
-                log.warn("No event profiles found in the webhook metadata service. Skipping login event handling.");
-                return;
-            }
-            for (EventProfile eventProfile : eventProfileList) {
-                handleEventForProfile(event, eventData, eventProfile);
+            for (EventRoute eventRoute : eventRoutes) {
+                handleEventForRoute(event, eventData, eventRoute);
             }
         } catch (Exception e) {
             log.warn("Error while retrieving login event publisher configuration for tenant.", e);
         }
     }
 
-    private void handleEventForProfile(Event event, EventData eventData, EventProfile eventProfile)
+    private void handleEventForRoute(Event event, EventData eventData, EventRoute eventRoute)
             throws IdentityEventException, EventPublisherException {
 
-        // Prepare schema, payload builder, and event metadata
-        org.wso2.identity.webhook.common.event.handler.api.constants.Constants.EventSchema schema =
-                org.wso2.identity.webhook.common.event.handler.api.constants.Constants.EventSchema.valueOf(
-                        eventProfile.getProfile());
-        LoginEventPayloadBuilder payloadBuilder = PayloadBuilderFactory.getLoginEventPayloadBuilder(schema);
-
+        LoginEventPayloadBuilder payloadBuilder = eventRoute.getPayloadBuilder(LoginEventPayloadBuilder.class);
         if (payloadBuilder == null) {
-            log.debug("Skipping login event handling for profile " + eventProfile.getProfile());
-            return;
-        }
-
-        EventMetadata eventMetadata = EventHookHandlerUtils.getEventProfileManagerByProfile(
-                eventProfile.getProfile(), event.getEventName());
-        if (eventMetadata == null) {
-            log.debug("No event metadata found for event: " + event.getEventName() +
-                    " in profile: " + eventProfile.getProfile());
+            log.debug("Skipping login event handling for profile " + eventRoute.getEventProfileName());
             return;
         }
 
-        // Get channel and event URI
-        Channel loginChannel = eventProfile.getChannels().stream()
-                .filter(channel -> eventMetadata.getChannel().equals(channel.getUri()))
-                .findFirst()
-                .orElse(null);
-        if (loginChannel == null) {
-            log.debug("No channel found for login event profile: " + eventProfile.getProfile());
-            return;
-        }
-
-        String eventUri = loginChannel.getEvents().stream()
-                .filter(channelEvent -> Objects.equals(eventMetadata.getEvent(), channelEvent.getEventUri()))
-                .findFirst()
-                .map(org.wso2.carbon.identity.webhook.metadata.api.model.Event::getEventUri)
-                .orElse(null);
-
         // Skip system application events
         String applicationNameInEvent = eventData.getAuthenticationContext().getServiceProviderName();
         boolean isEventTriggeredForSystemApplication = StringUtils.isNotBlank(applicationNameInEvent)
                 && "Console".equals(applicationNameInEvent);
         if (isEventTriggeredForSystemApplication) {
             log.debug("Event trigger for system application: " + applicationNameInEvent +
-                    ". Skipping event handling for login event profile: " + eventProfile.getProfile());
+                    ". Skipping event handling for login event profile: " + eventRoute.getEventProfileName());
             return;
         }
 
-        if (EventHookHandlerUtils.isB2BUserLogin(eventData.getAuthenticationContext())) {
+        if (eventData.isB2BUserLogin()) {
             if (log.isDebugEnabled()) {
                 log.debug(
                         "Login event is triggered for a B2B user federation. Skipping event handling for login event profile: " +
-                                eventProfile.getProfile());
+                                eventRoute.getEventProfileName());
             }
             return;
         }
 
         // Publish for current accessing org
         String tenantDomain = eventData.getAuthenticationContext().getLoginTenantDomain();
-        publishEvent(tenantDomain, loginChannel, eventUri, eventProfile.getProfile(),
-                payloadBuilder, eventData, event.getEventName());
+        publishEvent(tenantDomain, eventRoute, payloadBuilder, eventData, event);
     }
 
-    private void publishEvent(String tenantDomain, Channel loginChannel, String eventUri, String eventProfileName,
-                              LoginEventPayloadBuilder payloadBuilder, EventData eventData, String eventName)
+    private void publishEvent(String tenantDomain, EventRoute eventRoute, LoginEventPayloadBuilder payloadBuilder,
+                              EventData eventData, Event event)
             throws IdentityEventException, EventPublisherException {
 
+        String eventName = event.getEventName();
+        String eventUri = eventRoute.getEventUri();
+        String eventProfileName = eventRoute.getEventProfileName();
         EventContext eventContext = EventContext.builder()
                 .tenantDomain(tenantDomain)
-                .eventUri(loginChannel.getUri())
+                .eventUri(eventRoute.getChannel().getUri())
                 .eventProfileName(eventProfileName)
                 .eventProfileVersion(Constants.EVENT_PROFILE_VERSION)
                 .build();
 
-        if (!EventHookHandlerDataHolder.getInstance().getEventPublisherService().canHandleEvent(eventContext)) {
+        if (!EventRouter.getInstance().canHandleEvent(event, eventRoute, eventContext)) {
             return;
         }
 
@@ -206,8 +198,9 @@ public class LoginEventHookHandler extends AbstractEventHandler {
         log.debug("Publishing login event: " + eventName + " for tenant: " + tenantDomain +
                 " with event URI: " + eventUri + " and profile: " + eventProfileName);
         SecurityEventTokenPayload securityEventTokenPayload =
-                EventHookHandlerUtils.buildSecurityEventToken(eventPayload, eventUri);
-        EventHookHandlerDataHolder.getInstance().getEventPublisherService()
+                EventHookHandlerUtils.buildSecurityEventToken(eventPayload, eventUri, null,
+                        eventData.getEventContextSnapshot());
+        EventHookHandlerDataHolder.getInstance().getEventBatcher()
                 .publish(securityEventTokenPayload, eventContext);
     }
 }
@@ -33,18 +33,20 @@ import org.wso2.carbon.identity.event.publisher.api.exception.EventPublisherExce
 import org.wso2.carbon.identity.event.publisher.api.model.EventContext;
 import org.wso2.carbon.identity.event.publisher.api.model.EventPayload;
 import org.wso2.carbon.identity.event.publisher.api.model.SecurityEventTokenPayload;
-import org.wso2.carbon.identity.webhook.metadata.api.model.Channel;
-import org.wso2.carbon.identity.webhook.metadata.api.model.EventProfile;
 import org.wso2.identity.webhook.common.event.handler.api.builder.RegistrationEventPayloadBuilder;
 import org.wso2.identity.webhook.common.event.handler.api.model.EventData;
 import org.wso2.identity.webhook.common.event.handler.api.model.EventMetadata;
 import org.wso2.identity.webhook.common.event.handler.internal.component.EventHookHandlerDataHolder;
 import org.wso2.identity.webhook.common.event.handler.internal.constant.Constants;
+import org.wso2.identity.webhook.common.event.handler.internal.routing.EventRoute;
+import org.wso2.identity.webhook.common.event.handler.internal.routing.EventRouter;
 import org.wso2.identity.webhook.common.event.handler.internal.util.EventHookHandlerUtils;
-import org.wso2.identity.webhook.common.event.handler.internal.util.PayloadBuilderFactory;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Objects;
+import java.util.Set;
 
 import static org.wso2.identity.webhook.common.event.handler.api.constants.Constants.EventSchema.WSO2;
 import static org.wso2.identity.webhook.common.event.handler.internal.constant.Constants.EVENT_PROFILE_VERSION;
@@ -58,6 +60,16 @@ public class RegistrationEventHookHandler extends AbstractEventHandler {
 
     private static final Log log = LogFactory.getLog(RegistrationEventHookHandler.class);
 
+    /**
+     * Names of the events handled by this handler. Whether an event of these names is handled may further depend on
+     * the flow it is triggered in.
+     */
+    public static final Set<String> HANDLED_EVENT_NAMES = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            IdentityEventConstants.Event.USER_REGISTRATION_SUCCESS,
+            IdentityEventConstants.Event.POST_SELF_SIGNUP_CONFIRM,
+            IdentityEventConstants.Event.POST_ADD_NEW_PASSWORD,
+            IdentityEventConstants.Event.USER_REGISTRATION_FAILED)));
+
     @Override
     public String getName() {
 
@@ -90,66 +102,61 @@ public class RegistrationEventHookHandler extends AbstractEventHandler {
     @Override
     public void handleEvent(Event event) throws IdentityEventException {
 
+        if (EventHookHandlerDataHolder.getInstance().getAsyncEventDispatcher().dispatch(event, this::processEvent)) {
+            return;
+        }
+        processEvent(event);
+    }
+
+    private void processEvent(Event event) throws IdentityEventException {
+
         try {
-            List<EventProfile> eventProfileList =
-                    EventHookHandlerDataHolder.getInstance().getWebhookMetadataService().getSupportedEventProfiles();
+            EventMetadata eventMetadata = getEventMetadata(event.getEventName());
+            if (eventMetadata == null) {
+                log.debug("No event metadata found for event: " + event.getEventName() +
+                        ". Skipping registration event handling.");
+                return;
+            }
 
-            if (eventProfileList.isEmpty()) {
-                log.warn(
-                        "No event profiles found in the webhook metadata service. Skipping registration event handling.");
+            EventRoute eventRoute = EventRouter.getInstance().getRoute(eventMetadata.getEventProfile(), eventMetadata);
+            if (eventRoute == null) {
+                log.debug("No event route found for event: " + event.getEventName() + " in profile: " +
+                        eventMetadata.getEventProfile() + ". Skipping registration event handling.");
+                return;
+            }
+            List<EventRoute> eventRoutes =
+                    EventRouter.getInstance().getSubscribedRoutes(event, Collections.singletonList(eventRoute));
+            if (eventRoutes.isEmpty()) {
+                log.debug("No subscriber of the tenant can handle event: " + event.getEventName() +
+                        ". Skipping registration event handling.");
                 return;
             }
-            for (EventProfile eventProfile : eventProfileList) {
-                handleEventForProfile(event, eventProfile);
+            if (EventRouter.getInstance().admit(event, eventRoutes).isEmpty()) {
+                log.debug("Event: " + event.getEventName() + " is suppressed by the rate limit of the tenant. " +
+                        "Skipping registration event handling.");
+                return;
             }
+            handleEventForRoute(event, eventRoute);
         } catch (Exception e) {
             log.warn("Error while retrieving registration event publisher configuration for tenant.", e);
         }
     }
 
-    private void handleEventForProfile(Event event, EventProfile eventProfile)
+    private void handleEventForRoute(Event event, EventRoute eventRoute)
             throws IdentityEventException, EventPublisherException {
 
-        // Prepare schema, payload builder, and event data
-        org.wso2.identity.webhook.common.event.handler.api.constants.Constants.EventSchema schema =
-                org.wso2.identity.webhook.common.event.handler.api.constants.Constants.EventSchema.valueOf(
-                        eventProfile.getProfile());
-        EventData eventData = EventHookHandlerUtils.buildEventDataProvider(event);
         RegistrationEventPayloadBuilder payloadBuilder =
-                PayloadBuilderFactory.getRegistrationEventPayloadBuilder(schema);
-
+                eventRoute.getPayloadBuilder(RegistrationEventPayloadBuilder.class);
         if (payloadBuilder == null) {
-            log.debug("Skipping registration event handling for event " + eventProfile.getProfile());
-            return;
-        }
-
-        // Get event metadata and channel
-        EventMetadata eventMetadata = getEventMetadata(eventProfile.getProfile(), event.getEventName());
-        if (eventMetadata == null) {
-            log.debug("No event metadata found for event: " + event.getEventName() +
-                    " in profile: " + eventProfile.getProfile());
+            log.debug("Skipping registration event handling for event " + eventRoute.getEventProfileName());
             return;
         }
-
-        Channel registrationChannel = eventProfile.getChannels().stream()
-                .filter(channel -> eventMetadata.getChannel().equals(channel.getUri()))
-                .findFirst()
-                .orElse(null);
-        if (registrationChannel == null) {
-            log.debug("No channel found for registration event profile: " + eventProfile.getProfile());
-            return;
-        }
-
-        String eventUri = registrationChannel.getEvents().stream()
-                .filter(channelEvent -> Objects.equals(eventMetadata.getEvent(), channelEvent.getEventUri()))
-                .findFirst()
-                .map(org.wso2.carbon.identity.webhook.metadata.api.model.Event::getEventUri)
-                .orElse(null);
+        EventData eventData = EventHookHandlerUtils.buildEventDataProvider(event);
 
         // Publish for current accessing org
         String tenantDomain = eventData.getTenantDomain();
-        publishRegistrationEvent(tenantDomain, registrationChannel, eventUri, eventProfile.getProfile(),
-                payloadBuilder, eventData, event.getEventName());
+        publishRegistrationEvent(tenantDomain, eventRoute, eventRoute.getEventUri(),
+                eventRoute.getEventProfileName(), payloadBuilder, eventData, event);
     }
 
     private boolean isSupportedEvent(String eventName) {
@@ -173,45 +180,40 @@ public class RegistrationEventHookHandler extends AbstractEventHandler {
         return IdentityEventConstants.Event.USER_REGISTRATION_FAILED.equals(eventName);
     }
 
-    private EventMetadata getEventMetadata(String eventProfile, String eventName) {
+    private EventMetadata getEventMetadata(String eventName) {
 
-        String event = null;
-        String channel = null;
+        String event;
         if (isUserRegistrationSuccessFlow(eventName)) {
-            channel =
-                    org.wso2.identity.webhook.common.event.handler.api.constants.Constants.Channel.REGISTRATION_CHANNEL;
             event =
                     org.wso2.identity.webhook.common.event.handler.api.constants.Constants.Event.POST_REGISTRATION_SUCCESS_EVENT;
         } else if (isUserRegistrationFailedFlow(eventName)) {
-            channel =
-                    org.wso2.identity.webhook.common.event.handler.api.constants.Constants.Channel.REGISTRATION_CHANNEL;
             event =
                     org.wso2.identity.webhook.common.event.handler.api.constants.Constants.Event.POST_REGISTRATION_FAILED_EVENT;
+        } else {
+            return null;
         }
-        EventMetadata eventMetadata = EventMetadata.builder()
-                .event(String.valueOf(event))
-                .channel(String.valueOf(channel))
+        return EventMetadata.builder()
+                .event(event)
+                .channel(org.wso2.identity.webhook.common.event.handler.api.constants.Constants.Channel
+                        .REGISTRATION_CHANNEL)
                 .eventProfile(WSO2.name())
                 .build();
-        if (eventMetadata != null && eventProfile.equals(eventMetadata.getEventProfile())) {
-            return eventMetadata;
-        }
-        return null;
     }
 
-    private void publishRegistrationEvent(String tenantDomain, Channel registrationChannel, String eventUri,
+    private void publishRegistrationEvent(String tenantDomain, EventRoute eventRoute, String eventUri,
                                           String eventProfileName, RegistrationEventPayloadBuilder payloadBuilder,
-                                          EventData eventData, String eventName)
+                                          EventData eventData, Event event)
             throws IdentityEventException, EventPublisherException {
 
+        String eventName = event.getEventName();
         EventContext eventContext = EventContext.builder()
                 .tenantDomain(tenantDomain)
-                .eventUri(registrationChannel.getUri())
+                .eventUri(eventRoute.getChannel().getUri())
                 .eventProfileName(eventProfileName)
                 .eventProfileVersion(EVENT_PROFILE_VERSION)
                 .build();
 
-        if (!EventHookHandlerDataHolder.getInstance().getEventPublisherService().canHandleEvent(eventContext)) {
+        if (!EventRouter.getInstance().canHandleEvent(event, eventRoute, eventContext)) {
             return;
         }
 
@@ -225,8 +227,9 @@ public class RegistrationEventHookHandler extends AbstractEventHandler {
         }
 
         SecurityEventTokenPayload securityEventTokenPayload =
-                EventHookHandlerUtils.buildSecurityEventToken(eventPayload, eventUri);
-        EventHookHandlerDataHolder.getInstance().getEventPublisherService()
+                EventHookHandlerUtils.buildSecurityEventToken(eventPayload, eventUri, null,
+                        eventData.getEventContextSnapshot());
+        EventHookHandlerDataHolder.getInstance().getEventBatcher()
                 .publish(securityEventTokenPayload, eventContext);
     }
 }
@@ -22,6 +22,7 @@ import org.apache.commons.lang.StringUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.wso2.carbon.context.PrivilegedCarbonContext;
+import org.wso2.carbon.identity.event.IdentityEventConstants;
 import org.wso2.carbon.identity.event.IdentityEventException;
 import org.wso2.carbon.identity.event.event.Event;
 import org.wso2.carbon.identity.event.handler.AbstractEventHandler;
@@ -30,20 +31,22 @@ import org.wso2.carbon.identity.event.publisher.api.model.EventContext;
 import org.wso2.carbon.identity.event.publisher.api.model.EventPayload;
 import org.wso2.carbon.identity.event.publisher.api.model.SecurityEventTokenPayload;
 import org.wso2.carbon.identity.event.publisher.api.model.common.Subject;
-import org.wso2.carbon.identity.webhook.metadata.api.exception.WebhookMetadataException;
-import org.wso2.carbon.identity.webhook.metadata.api.model.Channel;
-import org.wso2.carbon.identity.webhook.metadata.api.model.EventProfile;
 import org.wso2.identity.webhook.common.event.handler.api.builder.SessionEventPayloadBuilder;
 import org.wso2.identity.webhook.common.event.handler.api.model.EventData;
-import org.wso2.identity.webhook.common.event.handler.api.model.EventMetadata;
+import org.wso2.identity.webhook.common.event.handler.internal.coalesce.EventCoalescer;
 import org.wso2.identity.webhook.common.event.handler.internal.component.EventHookHandlerDataHolder;
 import org.wso2.identity.webhook.common.event.handler.internal.constant.Constants;
+import org.wso2.identity.webhook.common.event.handler.internal.routing.EventRoute;
+import org.wso2.identity.webhook.common.event.handler.internal.routing.EventRouter;
 import org.wso2.identity.webhook.common.event.handler.internal.util.EventHookHandlerUtils;
-import org.wso2.identity.webhook.common.event.handler.internal.util.PayloadBuilderFactory;
 
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Objects;
+import java.util.Set;
 
 import static org.wso2.carbon.identity.event.IdentityEventConstants.Event.SESSION_CREATE;
 import static org.wso2.carbon.identity.event.IdentityEventConstants.Event.SESSION_EXTENSION;
@@ -57,6 +60,12 @@ public class SessionEventHookHandler extends AbstractEventHandler {
 
     private static final Log log = LogFactory.getLog(SessionEventHookHandler.class);
 
+    /**
+     * Names of the events handled by this handler, when the event handler module is subscribed to them.
+     */
+    public static final Set<String> HANDLED_EVENT_NAMES = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            SESSION_CREATE, SESSION_UPDATE, SESSION_EXTENSION, SESSION_TERMINATE_V2)));
+
     @Override
     public String getName() {
 
@@ -66,51 +75,38 @@ public class SessionEventHookHandler extends AbstractEventHandler {
     @Override
     public void handleEvent(Event event) throws IdentityEventException {
 
+        if (EventHookHandlerDataHolder.getInstance().getAsyncEventDispatcher().dispatch(event, this::processEvent)) {
+            return;
+        }
+        processEvent(event);
+    }
+
+    private void processEvent(Event event) throws IdentityEventException {
+
         try {
-            EventData eventData = EventHookHandlerUtils.buildEventDataProvider(event);
-            List<EventProfile> eventProfileList = getEventProfiles();
-            if (eventProfileList.isEmpty()) {
-                log.debug("No event profiles found. Skipping session event handling.");
+            List<EventRoute> eventRoutes = EventRouter.getInstance()
+                    .admit(event, EventRouter.getInstance().getRoutes(event));
+            if (eventRoutes.isEmpty()) {
+                log.debug("No event routes found for event: " + event.getEventName() +
+                        ". Skipping session event handling.");
                 return;
             }
-            for (EventProfile eventProfile : eventProfileList) {
-                handleEventPerEventProfile(event, eventData, eventProfile);
+            EventData eventData = EventHookHandlerUtils.buildEventDataProvider(event);
+            for (EventRoute eventRoute : eventRoutes) {
+                handleEventPerEventRoute(event, eventData, eventRoute);
             }
         } catch (Exception e) {
             log.warn("Error while executing session event webhook handler.", e);
         }
     }
 
-    private void handleEventPerEventProfile(Event event, EventData eventData, EventProfile eventProfile)
+    private void handleEventPerEventRoute(Event event, EventData eventData, EventRoute eventRoute)
             throws IdentityEventException {
 
-        // Prepare schema, payload builder, and event metadata
-        org.wso2.identity.webhook.common.event.handler.api.constants.Constants.EventSchema schema =
-                org.wso2.identity.webhook.common.event.handler.api.constants.Constants.EventSchema.valueOf(
-                        eventProfile.getProfile());
-        SessionEventPayloadBuilder payloadBuilder = PayloadBuilderFactory.getSessionEventPayloadBuilder(schema);
+        SessionEventPayloadBuilder payloadBuilder = eventRoute.getPayloadBuilder(SessionEventPayloadBuilder.class);
         if (payloadBuilder == null) {
             log.debug("No registered session event payload builder found for profile: " +
-                    eventProfile.getProfile() + ". Skipping session event handling.");
-            return;
-        }
-        EventMetadata eventMetadata = EventHookHandlerUtils.getEventProfileManagerByProfile(
-                eventProfile.getProfile(), event.getEventName());
-        if (eventMetadata == null) {
-            log.debug("No event metadata found for event: " + event.getEventName() +
-                    " in profile: " + eventProfile.getProfile() + ". Skipping session event handling.");
-            return;
-        }
-        Channel sessionChannel = getSessionChannel(eventProfile, eventMetadata);
-        if (sessionChannel == null) {
-            log.debug("Channel not defined for session events in profile: " + eventProfile.getProfile() +
-                    ". Skipping session event handling.");
-            return;
-        }
-        String eventUri = getEventUri(sessionChannel, eventMetadata);
-        if (eventUri == null) {
-            log.debug("Event URI not found for session events in profile: " + eventProfile.getProfile() +
-                    ". Skipping session event handling.");
+                    eventRoute.getEventProfileName() + ". Skipping session event handling.");
             return;
         }
 
@@ -120,58 +116,32 @@ public class SessionEventHookHandler extends AbstractEventHandler {
                 && "Console".equals(applicationNameInEvent);
         if (isEventTriggeredForSystemApplication) {
             log.debug("Event trigger for system application: " + applicationNameInEvent +
-                    ". Skipping event handling for session event profile: " + eventProfile.getProfile());
+                    ". Skipping event handling for session event profile: " + eventRoute.getEventProfileName());
             return;
         }
 
-        if (EventHookHandlerUtils.isB2BUserLogin(eventData.getAuthenticationContext())) {
+        if (eventData.isB2BUserLogin()) {
             if (log.isDebugEnabled()) {
                 log.debug(
                         "Session event is triggered for a B2B user federation. Skipping event handling for login event profile: " +
-                                eventProfile.getProfile());
+                                eventRoute.getEventProfileName());
             }
             return;
         }
 
         // Publish for current accessing org
         String tenantDomain = PrivilegedCarbonContext.getThreadLocalCarbonContext().getTenantDomain();
-        publishSessionEvent(tenantDomain, sessionChannel, eventUri, eventProfile.getProfile(), schema,
-                payloadBuilder, eventData, event);
-    }
-
-    private List<EventProfile> getEventProfiles() {
-
-        try {
-            return EventHookHandlerDataHolder.getInstance().getWebhookMetadataService().getSupportedEventProfiles();
-        } catch (WebhookMetadataException e) {
-            log.error("Error while retrieving event profiles from the webhook metadata service.", e);
-            return Collections.emptyList();
-        }
+        publishSessionEvent(tenantDomain, eventRoute, eventRoute.getEventUri(),
+                eventRoute.getEventProfileName(), eventRoute.getEventSchema(), payloadBuilder, eventData, event);
     }
 
-    private Channel getSessionChannel(EventProfile eventProfile, EventMetadata eventMetadata) {
-
-        return eventProfile.getChannels().stream()
-                .filter(channel -> eventMetadata.getChannel().equals(channel.getUri()))
-                .findFirst()
-                .orElse(null);
-    }
-
-    private String getEventUri(Channel sessionChannel, EventMetadata eventMetadata) {
-
-        return sessionChannel.getEvents().stream()
-                .filter(channelEvent -> Objects.equals(eventMetadata.getEvent(), channelEvent.getEventUri()))
-                .findFirst()
-                .map(org.wso2.carbon.identity.webhook.metadata.api.model.Event::getEventUri)
-                .orElse(null);
-    }
-
-    private boolean canPublisherHandleEvent(EventContext eventContext, String eventName) {
+    private boolean canPublisherHandleEvent(Event event, EventRoute eventRoute, EventContext eventContext) {
 
         try {
-            return EventHookHandlerDataHolder.getInstance().getEventPublisherService().canHandleEvent(eventContext);
+            return EventRouter.getInstance().canHandleEvent(event, eventRoute, eventContext);
         } catch (EventPublisherException e) {
-            log.debug("Error while checking if the event publisher can handle the event: " + eventName, e);
+            log.debug("Error while checking if the event publisher can handle the event: " + event.getEventName(),
+                    e);
             return false;
         }
     }
@@ -192,7 +162,7 @@ public class SessionEventHookHandler extends AbstractEventHandler {
         }
     }
 
-    private void publishSessionEvent(String tenantDomain, Channel sessionChannel, String eventUri,
+    private void publishSessionEvent(String tenantDomain, EventRoute eventRoute, String eventUri,
                                      String eventProfileName,
                                      org.wso2.identity.webhook.common.event.handler.api.constants.Constants.EventSchema schema,
                                      SessionEventPayloadBuilder payloadBuilder, EventData eventData, Event event)
@@ -200,12 +170,12 @@ public class SessionEventHookHandler extends AbstractEventHandler {
 
         EventContext eventContext = EventContext.builder()
                 .tenantDomain(tenantDomain)
-                .eventUri(sessionChannel.getUri())
+                .eventUri(eventRoute.getChannel().getUri())
                 .eventProfileName(eventProfileName)
                 .eventProfileVersion(Constants.EVENT_PROFILE_VERSION)
                 .build();
 
-        if (!canPublisherHandleEvent(eventContext, event.getEventName())) {
+        if (!canPublisherHandleEvent(event, eventRoute, eventContext)) {
             return;
         }
 
@@ -219,13 +189,43 @@ public class SessionEventHookHandler extends AbstractEventHandler {
             subject = EventHookHandlerUtils.extractSubjectFromEventData(eventData);
         }
 
+        EventCoalescer eventCoalescer = EventHookHandlerDataHolder.getInstance().getEventCoalescer();
+        if (eventCoalescer.isCoalesced(eventUri)) {
+            if (eventCoalescer.coalesce(eventData.getSessionId(), eventPayload, eventUri, subject,
+                    eventData.getEventContextSnapshot(), eventContext)) {
+                return;
+            }
+        } else {
+            // Held events of the sessions must be delivered before this event, e.g. presented before revoked.
+            for (String sessionId : getSessionIds(event, eventData)) {
+                eventCoalescer.flush(tenantDomain, sessionId);
+            }
+        }
+
         SecurityEventTokenPayload securityEventTokenPayload = EventHookHandlerUtils.buildSecurityEventToken(
-                eventPayload, eventUri, subject);
+                eventPayload, eventUri, subject, eventData.getEventContextSnapshot());
         try {
-            EventHookHandlerDataHolder.getInstance().getEventPublisherService()
+            EventHookHandlerDataHolder.getInstance().getEventBatcher()
                     .publish(securityEventTokenPayload, eventContext);
         } catch (EventPublisherException e) {
             log.warn("Error while publishing session event: " + eventUri, e);
         }
     }
+
+    private Set<String> getSessionIds(Event event, EventData eventData) {
+
+        Set<String> sessionIds = new LinkedHashSet<>();
+        if (eventData.getSessionId() != null) {
+            sessionIds.add(eventData.getSessionId());
+        }
+        Object sessionIdsProperty = event.getEventProperties().get(IdentityEventConstants.EventProperty.SESSION_IDS);
+        if (sessionIdsProperty instanceof Collection) {
+            for (Object sessionId : (Collection<?>) sessionIdsProperty) {
+                if (sessionId instanceof String) {
+                    sessionIds.add((String) sessionId);
+                }
+            }
+        }
+        return sessionIds;
+    }
 }
@@ -30,18 +30,19 @@ import org.wso2.carbon.identity.event.publisher.api.exception.EventPublisherExce
 import org.wso2.carbon.identity.event.publisher.api.model.EventContext;
 import org.wso2.carbon.identity.event.publisher.api.model.EventPayload;
 import org.wso2.carbon.identity.event.publisher.api.model.SecurityEventTokenPayload;
-import org.wso2.carbon.identity.webhook.metadata.api.model.Channel;
-import org.wso2.carbon.identity.webhook.metadata.api.model.EventProfile;
 import org.wso2.identity.webhook.common.event.handler.api.builder.TokenEventPayloadBuilder;
 import org.wso2.identity.webhook.common.event.handler.api.model.EventData;
-import org.wso2.identity.webhook.common.event.handler.api.model.EventMetadata;
 import org.wso2.identity.webhook.common.event.handler.internal.component.EventHookHandlerDataHolder;
 import org.wso2.identity.webhook.common.event.handler.internal.constant.Constants;
+import org.wso2.identity.webhook.common.event.handler.internal.routing.EventRoute;
+import org.wso2.identity.webhook.common.event.handler.internal.routing.EventRouter;
 import org.wso2.identity.webhook.common.event.handler.internal.util.EventHookHandlerUtils;
-import org.wso2.identity.webhook.common.event.handler.internal.util.PayloadBuilderFactory;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Objects;
+import java.util.Set;
 
 /**
  * TokenEventHookHandler class.
@@ -52,20 +53,38 @@ public class TokenEventHookHandler extends AbstractEventHandler {
 
     private static final Log log = LogFactory.getLog(TokenEventHookHandler.class);
 
+    /**
+     * Names of the events handled by this handler, when the event handler module is subscribed to them.
+     */
+    public static final Set<String> HANDLED_EVENT_NAMES = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            IdentityEventConstants.Event.TOKEN_REVOKED,
+            IdentityEventConstants.Event.POST_ISSUE_ACCESS_TOKEN_V2)));
+
     @Override
     public void handleEvent(Event event) throws IdentityEventException {
 
+        if (EventHookHandlerDataHolder.getInstance().getAsyncEventDispatcher().dispatch(event, this::processEvent)) {
+            return;
+        }
+        processEvent(event);
+    }
+
+    private void processEvent(Event event) throws IdentityEventException {
+
+        // Skip before building the event data if no subscriber of the tenant can handle the event.
+        List<EventRoute> eventRoutes = EventRouter.getInstance().getRoutes(event);
+        eventRoutes = EventRouter.getInstance().admit(event, eventRoutes);
+        if (eventRoutes.isEmpty()) {
+            log.debug("No subscribed event routes found for event: " + event.getEventName() +
+                    ". Skipping token event handling.");
+            return;
+        }
+
         EventData eventData = EventHookHandlerUtils.buildEventDataProvider(event);
 
         try {
-            List<EventProfile> eventProfileList =
-                    EventHookHandlerDataHolder.getInstance().getWebhookMetadataService().getSupportedEventProfiles();
-            if (eventProfileList.isEmpty()) {
-                log.warn("No event profiles found in the webhook metadata service. Skipping token event handling.");
-                return;
-            }
-            for (EventProfile eventProfile : eventProfileList) {
-                handleEventForProfile(event, eventData, eventProfile);
+            for (EventRoute eventRoute : eventRoutes) {
+                handleEventForRoute(event, eventData, eventRoute);
             }
         } catch (Exception e) {
             log.warn("Error while retrieving token event publisher configuration for tenant.", e);
@@ -78,47 +97,18 @@ public class TokenEventHookHandler extends AbstractEventHandler {
         return Constants.TOKEN_EVENT_HOOK_NAME;
     }
 
-    private void handleEventForProfile(Event event, EventData eventData, EventProfile eventProfile)
+    private void handleEventForRoute(Event event, EventData eventData, EventRoute eventRoute)
             throws IdentityEventException, EventPublisherException {
 
-        // Prepare schema, payload builder, and event metadata
-        org.wso2.identity.webhook.common.event.handler.api.constants.Constants.EventSchema schema =
-                org.wso2.identity.webhook.common.event.handler.api.constants.Constants.EventSchema.valueOf(
-                        eventProfile.getProfile());
-        TokenEventPayloadBuilder payloadBuilder = PayloadBuilderFactory.getTokenEventPayloadBuilder(schema);
-
+        TokenEventPayloadBuilder payloadBuilder = eventRoute.getPayloadBuilder(TokenEventPayloadBuilder.class);
         if (payloadBuilder == null) {
-            log.debug("Skipping token event handling for profile " + eventProfile.getProfile());
-            return;
-        }
-
-        EventMetadata eventMetadata = EventHookHandlerUtils.getEventProfileManagerByProfile(
-                eventProfile.getProfile(), event.getEventName());
-        if (eventMetadata == null) {
-            log.debug("No event metadata found for event: " + event.getEventName() +
-                    " in profile: " + eventProfile.getProfile());
+            log.debug("Skipping token event handling for profile " + eventRoute.getEventProfileName());
             return;
         }
 
-        // Get channel and event URI
-        Channel tokenChannel = eventProfile.getChannels().stream()
-                .filter(channel -> eventMetadata.getChannel().equals(channel.getUri()))
-                .findFirst()
-                .orElse(null);
-        if (tokenChannel == null) {
-            log.debug("No channel found for token event profile: " + eventProfile.getProfile());
-            return;
-        }
-
-        String eventUri = tokenChannel.getEvents().stream()
-                .filter(channelEvent -> Objects.equals(eventMetadata.getEvent(), channelEvent.getEventUri()))
-                .findFirst()
-                .map(org.wso2.carbon.identity.webhook.metadata.api.model.Event::getEventUri)
-                .orElse(null);
-
         if (EventHookHandlerUtils.isSubOrgLevel()) {
             log.debug("Event trigger for sub organization level. Skipping event handling for token event profile: " +
-                    eventProfile.getProfile());
+                    eventRoute.getEventProfileName());
             return;
         }
 
@@ -127,28 +117,30 @@ public class TokenEventHookHandler extends AbstractEventHandler {
                 && "CONSOLE".equals(applicationKey);
         if (isEventTriggeredForSystemApplication) {
             log.debug("Event trigger for system application: " + applicationKey +
-                    ". Skipping event handling for token event profile: " + eventProfile.getProfile());
+                    ". Skipping event handling for token event profile: " + eventRoute.getEventProfileName());
             return;
         }
 
         // Publish for current accessing org
         String tenantDomain = eventData.getTenantDomain();
-        publishEvent(tenantDomain, tokenChannel, eventUri, eventProfile.getProfile(),
-                payloadBuilder, eventData, event.getEventName());
+        publishEvent(tenantDomain, eventRoute, payloadBuilder, eventData, event);
     }
 
-    private void publishEvent(String tenantDomain, Channel tokenChannel, String eventUri, String eventProfileName,
-                              TokenEventPayloadBuilder payloadBuilder, EventData eventData, String eventName)
+    private void publishEvent(String tenantDomain, EventRoute eventRoute, TokenEventPayloadBuilder payloadBuilder,
+                              EventData eventData, Event event)
             throws IdentityEventException, EventPublisherException {
 
+        String eventName = event.getEventName();
+        String eventUri = eventRoute.getEventUri();
+        String eventProfileName = eventRoute.getEventProfileName();
         EventContext eventContext = EventContext.builder()
                 .tenantDomain(tenantDomain)
-                .eventUri(tokenChannel.getUri())
+                .eventUri(eventRoute.getChannel().getUri())
                 .eventProfileName(eventProfileName)
                 .eventProfileVersion(Constants.EVENT_PROFILE_VERSION)
                 .build();
 
-        if (!EventHookHandlerDataHolder.getInstance().getEventPublisherService().canHandleEvent(eventContext)) {
+        if (!EventRouter.getInstance().canHandleEvent(event, eventRoute, eventContext)) {
             return;
         }
 
@@ -164,8 +156,9 @@ public class TokenEventHookHandler extends AbstractEventHandler {
         log.debug("Publishing token event: " + eventName + " for tenant: " + tenantDomain +
                 " with event URI: " + eventUri + " and profile: " + eventProfileName);
         SecurityEventTokenPayload securityEventTokenPayload =
-                EventHookHandlerUtils.buildSecurityEventToken(eventPayload, eventUri);
-        EventHookHandlerDataHolder.getInstance().getEventPublisherService()
+                EventHookHandlerUtils.buildSecurityEventToken(eventPayload, eventUri, null,
+                        eventData.getEventContextSnapshot());
+        EventHookHandlerDataHolder.getInstance().getEventBatcher()
                 .publish(securityEventTokenPayload, eventContext);
     }
 
@@ -20,6 +20,7 @@ package org.wso2.identity.webhook.common.event.handler.internal.handler;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.application.authentication.framework.util.FrameworkConstants;
 import org.wso2.carbon.identity.base.IdentityRuntimeException;
 import org.wso2.carbon.identity.core.bean.context.MessageContext;
 import org.wso2.carbon.identity.core.context.IdentityContext;
@@ -34,18 +35,24 @@ import org.wso2.carbon.identity.event.publisher.api.exception.EventPublisherExce
 import org.wso2.carbon.identity.event.publisher.api.model.EventContext;
 import org.wso2.carbon.identity.event.publisher.api.model.EventPayload;
 import org.wso2.carbon.identity.event.publisher.api.model.SecurityEventTokenPayload;
-import org.wso2.carbon.identity.webhook.metadata.api.model.Channel;
-import org.wso2.carbon.identity.webhook.metadata.api.model.EventProfile;
+import org.wso2.carbon.user.api.UserStoreException;
+import org.wso2.carbon.user.api.UserStoreManager;
+import org.wso2.carbon.user.core.UserCoreConstants;
 import org.wso2.identity.webhook.common.event.handler.api.builder.UserOperationEventPayloadBuilder;
 import org.wso2.identity.webhook.common.event.handler.api.model.EventData;
-import org.wso2.identity.webhook.common.event.handler.api.model.EventMetadata;
+import org.wso2.identity.webhook.common.event.handler.internal.coalesce.EventCoalescer;
 import org.wso2.identity.webhook.common.event.handler.internal.component.EventHookHandlerDataHolder;
 import org.wso2.identity.webhook.common.event.handler.internal.constant.Constants;
+import org.wso2.identity.webhook.common.event.handler.internal.routing.EventRoute;
+import org.wso2.identity.webhook.common.event.handler.internal.routing.EventRouter;
 import org.wso2.identity.webhook.common.event.handler.internal.util.EventHookHandlerUtils;
-import org.wso2.identity.webhook.common.event.handler.internal.util.PayloadBuilderFactory;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Objects;
+import java.util.Map;
+import java.util.Set;
 
 import static org.wso2.identity.webhook.common.event.handler.internal.constant.Constants.EVENT_PROFILE_VERSION;
 import static org.wso2.identity.webhook.common.event.handler.internal.constant.Constants.PRE_DELETE_USER_ID;
@@ -57,6 +64,21 @@ public class UserOperationEventHookHandler extends AbstractEventHandler {
 
     private static final Log log = LogFactory.getLog(UserOperationEventHookHandler.class);
 
+    /**
+     * Names of the events handled by this handler. Whether an event of these names is handled may further depend on
+     * the flow it is triggered in.
+     */
+    public static final Set<String> HANDLED_EVENT_NAMES = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            IdentityEventConstants.Event.POST_UPDATE_USER_LIST_OF_ROLE,
+            IdentityEventConstants.Event.PRE_DELETE_USER_WITH_ID,
+            IdentityEventConstants.Event.POST_DELETE_USER,
+            IdentityEventConstants.Event.POST_UNLOCK_ACCOUNT,
+            IdentityEventConstants.Event.POST_LOCK_ACCOUNT,
+            IdentityEventConstants.Event.POST_USER_PROFILE_UPDATE,
+            IdentityEventConstants.Event.POST_DISABLE_ACCOUNT,
+            IdentityEventConstants.Event.POST_ENABLE_ACCOUNT,
+            IdentityEventConstants.Event.POST_ADD_USER)));
+
     @Override
     public String getName() {
 
@@ -93,68 +115,108 @@ public class UserOperationEventHookHandler extends AbstractEventHandler {
     @Override
     public void handleEvent(Event event) throws IdentityEventException {
 
-        try {
-            if (IdentityEventConstants.Event.PRE_DELETE_USER_WITH_ID.equals(event.getEventName())) {
-                String userId = (String) event.getEventProperties().get(IdentityEventConstants.EventProperty.USER_ID);
-                IdentityUtil.threadLocalProperties.get().put(PRE_DELETE_USER_ID, userId);
-                return;
+        if (IdentityEventConstants.Event.PRE_DELETE_USER_WITH_ID.equals(event.getEventName())) {
+            String userId = (String) event.getEventProperties().get(IdentityEventConstants.EventProperty.USER_ID);
+            IdentityUtil.threadLocalProperties.get().put(PRE_DELETE_USER_ID, userId);
+            return;
+        }
+        if (EventHookHandlerDataHolder.getInstance().getAsyncEventDispatcher().dispatch(event, this::processEvent)) {
+            // The deleted user id is captured with the event, and is consumed on the worker thread.
+            if (IdentityEventConstants.Event.POST_DELETE_USER.equals(event.getEventName())) {
+                IdentityUtil.threadLocalProperties.get().remove(PRE_DELETE_USER_ID);
             }
-            List<EventProfile> eventProfileList =
-                    EventHookHandlerDataHolder.getInstance().getWebhookMetadataService().getSupportedEventProfiles();
-            if (eventProfileList.isEmpty()) {
-                log.warn(
-                        "No event profiles found in the webhook metadata service. Skipping user operation event handling.");
+            return;
+        }
+        processEvent(event);
+    }
+
+    private void processEvent(Event event) throws IdentityEventException {
+
+        try {
+            List<EventRoute> eventRoutes = EventRouter.getInstance()
+                    .admit(event, EventRouter.getInstance().getRoutes(event));
+            if (eventRoutes.isEmpty()) {
+                log.debug("No event routes found for event: " + event.getEventName() +
+                        ". Skipping user operation event handling.");
                 return;
             }
-            for (EventProfile eventProfile : eventProfileList) {
-                handleEventPerProfile(event, eventProfile);
+            EventData eventData = EventHookHandlerUtils.buildEventDataProvider(event);
+            flushHeldEventsOfUser(event, eventData, eventRoutes);
+            for (EventRoute eventRoute : eventRoutes) {
+                handleEventPerRoute(event, eventData, eventRoute);
             }
         } catch (Exception e) {
             log.warn("Error while retrieving event publisher configuration for tenant.", e);
         }
     }
 
-    private void handleEventPerProfile(Event event, EventProfile eventProfile)
+    private void handleEventPerRoute(Event event, EventData eventData, EventRoute eventRoute)
             throws IdentityEventException, EventPublisherException {
 
-        // Prepare schema, payload builder, and event metadata
-        org.wso2.identity.webhook.common.event.handler.api.constants.Constants.EventSchema schema =
-                org.wso2.identity.webhook.common.event.handler.api.constants.Constants.EventSchema.valueOf(
-                        eventProfile.getProfile());
         UserOperationEventPayloadBuilder payloadBuilder =
-                PayloadBuilderFactory.getUserOperationEventPayloadBuilder(schema);
+                eventRoute.getPayloadBuilder(UserOperationEventPayloadBuilder.class);
         if (payloadBuilder == null) {
-            log.debug("Skipping user operation event handling for profile " + eventProfile.getProfile());
-            return;
-        }
-        EventMetadata eventMetadata =
-                EventHookHandlerUtils.getEventProfileManagerByProfile(eventProfile.getProfile(), event.getEventName());
-        if (eventMetadata == null) {
-            log.debug("No event metadata found for event: " + event.getEventName() +
-                    " in profile: " + eventProfile.getProfile());
+            log.debug("Skipping user operation event handling for profile " + eventRoute.getEventProfileName());
             return;
         }
-        EventData eventData = EventHookHandlerUtils.buildEventDataProvider(event);
         String tenantDomain = eventData.getTenantDomain();
 
-        // Get channel and event URI
-        Channel userOperationChannel = eventProfile.getChannels().stream()
-                .filter(channel -> eventMetadata.getChannel().equals(channel.getUri()))
-                .findFirst()
-                .orElse(null);
-        if (userOperationChannel == null) {
-            log.debug("No channel found for user operation event profile: " + eventProfile.getProfile());
+        // Publish for current accessing org
+        publishUserOperationEvent(tenantDomain, eventRoute, eventRoute.getEventUri(),
+                eventRoute.getEventProfileName(), payloadBuilder, eventData, event);
+    }
+
+    /**
+     * Publish the held events of the user of the event, if the event has a route that is not coalesced, so that they
+     * are delivered before it, e.g. a profile update before the user deletion. Done before the payloads are built, as
+     * the payload builder of the user deletion consumes the deleted user id.
+     */
+    private void flushHeldEventsOfUser(Event event, EventData eventData, List<EventRoute> eventRoutes) {
+
+        EventCoalescer eventCoalescer = EventHookHandlerDataHolder.getInstance().getEventCoalescer();
+        if (!eventCoalescer.hasHeldEvents()) {
             return;
         }
-        String eventUri = userOperationChannel.getEvents().stream()
-                .filter(channelEvent -> Objects.equals(eventMetadata.getEvent(), channelEvent.getEventUri()))
-                .findFirst()
-                .map(org.wso2.carbon.identity.webhook.metadata.api.model.Event::getEventUri)
-                .orElse(null);
+        for (EventRoute eventRoute : eventRoutes) {
+            if (!eventCoalescer.isCoalesced(eventRoute.getEventUri())) {
+                eventCoalescer.flush(eventData.getTenantDomain(), resolveSubjectUserId(event, eventData));
+                return;
+            }
+        }
+    }
 
-        // Publish for current accessing org
-        publishUserOperationEvent(tenantDomain, userOperationChannel, eventUri, eventProfile.getProfile(),
-                payloadBuilder, eventData, event.getEventName());
+    /**
+     * Resolve the id of the user the event is about, the same way the payload builders do: the deleted user id kept
+     * by the pre delete event, the user id of the event, or the id of the user of the event's username.
+     */
+    private String resolveSubjectUserId(Event event, EventData eventData) {
+
+        if (IdentityEventConstants.Event.POST_DELETE_USER.equals(event.getEventName())) {
+            Object deletedUserId = IdentityUtil.threadLocalProperties.get().get(PRE_DELETE_USER_ID);
+            return deletedUserId != null ? String.valueOf(deletedUserId) : null;
+        }
+        String userId = eventData.getUserId();
+        if (userId != null) {
+            return userId;
+        }
+        Map<String, Object> params = eventData.getEventParams();
+        Object paramUserId = params.get(IdentityEventConstants.EventProperty.USER_ID);
+        if (paramUserId != null) {
+            return String.valueOf(paramUserId);
+        }
+        // Account lock and unlock events carry the username only.
+        Object userStoreManager = params.get(IdentityEventConstants.EventProperty.USER_STORE_MANAGER);
+        Object userName = params.get(IdentityEventConstants.EventProperty.USER_NAME);
+        if (!(userStoreManager instanceof UserStoreManager) || userName == null) {
+            return null;
+        }
+        try {
+            return ((UserStoreManager) userStoreManager).getUserClaimValue(String.valueOf(userName),
+                    FrameworkConstants.USER_ID_CLAIM, UserCoreConstants.DEFAULT_PROFILE);
+        } catch (UserStoreException e) {
+            log.debug("Error while resolving the user id of user: " + userName + " to flush its held events.", e);
+            return null;
+        }
     }
 
     private boolean isSupportedEvent(String eventName) {
@@ -186,19 +248,20 @@ public class UserOperationEventHookHandler extends AbstractEventHandler {
                 !Flow.Name.BULK_RESOURCE_UPDATE.equals(flowName);
     }
 
-    private void publishUserOperationEvent(String tenantDomain, Channel userOperationChannel, String eventUri,
+    private void publishUserOperationEvent(String tenantDomain, EventRoute eventRoute, String eventUri,
                                            String eventProfileName, UserOperationEventPayloadBuilder payloadBuilder,
-                                           EventData eventData, String eventName)
+                                           EventData eventData, Event event)
             throws IdentityEventException, EventPublisherException {
 
+        String eventName = event.getEventName();
         EventContext eventContext = EventContext.builder()
                 .tenantDomain(tenantDomain)
-                .eventUri(userOperationChannel.getUri())
+                .eventUri(eventRoute.getChannel().getUri())
                 .eventProfileName(eventProfileName)
                 .eventProfileVersion(EVENT_PROFILE_VERSION)
                 .build();
 
-        if (!EventHookHandlerDataHolder.getInstance().getEventPublisherService().canHandleEvent(eventContext)) {
+        if (!EventRouter.getInstance().canHandleEvent(event, eventRoute, eventContext)) {
             return;
         }
 
@@ -224,9 +287,18 @@ public class UserOperationEventHookHandler extends AbstractEventHandler {
             return;
         }
 
+        EventCoalescer eventCoalescer = EventHookHandlerDataHolder.getInstance().getEventCoalescer();
+        if (eventCoalescer.isCoalesced(eventUri)) {
+            if (eventCoalescer.coalesce(eventData.getUserId(), eventPayload, eventUri, null,
+                    eventData.getEventContextSnapshot(), eventContext)) {
+                return;
+            }
+        }
+
         SecurityEventTokenPayload securityEventTokenPayload =
-                EventHookHandlerUtils.buildSecurityEventToken(eventPayload, eventUri);
-        EventHookHandlerDataHolder.getInstance().getEventPublisherService()
+                EventHookHandlerUtils.buildSecurityEventToken(eventPayload, eventUri, null,
+                        eventData.getEventContextSnapshot());
+        EventHookHandlerDataHolder.getInstance().getEventBatcher()
                 .publish(securityEventTokenPayload, eventContext);
     }
 }
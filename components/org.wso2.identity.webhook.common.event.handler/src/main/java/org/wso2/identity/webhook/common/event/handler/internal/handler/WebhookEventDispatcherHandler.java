@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.webhook.common.event.handler.internal.handler;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.base.IdentityRuntimeException;
+import org.wso2.carbon.identity.core.bean.context.MessageContext;
+import org.wso2.carbon.identity.event.IdentityEventException;
+import org.wso2.carbon.identity.event.bean.IdentityEventMessageContext;
+import org.wso2.carbon.identity.event.event.Event;
+import org.wso2.carbon.identity.event.handler.AbstractEventHandler;
+import org.wso2.identity.webhook.common.event.handler.internal.constant.Constants;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Single event handler of the webhook event hooks, registered in place of the enabled event hook handlers.
+ * <p>
+ * The handlers are indexed by the names of the events they handle, so an event no handler is interested in, which is
+ * the most of the events of the identity server, is rejected with a single map lookup instead of a canHandle check of
+ * each handler. Events found in the index are delegated to the handlers of the event name that can handle them, which
+ * keep their own checks of the flow the event is triggered in.
+ */
+public class WebhookEventDispatcherHandler extends AbstractEventHandler {
+
+    private static final Log log = LogFactory.getLog(WebhookEventDispatcherHandler.class);
+
+    private final Map<String, List<AbstractEventHandler>> handlersByEventName;
+
+    private WebhookEventDispatcherHandler(Map<String, List<AbstractEventHandler>> handlersByEventName) {
+
+        this.handlersByEventName = handlersByEventName;
+    }
+
+    @Override
+    public String getName() {
+
+        return Constants.WEBHOOK_EVENT_HANDLER_CONFIG;
+    }
+
+    @Override
+    public boolean canHandle(MessageContext messageContext) throws IdentityRuntimeException {
+
+        if (!(messageContext instanceof IdentityEventMessageContext)) {
+            return false;
+        }
+        Event event = ((IdentityEventMessageContext) messageContext).getEvent();
+        return event != null && event.getEventName() != null && handlersByEventName.containsKey(event.getEventName());
+    }
+
+    @Override
+    public void handleEvent(Event event) throws IdentityEventException {
+
+        List<AbstractEventHandler> handlers = handlersByEventName.get(event.getEventName());
+        if (handlers == null) {
+            return;
+        }
+        IdentityEventMessageContext messageContext = new IdentityEventMessageContext(event);
+        for (AbstractEventHandler handler : handlers) {
+            if (handler.canHandle(messageContext)) {
+                handler.handleEvent(event);
+            } else if (log.isDebugEnabled()) {
+                log.debug(handler.getName() + " cannot handle the event: " + event.getEventName());
+            }
+        }
+    }
+
+    /**
+     * Get the handlers indexed by the given event name.
+     *
+     * @param eventName Event name.
+     * @return Handlers of the event name, in the order they were added.
+     */
+    public List<AbstractEventHandler> getHandlers(String eventName) {
+
+        List<AbstractEventHandler> handlers = handlersByEventName.get(eventName);
+        return handlers != null ? handlers : Collections.emptyList();
+    }
+
+    /**
+     * Create a new builder of the dispatcher handler.
+     *
+     * @return Builder.
+     */
+    public static Builder builder() {
+
+        return new Builder();
+    }
+
+    /**
+     * Builder of the dispatcher handler.
+     */
+    public static class Builder {
+
+        private final Map<String, List<AbstractEventHandler>> handlersByEventName = new HashMap<>();
+
+        /**
+         * Add a handler to the index of the given event names.
+         *
+         * @param handler    Event handler.
+         * @param eventNames Names of the events the handler handles.
+         * @return Builder.
+         */
+        public Builder handler(AbstractEventHandler handler, Collection<String> eventNames) {
+
+            for (String eventName : eventNames) {
+                List<AbstractEventHandler> handlers =
+                        handlersByEventName.computeIfAbsent(eventName, k -> new ArrayList<>(1));
+                if (!handlers.contains(handler)) {
+                    handlers.add(handler);
+                }
+            }
+            return this;
+        }
+
+        public WebhookEventDispatcherHandler build() {
+
+            Map<String, List<AbstractEventHandler>> index = new HashMap<>();
+            for (Map.Entry<String, List<AbstractEventHandler>> entry : handlersByEventName.entrySet()) {
+                index.put(entry.getKey(), Collections.unmodifiableList(new ArrayList<>(entry.getValue())));
+            }
+            return new WebhookEventDispatcherHandler(index);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.identity.webhook.common.event.handler.internal.jti;
+
+import org.wso2.identity.webhook.common.event.handler.api.service.JtiGenerator;
+
+import java.util.UUID;
+
+/**
+ * Generator of random (version 4) UUID token identifiers, drawing all the random bits from the shared secure random
+ * number generator of {@link UUID}.
+ * <p>
+ * The identifiers are unpredictable, for deployments requiring it, at the cost of the threads generating identifiers
+ * concurrently contending for the secure random number generator.
+ */
+public class SecureRandomJtiGenerator implements JtiGenerator {
+
+    public static final String NAME = "secureRandom";
+
+    @Override
+    public String generate() {
+
+        return UUID.randomUUID().toString();
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.identity.webhook.common.event.handler.internal.jti;
+
+import org.wso2.identity.webhook.common.event.handler.api.service.JtiGenerator;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Generator of time ordered (version 7) UUID token identifiers, as specified by RFC 9562.
+ * <p>
+ * An identifier starts with the 48 bit Unix time in milliseconds it was generated at, followed by a 12 bit sequence
+ * number and 62 random bits. The random bits are drawn from the random number generator of the generating thread, so
+ * concurrent threads do not contend for a shared generator. The sequence number of a thread starts at a random value
+ * in each millisecond and is incremented for each further identifier of the millisecond, so the identifiers generated
+ * by a thread are strictly increasing, even if the clock goes backwards. Identifiers sort by the time they were
+ * generated at, both as UUIDs and as strings, which keeps the indexes of the stores deduplicating tokens compact.
+ * <p>
+ * The identifiers are unique but not unpredictable. Deployments requiring unpredictable identifiers use
+ * {@link SecureRandomJtiGenerator} instead.
+ */
+public class TimeOrderedJtiGenerator implements JtiGenerator {
+
+    public static final String NAME = "timeOrdered";
+
+    private static final int VERSION = 7;
+    private static final int SEQUENCE_BITS = 12;
+    private static final int MAX_SEQUENCE = (1 << SEQUENCE_BITS) - 1;
+    private static final long TIMESTAMP_MASK = 0xFFFFFFFFFFFFL;
+    private static final long VARIANT = 0x8000000000000000L;
+    private static final long RANDOM_MASK = 0x3FFFFFFFFFFFFFFFL;
+
+    private final ThreadLocal<Sequence> sequences = ThreadLocal.withInitial(Sequence::new);
+
+    @Override
+    public String generate() {
+
+        return generateUuid().toString();
+    }
+
+    /**
+     * Generate a time ordered UUID.
+     *
+     * @return UUID.
+     */
+    public UUID generateUuid() {
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Sequence sequence = sequences.get();
+        long millis = System.currentTimeMillis();
+        if (millis > sequence.millis) {
+            sequence.millis = millis;
+            // Start in the lower half of the range, leaving room for the further identifiers of the millisecond.
+            sequence.value = random.nextInt((MAX_SEQUENCE + 1) / 2);
+        } else if (sequence.value < MAX_SEQUENCE) {
+            sequence.value++;
+        } else {
+            // The sequence of the millisecond is exhausted, so continue in the next one.
+            sequence.millis++;
+            sequence.value = 0;
+        }
+        long mostSigBits = (sequence.millis & TIMESTAMP_MASK) << 16 | (long) VERSION << SEQUENCE_BITS | sequence.value;
+        long leastSigBits = VARIANT | random.nextLong() & RANDOM_MASK;
+        return new UUID(mostSigBits, leastSigBits);
+    }
+
+    /**
+     * Last millisecond and sequence number of the identifiers of a thread.
+     */
+    private static final class Sequence {
+
+        private long millis = Long.MIN_VALUE;
+        private int value;
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.identity.webhook.common.event.handler.internal.payload;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.wso2.carbon.identity.event.publisher.api.model.EventPayload;
+
+import java.io.IOException;
+
+/**
+ * Event payload serialized without its null and empty fields, at any depth.
+ * <p>
+ * The security event tokens are serialized by the event publishers with their own object mappers, which write the
+ * null fields and the empty collections of the payloads. A payload wrapped in a compact event payload is written in
+ * place of the wrapper by an object writer leaving them out, whatever the object mapper of the publisher, so the
+ * tokens of the tenants publishing compact payloads are smaller.
+ */
+@JsonSerialize(using = CompactEventPayload.Serializer.class)
+public class CompactEventPayload extends EventPayload {
+
+    private static final ObjectWriter COMPACT_WRITER = new ObjectMapper()
+            .setSerializationInclusion(JsonInclude.Include.NON_EMPTY)
+            .writer()
+            .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+    private final EventPayload eventPayload;
+
+    private CompactEventPayload(EventPayload eventPayload) {
+
+        this.eventPayload = eventPayload;
+    }
+
+    /**
+     * Wrap an event payload to be serialized without its null and empty fields.
+     *
+     * @param eventPayload Event payload.
+     * @return Compact event payload.
+     */
+    public static CompactEventPayload of(EventPayload eventPayload) {
+
+        if (eventPayload instanceof CompactEventPayload) {
+            return (CompactEventPayload) eventPayload;
+        }
+        return new CompactEventPayload(eventPayload);
+    }
+
+    public EventPayload getEventPayload() {
+
+        return eventPayload;
+    }
+
+    /**
+     * Serializer writing the wrapped event payload in place of the wrapper.
+     */
+    static class Serializer extends StdSerializer<CompactEventPayload> {
+
+        private static final long serialVersionUID = 1L;
+
+        Serializer() {
+
+            super(CompactEventPayload.class);
+        }
+
+        @Override
+        public void serialize(CompactEventPayload value, JsonGenerator gen, SerializerProvider provider)
+                throws IOException {
+
+            COMPACT_WRITER.writeValue(gen, value.getEventPayload());
+        }
+    }
+}
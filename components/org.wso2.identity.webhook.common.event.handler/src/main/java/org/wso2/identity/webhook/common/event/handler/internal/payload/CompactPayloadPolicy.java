@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.identity.webhook.common.event.handler.internal.payload;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Tenants publishing compact event payloads, leaving out their null and empty fields. Either all tenants or the
+ * configured ones publish compact payloads.
+ */
+public class CompactPayloadPolicy {
+
+    public static final CompactPayloadPolicy DISABLED = new CompactPayloadPolicy(false, Collections.emptySet());
+
+    private final boolean enabledForAllTenants;
+    private final Set<String> tenantDomains;
+
+    private CompactPayloadPolicy(boolean enabledForAllTenants, Set<String> tenantDomains) {
+
+        this.enabledForAllTenants = enabledForAllTenants;
+        this.tenantDomains = tenantDomains;
+    }
+
+    /**
+     * Create a policy.
+     *
+     * @param enabledForAllTenants Whether all tenants publish compact payloads.
+     * @param tenantDomains        Domains of the tenants publishing compact payloads, if not all.
+     * @return Compact payload policy.
+     */
+    public static CompactPayloadPolicy of(boolean enabledForAllTenants, Collection<String> tenantDomains) {
+
+        if (!enabledForAllTenants && (tenantDomains == null || tenantDomains.isEmpty())) {
+            return DISABLED;
+        }
+        return new CompactPayloadPolicy(enabledForAllTenants,
+                tenantDomains == null ? Collections.emptySet() : Collections.unmodifiableSet(
+                        new HashSet<>(tenantDomains)));
+    }
+
+    /**
+     * Check whether the given tenant publishes compact payloads.
+     *
+     * @param tenantDomain Tenant domain.
+     * @return True if the payloads of the tenant are compact.
+     */
+    public boolean isCompact(String tenantDomain) {
+
+        return enabledForAllTenants || tenantDomain != null && tenantDomains.contains(tenantDomain);
+    }
+
+    public boolean isEnabledForAllTenants() {
+
+        return enabledForAllTenants;
+    }
+
+    public Set<String> getTenantDomains() {
+
+        return tenantDomains;
+    }
+}
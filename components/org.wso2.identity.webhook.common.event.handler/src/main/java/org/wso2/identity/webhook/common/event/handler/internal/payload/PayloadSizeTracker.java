@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.identity.webhook.common.event.handler.internal.payload;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.event.IdentityEventException;
+import org.wso2.carbon.identity.event.publisher.api.model.SecurityEventTokenPayload;
+import org.wso2.identity.webhook.common.event.handler.api.model.SerializedSecurityEventToken;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Tracker of the serialized sizes of the security event tokens of each event URI.
+ * <p>
+ * Measuring a token serializes it, so only a random sample of the tokens is measured, one in every sample interval
+ * tokens on average. The sample is drawn per thread, so the publishing threads do not contend for a shared counter.
+ */
+public class PayloadSizeTracker {
+
+    public static final int DEFAULT_SAMPLE_INTERVAL = 100;
+
+    private static final Log log = LogFactory.getLog(PayloadSizeTracker.class);
+
+    private final Map<String, PayloadSizes> payloadSizes = new ConcurrentHashMap<>();
+    private volatile int sampleInterval = DEFAULT_SAMPLE_INTERVAL;
+
+    /**
+     * Measure the given security event token if it is sampled.
+     *
+     * @param eventUri                  Event URI of the token.
+     * @param securityEventTokenPayload Security event token.
+     */
+    public void record(String eventUri, SecurityEventTokenPayload securityEventTokenPayload) {
+
+        int interval = sampleInterval;
+        if (interval <= 0 || interval > 1 && ThreadLocalRandom.current().nextInt(interval) != 0) {
+            return;
+        }
+        try {
+            record(eventUri, new SerializedSecurityEventToken(securityEventTokenPayload).getSize());
+        } catch (IdentityEventException e) {
+            if (log.isDebugEnabled()) {
+                log.debug("Error while measuring the security event token of the event: " + eventUri, e);
+            }
+        }
+    }
+
+    /**
+     * Record the size of a security event token.
+     *
+     * @param eventUri Event URI of the token.
+     * @param bytes    Size of the serialized token in bytes.
+     */
+    public void record(String eventUri, long bytes) {
+
+        payloadSizes.computeIfAbsent(eventUri, key -> new PayloadSizes()).record(bytes);
+    }
+
+    /**
+     * Get the sizes of the tokens of the given event URI.
+     *
+     * @param eventUri Event URI.
+     * @return Payload sizes, or null if no token of the event URI is measured.
+     */
+    public PayloadSizes getPayloadSizes(String eventUri) {
+
+        return payloadSizes.get(eventUri);
+    }
+
+    /**
+     * Get the sizes of the tokens of all measured event URIs.
+     *
+     * @return Payload sizes by event URI.
+     */
+    public Map<String, PayloadSizes> getPayloadSizes() {
+
+        return Collections.unmodifiableMap(new HashMap<>(payloadSizes));
+    }
+
+    /**
+     * Set the average number of tokens per measured token. One measures every token, and zero or less disables the
+     * tracking.
+     *
+     * @param sampleInterval Sample interval.
+     */
+    public void setSampleInterval(int sampleInterval) {
+
+        this.sampleInterval = sampleInterval;
+    }
+
+    public boolean isEnabled() {
+
+        return sampleInterval > 0;
+    }
+
+    public void reset() {
+
+        payloadSizes.clear();
+    }
+
+    /**
+     * Sizes of the measured tokens of an event URI.
+     */
+    public static class PayloadSizes {
+
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalBytes = new LongAdder();
+        private final LongAccumulator maxBytes = new LongAccumulator(Math::max, 0);
+
+        void record(long bytes) {
+
+            count.increment();
+            totalBytes.add(bytes);
+            maxBytes.accumulate(bytes);
+        }
+
+        public long getCount() {
+
+            return count.sum();
+        }
+
+        public long getTotalBytes() {
+
+            return totalBytes.sum();
+        }
+
+        /**
+         * Get the mean size of the measured tokens.
+         *
+         * @return Mean size in bytes, or 0 if nothing is measured.
+         */
+        public double getMeanBytes() {
+
+            long measuredCount = count.sum();
+            return measuredCount == 0 ? 0 : (double) totalBytes.sum() / measuredCount;
+        }
+
+        public long getMaxBytes() {
+
+            return maxBytes.get();
+        }
+    }
+}
@@ -0,0 +1,425 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.webhook.common.event.handler.internal.ratelimit;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.identity.webhook.common.event.handler.internal.async.EventPriority;
+import org.wso2.identity.webhook.common.event.handler.internal.async.EventPriorityPolicy;
+import org.wso2.identity.webhook.common.event.handler.internal.routing.EventRoute;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Opt-in rate limiter and sampler of webhook events, keyed by tenant domain and event URI.
+ * <p>
+ * Events are admitted before their event data is built. The policy of an event is the first defined of the policy of
+ * the tenant for the event type, the policy of the event type, the policy of the tenant and the default policy, where
+ * the event type is the last segment of the event URI. Security critical events, the event URIs classified as
+ * {@link EventPriority#HIGH} by the {@link EventPriorityPolicy}, such as revocations, account locks and user
+ * deletions, are neither sampled nor rate limited by the tenant and default policies; only a policy of their event
+ * type applies to them.
+ * <p>
+ * The deterministic sampler keeps a fixed percentage of the events, decided by the hash of the sampling key, so the
+ * events of the same request are kept or dropped together; events without a sampling key are kept at evenly spaced
+ * positions. The rate limiter is a token bucket, implemented as a generic cell rate algorithm over a single atomic
+ * arrival time per key. The states are held in a concurrent map and updated with compare and set, and the counters of
+ * admitted and suppressed events are striped, so no lock is taken on the event path. The number of states is bounded,
+ * and the states idle for a while are discarded once the bound is reached.
+ */
+public class EventRateLimiter {
+
+    private static final Log log = LogFactory.getLog(EventRateLimiter.class);
+    public static final long DEFAULT_BURST = 100;
+    static final int MAX_STATES = 10000;
+    private static final long IDLE_STATE_NANOS = TimeUnit.MINUTES.toNanos(5);
+
+    private final Map<LimiterKey, LimiterState> limiterStates = new ConcurrentHashMap<>();
+    private volatile RateLimitPolicy defaultPolicy;
+    private volatile Map<String, RateLimitPolicy> tenantPolicies = Collections.emptyMap();
+    private volatile Map<String, RateLimitPolicy> eventPolicies = Collections.emptyMap();
+    private volatile Map<String, Map<String, RateLimitPolicy>> tenantEventPolicies = Collections.emptyMap();
+    private volatile EventPriorityPolicy eventPriorityPolicy = EventPriorityPolicy.getDefaultPolicy();
+    private volatile boolean enabled;
+
+    /**
+     * Enable the rate limiter with the given policies, discarding the states and counters of the previous policies.
+     *
+     * @param defaultPolicy  Policy of the tenants without a policy of their own, or null to not limit them.
+     * @param tenantPolicies Policies by tenant domain.
+     */
+    public void configure(RateLimitPolicy defaultPolicy, Map<String, RateLimitPolicy> tenantPolicies) {
+
+        configure(defaultPolicy, tenantPolicies, Collections.emptyMap(), Collections.emptyMap());
+    }
+
+    /**
+     * Enable the rate limiter with the given policies, discarding the states and counters of the previous policies.
+     *
+     * @param defaultPolicy       Policy of the tenants without a policy of their own, or null to not limit them.
+     * @param tenantPolicies      Policies by tenant domain.
+     * @param eventPolicies       Policies of all tenants by event type.
+     * @param tenantEventPolicies Policies by tenant domain and event type.
+     */
+    public synchronized void configure(RateLimitPolicy defaultPolicy, Map<String, RateLimitPolicy> tenantPolicies,
+                                       Map<String, RateLimitPolicy> eventPolicies,
+                                       Map<String, Map<String, RateLimitPolicy>> tenantEventPolicies) {
+
+        this.defaultPolicy = defaultPolicy;
+        this.tenantPolicies = Collections.unmodifiableMap(new HashMap<>(tenantPolicies));
+        this.eventPolicies = Collections.unmodifiableMap(new HashMap<>(eventPolicies));
+        Map<String, Map<String, RateLimitPolicy>> tenantEventPolicyMap = new HashMap<>();
+        for (Map.Entry<String, Map<String, RateLimitPolicy>> entry : tenantEventPolicies.entrySet()) {
+            tenantEventPolicyMap.put(entry.getKey(), Collections.unmodifiableMap(new HashMap<>(entry.getValue())));
+        }
+        this.tenantEventPolicies = Collections.unmodifiableMap(tenantEventPolicyMap);
+        limiterStates.clear();
+        enabled = true;
+        if (log.isDebugEnabled()) {
+            log.debug("Enabled webhook event rate limiter with policies for " + tenantPolicies.size() +
+                    " tenants and " + eventPolicies.size() + " event types.");
+        }
+    }
+
+    /**
+     * Set the policy classifying the security critical events, which are exempt from the tenant and default policies.
+     *
+     * @param eventPriorityPolicy Event priority policy.
+     */
+    public void setEventPriorityPolicy(EventPriorityPolicy eventPriorityPolicy) {
+
+        this.eventPriorityPolicy = eventPriorityPolicy;
+    }
+
+    /**
+     * Disable the rate limiter. All events are admitted afterwards.
+     */
+    public synchronized void disable() {
+
+        enabled = false;
+        defaultPolicy = null;
+        tenantPolicies = Collections.emptyMap();
+        eventPolicies = Collections.emptyMap();
+        tenantEventPolicies = Collections.emptyMap();
+        limiterStates.clear();
+    }
+
+    public boolean isEnabled() {
+
+        return enabled;
+    }
+
+    /**
+     * Get the routes of an event admitted by the rate limit and sampling policy of the tenant.
+     *
+     * @param tenantDomain Tenant domain the event is published for.
+     * @param eventRoutes  Routes of the event.
+     * @param samplingKey  Key deciding whether the event is sampled, such as the correlation id, or null.
+     * @return Admitted routes.
+     */
+    public List<EventRoute> admit(String tenantDomain, List<EventRoute> eventRoutes, String samplingKey) {
+
+        if (!enabled || eventRoutes.isEmpty()) {
+            return eventRoutes;
+        }
+        List<EventRoute> admittedRoutes = null;
+        for (int i = 0; i < eventRoutes.size(); i++) {
+            EventRoute eventRoute = eventRoutes.get(i);
+            if (!tryAdmit(tenantDomain, eventRoute.getEventUri(), samplingKey)) {
+                if (admittedRoutes == null) {
+                    admittedRoutes = new ArrayList<>(eventRoutes.subList(0, i));
+                }
+            } else if (admittedRoutes != null) {
+                admittedRoutes.add(eventRoute);
+            }
+        }
+        return admittedRoutes != null ? admittedRoutes : eventRoutes;
+    }
+
+    /**
+     * Check whether an event of the given URI is admitted for the given tenant. An admitted event consumes a token
+     * of the rate limit.
+     *
+     * @param tenantDomain Tenant domain.
+     * @param eventUri     Event URI.
+     * @param samplingKey  Key deciding whether the event is sampled, or null.
+     * @return True if the event is admitted.
+     */
+    public boolean tryAdmit(String tenantDomain, String eventUri, String samplingKey) {
+
+        if (!enabled) {
+            return true;
+        }
+        RateLimitPolicy policy = getEventPolicy(tenantDomain, eventUri);
+        boolean exempt = false;
+        if (policy == null) {
+            policy = getTenantPolicy(tenantDomain);
+            exempt = eventPriorityPolicy.getPriority(eventUri) == EventPriority.HIGH;
+        }
+        if (policy == null || (!policy.isRateLimited() && !policy.isSampled())) {
+            return true;
+        }
+
+        long now = System.nanoTime();
+        LimiterState limiterState = getLimiterState(tenantDomain, eventUri, now);
+        if (exempt) {
+            limiterState.admittedCount.increment();
+            return true;
+        }
+        if (policy.isSampled() && !limiterState.sample(samplingKey, policy.getSamplingPercentage())) {
+            limiterState.sampledOutCount.increment();
+            return false;
+        }
+        if (policy.isRateLimited() && !limiterState.tryAcquire(policy, now)) {
+            limiterState.rateLimitedCount.increment();
+            return false;
+        }
+        limiterState.admittedCount.increment();
+        return true;
+    }
+
+    int getStateCount() {
+
+        return limiterStates.size();
+    }
+
+    private LimiterState getLimiterState(String tenantDomain, String eventUri, long now) {
+
+        LimiterKey limiterKey = new LimiterKey(tenantDomain, eventUri);
+        LimiterState limiterState = limiterStates.get(limiterKey);
+        if (limiterState == null) {
+            if (limiterStates.size() >= MAX_STATES) {
+                evictIdleStates(now);
+            }
+            limiterState = limiterStates.computeIfAbsent(limiterKey, key -> new LimiterState(now));
+        }
+        limiterState.lastSeenTime = now;
+        return limiterState;
+    }
+
+    /**
+     * Discard the states not used for the idle time, so the states of tenants and event URIs that stopped publishing
+     * are not retained. A state not used for the idle time has a full token bucket, so only its counters are lost. If
+     * the maximum number of states is still reached, all states are discarded.
+     */
+    private synchronized void evictIdleStates(long now) {
+
+        if (limiterStates.size() < MAX_STATES) {
+            return;
+        }
+        limiterStates.values().removeIf(limiterState -> now - limiterState.lastSeenTime > IDLE_STATE_NANOS);
+        if (limiterStates.size() >= MAX_STATES) {
+            log.debug("Event rate limiter reached the maximum number of states. Clearing the states.");
+            limiterStates.clear();
+        }
+    }
+
+    /**
+     * Get the counters of the admitted and suppressed events of a tenant by event URI, so the tenant can be told what
+     * was suppressed.
+     *
+     * @param tenantDomain Tenant domain.
+     * @return Event counters by event URI.
+     */
+    public Map<String, EventCounters> getEventCounters(String tenantDomain) {
+
+        Map<String, EventCounters> eventCounters = new HashMap<>();
+        for (Map.Entry<LimiterKey, LimiterState> entry : limiterStates.entrySet()) {
+            if (Objects.equals(entry.getKey().tenantDomain, tenantDomain)) {
+                LimiterState limiterState = entry.getValue();
+                eventCounters.put(entry.getKey().eventUri, new EventCounters(limiterState.admittedCount.sum(),
+                        limiterState.rateLimitedCount.sum(), limiterState.sampledOutCount.sum()));
+            }
+        }
+        return Collections.unmodifiableMap(eventCounters);
+    }
+
+    private RateLimitPolicy getEventPolicy(String tenantDomain, String eventUri) {
+
+        Map<String, RateLimitPolicy> eventTypePolicies = eventPolicies;
+        Map<String, Map<String, RateLimitPolicy>> tenantEventTypePolicies = tenantEventPolicies;
+        if (eventUri == null || (eventTypePolicies.isEmpty() && tenantEventTypePolicies.isEmpty())) {
+            return null;
+        }
+        String eventType = getEventType(eventUri);
+        Map<String, RateLimitPolicy> policies = tenantDomain != null ? tenantEventTypePolicies.get(tenantDomain) : null;
+        RateLimitPolicy eventPolicy = policies != null ? policies.get(eventType) : null;
+        return eventPolicy != null ? eventPolicy : eventTypePolicies.get(eventType);
+    }
+
+    private RateLimitPolicy getTenantPolicy(String tenantDomain) {
+
+        RateLimitPolicy tenantPolicy = tenantDomain != null ? tenantPolicies.get(tenantDomain) : null;
+        return tenantPolicy != null ? tenantPolicy : defaultPolicy;
+    }
+
+    /**
+     * Get the event type of an event URI, which is its last segment.
+     *
+     * @param eventUri Event URI.
+     * @return Event type.
+     */
+    public static String getEventType(String eventUri) {
+
+        return eventUri.substring(eventUri.lastIndexOf('/') + 1);
+    }
+
+    /**
+     * Counters of the events of a tenant and event URI.
+     */
+    public static class EventCounters {
+
+        private final long admittedCount;
+        private final long rateLimitedCount;
+        private final long sampledOutCount;
+
+        EventCounters(long admittedCount, long rateLimitedCount, long sampledOutCount) {
+
+            this.admittedCount = admittedCount;
+            this.rateLimitedCount = rateLimitedCount;
+            this.sampledOutCount = sampledOutCount;
+        }
+
+        public long getAdmittedCount() {
+
+            return admittedCount;
+        }
+
+        public long getRateLimitedCount() {
+
+            return rateLimitedCount;
+        }
+
+        public long getSampledOutCount() {
+
+            return sampledOutCount;
+        }
+
+        public long getSuppressedCount() {
+
+            return rateLimitedCount + sampledOutCount;
+        }
+    }
+
+    /**
+     * Rate limit and sampling state of a tenant and event URI.
+     */
+    private static class LimiterState {
+
+        private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+        private final AtomicLong theoreticalArrivalTime;
+        private final AtomicLong samplingSequence = new AtomicLong();
+        private final LongAdder admittedCount = new LongAdder();
+        private final LongAdder rateLimitedCount = new LongAdder();
+        private final LongAdder sampledOutCount = new LongAdder();
+        private volatile long lastSeenTime;
+
+        LimiterState(long now) {
+
+            this.theoreticalArrivalTime = new AtomicLong(now);
+            this.lastSeenTime = now;
+        }
+
+        boolean tryAcquire(RateLimitPolicy policy, long now) {
+
+            if (policy.getEventsPerSecond() == 0) {
+                return false;
+            }
+            long emissionInterval = Math.max(NANOS_PER_SECOND / policy.getEventsPerSecond(), 1);
+            long burstTolerance = emissionInterval * (policy.getBurst() - 1);
+            while (true) {
+                long arrivalTime = theoreticalArrivalTime.get();
+                long startTime = arrivalTime - now > 0 ? arrivalTime : now;
+                if (startTime - now > burstTolerance) {
+                    return false;
+                }
+                if (theoreticalArrivalTime.compareAndSet(arrivalTime, startTime + emissionInterval)) {
+                    return true;
+                }
+            }
+        }
+
+        boolean sample(String samplingKey, int samplingPercentage) {
+
+            if (samplingKey != null) {
+                return Math.floorMod(mix(samplingKey.hashCode()), RateLimitPolicy.FULL_SAMPLING_PERCENTAGE) <
+                        samplingPercentage;
+            }
+            long sequence = samplingSequence.incrementAndGet();
+            return sequence * samplingPercentage / RateLimitPolicy.FULL_SAMPLING_PERCENTAGE !=
+                    (sequence - 1) * samplingPercentage / RateLimitPolicy.FULL_SAMPLING_PERCENTAGE;
+        }
+
+        private static int mix(int hash) {
+
+            // Finalizer of MurmurHash3, spreading similar keys such as sequential ids across the percentages.
+            hash ^= hash >>> 16;
+            hash *= 0x85ebca6b;
+            hash ^= hash >>> 13;
+            hash *= 0xc2b2ae35;
+            hash ^= hash >>> 16;
+            return hash;
+        }
+    }
+
+    /**
+     * Key of a rate limit state.
+     */
+    private static class LimiterKey {
+
+        private final String tenantDomain;
+        private final String eventUri;
+
+        LimiterKey(String tenantDomain, String eventUri) {
+
+            this.tenantDomain = tenantDomain;
+            this.eventUri = eventUri;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof LimiterKey)) {
+                return false;
+            }
+            LimiterKey limiterKey = (LimiterKey) o;
+            return Objects.equals(tenantDomain, limiterKey.tenantDomain) &&
+                    Objects.equals(eventUri, limiterKey.eventUri);
+        }
+
+        @Override
+        public int hashCode() {
+
+            return Objects.hash(tenantDomain, eventUri);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.webhook.common.event.handler.internal.ratelimit;
+
+/**
+ * Immutable rate limit and sampling policy applied to each event URI of a tenant.
+ */
+public class RateLimitPolicy {
+
+    public static final int FULL_SAMPLING_PERCENTAGE = 100;
+    public static final long UNLIMITED = -1;
+
+    private final long eventsPerSecond;
+    private final long burst;
+    private final int samplingPercentage;
+
+    /**
+     * Create a rate limit policy.
+     *
+     * @param eventsPerSecond    Sustained number of events admitted per second for each event URI. Zero to admit no
+     *                           events, or {@link #UNLIMITED} for no rate limit.
+     * @param burst              Number of events admitted at once before the sustained rate applies. At least one.
+     * @param samplingPercentage Percentage of the events kept by the sampler, between 0 and 100. Zero drops all
+     *                           events.
+     */
+    public RateLimitPolicy(long eventsPerSecond, long burst, int samplingPercentage) {
+
+        this.eventsPerSecond = eventsPerSecond < 0 ? UNLIMITED : eventsPerSecond;
+        this.burst = Math.max(burst, 1);
+        this.samplingPercentage = Math.min(Math.max(samplingPercentage, 0), FULL_SAMPLING_PERCENTAGE);
+    }
+
+    public long getEventsPerSecond() {
+
+        return eventsPerSecond;
+    }
+
+    public long getBurst() {
+
+        return burst;
+    }
+
+    public int getSamplingPercentage() {
+
+        return samplingPercentage;
+    }
+
+    public boolean isRateLimited() {
+
+        return eventsPerSecond != UNLIMITED;
+    }
+
+    public boolean isSampled() {
+
+        return samplingPercentage < FULL_SAMPLING_PERCENTAGE;
+    }
+}
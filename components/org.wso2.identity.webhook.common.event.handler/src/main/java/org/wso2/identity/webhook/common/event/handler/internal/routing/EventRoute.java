@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.webhook.common.event.handler.internal.routing;
+
+import org.wso2.carbon.identity.webhook.metadata.api.model.Channel;
+import org.wso2.identity.webhook.common.event.handler.api.constants.Constants;
+import org.wso2.identity.webhook.common.event.handler.api.model.EventMetadata;
+
+import java.util.Map;
+
+/**
+ * Immutable route of an event to a single event profile.
+ * Holds everything a handler needs to publish the event for the profile: the payload builders of the profile schema,
+ * the resolved event metadata, the channel and the event URI.
+ */
+public class EventRoute {
+
+    private final String eventProfileName;
+    private final Constants.EventSchema eventSchema;
+    private final EventMetadata eventMetadata;
+    private final Channel channel;
+    private final String eventUri;
+    private final String channelKey;
+    private final Map<Class<?>, Object> payloadBuilders;
+
+    EventRoute(String eventProfileName, Constants.EventSchema eventSchema, Channel channel, String eventUri,
+               Map<Class<?>, Object> payloadBuilders) {
+
+        this.eventProfileName = eventProfileName;
+        this.eventSchema = eventSchema;
+        this.channel = channel;
+        this.eventUri = eventUri;
+        this.payloadBuilders = payloadBuilders;
+        this.channelKey = eventProfileName + "|" + channel.getUri();
+        this.eventMetadata = EventMetadata.builder()
+                .eventProfile(eventProfileName)
+                .channel(channel.getUri())
+                .event(eventUri)
+                .build();
+    }
+
+    public String getEventProfileName() {
+
+        return eventProfileName;
+    }
+
+    public Constants.EventSchema getEventSchema() {
+
+        return eventSchema;
+    }
+
+    public EventMetadata getEventMetadata() {
+
+        return eventMetadata;
+    }
+
+    public Channel getChannel() {
+
+        return channel;
+    }
+
+    public String getEventUri() {
+
+        return eventUri;
+    }
+
+    /**
+     * Get a key identifying the channel of this route across event profiles.
+     *
+     * @return Channel key.
+     */
+    public String getChannelKey() {
+
+        return channelKey;
+    }
+
+    /**
+     * Get the payload builder of the given type registered for the schema of this route.
+     *
+     * @param builderType Payload builder type.
+     * @param <T>         Payload builder type.
+     * @return Payload builder if registered, otherwise null.
+     */
+    public <T> T getPayloadBuilder(Class<T> builderType) {
+
+        return builderType.cast(payloadBuilders.get(builderType));
+    }
+}
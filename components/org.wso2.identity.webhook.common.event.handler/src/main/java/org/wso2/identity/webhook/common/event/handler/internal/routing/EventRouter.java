@@ -0,0 +1,259 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.webhook.common.event.handler.internal.routing;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.core.context.IdentityContext;
+import org.wso2.carbon.identity.core.context.model.Flow;
+import org.wso2.carbon.identity.event.event.Event;
+import org.wso2.carbon.identity.event.publisher.api.exception.EventPublisherException;
+import org.wso2.carbon.identity.event.publisher.api.model.EventContext;
+import org.wso2.carbon.identity.webhook.metadata.api.exception.WebhookMetadataException;
+import org.wso2.carbon.identity.webhook.metadata.api.service.WebhookMetadataService;
+import org.wso2.identity.webhook.common.event.handler.api.model.EventMetadata;
+import org.wso2.identity.webhook.common.event.handler.internal.cache.EventProfileSnapshot;
+import org.wso2.identity.webhook.common.event.handler.internal.cache.SubscriptionIndex;
+import org.wso2.identity.webhook.common.event.handler.internal.component.EventHookHandlerDataHolder;
+import org.wso2.identity.webhook.common.event.handler.internal.ratelimit.EventRateLimiter;
+import org.wso2.identity.webhook.common.event.handler.internal.util.EventHookHandlerUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Resolves the routes of events to event profiles through a compiled {@link EventRoutingTable}.
+ * <p>
+ * The routing table is compiled lazily and swapped atomically. Each table is tagged with the registry version of
+ * {@link EventHookHandlerDataHolder} and the event profile snapshot it was compiled from, and is recompiled once a
+ * payload builder or an event profile manager binds or unbinds, the webhook metadata service changes, or the cached
+ * event profiles are refreshed.
+ */
+public class EventRouter {
+
+    private static final Log log = LogFactory.getLog(EventRouter.class);
+    private static final EventRouter instance = new EventRouter();
+
+    private final AtomicReference<EventRoutingTable> routingTable = new AtomicReference<>();
+
+    private EventRouter() {
+
+    }
+
+    public static EventRouter getInstance() {
+
+        return instance;
+    }
+
+    /**
+     * Get the routes of the given event for all supported event profiles.
+     *
+     * @param eventName Event name.
+     * @return Routes of the event. Empty if the event is not routed to any profile.
+     */
+    public List<EventRoute> getRoutes(String eventName) {
+
+        EventRoutingTable table = getRoutingTable();
+        if (table == null || eventName == null) {
+            return Collections.emptyList();
+        }
+        return table.getRoutes(eventName, getCurrentFlowName());
+    }
+
+    /**
+     * Get the routes of the given event for all supported event profiles, leaving out the routes whose channel is
+     * known to have no subscriber in the tenant of the event.
+     *
+     * @param event Event.
+     * @return Routes of the event that may have a subscriber in the tenant.
+     */
+    public List<EventRoute> getRoutes(Event event) {
+
+        return getRoutes(event.getEventName(), EventHookHandlerUtils.resolveTenantDomain(event));
+    }
+
+    /**
+     * Get the routes of the given event for all supported event profiles, leaving out the routes whose channel is
+     * known to have no subscriber in the given tenant.
+     *
+     * @param eventName    Event name.
+     * @param tenantDomain Tenant domain the event is published for.
+     * @return Routes of the event that may have a subscriber in the tenant.
+     */
+    public List<EventRoute> getRoutes(String eventName, String tenantDomain) {
+
+        return getSubscribedRoutes(tenantDomain, getRoutes(eventName));
+    }
+
+    /**
+     * Get the given routes of an event, leaving out the routes whose channel is known to have no subscriber in the
+     * tenant of the event.
+     *
+     * @param event       Event.
+     * @param eventRoutes Routes of the event.
+     * @return Routes of the event that may have a subscriber in the tenant.
+     */
+    public List<EventRoute> getSubscribedRoutes(Event event, List<EventRoute> eventRoutes) {
+
+        return getSubscribedRoutes(EventHookHandlerUtils.resolveTenantDomain(event), eventRoutes);
+    }
+
+    private List<EventRoute> getSubscribedRoutes(String tenantDomain, List<EventRoute> routes) {
+
+        if (routes.isEmpty() || tenantDomain == null) {
+            return routes;
+        }
+
+        SubscriptionIndex subscriptionIndex = EventHookHandlerDataHolder.getInstance().getSubscriptionIndex();
+        List<EventRoute> subscribedRoutes = null;
+        for (int i = 0; i < routes.size(); i++) {
+            EventRoute route = routes.get(i);
+            if (subscriptionIndex.isUnsubscribed(tenantDomain, route.getChannelKey())) {
+                if (subscribedRoutes == null) {
+                    subscribedRoutes = new ArrayList<>(routes.subList(0, i));
+                }
+            } else if (subscribedRoutes != null) {
+                subscribedRoutes.add(route);
+            }
+        }
+        return subscribedRoutes != null ? subscribedRoutes : routes;
+    }
+
+    /**
+     * Get the routes of the given event admitted by the rate limit and sampling policy of the event's tenant. Events
+     * are sampled by their correlation id.
+     *
+     * @param event       Event.
+     * @param eventRoutes Routes of the event.
+     * @return Admitted routes of the event.
+     */
+    public List<EventRoute> admit(Event event, List<EventRoute> eventRoutes) {
+
+        EventRateLimiter eventRateLimiter = EventHookHandlerDataHolder.getInstance().getEventRateLimiter();
+        if (!eventRateLimiter.isEnabled() || eventRoutes.isEmpty()) {
+            return eventRoutes;
+        }
+        return eventRateLimiter.admit(EventHookHandlerUtils.resolveTenantDomain(event), eventRoutes,
+                EventHookHandlerUtils.getCorrelationID());
+    }
+
+    /**
+     * Check whether the event publisher can handle the event of the given route, and record the result in the
+     * subscription index under the tenant of the event, which is the tenant the routes of the event are looked up
+     * with. The result is recorded only if the event is published for the tenant of the event, so the subscribers of
+     * one tenant never hide the channel from another.
+     *
+     * @param event        Event.
+     * @param eventRoute   Route the event is published through.
+     * @param eventContext Context the event is published with.
+     * @return True if the event publisher can handle the event.
+     * @throws EventPublisherException If the event publisher fails to check the subscribers.
+     */
+    public boolean canHandleEvent(Event event, EventRoute eventRoute, EventContext eventContext)
+            throws EventPublisherException {
+
+        boolean canHandle =
+                EventHookHandlerDataHolder.getInstance().getEventPublisherService().canHandleEvent(eventContext);
+        SubscriptionIndex subscriptionIndex = EventHookHandlerDataHolder.getInstance().getSubscriptionIndex();
+        if (!subscriptionIndex.isEnabled()) {
+            return canHandle;
+        }
+        String tenantDomain = EventHookHandlerUtils.resolveTenantDomain(event);
+        if (tenantDomain != null && tenantDomain.equals(eventContext.getTenantDomain())) {
+            subscriptionIndex.record(tenantDomain, eventRoute.getChannelKey(), canHandle);
+        }
+        return canHandle;
+    }
+
+    /**
+     * Record whether the event publisher can handle events of the route's channel in the given tenant.
+     *
+     * @param tenantDomain Tenant domain.
+     * @param eventRoute   Event route.
+     * @param canHandle    Result of the can handle check of the event publisher.
+     */
+    public void recordSubscription(String tenantDomain, EventRoute eventRoute, boolean canHandle) {
+
+        EventHookHandlerDataHolder.getInstance().getSubscriptionIndex()
+                .record(tenantDomain, eventRoute.getChannelKey(), canHandle);
+    }
+
+    /**
+     * Get the route of already resolved event metadata in the given event profile.
+     *
+     * @param eventProfileName Event profile name.
+     * @param eventMetadata    Event metadata.
+     * @return Route if the profile defines the channel and the event, otherwise null.
+     */
+    public EventRoute getRoute(String eventProfileName, EventMetadata eventMetadata) {
+
+        EventRoutingTable table = getRoutingTable();
+        return table != null ? table.getRoute(eventProfileName, eventMetadata) : null;
+    }
+
+    /**
+     * Discard the compiled routing table, the cached event profiles and the subscription index. The routing table and
+     * the event profiles are loaded again on the next lookup.
+     */
+    public void invalidate() {
+
+        EventHookHandlerDataHolder.getInstance().getEventProfileCache().invalidate();
+        EventHookHandlerDataHolder.getInstance().getSubscriptionIndex().invalidateAll();
+        routingTable.set(null);
+    }
+
+    private EventRoutingTable getRoutingTable() {
+
+        EventHookHandlerDataHolder dataHolder = EventHookHandlerDataHolder.getInstance();
+        // Read the version before the sources, so a change made while compiling is detected on the next lookup.
+        long registryVersion = dataHolder.getRegistryVersion();
+        WebhookMetadataService webhookMetadataService = dataHolder.getWebhookMetadataService();
+        if (webhookMetadataService == null) {
+            log.debug("Webhook metadata service is not available. Cannot compile the event routing table.");
+            return null;
+        }
+
+        EventProfileSnapshot eventProfileSnapshot;
+        try {
+            eventProfileSnapshot = dataHolder.getEventProfileCache().getSnapshot(webhookMetadataService);
+        } catch (WebhookMetadataException e) {
+            log.error("Error while retrieving event profiles from the webhook metadata service.", e);
+            return null;
+        }
+
+        EventRoutingTable table = routingTable.get();
+        if (table != null && table.getRegistryVersion() == registryVersion &&
+                table.getEventProfileSnapshot() == eventProfileSnapshot) {
+            return table;
+        }
+
+        EventRoutingTable compiled = EventRoutingTable.compile(eventProfileSnapshot, registryVersion);
+        // If another thread installed a table meanwhile, keep it and serve the table compiled here for this lookup.
+        routingTable.compareAndSet(table, compiled);
+        return compiled;
+    }
+
+    private static Flow.Name getCurrentFlowName() {
+
+        Flow flow = IdentityContext.getThreadLocalIdentityContext().getCurrentFlow();
+        return flow != null ? flow.getName() : null;
+    }
+}
@@ -0,0 +1,280 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.webhook.common.event.handler.internal.routing;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.core.context.model.Flow;
+import org.wso2.carbon.identity.webhook.metadata.api.model.Channel;
+import org.wso2.carbon.identity.webhook.metadata.api.model.Event;
+import org.wso2.carbon.identity.webhook.metadata.api.model.EventProfile;
+import org.wso2.identity.webhook.common.event.handler.api.builder.CredentialEventPayloadBuilder;
+import org.wso2.identity.webhook.common.event.handler.api.builder.LoginEventPayloadBuilder;
+import org.wso2.identity.webhook.common.event.handler.api.builder.RegistrationEventPayloadBuilder;
+import org.wso2.identity.webhook.common.event.handler.api.builder.SessionEventPayloadBuilder;
+import org.wso2.identity.webhook.common.event.handler.api.builder.TokenEventPayloadBuilder;
+import org.wso2.identity.webhook.common.event.handler.api.builder.UserOperationEventPayloadBuilder;
+import org.wso2.identity.webhook.common.event.handler.api.builder.VerificationEventPayloadBuilder;
+import org.wso2.identity.webhook.common.event.handler.api.constants.Constants;
+import org.wso2.identity.webhook.common.event.handler.api.model.EventMetadata;
+import org.wso2.identity.webhook.common.event.handler.internal.cache.EventProfileSnapshot;
+import org.wso2.identity.webhook.common.event.handler.internal.util.EventHookHandlerUtils;
+import org.wso2.identity.webhook.common.event.handler.internal.util.PayloadBuilderFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Routing table compiled from the supported event profiles and the registered payload builders.
+ * <p>
+ * The channel and event index of every profile is compiled eagerly. Routes of an event name are compiled on the first
+ * occurrence of the event and reused afterwards. Since event profile managers may resolve different metadata for the
+ * same event depending on the current flow (e.g. bulk operations or credential reset), compiled routes are kept per
+ * event name and flow name. The table is never mutated once a route is published, and a new table is compiled
+ * whenever the sources change.
+ */
+public class EventRoutingTable {
+
+    private static final Log log = LogFactory.getLog(EventRoutingTable.class);
+    private static final int FLOW_SLOTS = Flow.Name.values().length + 1;
+
+    private final Map<String, ProfileRoutes> profileRoutes;
+    private final EventProfileSnapshot eventProfileSnapshot;
+    private final long registryVersion;
+    private final ConcurrentMap<String, AtomicReferenceArray<List<EventRoute>>> routesByEventName =
+            new ConcurrentHashMap<>();
+
+    private EventRoutingTable(Map<String, ProfileRoutes> profileRoutes, EventProfileSnapshot eventProfileSnapshot,
+                              long registryVersion) {
+
+        this.profileRoutes = profileRoutes;
+        this.eventProfileSnapshot = eventProfileSnapshot;
+        this.registryVersion = registryVersion;
+    }
+
+    /**
+     * Compile a routing table for the given event profiles using the currently registered payload builders.
+     *
+     * @param eventProfileSnapshot Snapshot of the supported event profiles.
+     * @param registryVersion      Registry version of the payload builders and event profile managers.
+     * @return Compiled routing table.
+     */
+    static EventRoutingTable compile(EventProfileSnapshot eventProfileSnapshot, long registryVersion) {
+
+        Map<String, ProfileRoutes> profileRoutes = new LinkedHashMap<>();
+        if (eventProfileSnapshot != null) {
+            for (EventProfile eventProfile : eventProfileSnapshot.getEventProfiles()) {
+                Constants.EventSchema eventSchema = resolveEventSchema(eventProfile.getProfile());
+                if (eventSchema == null) {
+                    log.debug("Unsupported event schema for profile: " + eventProfile.getProfile() +
+                            ". Skipping event routes of the profile.");
+                    continue;
+                }
+                profileRoutes.put(eventProfile.getProfile(), new ProfileRoutes(eventProfile, eventSchema,
+                        resolvePayloadBuilders(eventSchema)));
+            }
+        }
+        return new EventRoutingTable(Collections.unmodifiableMap(profileRoutes), eventProfileSnapshot,
+                registryVersion);
+    }
+
+    /**
+     * Get the registry version this table was compiled from.
+     *
+     * @return Registry version.
+     */
+    public long getRegistryVersion() {
+
+        return registryVersion;
+    }
+
+    /**
+     * Get the event profile snapshot this table was compiled from.
+     *
+     * @return Event profile snapshot.
+     */
+    public EventProfileSnapshot getEventProfileSnapshot() {
+
+        return eventProfileSnapshot;
+    }
+
+    /**
+     * Get the routes of the given event for all event profiles.
+     *
+     * @param eventName Event name.
+     * @param flowName  Name of the current flow, if any.
+     * @return Routes of the event, in event profile order.
+     */
+    public List<EventRoute> getRoutes(String eventName, Flow.Name flowName) {
+
+        if (profileRoutes.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        AtomicReferenceArray<List<EventRoute>> routesByFlow = routesByEventName.get(eventName);
+        if (routesByFlow == null) {
+            routesByFlow = new AtomicReferenceArray<>(FLOW_SLOTS);
+            AtomicReferenceArray<List<EventRoute>> existing = routesByEventName.putIfAbsent(eventName, routesByFlow);
+            if (existing != null) {
+                routesByFlow = existing;
+            }
+        }
+
+        int slot = flowName != null ? flowName.ordinal() + 1 : 0;
+        List<EventRoute> routes = routesByFlow.get(slot);
+        if (routes == null) {
+            routes = compileRoutes(eventName);
+            routesByFlow.set(slot, routes);
+        }
+        return routes;
+    }
+
+    /**
+     * Get the route of the given event metadata in the given event profile.
+     *
+     * @param eventProfileName Event profile name.
+     * @param eventMetadata    Event metadata.
+     * @return Route if the profile defines the channel and the event, otherwise null.
+     */
+    public EventRoute getRoute(String eventProfileName, EventMetadata eventMetadata) {
+
+        if (eventProfileName == null || eventMetadata == null) {
+            return null;
+        }
+        ProfileRoutes routes = profileRoutes.get(eventProfileName);
+        return routes != null ? routes.getRoute(eventMetadata.getChannel(), eventMetadata.getEvent()) : null;
+    }
+
+    private List<EventRoute> compileRoutes(String eventName) {
+
+        List<EventRoute> routes = new ArrayList<>(profileRoutes.size());
+        for (ProfileRoutes profile : profileRoutes.values()) {
+            EventMetadata eventMetadata =
+                    EventHookHandlerUtils.getEventProfileManagerByProfile(profile.getEventProfileName(), eventName);
+            if (eventMetadata == null) {
+                log.debug("No event metadata found for event: " + eventName + " in profile: " +
+                        profile.getEventProfileName());
+                continue;
+            }
+            EventRoute route = profile.getRoute(eventMetadata.getChannel(), eventMetadata.getEvent());
+            if (route == null) {
+                log.debug("No channel or event URI found for event: " + eventName + " in profile: " +
+                        profile.getEventProfileName());
+                continue;
+            }
+            routes.add(route);
+        }
+        return routes.isEmpty() ? Collections.emptyList() : Collections.unmodifiableList(routes);
+    }
+
+    private static Constants.EventSchema resolveEventSchema(String eventProfileName) {
+
+        if (eventProfileName == null) {
+            return null;
+        }
+        try {
+            return Constants.EventSchema.valueOf(eventProfileName);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static Map<Class<?>, Object> resolvePayloadBuilders(Constants.EventSchema eventSchema) {
+
+        Map<Class<?>, Object> payloadBuilders = new HashMap<>();
+        putIfNotNull(payloadBuilders, LoginEventPayloadBuilder.class,
+                PayloadBuilderFactory.getLoginEventPayloadBuilder(eventSchema));
+        putIfNotNull(payloadBuilders, SessionEventPayloadBuilder.class,
+                PayloadBuilderFactory.getSessionEventPayloadBuilder(eventSchema));
+        putIfNotNull(payloadBuilders, CredentialEventPayloadBuilder.class,
+                PayloadBuilderFactory.getCredentialEventPayloadBuilder(eventSchema));
+        putIfNotNull(payloadBuilders, VerificationEventPayloadBuilder.class,
+                PayloadBuilderFactory.getVerificationEventPayloadBuilder(eventSchema));
+        putIfNotNull(payloadBuilders, UserOperationEventPayloadBuilder.class,
+                PayloadBuilderFactory.getUserOperationEventPayloadBuilder(eventSchema));
+        putIfNotNull(payloadBuilders, RegistrationEventPayloadBuilder.class,
+                PayloadBuilderFactory.getRegistrationEventPayloadBuilder(eventSchema));
+        putIfNotNull(payloadBuilders, TokenEventPayloadBuilder.class,
+                PayloadBuilderFactory.getTokenEventPayloadBuilder(eventSchema));
+        return Collections.unmodifiableMap(payloadBuilders);
+    }
+
+    private static void putIfNotNull(Map<Class<?>, Object> payloadBuilders, Class<?> builderType, Object builder) {
+
+        if (builder != null) {
+            payloadBuilders.put(builderType, builder);
+        }
+    }
+
+    /**
+     * Channel and event index of a single event profile.
+     */
+    private static class ProfileRoutes {
+
+        private final String eventProfileName;
+        private final Map<String, Map<String, EventRoute>> routesByChannel;
+
+        ProfileRoutes(EventProfile eventProfile, Constants.EventSchema eventSchema,
+                      Map<Class<?>, Object> payloadBuilders) {
+
+            this.eventProfileName = eventProfile.getProfile();
+            Map<String, Map<String, EventRoute>> channels = new HashMap<>();
+            if (eventProfile.getChannels() != null) {
+                for (Channel channel : eventProfile.getChannels()) {
+                    if (channel.getUri() == null || channels.containsKey(channel.getUri())) {
+                        // The first channel defined for a URI wins, as in a sequential lookup.
+                        continue;
+                    }
+                    Map<String, EventRoute> events = new HashMap<>();
+                    if (channel.getEvents() != null) {
+                        for (Event channelEvent : channel.getEvents()) {
+                            if (channelEvent.getEventUri() != null && !events.containsKey(channelEvent.getEventUri())) {
+                                events.put(channelEvent.getEventUri(), new EventRoute(eventProfileName, eventSchema,
+                                        channel, channelEvent.getEventUri(), payloadBuilders));
+                            }
+                        }
+                    }
+                    channels.put(channel.getUri(), events);
+                }
+            }
+            this.routesByChannel = channels;
+        }
+
+        String getEventProfileName() {
+
+            return eventProfileName;
+        }
+
+        EventRoute getRoute(String channelUri, String eventUri) {
+
+            if (channelUri == null || eventUri == null) {
+                return null;
+            }
+            Map<String, EventRoute> events = routesByChannel.get(channelUri);
+            return events != null ? events.get(eventUri) : null;
+        }
+    }
+}
@@ -46,15 +46,18 @@ import org.wso2.carbon.identity.event.publisher.api.model.SecurityEventTokenPayl
 import org.wso2.carbon.identity.event.publisher.api.model.common.ComplexSubject;
 import org.wso2.carbon.identity.event.publisher.api.model.common.SimpleSubject;
 import org.wso2.carbon.identity.event.publisher.api.model.common.Subject;
+import org.wso2.identity.webhook.common.event.handler.api.model.EnrichmentCache;
+import org.wso2.identity.webhook.common.event.handler.api.model.EventContextSnapshot;
 import org.wso2.identity.webhook.common.event.handler.api.model.EventData;
 import org.wso2.identity.webhook.common.event.handler.api.model.EventMetadata;
 import org.wso2.identity.webhook.common.event.handler.api.service.EventProfileManager;
+import org.wso2.identity.webhook.common.event.handler.api.util.ServiceURLCache;
 import org.wso2.identity.webhook.common.event.handler.internal.component.EventHookHandlerDataHolder;
 import org.wso2.identity.webhook.common.event.handler.internal.constant.Constants;
+import org.wso2.identity.webhook.common.event.handler.internal.payload.CompactEventPayload;
 
 import java.util.HashMap;
 import java.util.Map;
-import java.util.UUID;
 
 import javax.servlet.http.HttpServletRequest;
 
@@ -66,6 +69,9 @@ import static org.wso2.carbon.identity.application.authentication.framework.util
 public class EventHookHandlerUtils {
 
     private static final Log log = LogFactory.getLog(EventHookHandlerUtils.class);
+    private static final EnrichmentCache.Key<Subject> SUBJECT_KEY = EnrichmentCache.Key.of("common.subject");
+    private static final String TENANT_ID_KEY_PREFIX = "common.tenantId:";
+    private static final String ISSUER_URL_NAME = "common.issuer";
 
     private EventHookHandlerUtils() {
 
@@ -73,6 +79,9 @@ public class EventHookHandlerUtils {
 
     /**
      * Build the event data provider.
+     * <p>
+     * The tenant domain, authenticated user, user id, B2B user login flag and session id are resolved on first access,
+     * so the event data should be built once per event and shared by all event profiles.
      *
      * @param event Event object.
      * @return Event data object.
@@ -87,25 +96,40 @@ public class EventHookHandlerUtils {
         AuthenticatorStatus status = extractAuthenticatorStatus(properties);
         HttpServletRequest request = extractRequest(params);
 
-        String tenantDomain = resolveTenantDomain(authenticationContext, params, properties);
-
-        AuthenticatedUser authenticatedUser = extractAuthenticatedUser(params, authenticationContext, sessionContext);
-        String userId = resolveUserId(authenticatedUser, properties);
-
+        // The user id is resolved from the memoized authenticated user of the built event data.
         return EventData.builder()
                 .eventName(event.getEventName())
                 .request(request)
                 .eventParams(params)
                 .authenticationContext(authenticationContext)
                 .authenticatorStatus(status)
-                .authenticatedUser(authenticatedUser)
+                .authenticatedUserResolver(
+                        () -> extractAuthenticatedUser(params, authenticationContext, sessionContext))
                 .sessionContext(sessionContext)
-                .userId(userId)
-                .tenantDomain(tenantDomain)
+                .userIdResolver(eventData -> resolveUserId(eventData.getAuthenticatedUser(), properties))
+                .tenantDomainResolver(() -> resolveTenantDomain(authenticationContext, params, properties))
+                .b2bUserLoginResolver(() -> authenticationContext != null && isB2BUserLogin(authenticationContext))
+                .sessionIdResolver(() -> resolveSessionId(params, authenticationContext))
+                .eventContextSnapshot(EventContextSnapshot.capture())
                 .properties(properties)
                 .build();
     }
 
+    /**
+     * Resolve the tenant domain of the event without building the event data.
+     *
+     * @param event Event object.
+     * @return Tenant domain, or null if the event has no properties.
+     */
+    public static String resolveTenantDomain(Event event) {
+
+        Map<String, Object> properties = event.getEventProperties();
+        if (properties == null) {
+            return null;
+        }
+        return resolveTenantDomain(extractAuthenticationContext(properties), extractParams(properties), properties);
+    }
+
     /**
      * Retrieve the audience.
      *
@@ -129,6 +153,24 @@ public class EventHookHandlerUtils {
                                                                     String eventUri, Subject subId)
             throws IdentityEventException {
 
+        return buildSecurityEventToken(eventPayload, eventUri, subId, null);
+    }
+
+    /**
+     * Build the security event token of an event payload.
+     *
+     * @param eventPayload         Event payload.
+     * @param eventUri             Event URI.
+     * @param subId                Subject of the token, or null.
+     * @param eventContextSnapshot Context the event is fired in. If null, the context of the current thread is used.
+     * @return Security event token payload.
+     * @throws IdentityEventException If the event payload or the event URI is invalid.
+     */
+    public static SecurityEventTokenPayload buildSecurityEventToken(EventPayload eventPayload, String eventUri,
+                                                                    Subject subId,
+                                                                    EventContextSnapshot eventContextSnapshot)
+            throws IdentityEventException {
+
         if (eventPayload == null) {
             throw new IdentityEventException("Invalid event payload input: Event payload input cannot be null.");
         }
@@ -137,17 +179,27 @@ public class EventHookHandlerUtils {
             throw new IdentityEventException("Invalid event URI input: Event URI input cannot be null or empty.");
         }
 
+        if (eventContextSnapshot == null) {
+            eventContextSnapshot = EventContextSnapshot.capture();
+        }
+
+        EventHookHandlerDataHolder dataHolder = EventHookHandlerDataHolder.getInstance();
+        if (dataHolder.getCompactPayloadPolicy().isCompact(eventContextSnapshot.getTenantDomain())) {
+            eventPayload = CompactEventPayload.of(eventPayload);
+        }
         Map<String, EventPayload> eventMap = new HashMap<>();
         eventMap.put(eventUri, eventPayload);
 
-        return SecurityEventTokenPayload.builder()
-                .iss(constructBaseURL())
+        SecurityEventTokenPayload securityEventTokenPayload = SecurityEventTokenPayload.builder()
+                .iss(constructBaseURL(eventContextSnapshot))
                 .iat(System.currentTimeMillis())
-                .jti(UUID.randomUUID().toString())
-                .rci(getCorrelationID())
+                .jti(dataHolder.getJtiGenerator().generate())
+                .rci(eventContextSnapshot.getCorrelationId())
                 .subId(subId)
                 .events(eventMap)
                 .build();
+        dataHolder.getPayloadSizeTracker().record(eventUri, securityEventTokenPayload);
+        return securityEventTokenPayload;
     }
 
     /**
@@ -168,31 +220,37 @@ public class EventHookHandlerUtils {
      */
     public static String constructBaseURL() {
 
+        return constructBaseURL(EventContextSnapshot.capture());
+    }
+
+    /**
+     * Get the tenant qualified URL of the context an event is fired in.
+     *
+     * @param eventContextSnapshot Event context snapshot.
+     * @return Tenant qualified URL.
+     */
+    public static String constructBaseURL(EventContextSnapshot eventContextSnapshot) {
+
         try {
-            IdentityContext identityContext = IdentityContext.getThreadLocalIdentityContext();
-            if (identityContext.getRootOrganization() == null ||
-                    StringUtils.isBlank(identityContext.getRootOrganization().getAssociatedTenantDomain())) {
+            String rootTenantDomain = eventContextSnapshot.getRootTenantDomain();
+            if (StringUtils.isBlank(rootTenantDomain)) {
                 return null;
             }
-            String rootTenantDomain = identityContext.getRootOrganization().getAssociatedTenantDomain();
 
-            if (identityContext.getOrganization() != null && identityContext.getOrganization().getDepth() != 0) {
-                String organizationId = identityContext.getOrganization().getId();
-                if (StringUtils.isNotBlank(organizationId)) {
-                    log.debug("Resolving root tenant: " + rootTenantDomain +
-                            " and organization ID: " + organizationId);
+            String organizationId = ServiceURLCache.getOrganizationId(eventContextSnapshot);
+            return ServiceURLCache.getInstance().getURL(eventContextSnapshot, ISSUER_URL_NAME, () -> {
+                if (organizationId == null) {
                     return ServiceURLBuilder.create()
-                            .addPath("/t/" + rootTenantDomain + "/o/" + organizationId)
+                            .addPath("/t/" + rootTenantDomain)
                             .build()
                             .getAbsolutePublicURL();
                 }
-            }
-
-            return ServiceURLBuilder.create()
-                    .addPath("/t/" + rootTenantDomain)
-                    .build()
-                    .getAbsolutePublicURL();
-
+                log.debug("Resolving root tenant: " + rootTenantDomain + " and organization ID: " + organizationId);
+                return ServiceURLBuilder.create()
+                        .addPath("/t/" + rootTenantDomain + "/o/" + organizationId)
+                        .build()
+                        .getAbsolutePublicURL();
+            });
         } catch (URLBuilderException e) {
             log.debug("Error occurred while building the tenant qualified URL.", e);
             return null;
@@ -249,13 +307,11 @@ public class EventHookHandlerUtils {
      */
     public static String extractSessionId(EventData eventData) {
 
-        if (eventData.getEventParams().containsKey(Constants.EventDataProperties.SESSION_ID) &&
-                eventData.getEventParams().get(Constants.EventDataProperties.SESSION_ID) != null) {
-            return eventData.getEventParams().get(Constants.EventDataProperties.SESSION_ID).toString();
-        } else if (eventData.getAuthenticationContext() != null) {
-            return eventData.getAuthenticationContext().getSessionIdentifier();
+        String sessionId = eventData.getSessionId();
+        if (sessionId != null) {
+            return sessionId;
         }
-        return null;
+        return resolveSessionId(eventData.getEventParams(), eventData.getAuthenticationContext());
     }
 
     /**
@@ -267,6 +323,12 @@ public class EventHookHandlerUtils {
      */
     public static Subject extractSubjectFromEventData(EventData eventData) throws IdentityEventException {
 
+        // Each event profile consuming the subject of the event gets the same, immutable subject.
+        return EnrichmentCache.get(eventData, SUBJECT_KEY, () -> buildSubject(eventData));
+    }
+
+    private static Subject buildSubject(EventData eventData) throws IdentityEventException {
+
         AuthenticatedUser authenticatedUser = extractAuthenticatedUser(eventData);
         String sessionId = extractSessionId(eventData);
         SimpleSubject user;
@@ -275,8 +337,10 @@ public class EventHookHandlerUtils {
         } catch (UserIdNotFoundException e) {
             throw new IdentityEventException("Error occurred while retrieving user id", e);
         }
-        SimpleSubject tenant = SimpleSubject.createOpaqueSubject(String.valueOf(
-                IdentityTenantUtil.getTenantId(authenticatedUser.getTenantDomain())));
+        String tenantDomain = authenticatedUser.getTenantDomain();
+        int tenantId = EnrichmentCache.get(eventData, EnrichmentCache.Key.of(TENANT_ID_KEY_PREFIX + tenantDomain),
+                () -> IdentityTenantUtil.getTenantId(tenantDomain));
+        SimpleSubject tenant = SimpleSubject.createOpaqueSubject(String.valueOf(tenantId));
         SimpleSubject session = SimpleSubject.createOpaqueSubject(sessionId);
 
         return ComplexSubject.builder()
@@ -417,6 +481,16 @@ public class EventHookHandlerUtils {
         return null;
     }
 
+    private static String resolveSessionId(Map<String, Object> params, AuthenticationContext authenticationContext) {
+
+        if (params != null && params.get(Constants.EventDataProperties.SESSION_ID) != null) {
+            return params.get(Constants.EventDataProperties.SESSION_ID).toString();
+        } else if (authenticationContext != null) {
+            return authenticationContext.getSessionIdentifier();
+        }
+        return null;
+    }
+
     private static SessionContext extractSessionContext(Map<String, Object> properties) {
 
         return properties.containsKey(Constants.EventDataProperties.SESSION_CONTEXT) ?
@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.webhook.common.event.handler.api.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.event.publisher.api.model.SecurityEventTokenPayload;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+
+/**
+ * Test class for SerializedSecurityEventToken.
+ */
+public class SerializedSecurityEventTokenTest {
+
+    @Test
+    public void testTokenIsSerializedOnce() throws Exception {
+
+        SecurityEventTokenPayload securityEventTokenPayload = SecurityEventTokenPayload.builder()
+                .iss("https://localhost:9443")
+                .iat(1700000000000L)
+                .jti("jti-001")
+                .rci("correlation-id")
+                .events(Collections.emptyMap())
+                .build();
+        SerializedSecurityEventToken serializedToken = new SerializedSecurityEventToken(securityEventTokenPayload);
+
+        byte[] bytes = serializedToken.getBytes();
+        assertSame(serializedToken.getBytes(), bytes);
+        assertEquals(new String(bytes, StandardCharsets.UTF_8),
+                new ObjectMapper().writeValueAsString(securityEventTokenPayload));
+        assertEquals(serializedToken.getSize(), bytes.length);
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        serializedToken.writeTo(outputStream);
+        assertEquals(outputStream.toByteArray(), bytes);
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.webhook.common.event.handler.api.util;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.core.URLBuilderException;
+import org.wso2.carbon.identity.core.context.model.Organization;
+import org.wso2.identity.webhook.common.event.handler.api.model.EventContextSnapshot;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+
+/**
+ * Test class for ServiceURLCache.
+ */
+public class ServiceURLCacheTest {
+
+    private static final String TENANT_DOMAIN = "myorg";
+    private static final String ORGANIZATION_ID = "org-id";
+    private static final String URL_NAME = "issuer";
+
+    private final ServiceURLCache serviceURLCache = ServiceURLCache.getInstance();
+
+    @BeforeMethod
+    public void setUp() {
+
+        serviceURLCache.invalidate();
+        serviceURLCache.setTtl(ServiceURLCache.DEFAULT_TTL_SECONDS * 1000);
+        serviceURLCache.setMaxEntries(ServiceURLCache.DEFAULT_MAX_ENTRIES);
+    }
+
+    @AfterMethod
+    public void tearDown() {
+
+        serviceURLCache.invalidate();
+        serviceURLCache.setTtl(ServiceURLCache.DEFAULT_TTL_SECONDS * 1000);
+        serviceURLCache.setMaxEntries(ServiceURLCache.DEFAULT_MAX_ENTRIES);
+    }
+
+    @Test
+    public void testURLIsBuiltOncePerTenantAndOrganization() throws URLBuilderException {
+
+        AtomicInteger builds = new AtomicInteger();
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(serviceURLCache.getURL(TENANT_DOMAIN, null, URL_NAME, () -> {
+                builds.incrementAndGet();
+                return "https://localhost:9443/t/myorg";
+            }), "https://localhost:9443/t/myorg");
+        }
+        assertEquals(serviceURLCache.getURL(TENANT_DOMAIN, ORGANIZATION_ID, URL_NAME, () -> {
+            builds.incrementAndGet();
+            return "https://localhost:9443/t/myorg/o/org-id";
+        }), "https://localhost:9443/t/myorg/o/org-id");
+
+        assertEquals(builds.get(), 2);
+        assertEquals(serviceURLCache.getHitCount(), 2);
+        assertEquals(serviceURLCache.size(), 2);
+    }
+
+    @Test
+    public void testURLsOfAnEventAreKeyedByRootTenantAndSubOrganization() throws URLBuilderException {
+
+        Organization rootOrganization = mock(Organization.class);
+        when(rootOrganization.getId()).thenReturn("root-org-id");
+        when(rootOrganization.getDepth()).thenReturn(0);
+        Organization subOrganization = mock(Organization.class);
+        when(subOrganization.getId()).thenReturn(ORGANIZATION_ID);
+        when(subOrganization.getDepth()).thenReturn(1);
+
+        serviceURLCache.getURL(TENANT_DOMAIN, null, URL_NAME, () -> "https://localhost:9443/t/myorg");
+
+        // An event of the root organization shares the URL keyed without an organization.
+        EventContextSnapshot rootOrganizationEvent = EventContextSnapshot.builder()
+                .rootTenantDomain(TENANT_DOMAIN)
+                .organization(rootOrganization)
+                .tenantDomain("other-carbon-tenant")
+                .build();
+        assertEquals(serviceURLCache.getURL(rootOrganizationEvent, URL_NAME, () -> "https://example.com"),
+                "https://localhost:9443/t/myorg");
+
+        EventContextSnapshot subOrganizationEvent = EventContextSnapshot.builder()
+                .rootTenantDomain(TENANT_DOMAIN)
+                .organization(subOrganization)
+                .build();
+        assertEquals(serviceURLCache.getURL(subOrganizationEvent, URL_NAME,
+                () -> "https://localhost:9443/t/myorg/o/org-id"), "https://localhost:9443/t/myorg/o/org-id");
+        assertEquals(serviceURLCache.getURL(TENANT_DOMAIN, ORGANIZATION_ID, URL_NAME, () -> "https://example.com"),
+                "https://localhost:9443/t/myorg/o/org-id");
+    }
+
+    @Test
+    public void testURLIsNotCachedWithoutRootTenant() throws URLBuilderException {
+
+        EventContextSnapshot eventContextSnapshot = EventContextSnapshot.builder().tenantDomain(TENANT_DOMAIN).build();
+
+        assertEquals(serviceURLCache.getURL(eventContextSnapshot, URL_NAME, () -> "https://localhost:9443"),
+                "https://localhost:9443");
+        assertEquals(serviceURLCache.size(), 0);
+    }
+
+    @Test
+    public void testInvalidatedURLIsBuiltAgain() throws URLBuilderException {
+
+        serviceURLCache.getURL(TENANT_DOMAIN, null, URL_NAME, () -> "https://localhost:9443/t/myorg");
+
+        serviceURLCache.invalidate();
+
+        assertEquals(serviceURLCache.getURL(TENANT_DOMAIN, null, URL_NAME, () -> "https://example.com/t/myorg"),
+                "https://example.com/t/myorg");
+    }
+
+    @Test
+    public void testNullURLIsNotCached() throws URLBuilderException {
+
+        assertNull(serviceURLCache.getURL(TENANT_DOMAIN, null, URL_NAME, () -> null));
+        assertEquals(serviceURLCache.size(), 0);
+    }
+
+    @Test
+    public void testNumberOfCachedURLsIsBounded() throws URLBuilderException {
+
+        serviceURLCache.setMaxEntries(2);
+        for (int i = 0; i < 5; i++) {
+            serviceURLCache.getURL("tenant" + i, null, URL_NAME, () -> "https://localhost:9443");
+        }
+
+        assertEquals(serviceURLCache.size(), 2);
+    }
+}
@@ -0,0 +1,373 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.webhook.common.event.handler.internal.async;
+
+import org.mockito.MockedStatic;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.context.PrivilegedCarbonContext;
+import org.wso2.carbon.identity.application.authentication.framework.context.AuthenticationContext;
+import org.wso2.carbon.identity.application.authentication.framework.model.AuthenticatedUser;
+import org.wso2.carbon.identity.event.IdentityEventConstants;
+import org.wso2.carbon.identity.event.IdentityEventException;
+import org.wso2.carbon.identity.event.event.Event;
+import org.wso2.carbon.user.core.UserStoreManager;
+import org.wso2.identity.webhook.common.event.handler.api.constants.Constants;
+import org.wso2.identity.webhook.common.event.handler.internal.constant.Constants.EventDataProperties;
+import org.wso2.identity.webhook.common.event.handler.internal.routing.EventRoute;
+import org.wso2.identity.webhook.common.event.handler.internal.routing.EventRouter;
+import org.wso2.identity.webhook.common.event.handler.internal.util.CommonTestUtils;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Test class for AsyncEventDispatcher.
+ */
+public class AsyncEventDispatcherTest {
+
+    private static final String EVENT_NAME = "AUTHENTICATION_SUCCESS";
+    private static final String TENANT_DOMAIN = "myorg";
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 5000;
+
+    private AsyncEventDispatcher asyncEventDispatcher;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+
+        CommonTestUtils.initPrivilegedCarbonContext(TENANT_DOMAIN);
+        asyncEventDispatcher = new AsyncEventDispatcher();
+    }
+
+    @AfterMethod
+    public void tearDown() {
+
+        asyncEventDispatcher.shutdown();
+        PrivilegedCarbonContext.endTenantFlow();
+    }
+
+    @Test
+    public void testDispatchWhenNotStarted() {
+
+        assertFalse(asyncEventDispatcher.dispatch(getEvent(), event -> {
+        }));
+        assertEquals(asyncEventDispatcher.getSubmittedCount(), 0);
+        assertEquals(asyncEventDispatcher.getRejectedCount(), 0);
+    }
+
+    @Test
+    public void testDispatchHandlesDetachedEventOnWorker() throws Exception {
+
+        asyncEventDispatcher.start(1, 10, false, SHUTDOWN_TIMEOUT_MILLIS);
+        Event event = getEvent();
+        AtomicReference<Event> handledEvent = new AtomicReference<>();
+        AtomicReference<String> handledTenantDomain = new AtomicReference<>();
+        AtomicReference<Thread> handlingThread = new AtomicReference<>();
+        CountDownLatch handled = new CountDownLatch(1);
+
+        assertTrue(asyncEventDispatcher.dispatch(event, detachedEvent -> {
+            handledEvent.set(detachedEvent);
+            handledTenantDomain.set(PrivilegedCarbonContext.getThreadLocalCarbonContext().getTenantDomain());
+            handlingThread.set(Thread.currentThread());
+            handled.countDown();
+        }));
+
+        assertTrue(handled.await(5, TimeUnit.SECONDS));
+        assertNotSame(handledEvent.get().getEventProperties(), event.getEventProperties());
+        assertEquals(handledEvent.get().getEventProperties(), event.getEventProperties());
+        assertEquals(handledTenantDomain.get(), TENANT_DOMAIN);
+        assertNotEquals(handlingThread.get(), Thread.currentThread());
+        asyncEventDispatcher.shutdown();
+        assertEquals(asyncEventDispatcher.getSubmittedCount(), 1);
+        assertEquals(asyncEventDispatcher.getCompletedCount(), 1);
+    }
+
+    @Test
+    public void testEventsCarryingRequestBoundObjectsAreDispatchedWithCopies() throws Exception {
+
+        asyncEventDispatcher.start(1, 10, false, SHUTDOWN_TIMEOUT_MILLIS);
+        AuthenticatedUser authenticatedUser = new AuthenticatedUser();
+        authenticatedUser.setUserName("alice");
+        AuthenticationContext authenticationContext = new AuthenticationContext();
+        authenticationContext.setServiceProviderName("app");
+        authenticationContext.setSubject(authenticatedUser);
+        UserStoreManager userStoreManager = mock(UserStoreManager.class);
+        Map<String, Object> params = new HashMap<>();
+        params.put(EventDataProperties.USER, authenticatedUser);
+        params.put(IdentityEventConstants.EventProperty.USER_STORE_MANAGER, userStoreManager);
+        Event event = getEvent();
+        event.getEventProperties().put(EventDataProperties.CONTEXT, authenticationContext);
+        event.getEventProperties().put(EventDataProperties.PARAMS, params);
+
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch handled = new CountDownLatch(1);
+        AtomicReference<Event> handledEvent = new AtomicReference<>();
+        assertTrue(asyncEventDispatcher.dispatch(event, detachedEvent -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            handledEvent.set(detachedEvent);
+            handled.countDown();
+        }));
+        // The request keeps changing its objects after the event is fired.
+        authenticationContext.setServiceProviderName("other-app");
+        authenticatedUser.setUserName("bob");
+        release.countDown();
+        assertTrue(handled.await(5, TimeUnit.SECONDS));
+
+        AuthenticationContext handledContext =
+                (AuthenticationContext) handledEvent.get().getEventProperties().get(EventDataProperties.CONTEXT);
+        Map<String, Object> handledParams =
+                (Map<String, Object>) handledEvent.get().getEventProperties().get(EventDataProperties.PARAMS);
+        assertNotSame(handledContext, authenticationContext);
+        assertEquals(handledContext.getServiceProviderName(), "app");
+        assertEquals(handledContext.getSubject().getUserName(), "alice");
+        assertEquals(((AuthenticatedUser) handledParams.get(EventDataProperties.USER)).getUserName(), "alice");
+        assertSame(handledParams.get(IdentityEventConstants.EventProperty.USER_STORE_MANAGER), userStoreManager);
+        assertEquals(asyncEventDispatcher.getSubmittedCount(), 1);
+    }
+
+    @Test
+    public void testFullLaneSpillsAndDropsEvents() throws Exception {
+
+        asyncEventDispatcher.setSpillQueueSize(1);
+        asyncEventDispatcher.start(1, 1, false, SHUTDOWN_TIMEOUT_MILLIS);
+        CountDownLatch laneStarted = new CountDownLatch(1);
+        CountDownLatch spillStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        DetachedEvent.EventTask laneTask = getBlockingTask(laneStarted, release);
+        DetachedEvent.EventTask spillTask = getBlockingTask(spillStarted, release);
+
+        assertTrue(asyncEventDispatcher.dispatch(getEvent(), laneTask));
+        assertTrue(laneStarted.await(5, TimeUnit.SECONDS));
+        assertTrue(asyncEventDispatcher.dispatch(getEvent(), laneTask));
+        assertTrue(asyncEventDispatcher.dispatch(getEvent(), spillTask));
+        assertTrue(spillStarted.await(5, TimeUnit.SECONDS));
+        assertTrue(asyncEventDispatcher.dispatch(getEvent(), spillTask));
+        assertTrue(asyncEventDispatcher.dispatch(getEvent(), spillTask));
+
+        assertEquals(asyncEventDispatcher.getQueueDepth(EventPriority.NORMAL), 1);
+        assertEquals(asyncEventDispatcher.getSpillQueueDepth(), 1);
+        assertEquals(asyncEventDispatcher.getRejectedCount(), 3);
+        assertEquals(asyncEventDispatcher.getSpilledCount(), 2);
+        assertEquals(asyncEventDispatcher.getDroppedCount(TENANT_DOMAIN, EVENT_NAME), 1);
+        release.countDown();
+        asyncEventDispatcher.shutdown();
+        assertEquals(asyncEventDispatcher.getCompletedCount(), 4);
+    }
+
+    @Test
+    public void testShutdownDrainsQueuedEvents() {
+
+        asyncEventDispatcher.start(1, 10, false, SHUTDOWN_TIMEOUT_MILLIS);
+        for (int i = 0; i < 5; i++) {
+            assertTrue(asyncEventDispatcher.dispatch(getEvent(), event -> {
+            }));
+        }
+
+        asyncEventDispatcher.shutdown();
+
+        assertFalse(asyncEventDispatcher.isStarted());
+        assertEquals(asyncEventDispatcher.getCompletedCount(), 5);
+        assertFalse(asyncEventDispatcher.dispatch(getEvent(), event -> {
+        }));
+    }
+
+    @Test
+    public void testFailedEventIsCounted() {
+
+        asyncEventDispatcher.start(1, 10, false, SHUTDOWN_TIMEOUT_MILLIS);
+        assertTrue(asyncEventDispatcher.dispatch(getEvent(), event -> {
+            throw new IdentityEventException("Failed to handle the event.");
+        }));
+
+        asyncEventDispatcher.shutdown();
+
+        assertEquals(asyncEventDispatcher.getFailedCount(), 1);
+        assertEquals(asyncEventDispatcher.getCompletedCount(), 0);
+    }
+
+    @Test
+    public void testLowPriorityEventsAreShedWhenLaneIsFull() throws Exception {
+
+        try (MockedStatic<EventRouter> eventRouterMockedStatic = mockEventRoutes(Constants.Event.TOKEN_ISSUED_EVENT)) {
+            asyncEventDispatcher.start(getSingleSlotLanes(0), false, SHUTDOWN_TIMEOUT_MILLIS);
+            CountDownLatch started = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            DetachedEvent.EventTask blockingTask = getBlockingTask(started, release);
+
+            assertTrue(asyncEventDispatcher.dispatch(getEvent(), blockingTask));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            assertTrue(asyncEventDispatcher.dispatch(getEvent(), blockingTask));
+            assertTrue(asyncEventDispatcher.dispatch(getEvent(), blockingTask));
+            assertTrue(asyncEventDispatcher.dispatch(getEvent(), blockingTask));
+
+            assertEquals(asyncEventDispatcher.getQueueDepth(EventPriority.LOW), 1);
+            assertEquals(asyncEventDispatcher.getDroppedCount(TENANT_DOMAIN, EVENT_NAME), 2);
+            assertEquals(asyncEventDispatcher.getDroppedCounts().get(TENANT_DOMAIN).get(EVENT_NAME).longValue(), 2);
+            release.countDown();
+        }
+    }
+
+    @Test
+    public void testShedLowPriorityEventsAreSampled() throws Exception {
+
+        try (MockedStatic<EventRouter> eventRouterMockedStatic = mockEventRoutes(Constants.Event.TOKEN_ISSUED_EVENT)) {
+            asyncEventDispatcher.start(getSingleSlotLanes(2), false, SHUTDOWN_TIMEOUT_MILLIS);
+            CountDownLatch started = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            DetachedEvent.EventTask blockingTask = getBlockingTask(started, release);
+
+            assertTrue(asyncEventDispatcher.dispatch(getEvent(), blockingTask));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            assertTrue(asyncEventDispatcher.dispatch(getEvent(), blockingTask));
+            assertTrue(asyncEventDispatcher.dispatch(getEvent(), blockingTask));
+            assertTrue(asyncEventDispatcher.dispatch(getEvent(), blockingTask));
+
+            assertEquals(asyncEventDispatcher.getDroppedCount(TENANT_DOMAIN, EVENT_NAME), 1);
+            assertEquals(asyncEventDispatcher.getSpilledCount(), 1);
+            release.countDown();
+        }
+    }
+
+    @Test
+    public void testHighPriorityEventsOverflowIntoNormalLane() throws Exception {
+
+        try (MockedStatic<EventRouter> eventRouterMockedStatic =
+                     mockEventRoutes(Constants.Event.SESSION_REVOKED_EVENT)) {
+            asyncEventDispatcher.start(getSingleSlotLanes(0), false, SHUTDOWN_TIMEOUT_MILLIS);
+            CountDownLatch started = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            DetachedEvent.EventTask blockingTask = getBlockingTask(started, release);
+
+            assertTrue(asyncEventDispatcher.dispatch(getEvent(), blockingTask));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            assertTrue(asyncEventDispatcher.dispatch(getEvent(), blockingTask));
+            assertTrue(asyncEventDispatcher.dispatch(getEvent(), blockingTask));
+
+            assertEquals(asyncEventDispatcher.getQueueDepth(EventPriority.HIGH), 1);
+            assertEquals(asyncEventDispatcher.getRejectedCount(), 0);
+            assertEquals(asyncEventDispatcher.getDroppedCounts().size(), 0);
+            release.countDown();
+        }
+    }
+
+    @Test
+    public void testEventPriorityPolicy() {
+
+        EventPriorityPolicy defaultPolicy = EventPriorityPolicy.getDefaultPolicy();
+        assertEquals(defaultPolicy.getPriority(Constants.Event.SESSION_REVOKED_EVENT), EventPriority.HIGH);
+        assertEquals(defaultPolicy.getPriority(Constants.Event.TOKEN_ISSUED_EVENT), EventPriority.LOW);
+        assertEquals(defaultPolicy.getPriority(Constants.Event.LOGIN_SUCCESS_EVENT), EventPriority.NORMAL);
+        assertEquals(defaultPolicy.getPriority((String) null), EventPriority.NORMAL);
+
+        EventPriorityPolicy policy = EventPriorityPolicy.of(
+                Collections.singletonList(Constants.Event.LOGIN_FAILURE_EVENT),
+                Arrays.asList(Constants.Event.LOGIN_SUCCESS_EVENT, Constants.Event.LOGIN_FAILURE_EVENT));
+        assertEquals(policy.getPriority(Constants.Event.LOGIN_FAILURE_EVENT), EventPriority.HIGH);
+        assertEquals(policy.getPriority(Constants.Event.LOGIN_SUCCESS_EVENT), EventPriority.LOW);
+        assertEquals(policy.getPriority(Constants.Event.SESSION_REVOKED_EVENT), EventPriority.NORMAL);
+        assertEquals(policy.getPriority(Arrays.asList(getEventRoute(Constants.Event.LOGIN_SUCCESS_EVENT),
+                getEventRoute(Constants.Event.LOGIN_FAILURE_EVENT))), EventPriority.HIGH);
+        assertEquals(policy.getPriority(Collections.emptyList()), EventPriority.NORMAL);
+    }
+
+    @Test
+    public void testEventPriorityPolicyKeepsDefaultsOfClassesNotConfigured() {
+
+        EventPriorityPolicy highOnlyPolicy = EventPriorityPolicy.of(
+                Collections.singletonList(Constants.Event.LOGIN_FAILURE_EVENT), Collections.emptyList());
+        assertEquals(highOnlyPolicy.getPriority(Constants.Event.LOGIN_FAILURE_EVENT), EventPriority.HIGH);
+        assertEquals(highOnlyPolicy.getPriority(Constants.Event.SESSION_REVOKED_EVENT), EventPriority.NORMAL);
+        assertEquals(highOnlyPolicy.getPriority(Constants.Event.TOKEN_ISSUED_EVENT), EventPriority.LOW);
+
+        EventPriorityPolicy lowOnlyPolicy = EventPriorityPolicy.of(
+                Collections.emptyList(), Collections.singletonList(Constants.Event.LOGIN_SUCCESS_EVENT));
+        assertEquals(lowOnlyPolicy.getPriority(Constants.Event.LOGIN_SUCCESS_EVENT), EventPriority.LOW);
+        assertEquals(lowOnlyPolicy.getPriority(Constants.Event.TOKEN_ISSUED_EVENT), EventPriority.NORMAL);
+        assertEquals(lowOnlyPolicy.getPriority(Constants.Event.SESSION_REVOKED_EVENT), EventPriority.HIGH);
+        assertEquals(lowOnlyPolicy.getPriority(Constants.Event.POST_DELETE_USER_EVENT), EventPriority.HIGH);
+
+        assertSame(EventPriorityPolicy.of(Collections.emptyList(), Collections.emptyList()),
+                EventPriorityPolicy.getDefaultPolicy());
+    }
+
+    private Map<EventPriority, AsyncEventDispatcher.LaneSettings> getSingleSlotLanes(int shedSampleInterval) {
+
+        Map<EventPriority, AsyncEventDispatcher.LaneSettings> laneSettings = new EnumMap<>(EventPriority.class);
+        for (EventPriority eventPriority : EventPriority.values()) {
+            laneSettings.put(eventPriority, new AsyncEventDispatcher.LaneSettings(1, 1, shedSampleInterval));
+        }
+        return laneSettings;
+    }
+
+    private DetachedEvent.EventTask getBlockingTask(CountDownLatch started, CountDownLatch release) {
+
+        return event -> {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+    }
+
+    private MockedStatic<EventRouter> mockEventRoutes(String eventUri) {
+
+        EventRouter eventRouter = mock(EventRouter.class);
+        when(eventRouter.getRoutes(EVENT_NAME)).thenReturn(Collections.singletonList(getEventRoute(eventUri)));
+        MockedStatic<EventRouter> eventRouterMockedStatic = mockStatic(EventRouter.class);
+        eventRouterMockedStatic.when(EventRouter::getInstance).thenReturn(eventRouter);
+        return eventRouterMockedStatic;
+    }
+
+    private EventRoute getEventRoute(String eventUri) {
+
+        EventRoute eventRoute = mock(EventRoute.class);
+        when(eventRoute.getEventUri()).thenReturn(eventUri);
+        return eventRoute;
+    }
+
+    private Event getEvent() {
+
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("tenant-domain", TENANT_DOMAIN);
+        return new Event(EVENT_NAME, properties);
+    }
+}
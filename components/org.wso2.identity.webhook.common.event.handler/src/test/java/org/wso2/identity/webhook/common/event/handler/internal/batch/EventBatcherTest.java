@@ -0,0 +1,275 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.webhook.common.event.handler.internal.batch;
+
+import org.slf4j.MDC;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.base.MultitenantConstants;
+import org.wso2.carbon.context.PrivilegedCarbonContext;
+import org.wso2.carbon.identity.core.util.IdentityUtil;
+import org.wso2.carbon.identity.event.publisher.api.model.EventContext;
+import org.wso2.carbon.identity.event.publisher.api.model.SecurityEventTokenPayload;
+import org.wso2.carbon.identity.event.publisher.api.service.EventPublisherService;
+import org.wso2.identity.webhook.common.event.handler.api.service.BatchEventPublisher;
+import org.wso2.identity.webhook.common.event.handler.internal.component.EventHookHandlerDataHolder;
+import org.wso2.identity.webhook.common.event.handler.internal.util.CommonTestUtils;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.withSettings;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.wso2.carbon.identity.application.authentication.framework.util.FrameworkUtils.CORRELATION_ID_MDC;
+
+/**
+ * Test class for EventBatcher.
+ */
+public class EventBatcherTest {
+
+    private static final String TENANT_DOMAIN = "myorg";
+    private static final long LONG_LINGER_MILLIS = 60000;
+    private static final String THREAD_LOCAL_PROPERTY = "webhookTestProperty";
+
+    private EventBatcher eventBatcher;
+    private EventPublisherService eventPublisherService;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+
+        CommonTestUtils.initPrivilegedCarbonContext(TENANT_DOMAIN);
+        eventBatcher = new EventBatcher();
+        eventPublisherService = mock(EventPublisherService.class);
+        EventHookHandlerDataHolder.getInstance().setEventPublisherService(eventPublisherService);
+    }
+
+    @AfterMethod
+    public void tearDown() {
+
+        eventBatcher.shutdown();
+        PrivilegedCarbonContext.endTenantFlow();
+    }
+
+    @Test
+    public void testPublishDirectlyWhenNotStarted() throws Exception {
+
+        SecurityEventTokenPayload token = mock(SecurityEventTokenPayload.class);
+        EventContext eventContext = getEventContext("channel/uri");
+
+        eventBatcher.publish(token, eventContext);
+
+        assertFalse(eventBatcher.isStarted());
+        verify(eventPublisherService, times(1)).publish(token, eventContext);
+        assertEquals(eventBatcher.getBatchCount(), 0);
+    }
+
+    @Test
+    public void testPublishInlineWithoutBatchPublisher() throws Exception {
+
+        eventBatcher.start(2, LONG_LINGER_MILLIS);
+        SecurityEventTokenPayload token = mock(SecurityEventTokenPayload.class);
+        EventContext eventContext = getEventContext("channel/uri");
+
+        eventBatcher.publish(token, eventContext);
+
+        verify(eventPublisherService, times(1)).publish(token, eventContext);
+        assertEquals(eventBatcher.getPendingCount(), 0);
+        assertEquals(eventBatcher.getBatchCount(), 0);
+    }
+
+    @Test
+    public void testFlushOnMaxBatchSizeWithBatchPublisher() throws Exception {
+
+        EventPublisherService batchEventPublisherService = getBatchEventPublisherService();
+        eventBatcher.start(2, LONG_LINGER_MILLIS);
+        SecurityEventTokenPayload firstToken = mock(SecurityEventTokenPayload.class);
+        SecurityEventTokenPayload secondToken = mock(SecurityEventTokenPayload.class);
+        EventContext eventContext = getEventContext("channel/uri");
+
+        eventBatcher.publish(firstToken, eventContext);
+        verify((BatchEventPublisher) batchEventPublisherService, never()).publish(anyList(), any());
+        assertEquals(eventBatcher.getPendingCount(), 1);
+
+        eventBatcher.publish(secondToken, getEventContext("channel/uri"));
+        verify((BatchEventPublisher) batchEventPublisherService, timeout(5000).times(1))
+                .publish(eq(Arrays.asList(firstToken, secondToken)), eq(eventContext));
+        assertEquals(eventBatcher.getPendingCount(), 0);
+        waitForBatchCount(1);
+        assertEquals(eventBatcher.getBatchCount(), 1);
+        assertEquals(eventBatcher.getPublishedCount(), 2);
+        assertEquals(eventBatcher.getBatchLatency().getCount(), 1);
+        assertEquals(eventBatcher.getEventLatency().getCount(), 2);
+    }
+
+    @Test
+    public void testFullBatchIsPublishedOnFlusherWithContextOfEachToken() throws Exception {
+
+        EventPublisherService batchEventPublisherService = getBatchEventPublisherService();
+        eventBatcher.start(2, LONG_LINGER_MILLIS);
+        SecurityEventTokenPayload firstToken = mock(SecurityEventTokenPayload.class);
+        SecurityEventTokenPayload secondToken = mock(SecurityEventTokenPayload.class);
+        Map<SecurityEventTokenPayload, String> publishedContexts = new ConcurrentHashMap<>();
+        doAnswer(invocation -> {
+            List<SecurityEventTokenPayload> tokens = invocation.getArgument(0);
+            for (SecurityEventTokenPayload token : tokens) {
+                publishedContexts.put(token, Thread.currentThread().getName() + "|" +
+                        PrivilegedCarbonContext.getThreadLocalCarbonContext().getTenantId() + "|" +
+                        PrivilegedCarbonContext.getThreadLocalCarbonContext().getUsername() + "|" +
+                        MDC.get(CORRELATION_ID_MDC) + "|" +
+                        IdentityUtil.threadLocalProperties.get().get(THREAD_LOCAL_PROPERTY));
+            }
+            return null;
+        }).when((BatchEventPublisher) batchEventPublisherService).publish(anyList(), any());
+
+        MDC.put(CORRELATION_ID_MDC, "first-correlation-id");
+        try {
+            eventBatcher.publish(firstToken, getEventContext("channel/uri"));
+            PrivilegedCarbonContext.startTenantFlow();
+            try {
+                PrivilegedCarbonContext.getThreadLocalCarbonContext().setTenantDomain(TENANT_DOMAIN);
+                PrivilegedCarbonContext.getThreadLocalCarbonContext().setTenantId(2);
+                PrivilegedCarbonContext.getThreadLocalCarbonContext().setUsername("alice");
+                IdentityUtil.threadLocalProperties.get().put(THREAD_LOCAL_PROPERTY, "value");
+                MDC.put(CORRELATION_ID_MDC, "second-correlation-id");
+                eventBatcher.publish(secondToken, getEventContext("channel/uri"));
+            } finally {
+                IdentityUtil.threadLocalProperties.remove();
+                PrivilegedCarbonContext.endTenantFlow();
+            }
+        } finally {
+            MDC.remove(CORRELATION_ID_MDC);
+        }
+
+        verify((BatchEventPublisher) batchEventPublisherService, timeout(5000).times(2)).publish(anyList(), any());
+        assertEquals(publishedContexts.get(firstToken), "webhook-event-batch-flusher|" +
+                MultitenantConstants.SUPER_TENANT_ID + "|testUser|first-correlation-id|null");
+        assertEquals(publishedContexts.get(secondToken),
+                "webhook-event-batch-flusher|2|alice|second-correlation-id|value");
+        waitForBatchCount(2);
+        assertEquals(eventBatcher.getBatchCount(), 2);
+    }
+
+    @Test
+    public void testBatchesAreKeyedByChannel() throws Exception {
+
+        EventPublisherService batchEventPublisherService = getBatchEventPublisherService();
+        eventBatcher.start(2, LONG_LINGER_MILLIS);
+
+        eventBatcher.publish(mock(SecurityEventTokenPayload.class), getEventContext("first/channel/uri"));
+        eventBatcher.publish(mock(SecurityEventTokenPayload.class), getEventContext("second/channel/uri"));
+
+        verify((BatchEventPublisher) batchEventPublisherService, never()).publish(anyList(), any());
+        assertEquals(eventBatcher.getPendingCount(), 2);
+    }
+
+    @Test
+    public void testFlushOnLingerTimeWithBatchPublisher() throws Exception {
+
+        EventPublisherService batchEventPublisherService = getBatchEventPublisherService();
+        eventBatcher.start(10, 10);
+        SecurityEventTokenPayload firstToken = mock(SecurityEventTokenPayload.class);
+        SecurityEventTokenPayload secondToken = mock(SecurityEventTokenPayload.class);
+        EventContext eventContext = getEventContext("channel/uri");
+
+        eventBatcher.publish(firstToken, eventContext);
+        eventBatcher.publish(secondToken, eventContext);
+
+        List<SecurityEventTokenPayload> expectedBatch = Arrays.asList(firstToken, secondToken);
+        verify((BatchEventPublisher) batchEventPublisherService, timeout(5000).times(1))
+                .publish(eq(expectedBatch), eq(eventContext));
+        verify(batchEventPublisherService, never()).publish(any(SecurityEventTokenPayload.class), any());
+    }
+
+    @Test
+    public void testShutdownFlushesPendingBatches() throws Exception {
+
+        EventPublisherService batchEventPublisherService = getBatchEventPublisherService();
+        eventBatcher.start(10, LONG_LINGER_MILLIS);
+
+        eventBatcher.publish(mock(SecurityEventTokenPayload.class), getEventContext("channel/uri"));
+        eventBatcher.shutdown();
+
+        verify((BatchEventPublisher) batchEventPublisherService, times(1)).publish(anyList(), any());
+        assertEquals(eventBatcher.getPendingCount(), 0);
+
+        SecurityEventTokenPayload token = mock(SecurityEventTokenPayload.class);
+        EventContext eventContext = getEventContext("channel/uri");
+        eventBatcher.publish(token, eventContext);
+        verify(batchEventPublisherService, times(1)).publish(token, eventContext);
+    }
+
+    @Test
+    public void testLatencyHistogramPercentiles() {
+
+        LatencyHistogram latencyHistogram = new LatencyHistogram();
+        for (int i = 0; i < 99; i++) {
+            latencyHistogram.record(500_000L);
+        }
+        latencyHistogram.record(150_000_000L);
+
+        assertEquals(latencyHistogram.getCount(), 100);
+        assertEquals(latencyHistogram.getPercentileMillis(50), 1);
+        assertEquals(latencyHistogram.getPercentileMillis(99), 1);
+        assertEquals(latencyHistogram.getPercentileMillis(100), 200);
+        assertTrue(latencyHistogram.getMeanMillis() > 1);
+        assertEquals(latencyHistogram.getBucketCounts().length,
+                latencyHistogram.getBucketUpperBoundsMillis().length + 1);
+    }
+
+    private void waitForBatchCount(long batchCount) throws InterruptedException {
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (eventBatcher.getBatchCount() < batchCount && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    private EventPublisherService getBatchEventPublisherService() {
+
+        EventPublisherService batchEventPublisherService = mock(EventPublisherService.class,
+                withSettings().extraInterfaces(BatchEventPublisher.class));
+        EventHookHandlerDataHolder.getInstance().setEventPublisherService(batchEventPublisherService);
+        return batchEventPublisherService;
+    }
+
+    private EventContext getEventContext(String channelUri) {
+
+        return EventContext.builder()
+                .tenantDomain(TENANT_DOMAIN)
+                .eventUri(channelUri)
+                .eventProfileName("WSO2")
+                .eventProfileVersion("v1")
+                .build();
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.webhook.common.event.handler.internal.cache;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.webhook.metadata.api.exception.WebhookMetadataException;
+import org.wso2.carbon.identity.webhook.metadata.api.model.EventProfile;
+import org.wso2.carbon.identity.webhook.metadata.api.service.WebhookMetadataService;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
+
+/**
+ * Test class for EventProfileCache.
+ */
+public class EventProfileCacheTest {
+
+    private EventProfileCache eventProfileCache;
+    private WebhookMetadataService webhookMetadataService;
+    private EventProfile wso2Profile;
+    private EventProfile caepProfile;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+
+        eventProfileCache = new EventProfileCache();
+        webhookMetadataService = mock(WebhookMetadataService.class);
+        wso2Profile = new EventProfile("WSO2", "uri", Collections.emptyList());
+        caepProfile = new EventProfile("CAEP", "uri", Collections.emptyList());
+        when(webhookMetadataService.getSupportedEventProfiles()).thenReturn(Arrays.asList(wso2Profile, caepProfile));
+    }
+
+    @Test
+    public void testSnapshotIsLoadedOnce() throws Exception {
+
+        EventProfileSnapshot first = eventProfileCache.getSnapshot(webhookMetadataService);
+        EventProfileSnapshot second = eventProfileCache.getSnapshot(webhookMetadataService);
+
+        assertSame(second, first);
+        verify(webhookMetadataService, times(1)).getSupportedEventProfiles();
+        assertEquals(eventProfileCache.getMissCount(), 1);
+        assertEquals(eventProfileCache.getHitCount(), 1);
+        assertEquals(eventProfileCache.getRefreshCount(), 1);
+    }
+
+    @Test
+    public void testSnapshotIndexesProfiles() throws Exception {
+
+        EventProfileSnapshot snapshot = eventProfileCache.getSnapshot(webhookMetadataService);
+
+        assertEquals(snapshot.getEventProfiles(), Arrays.asList(wso2Profile, caepProfile));
+        assertSame(snapshot.getEventProfile("WSO2"), wso2Profile);
+        assertSame(snapshot.getEventProfile("CAEP"), caepProfile);
+        assertNull(snapshot.getEventProfile("RISC"));
+        assertNull(snapshot.getEventProfile(null));
+        expectThrows(UnsupportedOperationException.class, () -> snapshot.getEventProfiles().clear());
+    }
+
+    @Test
+    public void testInvalidateReloadsSnapshot() throws Exception {
+
+        EventProfileSnapshot first = eventProfileCache.getSnapshot(webhookMetadataService);
+        when(webhookMetadataService.getSupportedEventProfiles()).thenReturn(Collections.emptyList());
+
+        eventProfileCache.invalidate();
+        EventProfileSnapshot second = eventProfileCache.getSnapshot(webhookMetadataService);
+
+        assertNotSame(second, first);
+        assertTrue(second.isEmpty());
+        assertEquals(eventProfileCache.getRefreshCount(), 2);
+    }
+
+    @Test
+    public void testExpiredSnapshotIsReloaded() throws Exception {
+
+        eventProfileCache.setTtl(1);
+        EventProfileSnapshot first = eventProfileCache.getSnapshot(webhookMetadataService);
+        Thread.sleep(10);
+        EventProfileSnapshot second = eventProfileCache.getSnapshot(webhookMetadataService);
+
+        assertNotSame(second, first);
+        verify(webhookMetadataService, times(2)).getSupportedEventProfiles();
+        assertEquals(eventProfileCache.getMissCount(), 2);
+    }
+
+    @Test
+    public void testNonPositiveTtlDisablesExpiry() throws Exception {
+
+        eventProfileCache.setTtl(0);
+        EventProfileSnapshot first = eventProfileCache.getSnapshot(webhookMetadataService);
+        Thread.sleep(10);
+
+        assertSame(eventProfileCache.getSnapshot(webhookMetadataService), first);
+        verify(webhookMetadataService, times(1)).getSupportedEventProfiles();
+    }
+
+    @Test
+    public void testFailedLoadIsNotCached() throws Exception {
+
+        when(webhookMetadataService.getSupportedEventProfiles()).thenThrow(WebhookMetadataException.class)
+                .thenReturn(Collections.singletonList(wso2Profile));
+
+        expectThrows(WebhookMetadataException.class, () -> eventProfileCache.getSnapshot(webhookMetadataService));
+        EventProfileSnapshot snapshot = eventProfileCache.getSnapshot(webhookMetadataService);
+
+        assertSame(snapshot.getEventProfile("WSO2"), wso2Profile);
+        assertEquals(eventProfileCache.getRefreshCount(), 1);
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.webhook.common.event.handler.internal.cache;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Test class for SubscriptionIndex.
+ */
+public class SubscriptionIndexTest {
+
+    private static final String TENANT_DOMAIN = "carbon.super";
+    private static final String OTHER_TENANT_DOMAIN = "wso2.com";
+    private static final String LOGIN_CHANNEL_KEY = "WSO2|https://schemas.identity.wso2.org/events/login";
+    private static final String SESSION_CHANNEL_KEY = "WSO2|https://schemas.identity.wso2.org/events/session";
+
+    private SubscriptionIndex subscriptionIndex;
+
+    @BeforeMethod
+    public void setUp() {
+
+        subscriptionIndex = new SubscriptionIndex();
+        subscriptionIndex.setEnabled(true);
+    }
+
+    @Test
+    public void testIndexIsDisabledByDefault() {
+
+        SubscriptionIndex defaultSubscriptionIndex = new SubscriptionIndex();
+        defaultSubscriptionIndex.record(TENANT_DOMAIN, LOGIN_CHANNEL_KEY, false);
+
+        assertFalse(defaultSubscriptionIndex.isEnabled());
+        assertFalse(defaultSubscriptionIndex.isUnsubscribed(TENANT_DOMAIN, LOGIN_CHANNEL_KEY));
+    }
+
+    @Test
+    public void testDisablingIndexDiscardsEntries() {
+
+        subscriptionIndex.record(TENANT_DOMAIN, LOGIN_CHANNEL_KEY, false);
+        subscriptionIndex.setEnabled(false);
+        subscriptionIndex.setEnabled(true);
+
+        assertFalse(subscriptionIndex.isUnsubscribed(TENANT_DOMAIN, LOGIN_CHANNEL_KEY));
+    }
+
+    @Test
+    public void testUnknownChannelIsNotUnsubscribed() {
+
+        assertFalse(subscriptionIndex.isUnsubscribed(TENANT_DOMAIN, LOGIN_CHANNEL_KEY));
+        assertFalse(subscriptionIndex.isUnsubscribed(null, LOGIN_CHANNEL_KEY));
+        assertFalse(subscriptionIndex.isUnsubscribed(TENANT_DOMAIN, null));
+    }
+
+    @Test
+    public void testRecordUnsubscribedChannel() {
+
+        subscriptionIndex.record(TENANT_DOMAIN, LOGIN_CHANNEL_KEY, false);
+
+        assertTrue(subscriptionIndex.isUnsubscribed(TENANT_DOMAIN, LOGIN_CHANNEL_KEY));
+        assertFalse(subscriptionIndex.isUnsubscribed(TENANT_DOMAIN, SESSION_CHANNEL_KEY));
+        assertFalse(subscriptionIndex.isUnsubscribed(OTHER_TENANT_DOMAIN, LOGIN_CHANNEL_KEY));
+        assertEquals(subscriptionIndex.getLookupCount(), 3);
+        assertEquals(subscriptionIndex.getUnsubscribedCount(), 1);
+    }
+
+    @Test
+    public void testRecordSubscribedChannelClearsEntry() {
+
+        subscriptionIndex.record(TENANT_DOMAIN, LOGIN_CHANNEL_KEY, false);
+        subscriptionIndex.record(TENANT_DOMAIN, LOGIN_CHANNEL_KEY, true);
+
+        assertFalse(subscriptionIndex.isUnsubscribed(TENANT_DOMAIN, LOGIN_CHANNEL_KEY));
+    }
+
+    @Test
+    public void testExpiredEntryIsDiscarded() throws Exception {
+
+        subscriptionIndex.setTtl(1);
+        subscriptionIndex.record(TENANT_DOMAIN, LOGIN_CHANNEL_KEY, false);
+        Thread.sleep(10);
+
+        assertFalse(subscriptionIndex.isUnsubscribed(TENANT_DOMAIN, LOGIN_CHANNEL_KEY));
+    }
+
+    @Test
+    public void testInvalidateTenant() {
+
+        subscriptionIndex.record(TENANT_DOMAIN, LOGIN_CHANNEL_KEY, false);
+        subscriptionIndex.record(OTHER_TENANT_DOMAIN, LOGIN_CHANNEL_KEY, false);
+
+        subscriptionIndex.invalidate(TENANT_DOMAIN);
+
+        assertFalse(subscriptionIndex.isUnsubscribed(TENANT_DOMAIN, LOGIN_CHANNEL_KEY));
+        assertTrue(subscriptionIndex.isUnsubscribed(OTHER_TENANT_DOMAIN, LOGIN_CHANNEL_KEY));
+
+        subscriptionIndex.invalidateAll();
+
+        assertFalse(subscriptionIndex.isUnsubscribed(OTHER_TENANT_DOMAIN, LOGIN_CHANNEL_KEY));
+    }
+
+    @Test
+    public void testNonPositiveTtlDisablesIndex() {
+
+        subscriptionIndex.record(TENANT_DOMAIN, LOGIN_CHANNEL_KEY, false);
+        subscriptionIndex.setTtl(0);
+
+        assertFalse(subscriptionIndex.isUnsubscribed(TENANT_DOMAIN, LOGIN_CHANNEL_KEY));
+        subscriptionIndex.record(TENANT_DOMAIN, LOGIN_CHANNEL_KEY, false);
+        assertFalse(subscriptionIndex.isUnsubscribed(TENANT_DOMAIN, LOGIN_CHANNEL_KEY));
+    }
+}
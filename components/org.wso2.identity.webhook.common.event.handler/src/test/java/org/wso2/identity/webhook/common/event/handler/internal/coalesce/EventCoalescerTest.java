@@ -0,0 +1,278 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.webhook.common.event.handler.internal.coalesce;
+
+import org.mockito.InOrder;
+import org.mockito.MockedStatic;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.context.PrivilegedCarbonContext;
+import org.wso2.carbon.identity.event.publisher.api.model.EventContext;
+import org.wso2.carbon.identity.event.publisher.api.model.EventPayload;
+import org.wso2.carbon.identity.event.publisher.api.model.SecurityEventTokenPayload;
+import org.wso2.carbon.identity.event.publisher.api.service.EventPublisherService;
+import org.wso2.identity.webhook.common.event.handler.api.constants.Constants;
+import org.wso2.identity.webhook.common.event.handler.api.model.MergeableEventPayload;
+import org.wso2.identity.webhook.common.event.handler.internal.component.EventHookHandlerDataHolder;
+import org.wso2.identity.webhook.common.event.handler.internal.util.CommonTestUtils;
+import org.wso2.identity.webhook.common.event.handler.internal.util.EventHookHandlerUtils;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Test class for EventCoalescer.
+ */
+public class EventCoalescerTest {
+
+    private static final String TENANT_DOMAIN = "myorg";
+    private static final String SESSION_ID = "session-id";
+    private static final long LONG_WINDOW_MILLIS = 60000;
+
+    private EventCoalescer eventCoalescer;
+    private EventPublisherService eventPublisherService;
+    private EventContext eventContext;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+
+        CommonTestUtils.initPrivilegedCarbonContext(TENANT_DOMAIN);
+        eventCoalescer = new EventCoalescer();
+        eventPublisherService = mock(EventPublisherService.class);
+        EventHookHandlerDataHolder.getInstance().setEventPublisherService(eventPublisherService);
+        eventContext = EventContext.builder()
+                .tenantDomain(TENANT_DOMAIN)
+                .eventUri(Constants.Channel.SESSION_CHANNEL)
+                .eventProfileName("WSO2")
+                .eventProfileVersion("v1")
+                .build();
+    }
+
+    @AfterMethod
+    public void tearDown() {
+
+        eventCoalescer.shutdown();
+        PrivilegedCarbonContext.endTenantFlow();
+    }
+
+    @Test
+    public void testEventsAreNotCoalescedWhenNotStarted() {
+
+        assertFalse(eventCoalescer.isCoalesced(Constants.Event.SESSION_PRESENTED_EVENT));
+        assertFalse(eventCoalescer.coalesce(SESSION_ID, mock(EventPayload.class),
+                Constants.Event.SESSION_PRESENTED_EVENT, null, null, eventContext));
+    }
+
+    @Test
+    public void testEventsOfOtherUrisOrWithoutSubjectAreNotCoalesced() {
+
+        eventCoalescer.start(LONG_WINDOW_MILLIS, EventCoalescer.DEFAULT_MAX_PENDING_EVENTS,
+                EventCoalescer.DEFAULT_EVENT_URIS);
+
+        assertFalse(eventCoalescer.coalesce(SESSION_ID, mock(EventPayload.class),
+                Constants.Event.SESSION_REVOKED_EVENT, null, null, eventContext));
+        assertFalse(eventCoalescer.coalesce(null, mock(EventPayload.class),
+                Constants.Event.SESSION_PRESENTED_EVENT, null, null, eventContext));
+        assertEquals(eventCoalescer.getPendingCount(), 0);
+    }
+
+    @Test
+    public void testLatestEventOfKeyIsPublished() throws Exception {
+
+        eventCoalescer.start(LONG_WINDOW_MILLIS, EventCoalescer.DEFAULT_MAX_PENDING_EVENTS,
+                EventCoalescer.DEFAULT_EVENT_URIS);
+        EventPayload firstPayload = mock(EventPayload.class);
+        EventPayload secondPayload = mock(EventPayload.class);
+        EventPayload otherSessionPayload = mock(EventPayload.class);
+        SecurityEventTokenPayload token = mock(SecurityEventTokenPayload.class);
+        SecurityEventTokenPayload otherSessionToken = mock(SecurityEventTokenPayload.class);
+
+        assertTrue(eventCoalescer.coalesce(SESSION_ID, firstPayload, Constants.Event.SESSION_PRESENTED_EVENT,
+                null, null, eventContext));
+        assertTrue(eventCoalescer.coalesce(SESSION_ID, secondPayload, Constants.Event.SESSION_PRESENTED_EVENT,
+                null, null, eventContext));
+        assertTrue(eventCoalescer.coalesce("other-session-id", otherSessionPayload,
+                Constants.Event.SESSION_PRESENTED_EVENT, null, null, eventContext));
+        assertEquals(eventCoalescer.getPendingCount(), 2);
+
+        try (MockedStatic<EventHookHandlerUtils> utilsMockedStatic = mockStatic(EventHookHandlerUtils.class)) {
+            utilsMockedStatic.when(() -> EventHookHandlerUtils.buildSecurityEventToken(eq(secondPayload),
+                    eq(Constants.Event.SESSION_PRESENTED_EVENT), isNull(), isNull())).thenReturn(token);
+            utilsMockedStatic.when(() -> EventHookHandlerUtils.buildSecurityEventToken(eq(otherSessionPayload),
+                    eq(Constants.Event.SESSION_PRESENTED_EVENT), isNull(), isNull())).thenReturn(otherSessionToken);
+
+            eventCoalescer.shutdown();
+
+            utilsMockedStatic.verify(() -> EventHookHandlerUtils.buildSecurityEventToken(eq(firstPayload),
+                    any(), any(), any()), never());
+        }
+        verify(eventPublisherService, times(1)).publish(token, eventContext);
+        verify(eventPublisherService, times(1)).publish(otherSessionToken, eventContext);
+        assertEquals(eventCoalescer.getPendingCount(), 0);
+
+        EventCoalescer.CoalescingCounters counters =
+                eventCoalescer.getCoalescingCounters().get(Constants.Event.SESSION_PRESENTED_EVENT);
+        assertEquals(counters.getReceivedCount(), 3);
+        assertEquals(counters.getCoalescedCount(), 1);
+        assertEquals(counters.getEmittedCount(), 2);
+        assertEquals(counters.getCoalescingRatio(), 1.0 / 3);
+    }
+
+    @Test
+    public void testMergeableEventPayloadsAreMerged() throws Exception {
+
+        eventCoalescer.start(LONG_WINDOW_MILLIS, EventCoalescer.DEFAULT_MAX_PENDING_EVENTS,
+                EventCoalescer.DEFAULT_EVENT_URIS);
+        EventPayload firstPayload = mock(EventPayload.class,
+                withSettings().extraInterfaces(MergeableEventPayload.class));
+        EventPayload secondPayload = mock(EventPayload.class);
+        EventPayload mergedPayload = mock(EventPayload.class);
+        when(((MergeableEventPayload) firstPayload).merge(secondPayload)).thenReturn(mergedPayload);
+
+        eventCoalescer.coalesce("user-id", firstPayload, Constants.Event.POST_USER_PROFILE_UPDATED_EVENT, null,
+                null, eventContext);
+        eventCoalescer.coalesce("user-id", secondPayload, Constants.Event.POST_USER_PROFILE_UPDATED_EVENT, null,
+                null, eventContext);
+
+        try (MockedStatic<EventHookHandlerUtils> utilsMockedStatic = mockStatic(EventHookHandlerUtils.class)) {
+            eventCoalescer.shutdown();
+
+            utilsMockedStatic.verify(() -> EventHookHandlerUtils.buildSecurityEventToken(eq(mergedPayload),
+                    eq(Constants.Event.POST_USER_PROFILE_UPDATED_EVENT), any(), any()), times(1));
+        }
+    }
+
+    @Test
+    public void testHeldEventIsPublishedBeforeLaterEventOfSubject() throws Exception {
+
+        eventCoalescer.start(LONG_WINDOW_MILLIS, EventCoalescer.DEFAULT_MAX_PENDING_EVENTS,
+                EventCoalescer.DEFAULT_EVENT_URIS);
+        EventPayload presentedPayload = mock(EventPayload.class);
+        SecurityEventTokenPayload presentedToken = mock(SecurityEventTokenPayload.class);
+        SecurityEventTokenPayload revokedToken = mock(SecurityEventTokenPayload.class);
+
+        assertTrue(eventCoalescer.coalesce(SESSION_ID, presentedPayload, Constants.Event.SESSION_PRESENTED_EVENT,
+                null, null, eventContext));
+        assertTrue(eventCoalescer.coalesce("other-session-id", mock(EventPayload.class),
+                Constants.Event.SESSION_PRESENTED_EVENT, null, null, eventContext));
+
+        try (MockedStatic<EventHookHandlerUtils> utilsMockedStatic = mockStatic(EventHookHandlerUtils.class)) {
+            utilsMockedStatic.when(() -> EventHookHandlerUtils.buildSecurityEventToken(eq(presentedPayload),
+                    eq(Constants.Event.SESSION_PRESENTED_EVENT), isNull(), isNull())).thenReturn(presentedToken);
+
+            // The session handler flushes the session before it publishes the revocation of the session.
+            eventCoalescer.flush(TENANT_DOMAIN, SESSION_ID);
+            EventHookHandlerDataHolder.getInstance().getEventBatcher().publish(revokedToken, eventContext);
+        }
+
+        InOrder inOrder = inOrder(eventPublisherService);
+        inOrder.verify(eventPublisherService).publish(presentedToken, eventContext);
+        inOrder.verify(eventPublisherService).publish(revokedToken, eventContext);
+        // Only the flushed subject is released, and the timer does not publish it again.
+        assertEquals(eventCoalescer.getPendingCount(), 1);
+        assertEquals(eventCoalescer.getCoalescingCounters().get(Constants.Event.SESSION_PRESENTED_EVENT)
+                .getEmittedCount(), 1);
+    }
+
+    @Test
+    public void testFlushOfOtherTenantDoesNotReleaseHeldEvent() {
+
+        eventCoalescer.start(LONG_WINDOW_MILLIS, EventCoalescer.DEFAULT_MAX_PENDING_EVENTS,
+                EventCoalescer.DEFAULT_EVENT_URIS);
+
+        assertTrue(eventCoalescer.coalesce(SESSION_ID, mock(EventPayload.class),
+                Constants.Event.SESSION_PRESENTED_EVENT, null, null, eventContext));
+        eventCoalescer.flush("other-tenant", SESSION_ID);
+
+        assertEquals(eventCoalescer.getPendingCount(), 1);
+    }
+
+    @Test
+    public void testEventsAreNotHeldBeyondMaxPendingEvents() {
+
+        eventCoalescer.start(LONG_WINDOW_MILLIS, 1, EventCoalescer.DEFAULT_EVENT_URIS);
+
+        assertTrue(eventCoalescer.coalesce(SESSION_ID, mock(EventPayload.class),
+                Constants.Event.SESSION_PRESENTED_EVENT, null, null, eventContext));
+        assertTrue(eventCoalescer.coalesce(SESSION_ID, mock(EventPayload.class),
+                Constants.Event.SESSION_PRESENTED_EVENT, null, null, eventContext));
+        assertFalse(eventCoalescer.coalesce("other-session-id", mock(EventPayload.class),
+                Constants.Event.SESSION_PRESENTED_EVENT, null, null, eventContext));
+
+        assertEquals(eventCoalescer.getPendingCount(), 1);
+        assertEquals(eventCoalescer.getCoalescingCounters().get(Constants.Event.SESSION_PRESENTED_EVENT)
+                .getOverflowCount(), 1);
+    }
+
+    @Test
+    public void testHeldEventsAreReleasedAfterWindow() throws Exception {
+
+        eventCoalescer.start(20, EventCoalescer.DEFAULT_MAX_PENDING_EVENTS,
+                Collections.singletonList(Constants.Event.SESSION_PRESENTED_EVENT));
+
+        assertTrue(eventCoalescer.coalesce(SESSION_ID, mock(EventPayload.class),
+                Constants.Event.SESSION_PRESENTED_EVENT, null, null, eventContext));
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (eventCoalescer.getPendingCount() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(eventCoalescer.getPendingCount(), 0);
+    }
+
+    @Test
+    public void testTimingWheelExpiresItemsAtTheirDeadline() {
+
+        long tickNanos = TimeUnit.MILLISECONDS.toNanos(10);
+        TimingWheel<String> timingWheel = new TimingWheel<>(tickNanos, 4, 0);
+        timingWheel.schedule("first", 15 * tickNanos / 10);
+        timingWheel.schedule("second", 3 * tickNanos);
+        // Further than one rotation of the wheel.
+        timingWheel.schedule("third", 6 * tickNanos);
+
+        assertTrue(timingWheel.advance(tickNanos).isEmpty());
+        assertEquals(timingWheel.advance(2 * tickNanos), Collections.singletonList("first"));
+        assertEquals(timingWheel.advance(3 * tickNanos), Collections.singletonList("second"));
+        assertTrue(timingWheel.advance(5 * tickNanos).isEmpty());
+        assertEquals(timingWheel.advance(6 * tickNanos), Collections.singletonList("third"));
+
+        timingWheel.schedule("late", tickNanos);
+        List<String> expiredItems = timingWheel.advance(7 * tickNanos);
+        assertEquals(expiredItems, Arrays.asList("late"));
+        assertTrue(timingWheel.drain().isEmpty());
+    }
+}
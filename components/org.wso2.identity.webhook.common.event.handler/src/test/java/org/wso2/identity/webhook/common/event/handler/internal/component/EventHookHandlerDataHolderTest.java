@@ -19,15 +19,43 @@
 package org.wso2.identity.webhook.common.event.handler.internal.component;
 
 import org.testng.annotations.Test;
+import org.wso2.identity.webhook.common.event.handler.api.builder.LoginEventPayloadBuilder;
+import org.wso2.identity.webhook.common.event.handler.api.constants.Constants;
+import org.wso2.identity.webhook.common.event.handler.api.model.EventMetadata;
+import org.wso2.identity.webhook.common.event.handler.api.service.EventProfileManager;
+import org.wso2.identity.webhook.common.event.handler.internal.util.EventHookHandlerUtils;
+import org.wso2.identity.webhook.common.event.handler.internal.util.PayloadBuilderFactory;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
 import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
 
 /**
  * Test class for EventHookHandlerDataHolder.
  */
 public class EventHookHandlerDataHolderTest {
 
+    private static final String STRESS_EVENT = "STRESS_TEST_EVENT";
+    private static final int WRITER_THREADS = 4;
+    private static final int READER_THREADS = 8;
+    private static final int BIND_CYCLES_PER_WRITER = 2000;
+    private static final int EVENTS_PER_READER = 5000;
+
     @Test
     public void testSingletonInstance() {
 
@@ -37,4 +65,132 @@ public class EventHookHandlerDataHolderTest {
         assertSame(instance1, instance2, "Both instances should be the same (singleton)");
     }
 
+    @Test
+    public void testBindAndUnbindUpdateRegistryVersion() {
+
+        EventHookHandlerDataHolder dataHolder = EventHookHandlerDataHolder.getInstance();
+        LoginEventPayloadBuilder builder = mock(LoginEventPayloadBuilder.class);
+
+        long initialVersion = dataHolder.getRegistryVersion();
+        dataHolder.addLoginEventPayloadBuilder(builder);
+        long boundVersion = dataHolder.getRegistryVersion();
+        assertTrue(boundVersion > initialVersion, "Binding should change the registry version.");
+        assertTrue(dataHolder.getLoginEventPayloadBuilders().contains(builder));
+
+        dataHolder.removeLoginEventPayloadBuilder(builder);
+        assertTrue(dataHolder.getRegistryVersion() > boundVersion, "Unbinding should change the registry version.");
+        assertFalse(dataHolder.getLoginEventPayloadBuilders().contains(builder));
+
+        long unboundVersion = dataHolder.getRegistryVersion();
+        dataHolder.removeLoginEventPayloadBuilder(builder);
+        assertEquals(dataHolder.getRegistryVersion(), unboundVersion,
+                "Unbinding an unknown builder should not change the registry version.");
+    }
+
+    @Test
+    public void testSnapshotIsImmutable() {
+
+        EventHookHandlerDataHolder dataHolder = EventHookHandlerDataHolder.getInstance();
+        LoginEventPayloadBuilder builder = mock(LoginEventPayloadBuilder.class);
+
+        List<LoginEventPayloadBuilder> before = dataHolder.getLoginEventPayloadBuilders();
+        dataHolder.addLoginEventPayloadBuilder(builder);
+        try {
+            assertFalse(before.contains(builder), "A published snapshot should not change on bind.");
+            List<LoginEventPayloadBuilder> after = dataHolder.getLoginEventPayloadBuilders();
+            expectThrows(UnsupportedOperationException.class, () -> after.add(builder));
+            expectThrows(UnsupportedOperationException.class, () -> after.remove(builder));
+        } finally {
+            dataHolder.removeLoginEventPayloadBuilder(builder);
+        }
+    }
+
+    @Test
+    public void testConcurrentBindUnbindWhileDispatching() throws Exception {
+
+        EventHookHandlerDataHolder dataHolder = EventHookHandlerDataHolder.getInstance();
+        LoginEventPayloadBuilder stableBuilder = mock(LoginEventPayloadBuilder.class);
+        when(stableBuilder.getEventSchemaType()).thenReturn(Constants.EventSchema.WSO2);
+        EventProfileManager stableManager = mock(EventProfileManager.class);
+        EventMetadata eventMetadata = EventMetadata.builder()
+                .eventProfile(Constants.EventSchema.WSO2.name())
+                .channel("stress/channel")
+                .event("stress/event")
+                .build();
+        when(stableManager.resolveEventMetadata(STRESS_EVENT)).thenReturn(eventMetadata);
+
+        List<LoginEventPayloadBuilder> transientBuilders = new ArrayList<>();
+        List<EventProfileManager> transientManagers = new ArrayList<>();
+        for (int i = 0; i < WRITER_THREADS; i++) {
+            LoginEventPayloadBuilder builder = mock(LoginEventPayloadBuilder.class);
+            when(builder.getEventSchemaType()).thenReturn(Constants.EventSchema.CAEP);
+            transientBuilders.add(builder);
+            transientManagers.add(mock(EventProfileManager.class));
+        }
+
+        dataHolder.addLoginEventPayloadBuilder(stableBuilder);
+        dataHolder.addEventProfileManager(stableManager);
+        ExecutorService executorService = Executors.newFixedThreadPool(WRITER_THREADS + READER_THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        AtomicInteger dispatchedEvents = new AtomicInteger();
+        try {
+            for (int i = 0; i < WRITER_THREADS; i++) {
+                LoginEventPayloadBuilder builder = transientBuilders.get(i);
+                EventProfileManager manager = transientManagers.get(i);
+                executorService.execute(() -> runSafely(start, failure, () -> {
+                    for (int cycle = 0; cycle < BIND_CYCLES_PER_WRITER; cycle++) {
+                        dataHolder.addLoginEventPayloadBuilder(builder);
+                        dataHolder.addEventProfileManager(manager);
+                        dataHolder.removeEventProfileManager(manager);
+                        dataHolder.removeLoginEventPayloadBuilder(builder);
+                    }
+                }));
+            }
+            for (int i = 0; i < READER_THREADS; i++) {
+                executorService.execute(() -> runSafely(start, failure, () -> {
+                    for (int event = 0; event < EVENTS_PER_READER; event++) {
+                        // Other test classes may keep their own WSO2 builders registered in the data holder.
+                        LoginEventPayloadBuilder resolvedBuilder =
+                                PayloadBuilderFactory.getLoginEventPayloadBuilder(Constants.EventSchema.WSO2);
+                        assertNotNull(resolvedBuilder);
+                        assertEquals(resolvedBuilder.getEventSchemaType(), Constants.EventSchema.WSO2);
+                        assertSame(EventHookHandlerUtils.getEventProfileManagerByProfile(
+                                Constants.EventSchema.WSO2.name(), STRESS_EVENT), eventMetadata);
+                        for (LoginEventPayloadBuilder builder : dataHolder.getLoginEventPayloadBuilders()) {
+                            assertNotNull(builder);
+                        }
+                        dispatchedEvents.incrementAndGet();
+                    }
+                }));
+            }
+            start.countDown();
+            executorService.shutdown();
+            assertTrue(executorService.awaitTermination(2, TimeUnit.MINUTES), "Stress test did not complete in time.");
+        } finally {
+            executorService.shutdownNow();
+            dataHolder.removeLoginEventPayloadBuilder(stableBuilder);
+            dataHolder.removeEventProfileManager(stableManager);
+        }
+
+        assertNull(failure.get(), "Concurrent bind and unbind should not affect dispatching events: " +
+                failure.get());
+        assertEquals(dispatchedEvents.get(), READER_THREADS * EVENTS_PER_READER);
+        for (int i = 0; i < WRITER_THREADS; i++) {
+            assertFalse(dataHolder.getLoginEventPayloadBuilders().contains(transientBuilders.get(i)),
+                    "Every bind should be matched by its unbind.");
+            assertFalse(dataHolder.getEventProfileManagers().contains(transientManagers.get(i)),
+                    "Every bind should be matched by its unbind.");
+        }
+    }
+
+    private static void runSafely(CountDownLatch start, AtomicReference<Throwable> failure, Runnable task) {
+
+        try {
+            start.await();
+            task.run();
+        } catch (Throwable t) {
+            failure.compareAndSet(null, t);
+        }
+    }
 }
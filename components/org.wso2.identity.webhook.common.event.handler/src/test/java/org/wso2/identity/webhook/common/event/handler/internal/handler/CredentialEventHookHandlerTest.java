@@ -49,6 +49,7 @@ import org.wso2.identity.webhook.common.event.handler.api.builder.CredentialEven
 import org.wso2.identity.webhook.common.event.handler.api.model.EventData;
 import org.wso2.identity.webhook.common.event.handler.internal.component.EventHookHandlerDataHolder;
 import org.wso2.identity.webhook.common.event.handler.internal.constant.Constants;
+import org.wso2.identity.webhook.common.event.handler.internal.routing.EventRouter;
 import org.wso2.identity.webhook.common.event.handler.internal.util.CommonTestUtils;
 import org.wso2.identity.webhook.common.event.handler.internal.util.EventHookHandlerUtils;
 import org.wso2.identity.webhook.common.event.handler.internal.util.PayloadBuilderFactory;
@@ -126,6 +127,7 @@ public class CredentialEventHookHandlerTest {
     public void tearDownMethod() {
 
         Mockito.reset(mockedEventPublisherService, mockedWebhookMetadataService, mockedTopicManagementService);
+        EventRouter.getInstance().invalidate();
     }
 
     @Test
@@ -198,7 +200,7 @@ public class CredentialEventHookHandlerTest {
                         .thenReturn(eventData);
 
                 SecurityEventTokenPayload tokenPayload = mock(SecurityEventTokenPayload.class);
-                utilsMocked.when(() -> EventHookHandlerUtils.buildSecurityEventToken(any(), anyString()))
+                utilsMocked.when(() -> EventHookHandlerUtils.buildSecurityEventToken(any(), anyString(), any(), any()))
                         .thenReturn(tokenPayload);
 
                 when(mockedEventPublisherService.canHandleEvent(any(EventContext.class))).thenReturn(true);
@@ -50,6 +50,7 @@ import org.wso2.identity.webhook.common.event.handler.api.builder.LoginEventPayl
 import org.wso2.identity.webhook.common.event.handler.api.model.EventData;
 import org.wso2.identity.webhook.common.event.handler.api.model.EventMetadata;
 import org.wso2.identity.webhook.common.event.handler.internal.component.EventHookHandlerDataHolder;
+import org.wso2.identity.webhook.common.event.handler.internal.routing.EventRouter;
 import org.wso2.identity.webhook.common.event.handler.internal.util.EventHookHandlerUtils;
 import org.wso2.identity.webhook.common.event.handler.internal.util.PayloadBuilderFactory;
 
@@ -121,6 +122,7 @@ public class LoginEventHookHandlerTest {
 
         Mockito.reset(mockedEventHookHandlerUtils);
         Mockito.reset(mockedEventPublisherService);
+        EventRouter.getInstance().invalidate();
     }
 
     @AfterClass
@@ -211,7 +213,7 @@ public class LoginEventHookHandlerTest {
                         .thenReturn(eventData);
                 utilsMocked.when(() -> EventHookHandlerUtils.getEventProfileManagerByProfile(anyString(), anyString()))
                         .thenReturn(eventMetadata);
-                utilsMocked.when(() -> EventHookHandlerUtils.buildSecurityEventToken(any(), anyString()))
+                utilsMocked.when(() -> EventHookHandlerUtils.buildSecurityEventToken(any(), anyString(), any(), any()))
                         .thenReturn(tokenPayload);
 
                 // Mock canHandleEvent to return true
@@ -47,6 +47,7 @@ import org.wso2.identity.webhook.common.event.handler.api.builder.SessionEventPa
 import org.wso2.identity.webhook.common.event.handler.api.model.EventData;
 import org.wso2.identity.webhook.common.event.handler.internal.component.EventHookHandlerDataHolder;
 import org.wso2.identity.webhook.common.event.handler.internal.constant.Constants;
+import org.wso2.identity.webhook.common.event.handler.internal.routing.EventRouter;
 import org.wso2.identity.webhook.common.event.handler.internal.util.CommonTestUtils;
 import org.wso2.identity.webhook.common.event.handler.internal.util.EventHookHandlerUtils;
 import org.wso2.identity.webhook.common.event.handler.internal.util.PayloadBuilderFactory;
@@ -124,6 +125,7 @@ public class SessionEventHookHandlerTest {
 
         Mockito.reset(mockedEventHookHandlerUtils);
         Mockito.reset(mockedEventPublisherService);
+        EventRouter.getInstance().invalidate();
     }
 
     @DataProvider(name = "eventDataProvider")
@@ -206,6 +208,7 @@ public class SessionEventHookHandlerTest {
                 utilsMocked.when(() -> EventHookHandlerUtils.buildSecurityEventToken(
                                 eq(mockedEventPayload),
                                 eq(expectedEventKey),
+                                any(),
                                 any()))
                         .thenReturn(tokenPayload);
 
@@ -18,6 +18,7 @@
 
 package org.wso2.identity.webhook.common.event.handler.internal.handler;
 
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.Mockito;
@@ -28,6 +29,7 @@ import org.testng.annotations.BeforeClass;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 import org.wso2.carbon.identity.configuration.mgt.core.ConfigurationManager;
+import org.wso2.carbon.identity.core.util.IdentityUtil;
 import org.wso2.carbon.identity.event.IdentityEventConstants;
 import org.wso2.carbon.identity.event.IdentityEventException;
 import org.wso2.carbon.identity.event.bean.IdentityEventMessageContext;
@@ -42,11 +44,15 @@ import org.wso2.carbon.identity.webhook.metadata.api.model.EventProfile;
 import org.wso2.carbon.identity.webhook.metadata.api.service.WebhookMetadataService;
 import org.wso2.identity.webhook.common.event.handler.api.builder.UserOperationEventPayloadBuilder;
 import org.wso2.identity.webhook.common.event.handler.api.model.EventData;
+import org.wso2.identity.webhook.common.event.handler.api.model.EventMetadata;
+import org.wso2.identity.webhook.common.event.handler.internal.coalesce.EventCoalescer;
 import org.wso2.identity.webhook.common.event.handler.internal.component.EventHookHandlerDataHolder;
 import org.wso2.identity.webhook.common.event.handler.internal.constant.Constants;
+import org.wso2.identity.webhook.common.event.handler.internal.routing.EventRouter;
 import org.wso2.identity.webhook.common.event.handler.internal.util.EventHookHandlerUtils;
 import org.wso2.identity.webhook.common.event.handler.internal.util.PayloadBuilderFactory;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -55,8 +61,11 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -117,6 +126,7 @@ public class UserOperationEventHookHandlerTest {
 
         Mockito.reset(mockedEventHookHandlerUtils);
         Mockito.reset(mockedEventPublisherService);
+        EventRouter.getInstance().invalidate();
     }
 
     @Test
@@ -190,7 +200,7 @@ public class UserOperationEventHookHandlerTest {
                         .thenReturn(eventData);
 
                 SecurityEventTokenPayload tokenPayload = mock(SecurityEventTokenPayload.class);
-                utilsMocked.when(() -> EventHookHandlerUtils.buildSecurityEventToken(any(), anyString()))
+                utilsMocked.when(() -> EventHookHandlerUtils.buildSecurityEventToken(any(), anyString(), any(), any()))
                         .thenReturn(tokenPayload);
 
                 // Mock canHandleEvent to return true
@@ -219,6 +229,97 @@ public class UserOperationEventHookHandlerTest {
         verify(mockedEventPublisherService, times(0)).publish(any(), any());
     }
 
+    @Test
+    public void testHeldProfileUpdateIsPublishedBeforeUserDeletion() throws Exception {
+
+        String userId = "user-id";
+        String channelUri = "user/operation/channel/uri";
+        String profileUpdatedEventUri = org.wso2.identity.webhook.common.event.handler.api.constants.Constants.Event
+                .POST_USER_PROFILE_UPDATED_EVENT;
+        String userDeletedEventUri = org.wso2.identity.webhook.common.event.handler.api.constants.Constants.Event
+                .POST_DELETE_USER_EVENT;
+        org.wso2.carbon.identity.webhook.metadata.api.model.Event profileUpdatedEvent =
+                new org.wso2.carbon.identity.webhook.metadata.api.model.Event("Profile updated", "description",
+                        profileUpdatedEventUri);
+        org.wso2.carbon.identity.webhook.metadata.api.model.Event userDeletedEvent =
+                new org.wso2.carbon.identity.webhook.metadata.api.model.Event("User deleted", "description",
+                        userDeletedEventUri);
+        Channel channel = new Channel("User Operation Channel", "User Operation Channel", channelUri,
+                Arrays.asList(profileUpdatedEvent, userDeletedEvent));
+        when(mockedWebhookMetadataService.getSupportedEventProfiles()).thenReturn(Collections.singletonList(
+                new EventProfile("WSO2", "uri", Collections.singletonList(channel))));
+        when(mockedEventPublisherService.canHandleEvent(any(EventContext.class))).thenReturn(true);
+
+        EventCoalescer eventCoalescer = EventHookHandlerDataHolder.getInstance().getEventCoalescer();
+        eventCoalescer.start(60000, EventCoalescer.DEFAULT_MAX_PENDING_EVENTS, EventCoalescer.DEFAULT_EVENT_URIS);
+        try (MockedStatic<PayloadBuilderFactory> mocked = mockStatic(PayloadBuilderFactory.class);
+             MockedStatic<EventHookHandlerUtils> utilsMocked = mockStatic(EventHookHandlerUtils.class)) {
+            mocked.when(() -> PayloadBuilderFactory.getUserOperationEventPayloadBuilder(
+                            org.wso2.identity.webhook.common.event.handler.api.constants.Constants.EventSchema.WSO2))
+                    .thenReturn(mockedUserOperationEventPayloadBuilder);
+            mockEventMetadata(utilsMocked, IdentityEventConstants.Event.POST_USER_PROFILE_UPDATE, channelUri,
+                    profileUpdatedEventUri);
+            mockEventMetadata(utilsMocked, IdentityEventConstants.Event.POST_DELETE_USER, channelUri,
+                    userDeletedEventUri);
+
+            // The user id of a profile update is in the event, the deleted user id is kept by the pre delete event.
+            EventData profileUpdateData = mock(EventData.class);
+            when(profileUpdateData.getTenantDomain()).thenReturn(CARBON_SUPER);
+            when(profileUpdateData.getUserId()).thenReturn(userId);
+            EventData userDeleteData = mock(EventData.class);
+            when(userDeleteData.getTenantDomain()).thenReturn(CARBON_SUPER);
+            when(userDeleteData.getEventParams()).thenReturn(Collections.emptyMap());
+            Event profileUpdateEvent = createEventWithProperties(IdentityEventConstants.Event.POST_USER_PROFILE_UPDATE);
+            Event userDeleteEvent = createEventWithProperties(IdentityEventConstants.Event.POST_DELETE_USER);
+            utilsMocked.when(() -> EventHookHandlerUtils.buildEventDataProvider(profileUpdateEvent))
+                    .thenReturn(profileUpdateData);
+            utilsMocked.when(() -> EventHookHandlerUtils.buildEventDataProvider(userDeleteEvent))
+                    .thenReturn(userDeleteData);
+
+            EventPayload profileUpdatePayload = mock(EventPayload.class);
+            EventPayload userDeletePayload = mock(EventPayload.class);
+            when(mockedUserOperationEventPayloadBuilder.buildUserProfileUpdateEvent(profileUpdateData))
+                    .thenReturn(profileUpdatePayload);
+            when(mockedUserOperationEventPayloadBuilder.buildUserDeleteEvent(userDeleteData)).thenAnswer(invocation -> {
+                IdentityUtil.threadLocalProperties.get().remove(Constants.PRE_DELETE_USER_ID);
+                return userDeletePayload;
+            });
+            SecurityEventTokenPayload profileUpdateToken = mock(SecurityEventTokenPayload.class);
+            SecurityEventTokenPayload userDeleteToken = mock(SecurityEventTokenPayload.class);
+            utilsMocked.when(() -> EventHookHandlerUtils.buildSecurityEventToken(eq(profileUpdatePayload),
+                    anyString(), isNull(), any())).thenReturn(profileUpdateToken);
+            utilsMocked.when(() -> EventHookHandlerUtils.buildSecurityEventToken(eq(userDeletePayload),
+                    anyString(), isNull(), any())).thenReturn(userDeleteToken);
+
+            HashMap<String, Object> preDeleteProperties = new HashMap<>();
+            preDeleteProperties.put(IdentityEventConstants.EventProperty.USER_ID, userId);
+            userOperationEventHookHandler.handleEvent(
+                    new Event(IdentityEventConstants.Event.PRE_DELETE_USER_WITH_ID, preDeleteProperties));
+            userOperationEventHookHandler.handleEvent(profileUpdateEvent);
+            verify(mockedEventPublisherService, never()).publish(any(), any());
+
+            userOperationEventHookHandler.handleEvent(userDeleteEvent);
+
+            InOrder inOrder = inOrder(mockedEventPublisherService);
+            inOrder.verify(mockedEventPublisherService).publish(eq(profileUpdateToken), any(EventContext.class));
+            inOrder.verify(mockedEventPublisherService).publish(eq(userDeleteToken), any(EventContext.class));
+            assertEquals(eventCoalescer.getPendingCount(), 0);
+        } finally {
+            eventCoalescer.shutdown();
+            IdentityUtil.threadLocalProperties.remove();
+        }
+    }
+
+    private void mockEventMetadata(MockedStatic<EventHookHandlerUtils> utilsMocked, String eventName,
+                                   String channelUri, String eventUri) {
+
+        EventMetadata eventMetadata = mock(EventMetadata.class);
+        when(eventMetadata.getChannel()).thenReturn(channelUri);
+        when(eventMetadata.getEvent()).thenReturn(eventUri);
+        utilsMocked.when(() -> EventHookHandlerUtils.getEventProfileManagerByProfile(anyString(), eq(eventName)))
+                .thenReturn(eventMetadata);
+    }
+
     private void setupDataHolderMocks() {
 
         EventHookHandlerDataHolder.getInstance().setConfigurationManager(mockedConfigurationManager);
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.webhook.common.event.handler.internal.handler;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.core.bean.context.MessageContext;
+import org.wso2.carbon.identity.event.IdentityEventConstants;
+import org.wso2.carbon.identity.event.bean.IdentityEventMessageContext;
+import org.wso2.carbon.identity.event.event.Event;
+import org.wso2.carbon.identity.event.handler.AbstractEventHandler;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Test class for WebhookEventDispatcherHandler.
+ */
+public class WebhookEventDispatcherHandlerTest {
+
+    private AbstractEventHandler userOperationHandler;
+    private AbstractEventHandler credentialHandler;
+    private WebhookEventDispatcherHandler dispatcherHandler;
+
+    @BeforeMethod
+    public void setUp() {
+
+        userOperationHandler = mock(AbstractEventHandler.class);
+        credentialHandler = mock(AbstractEventHandler.class);
+        dispatcherHandler = WebhookEventDispatcherHandler.builder()
+                .handler(userOperationHandler, Arrays.asList(IdentityEventConstants.Event.POST_ADD_USER,
+                        IdentityEventConstants.Event.POST_ADD_NEW_PASSWORD))
+                .handler(credentialHandler, Collections.singletonList(
+                        IdentityEventConstants.Event.POST_ADD_NEW_PASSWORD))
+                .build();
+    }
+
+    @Test
+    public void testCanHandleOnlyIndexedEvents() {
+
+        assertTrue(dispatcherHandler.canHandle(new IdentityEventMessageContext(
+                new Event(IdentityEventConstants.Event.POST_ADD_USER))));
+        assertFalse(dispatcherHandler.canHandle(new IdentityEventMessageContext(
+                new Event(IdentityEventConstants.Event.PRE_ADD_USER))));
+        assertFalse(dispatcherHandler.canHandle(mock(MessageContext.class)));
+        assertEquals(dispatcherHandler.getHandlers(IdentityEventConstants.Event.POST_ADD_NEW_PASSWORD),
+                Arrays.asList(userOperationHandler, credentialHandler));
+    }
+
+    @Test
+    public void testEventIsDelegatedToHandlersThatCanHandleIt() throws Exception {
+
+        Event event = new Event(IdentityEventConstants.Event.POST_ADD_NEW_PASSWORD);
+        when(userOperationHandler.canHandle(any(MessageContext.class))).thenReturn(false);
+        when(credentialHandler.canHandle(any(MessageContext.class))).thenReturn(true);
+
+        dispatcherHandler.handleEvent(event);
+
+        verify(userOperationHandler, never()).handleEvent(event);
+        verify(credentialHandler).handleEvent(event);
+    }
+
+    @Test
+    public void testEventsNotIndexedAreNotDelegated() throws Exception {
+
+        Event event = new Event(IdentityEventConstants.Event.PRE_ADD_USER);
+
+        dispatcherHandler.handleEvent(event);
+
+        verify(userOperationHandler, never()).canHandle(any(MessageContext.class));
+        verify(credentialHandler, never()).canHandle(any(MessageContext.class));
+    }
+}
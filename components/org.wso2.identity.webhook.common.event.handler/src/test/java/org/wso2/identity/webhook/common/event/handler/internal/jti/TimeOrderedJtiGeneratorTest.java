@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.identity.webhook.common.event.handler.internal.jti;
+
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Test class for TimeOrderedJtiGenerator.
+ */
+public class TimeOrderedJtiGeneratorTest {
+
+    private static final int THREAD_COUNT = 8;
+    private static final int JTIS_PER_THREAD = 20000;
+
+    private final TimeOrderedJtiGenerator jtiGenerator = new TimeOrderedJtiGenerator();
+
+    @Test
+    public void testJtiIsVersion7Uuid() {
+
+        long before = System.currentTimeMillis();
+        UUID uuid = UUID.fromString(jtiGenerator.generate());
+        long after = System.currentTimeMillis();
+
+        assertEquals(uuid.version(), 7);
+        assertEquals(uuid.variant(), 2);
+        long timestamp = uuid.getMostSignificantBits() >>> 16;
+        assertTrue(timestamp >= before && timestamp <= after + 1, "Unexpected timestamp: " + timestamp);
+    }
+
+    @Test
+    public void testJtisOfThreadAreStrictlyIncreasing() {
+
+        String previous = jtiGenerator.generate();
+        for (int i = 0; i < JTIS_PER_THREAD; i++) {
+            String jti = jtiGenerator.generate();
+            assertTrue(jti.compareTo(previous) > 0, jti + " is not after " + previous);
+            assertTrue(UUID.fromString(jti).compareTo(UUID.fromString(previous)) > 0);
+            previous = jti;
+        }
+    }
+
+    @Test
+    public void testJtisOfConcurrentThreadsAreUnique() throws Exception {
+
+        Set<String> jtis = ConcurrentHashMap.newKeySet();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executorService = Executors.newFixedThreadPool(THREAD_COUNT);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < THREAD_COUNT; i++) {
+                futures.add(executorService.submit(() -> {
+                    start.await();
+                    for (int j = 0; j < JTIS_PER_THREAD; j++) {
+                        jtis.add(jtiGenerator.generate());
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        assertEquals(jtis.size(), THREAD_COUNT * JTIS_PER_THREAD);
+    }
+
+    @Test
+    public void testSecureRandomJtiIsVersion4Uuid() {
+
+        UUID uuid = UUID.fromString(new SecureRandomJtiGenerator().generate());
+
+        assertEquals(uuid.version(), 4);
+        assertEquals(uuid.variant(), 2);
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.identity.webhook.common.event.handler.internal.payload;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.event.publisher.api.model.EventPayload;
+import org.wso2.carbon.identity.event.publisher.api.model.SecurityEventTokenPayload;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Test class for CompactEventPayload and CompactPayloadPolicy.
+ */
+public class CompactEventPayloadTest {
+
+    private static final String EVENT_URI = "https://schemas.identity.wso2.org/events/login/event-type/loginSuccess";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void testNullAndEmptyFieldsAreOmitted() {
+
+        TestEventPayload eventPayload = new TestEventPayload("user-001", null, new ArrayList<>(),
+                new TestEventPayload("", "primary", Collections.emptyList(), null));
+
+        JsonNode payload = objectMapper.valueToTree(eventPayload);
+        assertTrue(payload.get("name").isNull());
+        assertEquals(payload.get("roles").size(), 0);
+
+        JsonNode compactPayload = objectMapper.valueToTree(CompactEventPayload.of(eventPayload));
+        assertEquals(compactPayload.get("id").asText(), "user-001");
+        assertFalse(compactPayload.has("name"));
+        assertFalse(compactPayload.has("roles"));
+        JsonNode parent = compactPayload.get("parent");
+        assertEquals(parent.get("name").asText(), "primary");
+        assertFalse(parent.has("id"));
+        assertFalse(parent.has("roles"));
+        assertFalse(parent.has("parent"));
+    }
+
+    @Test
+    public void testCompactPayloadIsWrittenInSecurityEventToken() {
+
+        TestEventPayload eventPayload = new TestEventPayload("user-001", null, Arrays.asList("admin", "auditor"),
+                null);
+        SecurityEventTokenPayload securityEventTokenPayload = SecurityEventTokenPayload.builder()
+                .iss("https://localhost:9443")
+                .iat(1700000000000L)
+                .jti("jti-001")
+                .events(Collections.singletonMap(EVENT_URI, CompactEventPayload.of(eventPayload)))
+                .build();
+
+        JsonNode payload = objectMapper.valueToTree(securityEventTokenPayload).get("events").get(EVENT_URI);
+        assertEquals(payload.get("id").asText(), "user-001");
+        assertEquals(payload.get("roles").size(), 2);
+        assertFalse(payload.has("name"));
+        assertFalse(payload.has("parent"));
+    }
+
+    @Test
+    public void testCompactPayloadIsNotWrappedTwice() {
+
+        CompactEventPayload compactEventPayload = CompactEventPayload.of(new TestEventPayload("user-001", null,
+                null, null));
+
+        assertSame(CompactEventPayload.of(compactEventPayload), compactEventPayload);
+    }
+
+    @Test
+    public void testCompactPayloadPolicy() {
+
+        assertFalse(CompactPayloadPolicy.of(false, null).isCompact("carbon.super"));
+        assertSame(CompactPayloadPolicy.of(false, Collections.emptyList()), CompactPayloadPolicy.DISABLED);
+
+        CompactPayloadPolicy tenantPolicy = CompactPayloadPolicy.of(false, Collections.singletonList("wso2.com"));
+        assertTrue(tenantPolicy.isCompact("wso2.com"));
+        assertFalse(tenantPolicy.isCompact("carbon.super"));
+        assertFalse(tenantPolicy.isCompact(null));
+
+        assertTrue(CompactPayloadPolicy.of(true, null).isCompact("carbon.super"));
+    }
+
+    /**
+     * Event payload with null and empty fields.
+     */
+    public static class TestEventPayload extends EventPayload {
+
+        private final String id;
+        private final String name;
+        private final List<String> roles;
+        private final TestEventPayload parent;
+
+        TestEventPayload(String id, String name, List<String> roles, TestEventPayload parent) {
+
+            this.id = id;
+            this.name = name;
+            this.roles = roles;
+            this.parent = parent;
+        }
+
+        public String getId() {
+
+            return id;
+        }
+
+        public String getName() {
+
+            return name;
+        }
+
+        public List<String> getRoles() {
+
+            return roles;
+        }
+
+        public TestEventPayload getParent() {
+
+            return parent;
+        }
+    }
+}
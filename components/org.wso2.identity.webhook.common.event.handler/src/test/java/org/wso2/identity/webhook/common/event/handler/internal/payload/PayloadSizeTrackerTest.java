@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.identity.webhook.common.event.handler.internal.payload;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.event.publisher.api.model.SecurityEventTokenPayload;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Test class for PayloadSizeTracker.
+ */
+public class PayloadSizeTrackerTest {
+
+    private static final String LOGIN_SUCCESS_EVENT =
+            "https://schemas.identity.wso2.org/events/login/event-type/loginSuccess";
+    private static final String TOKEN_ISSUED_EVENT =
+            "https://schemas.identity.wso2.org/events/token/event-type/accessTokenIssued";
+
+    private PayloadSizeTracker payloadSizeTracker;
+
+    @BeforeMethod
+    public void setUp() {
+
+        payloadSizeTracker = new PayloadSizeTracker();
+    }
+
+    @Test
+    public void testSizesAreTrackedPerEventUri() {
+
+        payloadSizeTracker.record(LOGIN_SUCCESS_EVENT, 300);
+        payloadSizeTracker.record(LOGIN_SUCCESS_EVENT, 500);
+        payloadSizeTracker.record(TOKEN_ISSUED_EVENT, 900);
+
+        PayloadSizeTracker.PayloadSizes loginSuccessSizes = payloadSizeTracker.getPayloadSizes(LOGIN_SUCCESS_EVENT);
+        assertEquals(loginSuccessSizes.getCount(), 2);
+        assertEquals(loginSuccessSizes.getTotalBytes(), 800);
+        assertEquals(loginSuccessSizes.getMeanBytes(), 400.0);
+        assertEquals(loginSuccessSizes.getMaxBytes(), 500);
+        assertEquals(payloadSizeTracker.getPayloadSizes(TOKEN_ISSUED_EVENT).getMaxBytes(), 900);
+        assertEquals(payloadSizeTracker.getPayloadSizes().size(), 2);
+
+        payloadSizeTracker.reset();
+        assertNull(payloadSizeTracker.getPayloadSizes(LOGIN_SUCCESS_EVENT));
+    }
+
+    @Test
+    public void testSerializedSizeOfTokenIsRecorded() throws Exception {
+
+        SecurityEventTokenPayload securityEventTokenPayload = SecurityEventTokenPayload.builder()
+                .iss("https://localhost:9443")
+                .iat(1700000000000L)
+                .jti("jti-001")
+                .events(Collections.emptyMap())
+                .build();
+        payloadSizeTracker.setSampleInterval(1);
+
+        payloadSizeTracker.record(LOGIN_SUCCESS_EVENT, securityEventTokenPayload);
+
+        PayloadSizeTracker.PayloadSizes payloadSizes = payloadSizeTracker.getPayloadSizes(LOGIN_SUCCESS_EVENT);
+        assertNotNull(payloadSizes);
+        assertEquals(payloadSizes.getCount(), 1);
+        assertEquals(payloadSizes.getMaxBytes(), new ObjectMapper().writeValueAsString(securityEventTokenPayload)
+                .getBytes(StandardCharsets.UTF_8).length);
+    }
+
+    @Test
+    public void testTokensAreNotMeasuredWhenDisabled() {
+
+        payloadSizeTracker.setSampleInterval(0);
+
+        payloadSizeTracker.record(LOGIN_SUCCESS_EVENT, SecurityEventTokenPayload.builder()
+                .jti("jti-001")
+                .events(Collections.emptyMap())
+                .build());
+
+        assertFalse(payloadSizeTracker.isEnabled());
+        assertTrue(payloadSizeTracker.getPayloadSizes().isEmpty());
+    }
+}
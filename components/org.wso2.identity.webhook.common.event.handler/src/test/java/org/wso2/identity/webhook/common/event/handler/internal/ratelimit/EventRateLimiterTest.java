@@ -0,0 +1,263 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.webhook.common.event.handler.internal.ratelimit;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.identity.webhook.common.event.handler.api.constants.Constants;
+import org.wso2.identity.webhook.common.event.handler.internal.routing.EventRoute;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Test class for EventRateLimiter.
+ */
+public class EventRateLimiterTest {
+
+    private static final String NOISY_TENANT_DOMAIN = "noisy.org";
+    private static final String QUIET_TENANT_DOMAIN = "quiet.org";
+
+    private EventRateLimiter eventRateLimiter;
+
+    @BeforeMethod
+    public void setUp() {
+
+        eventRateLimiter = new EventRateLimiter();
+    }
+
+    @Test
+    public void testAllEventsAdmittedWhenDisabled() {
+
+        List<EventRoute> eventRoutes = Collections.singletonList(getEventRoute(Constants.Event.TOKEN_ISSUED_EVENT));
+
+        assertFalse(eventRateLimiter.isEnabled());
+        assertSame(eventRateLimiter.admit(NOISY_TENANT_DOMAIN, eventRoutes, null), eventRoutes);
+        assertTrue(eventRateLimiter.tryAdmit(NOISY_TENANT_DOMAIN, Constants.Event.TOKEN_ISSUED_EVENT, null));
+    }
+
+    @Test
+    public void testRateLimitIsAppliedPerTenantAndEventUri() {
+
+        eventRateLimiter.configure(null, Collections.singletonMap(NOISY_TENANT_DOMAIN,
+                new RateLimitPolicy(1, 3, RateLimitPolicy.FULL_SAMPLING_PERCENTAGE)));
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(eventRateLimiter.tryAdmit(NOISY_TENANT_DOMAIN, Constants.Event.TOKEN_ISSUED_EVENT, null));
+        }
+        assertFalse(eventRateLimiter.tryAdmit(NOISY_TENANT_DOMAIN, Constants.Event.TOKEN_ISSUED_EVENT, null));
+        assertTrue(eventRateLimiter.tryAdmit(NOISY_TENANT_DOMAIN, Constants.Event.TOKEN_REVOKED_EVENT, null));
+        for (int i = 0; i < 10; i++) {
+            assertTrue(eventRateLimiter.tryAdmit(QUIET_TENANT_DOMAIN, Constants.Event.TOKEN_ISSUED_EVENT, null));
+        }
+
+        Map<String, EventRateLimiter.EventCounters> eventCounters =
+                eventRateLimiter.getEventCounters(NOISY_TENANT_DOMAIN);
+        assertEquals(eventCounters.get(Constants.Event.TOKEN_ISSUED_EVENT).getAdmittedCount(), 3);
+        assertEquals(eventCounters.get(Constants.Event.TOKEN_ISSUED_EVENT).getRateLimitedCount(), 1);
+        assertEquals(eventCounters.get(Constants.Event.TOKEN_ISSUED_EVENT).getSuppressedCount(), 1);
+        assertEquals(eventCounters.get(Constants.Event.TOKEN_REVOKED_EVENT).getAdmittedCount(), 1);
+        assertTrue(eventRateLimiter.getEventCounters(QUIET_TENANT_DOMAIN).isEmpty());
+    }
+
+    @Test
+    public void testSamplingIsDeterministic() {
+
+        eventRateLimiter.configure(new RateLimitPolicy(RateLimitPolicy.UNLIMITED, 1, 50), Collections.emptyMap());
+
+        int admittedCount = 0;
+        for (int i = 0; i < 1000; i++) {
+            String samplingKey = "correlation-id-" + i;
+            boolean admitted = eventRateLimiter.tryAdmit(NOISY_TENANT_DOMAIN, Constants.Event.TOKEN_ISSUED_EVENT,
+                    samplingKey);
+            assertEquals(eventRateLimiter.tryAdmit(QUIET_TENANT_DOMAIN, Constants.Event.SESSION_PRESENTED_EVENT,
+                    samplingKey), admitted);
+            if (admitted) {
+                admittedCount++;
+            }
+        }
+        assertTrue(admittedCount > 400 && admittedCount < 600, "Sampled " + admittedCount + " of 1000 events.");
+        assertEquals(eventRateLimiter.getEventCounters(NOISY_TENANT_DOMAIN).get(Constants.Event.TOKEN_ISSUED_EVENT)
+                .getSampledOutCount(), 1000 - admittedCount);
+    }
+
+    @Test
+    public void testSamplingWithoutSamplingKeyIsEvenlySpaced() {
+
+        eventRateLimiter.configure(new RateLimitPolicy(RateLimitPolicy.UNLIMITED, 1, 25), Collections.emptyMap());
+
+        int admittedCount = 0;
+        for (int i = 0; i < 100; i++) {
+            if (eventRateLimiter.tryAdmit(NOISY_TENANT_DOMAIN, Constants.Event.TOKEN_ISSUED_EVENT, null)) {
+                admittedCount++;
+            }
+        }
+        assertEquals(admittedCount, 25);
+    }
+
+    @Test
+    public void testZeroEventsPerSecondBlocksEvents() {
+
+        eventRateLimiter.configure(null, Collections.singletonMap(NOISY_TENANT_DOMAIN,
+                new RateLimitPolicy(0, 3, RateLimitPolicy.FULL_SAMPLING_PERCENTAGE)));
+
+        for (int i = 0; i < 3; i++) {
+            assertFalse(eventRateLimiter.tryAdmit(NOISY_TENANT_DOMAIN, Constants.Event.TOKEN_ISSUED_EVENT, null));
+        }
+        assertTrue(eventRateLimiter.tryAdmit(QUIET_TENANT_DOMAIN, Constants.Event.TOKEN_ISSUED_EVENT, null));
+        assertEquals(eventRateLimiter.getEventCounters(NOISY_TENANT_DOMAIN).get(Constants.Event.TOKEN_ISSUED_EVENT)
+                .getRateLimitedCount(), 3);
+    }
+
+    @Test
+    public void testZeroSamplingPercentageDropsEvents() {
+
+        eventRateLimiter.configure(new RateLimitPolicy(RateLimitPolicy.UNLIMITED, 1, 0), Collections.emptyMap());
+
+        for (int i = 0; i < 100; i++) {
+            assertFalse(eventRateLimiter.tryAdmit(NOISY_TENANT_DOMAIN, Constants.Event.TOKEN_ISSUED_EVENT,
+                    "correlation-id-" + i));
+            assertFalse(eventRateLimiter.tryAdmit(NOISY_TENANT_DOMAIN, Constants.Event.TOKEN_ISSUED_EVENT, null));
+        }
+        assertEquals(eventRateLimiter.getEventCounters(NOISY_TENANT_DOMAIN).get(Constants.Event.TOKEN_ISSUED_EVENT)
+                .getSampledOutCount(), 200);
+    }
+
+    @Test
+    public void testNumberOfStatesIsBounded() {
+
+        eventRateLimiter.configure(new RateLimitPolicy(1, 1, RateLimitPolicy.FULL_SAMPLING_PERCENTAGE),
+                Collections.emptyMap());
+
+        for (int i = 0; i < EventRateLimiter.MAX_STATES; i++) {
+            assertTrue(eventRateLimiter.tryAdmit("tenant-" + i, Constants.Event.TOKEN_ISSUED_EVENT, null));
+        }
+        assertEquals(eventRateLimiter.getStateCount(), EventRateLimiter.MAX_STATES);
+
+        assertTrue(eventRateLimiter.tryAdmit(QUIET_TENANT_DOMAIN, Constants.Event.TOKEN_ISSUED_EVENT, null));
+        assertTrue(eventRateLimiter.getStateCount() <= EventRateLimiter.MAX_STATES);
+        assertFalse(eventRateLimiter.tryAdmit(QUIET_TENANT_DOMAIN, Constants.Event.TOKEN_ISSUED_EVENT, null));
+    }
+
+    @Test
+    public void testAdmitFiltersSuppressedRoutes() {
+
+        eventRateLimiter.configure(null, Collections.singletonMap(NOISY_TENANT_DOMAIN,
+                new RateLimitPolicy(1, 1, RateLimitPolicy.FULL_SAMPLING_PERCENTAGE)));
+        EventRoute issuedRoute = getEventRoute(Constants.Event.TOKEN_ISSUED_EVENT);
+        EventRoute revokedRoute = getEventRoute(Constants.Event.TOKEN_REVOKED_EVENT);
+
+        assertTrue(eventRateLimiter.tryAdmit(NOISY_TENANT_DOMAIN, Constants.Event.TOKEN_ISSUED_EVENT, null));
+        List<EventRoute> admittedRoutes =
+                eventRateLimiter.admit(NOISY_TENANT_DOMAIN, Arrays.asList(issuedRoute, revokedRoute), null);
+
+        assertEquals(admittedRoutes, Collections.singletonList(revokedRoute));
+    }
+
+    @Test
+    public void testRevokedSessionEventSurvivesSaturatedLimiter() {
+
+        eventRateLimiter.configure(new RateLimitPolicy(1, 1, 10), Collections.singletonMap(NOISY_TENANT_DOMAIN,
+                new RateLimitPolicy(1, 1, 10)));
+        EventRoute issuedRoute = getEventRoute(Constants.Event.TOKEN_ISSUED_EVENT);
+        EventRoute revokedRoute = getEventRoute(Constants.Event.SESSION_REVOKED_EVENT);
+
+        int admittedIssuedCount = 0;
+        for (int i = 0; i < 1000; i++) {
+            List<EventRoute> admittedRoutes = eventRateLimiter.admit(NOISY_TENANT_DOMAIN,
+                    Arrays.asList(issuedRoute, revokedRoute), "correlation-id-" + i);
+            assertTrue(admittedRoutes.contains(revokedRoute), "Session revoked event " + i + " was suppressed.");
+            if (admittedRoutes.contains(issuedRoute)) {
+                admittedIssuedCount++;
+            }
+        }
+
+        assertTrue(admittedIssuedCount < 100, "Admitted " + admittedIssuedCount + " token issued events.");
+        Map<String, EventRateLimiter.EventCounters> eventCounters =
+                eventRateLimiter.getEventCounters(NOISY_TENANT_DOMAIN);
+        assertEquals(eventCounters.get(Constants.Event.SESSION_REVOKED_EVENT).getAdmittedCount(), 1000);
+        assertEquals(eventCounters.get(Constants.Event.SESSION_REVOKED_EVENT).getSuppressedCount(), 0);
+    }
+
+    @Test
+    public void testEventTypePolicyAppliesToSecurityCriticalEvent() {
+
+        String sessionRevokedEventType = EventRateLimiter.getEventType(Constants.Event.SESSION_REVOKED_EVENT);
+        eventRateLimiter.configure(new RateLimitPolicy(1, 1, RateLimitPolicy.FULL_SAMPLING_PERCENTAGE),
+                Collections.emptyMap(), Collections.singletonMap(sessionRevokedEventType,
+                        new RateLimitPolicy(1, 2, RateLimitPolicy.FULL_SAMPLING_PERCENTAGE)),
+                Collections.emptyMap());
+
+        assertTrue(eventRateLimiter.tryAdmit(NOISY_TENANT_DOMAIN, Constants.Event.SESSION_REVOKED_EVENT, null));
+        assertTrue(eventRateLimiter.tryAdmit(NOISY_TENANT_DOMAIN, Constants.Event.SESSION_REVOKED_EVENT, null));
+        assertFalse(eventRateLimiter.tryAdmit(NOISY_TENANT_DOMAIN, Constants.Event.SESSION_REVOKED_EVENT, null));
+        // Other security critical events are still exempt from the default policy.
+        for (int i = 0; i < 10; i++) {
+            assertTrue(eventRateLimiter.tryAdmit(NOISY_TENANT_DOMAIN, Constants.Event.TOKEN_REVOKED_EVENT, null));
+        }
+    }
+
+    @Test
+    public void testTenantEventTypePolicyTakesPrecedence() {
+
+        String tokenIssuedEventType = EventRateLimiter.getEventType(Constants.Event.TOKEN_ISSUED_EVENT);
+        eventRateLimiter.configure(null, Collections.emptyMap(), Collections.singletonMap(tokenIssuedEventType,
+                        new RateLimitPolicy(1, 1, RateLimitPolicy.FULL_SAMPLING_PERCENTAGE)),
+                Collections.singletonMap(QUIET_TENANT_DOMAIN, Collections.singletonMap(tokenIssuedEventType,
+                        new RateLimitPolicy(1, 3, RateLimitPolicy.FULL_SAMPLING_PERCENTAGE))));
+
+        assertTrue(eventRateLimiter.tryAdmit(NOISY_TENANT_DOMAIN, Constants.Event.TOKEN_ISSUED_EVENT, null));
+        assertFalse(eventRateLimiter.tryAdmit(NOISY_TENANT_DOMAIN, Constants.Event.TOKEN_ISSUED_EVENT, null));
+        for (int i = 0; i < 3; i++) {
+            assertTrue(eventRateLimiter.tryAdmit(QUIET_TENANT_DOMAIN, Constants.Event.TOKEN_ISSUED_EVENT, null));
+        }
+        assertFalse(eventRateLimiter.tryAdmit(QUIET_TENANT_DOMAIN, Constants.Event.TOKEN_ISSUED_EVENT, null));
+        assertTrue(eventRateLimiter.tryAdmit(NOISY_TENANT_DOMAIN, Constants.Event.LOGIN_SUCCESS_EVENT, null));
+    }
+
+    @Test
+    public void testDisableDiscardsPolicies() {
+
+        eventRateLimiter.configure(new RateLimitPolicy(1, 1, RateLimitPolicy.FULL_SAMPLING_PERCENTAGE),
+                Collections.emptyMap());
+        assertTrue(eventRateLimiter.tryAdmit(NOISY_TENANT_DOMAIN, Constants.Event.TOKEN_ISSUED_EVENT, null));
+        assertFalse(eventRateLimiter.tryAdmit(NOISY_TENANT_DOMAIN, Constants.Event.TOKEN_ISSUED_EVENT, null));
+
+        eventRateLimiter.disable();
+
+        assertTrue(eventRateLimiter.tryAdmit(NOISY_TENANT_DOMAIN, Constants.Event.TOKEN_ISSUED_EVENT, null));
+        assertTrue(eventRateLimiter.getEventCounters(NOISY_TENANT_DOMAIN).isEmpty());
+    }
+
+    private EventRoute getEventRoute(String eventUri) {
+
+        EventRoute eventRoute = mock(EventRoute.class);
+        when(eventRoute.getEventUri()).thenReturn(eventUri);
+        return eventRoute;
+    }
+}
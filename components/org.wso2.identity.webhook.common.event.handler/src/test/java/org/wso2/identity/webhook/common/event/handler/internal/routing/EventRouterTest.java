@@ -0,0 +1,329 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.webhook.common.event.handler.internal.routing;
+
+import org.mockito.Mockito;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.event.IdentityEventConstants;
+import org.wso2.carbon.identity.event.publisher.api.model.EventContext;
+import org.wso2.carbon.identity.event.publisher.api.service.EventPublisherService;
+import org.wso2.carbon.identity.webhook.metadata.api.exception.WebhookMetadataException;
+import org.wso2.carbon.identity.webhook.metadata.api.model.Channel;
+import org.wso2.carbon.identity.webhook.metadata.api.model.Event;
+import org.wso2.carbon.identity.webhook.metadata.api.model.EventProfile;
+import org.wso2.carbon.identity.webhook.metadata.api.service.WebhookMetadataService;
+import org.wso2.identity.webhook.common.event.handler.api.builder.LoginEventPayloadBuilder;
+import org.wso2.identity.webhook.common.event.handler.api.builder.SessionEventPayloadBuilder;
+import org.wso2.identity.webhook.common.event.handler.api.constants.Constants;
+import org.wso2.identity.webhook.common.event.handler.api.model.EventMetadata;
+import org.wso2.identity.webhook.common.event.handler.api.service.EventProfileManager;
+import org.wso2.identity.webhook.common.event.handler.internal.cache.SubscriptionIndex;
+import org.wso2.identity.webhook.common.event.handler.internal.component.EventHookHandlerDataHolder;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Test class for EventRouter.
+ */
+public class EventRouterTest {
+
+    private static final String LOGIN_EVENT = "AUTHENTICATION_SUCCESS";
+    private static final String UNKNOWN_EVENT = "UNKNOWN_EVENT";
+    private static final String TENANT_DOMAIN = "wso2.com";
+    private static final String LOGIN_CHANNEL_URI = "https://schemas.identity.wso2.org/events/login";
+    private static final String LOGIN_SUCCESS_EVENT_URI =
+            "https://schemas.identity.wso2.org/events/login/event-type/loginSuccess";
+
+    private WebhookMetadataService mockedWebhookMetadataService;
+    private WebhookMetadataService originalWebhookMetadataService;
+    private EventProfileManager mockedEventProfileManager;
+    private LoginEventPayloadBuilder mockedLoginEventPayloadBuilder;
+    private SessionEventPayloadBuilder mockedSessionEventPayloadBuilder;
+
+    @BeforeClass
+    public void setup() {
+
+        EventHookHandlerDataHolder dataHolder = EventHookHandlerDataHolder.getInstance();
+        originalWebhookMetadataService = dataHolder.getWebhookMetadataService();
+        mockedWebhookMetadataService = mock(WebhookMetadataService.class);
+        mockedEventProfileManager = mock(EventProfileManager.class);
+        mockedLoginEventPayloadBuilder = mock(LoginEventPayloadBuilder.class);
+        mockedSessionEventPayloadBuilder = mock(SessionEventPayloadBuilder.class);
+        when(mockedLoginEventPayloadBuilder.getEventSchemaType()).thenReturn(Constants.EventSchema.WSO2);
+        when(mockedSessionEventPayloadBuilder.getEventSchemaType()).thenReturn(Constants.EventSchema.CAEP);
+
+        dataHolder.setWebhookMetadataService(mockedWebhookMetadataService);
+        dataHolder.addEventProfileManager(mockedEventProfileManager);
+        dataHolder.addLoginEventPayloadBuilder(mockedLoginEventPayloadBuilder);
+        dataHolder.addSessionEventPayloadBuilder(mockedSessionEventPayloadBuilder);
+    }
+
+    @AfterClass
+    public void tearDown() {
+
+        EventHookHandlerDataHolder dataHolder = EventHookHandlerDataHolder.getInstance();
+        dataHolder.removeEventProfileManager(mockedEventProfileManager);
+        dataHolder.removeLoginEventPayloadBuilder(mockedLoginEventPayloadBuilder);
+        dataHolder.removeSessionEventPayloadBuilder(mockedSessionEventPayloadBuilder);
+        dataHolder.setWebhookMetadataService(originalWebhookMetadataService);
+    }
+
+    @AfterMethod
+    public void tearDownMethod() {
+
+        Mockito.reset(mockedWebhookMetadataService, mockedEventProfileManager);
+        EventRouter.getInstance().invalidate();
+    }
+
+    @Test
+    public void testGetRoutes() throws Exception {
+
+        when(mockedWebhookMetadataService.getSupportedEventProfiles()).thenReturn(getEventProfiles());
+        when(mockedEventProfileManager.resolveEventMetadata(LOGIN_EVENT)).thenReturn(getLoginEventMetadata());
+
+        List<EventRoute> routes = EventRouter.getInstance().getRoutes(LOGIN_EVENT);
+
+        assertEquals(routes.size(), 1);
+        EventRoute route = routes.get(0);
+        assertEquals(route.getEventProfileName(), Constants.EventSchema.WSO2.name());
+        assertEquals(route.getEventSchema(), Constants.EventSchema.WSO2);
+        assertEquals(route.getChannel().getUri(), LOGIN_CHANNEL_URI);
+        assertEquals(route.getEventUri(), LOGIN_SUCCESS_EVENT_URI);
+        assertEquals(route.getEventMetadata().getChannel(), LOGIN_CHANNEL_URI);
+        assertEquals(route.getEventMetadata().getEvent(), LOGIN_SUCCESS_EVENT_URI);
+        assertSame(route.getPayloadBuilder(LoginEventPayloadBuilder.class), mockedLoginEventPayloadBuilder);
+        assertNull(route.getPayloadBuilder(SessionEventPayloadBuilder.class));
+    }
+
+    @Test
+    public void testGetRoutesIsCompiledOnce() throws Exception {
+
+        when(mockedWebhookMetadataService.getSupportedEventProfiles()).thenReturn(getEventProfiles());
+        when(mockedEventProfileManager.resolveEventMetadata(LOGIN_EVENT)).thenReturn(getLoginEventMetadata());
+
+        List<EventRoute> firstRoutes = EventRouter.getInstance().getRoutes(LOGIN_EVENT);
+        List<EventRoute> secondRoutes = EventRouter.getInstance().getRoutes(LOGIN_EVENT);
+
+        assertSame(secondRoutes, firstRoutes);
+        verify(mockedWebhookMetadataService, times(1)).getSupportedEventProfiles();
+        // Resolved once per supported profile.
+        verify(mockedEventProfileManager, times(2)).resolveEventMetadata(LOGIN_EVENT);
+    }
+
+    @Test
+    public void testInvalidateRecompilesRoutes() throws Exception {
+
+        when(mockedWebhookMetadataService.getSupportedEventProfiles()).thenReturn(getEventProfiles());
+        when(mockedEventProfileManager.resolveEventMetadata(LOGIN_EVENT)).thenReturn(getLoginEventMetadata());
+        assertEquals(EventRouter.getInstance().getRoutes(LOGIN_EVENT).size(), 1);
+
+        when(mockedWebhookMetadataService.getSupportedEventProfiles()).thenReturn(Collections.emptyList());
+        EventRouter.getInstance().invalidate();
+
+        assertTrue(EventRouter.getInstance().getRoutes(LOGIN_EVENT).isEmpty());
+        verify(mockedWebhookMetadataService, times(2)).getSupportedEventProfiles();
+    }
+
+    @Test
+    public void testBindingPayloadBuilderInvalidatesRoutes() throws Exception {
+
+        when(mockedWebhookMetadataService.getSupportedEventProfiles()).thenReturn(getEventProfiles());
+        when(mockedEventProfileManager.resolveEventMetadata(LOGIN_EVENT)).thenReturn(getLoginEventMetadata());
+        EventHookHandlerDataHolder dataHolder = EventHookHandlerDataHolder.getInstance();
+
+        dataHolder.removeLoginEventPayloadBuilder(mockedLoginEventPayloadBuilder);
+        try {
+            assertNull(EventRouter.getInstance().getRoutes(LOGIN_EVENT).get(0)
+                    .getPayloadBuilder(LoginEventPayloadBuilder.class));
+        } finally {
+            dataHolder.addLoginEventPayloadBuilder(mockedLoginEventPayloadBuilder);
+        }
+        assertSame(EventRouter.getInstance().getRoutes(LOGIN_EVENT).get(0)
+                .getPayloadBuilder(LoginEventPayloadBuilder.class), mockedLoginEventPayloadBuilder);
+    }
+
+    @Test
+    public void testNewlySubscribedTenantReceivesNextEvent() throws Exception {
+
+        when(mockedWebhookMetadataService.getSupportedEventProfiles()).thenReturn(getEventProfiles());
+        when(mockedEventProfileManager.resolveEventMetadata(LOGIN_EVENT)).thenReturn(getLoginEventMetadata());
+        EventRouter eventRouter = EventRouter.getInstance();
+        EventRoute route = eventRouter.getRoutes(LOGIN_EVENT, TENANT_DOMAIN).get(0);
+
+        // The tenant has no subscriber when the first event is published, and subscribes before the next one.
+        eventRouter.recordSubscription(TENANT_DOMAIN, route, false);
+
+        List<EventRoute> routes = eventRouter.getRoutes(LOGIN_EVENT, TENANT_DOMAIN);
+        assertEquals(routes.size(), 1);
+        assertSame(routes.get(0), route);
+    }
+
+    @Test
+    public void testEnabledSubscriptionIndexSkipsUnsubscribedChannel() throws Exception {
+
+        when(mockedWebhookMetadataService.getSupportedEventProfiles()).thenReturn(getEventProfiles());
+        when(mockedEventProfileManager.resolveEventMetadata(LOGIN_EVENT)).thenReturn(getLoginEventMetadata());
+        EventRouter eventRouter = EventRouter.getInstance();
+        SubscriptionIndex subscriptionIndex = EventHookHandlerDataHolder.getInstance().getSubscriptionIndex();
+        subscriptionIndex.setEnabled(true);
+        try {
+            EventRoute route = eventRouter.getRoutes(LOGIN_EVENT, TENANT_DOMAIN).get(0);
+            eventRouter.recordSubscription(TENANT_DOMAIN, route, false);
+            assertTrue(eventRouter.getRoutes(LOGIN_EVENT, TENANT_DOMAIN).isEmpty());
+
+            subscriptionIndex.invalidate(TENANT_DOMAIN);
+            assertEquals(eventRouter.getRoutes(LOGIN_EVENT, TENANT_DOMAIN).size(), 1);
+        } finally {
+            subscriptionIndex.setEnabled(false);
+        }
+    }
+
+    @Test
+    public void testSubscriptionIsRecordedUnderTenantOfEvent() throws Exception {
+
+        when(mockedWebhookMetadataService.getSupportedEventProfiles()).thenReturn(getEventProfiles());
+        when(mockedEventProfileManager.resolveEventMetadata(LOGIN_EVENT)).thenReturn(getLoginEventMetadata());
+        EventHookHandlerDataHolder dataHolder = EventHookHandlerDataHolder.getInstance();
+        EventPublisherService originalEventPublisherService = dataHolder.getEventPublisherService();
+        EventPublisherService mockedEventPublisherService = mock(EventPublisherService.class);
+        when(mockedEventPublisherService.canHandleEvent(any(EventContext.class))).thenReturn(false);
+        dataHolder.setEventPublisherService(mockedEventPublisherService);
+        SubscriptionIndex subscriptionIndex = dataHolder.getSubscriptionIndex();
+        subscriptionIndex.setEnabled(true);
+        try {
+            EventRouter eventRouter = EventRouter.getInstance();
+            org.wso2.carbon.identity.event.event.Event event = getLoginEvent();
+            EventRoute route = eventRouter.getRoutes(event).get(0);
+
+            // A result for another tenant than the one the routes of the event are looked up with is not recorded.
+            assertFalse(eventRouter.canHandleEvent(event, route, getEventContext("other.com")));
+            assertEquals(eventRouter.getRoutes(event).size(), 1);
+
+            assertFalse(eventRouter.canHandleEvent(event, route, getEventContext(TENANT_DOMAIN)));
+            assertTrue(eventRouter.getRoutes(event).isEmpty());
+            assertTrue(eventRouter.getSubscribedRoutes(event, Collections.singletonList(route)).isEmpty());
+            assertTrue(eventRouter.getRoutes(LOGIN_EVENT, TENANT_DOMAIN).isEmpty());
+        } finally {
+            subscriptionIndex.setEnabled(false);
+            dataHolder.setEventPublisherService(originalEventPublisherService);
+        }
+    }
+
+    @Test
+    public void testGetRoutesForUnresolvedEvent() throws Exception {
+
+        when(mockedWebhookMetadataService.getSupportedEventProfiles()).thenReturn(getEventProfiles());
+        when(mockedEventProfileManager.resolveEventMetadata(anyString())).thenReturn(null);
+
+        assertTrue(EventRouter.getInstance().getRoutes(UNKNOWN_EVENT).isEmpty());
+    }
+
+    @Test
+    public void testGetRoutesForUndefinedChannel() throws Exception {
+
+        when(mockedWebhookMetadataService.getSupportedEventProfiles()).thenReturn(getEventProfiles());
+        when(mockedEventProfileManager.resolveEventMetadata(LOGIN_EVENT)).thenReturn(EventMetadata.builder()
+                .eventProfile(Constants.EventSchema.WSO2.name())
+                .channel("https://schemas.identity.wso2.org/events/undefined")
+                .event(LOGIN_SUCCESS_EVENT_URI)
+                .build());
+
+        assertTrue(EventRouter.getInstance().getRoutes(LOGIN_EVENT).isEmpty());
+    }
+
+    @Test
+    public void testGetRoutesWhenProfilesCannotBeRetrieved() throws Exception {
+
+        when(mockedWebhookMetadataService.getSupportedEventProfiles()).thenThrow(WebhookMetadataException.class);
+
+        assertTrue(EventRouter.getInstance().getRoutes(LOGIN_EVENT).isEmpty());
+    }
+
+    @Test
+    public void testGetRoute() throws Exception {
+
+        when(mockedWebhookMetadataService.getSupportedEventProfiles()).thenReturn(getEventProfiles());
+
+        EventRoute route = EventRouter.getInstance()
+                .getRoute(Constants.EventSchema.WSO2.name(), getLoginEventMetadata());
+
+        assertNotNull(route);
+        assertEquals(route.getEventUri(), LOGIN_SUCCESS_EVENT_URI);
+        assertNull(EventRouter.getInstance().getRoute(Constants.EventSchema.RISC.name(), getLoginEventMetadata()));
+        assertNull(EventRouter.getInstance().getRoute(Constants.EventSchema.WSO2.name(), null));
+    }
+
+    private List<EventProfile> getEventProfiles() {
+
+        Channel loginChannel = new Channel("Login Channel", "Login Channel", LOGIN_CHANNEL_URI,
+                Collections.singletonList(new Event("Login Success", "description", LOGIN_SUCCESS_EVENT_URI)));
+        Channel sessionChannel = new Channel("Session Channel", "Session Channel",
+                "https://schemas.openid.net/secevent/caep/event-type/session", Collections.emptyList());
+        return Arrays.asList(
+                new EventProfile(Constants.EventSchema.WSO2.name(), "uri", Collections.singletonList(loginChannel)),
+                new EventProfile(Constants.EventSchema.CAEP.name(), "uri", Collections.singletonList(sessionChannel)),
+                new EventProfile("UNKNOWN", "uri", Collections.singletonList(loginChannel)));
+    }
+
+    private org.wso2.carbon.identity.event.event.Event getLoginEvent() {
+
+        Map<String, Object> properties = new HashMap<>();
+        properties.put(IdentityEventConstants.EventProperty.TENANT_DOMAIN, TENANT_DOMAIN);
+        return new org.wso2.carbon.identity.event.event.Event(LOGIN_EVENT, properties);
+    }
+
+    private EventContext getEventContext(String tenantDomain) {
+
+        return EventContext.builder()
+                .tenantDomain(tenantDomain)
+                .eventUri(LOGIN_CHANNEL_URI)
+                .eventProfileName(Constants.EventSchema.WSO2.name())
+                .eventProfileVersion("v1")
+                .build();
+    }
+
+    private EventMetadata getLoginEventMetadata() {
+
+        return EventMetadata.builder()
+                .eventProfile(Constants.EventSchema.WSO2.name())
+                .channel(LOGIN_CHANNEL_URI)
+                .event(LOGIN_SUCCESS_EVENT_URI)
+                .build();
+    }
+}
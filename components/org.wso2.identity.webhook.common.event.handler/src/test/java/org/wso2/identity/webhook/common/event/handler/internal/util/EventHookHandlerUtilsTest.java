@@ -41,6 +41,7 @@ import org.wso2.carbon.identity.event.publisher.api.model.common.ComplexSubject;
 import org.wso2.carbon.identity.event.publisher.api.model.common.SimpleSubject;
 import org.wso2.carbon.identity.event.publisher.api.model.common.Subject;
 import org.wso2.carbon.identity.event.publisher.api.service.EventPublisherService;
+import org.wso2.identity.webhook.common.event.handler.api.model.EventContextSnapshot;
 import org.wso2.identity.webhook.common.event.handler.api.model.EventData;
 import org.wso2.identity.webhook.common.event.handler.internal.constant.Constants;
 import org.wso2.identity.webhook.common.event.handler.util.TestUtils;
@@ -53,10 +54,15 @@ import javax.servlet.http.HttpServletRequest;
 
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
 import static org.testng.Assert.assertTrue;
 import static org.wso2.identity.webhook.common.event.handler.util.TestUtils.closeMockedIdentityTenantUtil;
 import static org.wso2.identity.webhook.common.event.handler.util.TestUtils.closeMockedServiceURLBuilder;
@@ -146,6 +152,22 @@ public class EventHookHandlerUtilsTest {
         EventHookHandlerUtils.buildSecurityEventToken(payload, null);
     }
 
+    @Test
+    public void testConstructBaseURLFromEventContextSnapshot() {
+
+        TestUtils.mockServiceURLBuilder();
+        EventContextSnapshot eventContextSnapshot = EventContextSnapshot.builder()
+                .rootTenantId(100)
+                .rootTenantDomain(SAMPLE_TENANT_DOMAIN)
+                .build();
+
+        assertEquals(EventHookHandlerUtils.constructBaseURL(eventContextSnapshot), "https://localhost:9443",
+                "Base URL should be constructed from the snapshot without the thread local identity context.");
+        assertNull(EventHookHandlerUtils.constructBaseURL(EventContextSnapshot.builder().build()),
+                "Base URL should not be constructed without a root tenant domain.");
+        closeMockedServiceURLBuilder();
+    }
+
     @Test
     public void testConstructBaseURLSuccess() {
 
@@ -201,6 +223,37 @@ public class EventHookHandlerUtilsTest {
 
     }
 
+    @Test
+    public void testBuildEventDataProviderResolvesLazily() throws Exception {
+
+        Map<String, Object> properties = new HashMap<>();
+        Map<String, Object> eventParams = new HashMap<>();
+        eventParams.put(Constants.EventDataProperties.USER, mockedAuthenticatedUser);
+        eventParams.put(Constants.EventDataProperties.SESSION_ID, "SessionID");
+        properties.put(Constants.EventDataProperties.CONTEXT, mockedAuthenticationContext);
+        properties.put(Constants.EventDataProperties.PARAMS, eventParams);
+        when(mockedAuthenticatedUser.getUserId()).thenReturn("user-id");
+        when(mockedAuthenticationContext.getLoginTenantDomain()).thenReturn(SAMPLE_TENANT_DOMAIN);
+        Event event = new Event(IdentityEventConstants.EventName.AUTHENTICATION_SUCCESS.name(), properties);
+
+        EventData eventData = EventHookHandlerUtils.buildEventDataProvider(event);
+
+        verify(mockedAuthenticatedUser, never()).getUserId();
+        verify(mockedAuthenticationContext, never()).getLoginTenantDomain();
+        verify(mockedAuthenticationContext, never()).getCurrentAuthenticatedIdPs();
+
+        assertEquals(eventData.getUserId(), "user-id");
+        assertEquals(eventData.getUserId(), "user-id");
+        assertEquals(eventData.getTenantDomain(), SAMPLE_TENANT_DOMAIN);
+        assertEquals(eventData.getTenantDomain(), SAMPLE_TENANT_DOMAIN);
+        assertFalse(eventData.isB2BUserLogin());
+        assertEquals(eventData.getSessionId(), "SessionID");
+        assertEquals(EventHookHandlerUtils.extractSessionId(eventData), "SessionID");
+
+        verify(mockedAuthenticatedUser, times(1)).getUserId();
+        verify(mockedAuthenticationContext, times(1)).getParameters();
+    }
+
     @Test
     public void testGetCorrelationIDWithExistingCorrelationID() {
 
@@ -281,6 +334,28 @@ public class EventHookHandlerUtilsTest {
         });
     }
 
+    @Test
+    public void testExtractSubjectFromEventDataIsResolvedOncePerEvent() throws IdentityEventException,
+            UserIdNotFoundException {
+
+        when(mockedAuthenticatedUser.getUserId()).thenReturn("user-id-123");
+        when(mockedAuthenticatedUser.getTenantDomain()).thenReturn(SAMPLE_TENANT_DOMAIN);
+        EventData eventData = EventData.builder()
+                .authenticatedUser(mockedAuthenticatedUser)
+                .sessionId("session-id-123")
+                .build();
+        mockIdentityTenantUtil();
+
+        Subject subject = EventHookHandlerUtils.extractSubjectFromEventData(eventData);
+        Subject subjectOfOtherProfile = EventHookHandlerUtils.extractSubjectFromEventData(eventData);
+
+        closeMockedIdentityTenantUtil();
+
+        assertNotNull(subject, "Subject should not be null");
+        assertSame(subjectOfOtherProfile, subject, "Subject should be resolved once per event");
+        verify(mockedAuthenticatedUser, times(1)).getUserId();
+    }
+
     @Test
     public void testBuildVerificationSubject() throws IdentityEventException {
 
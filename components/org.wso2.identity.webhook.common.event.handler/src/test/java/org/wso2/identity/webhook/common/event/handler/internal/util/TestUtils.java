@@ -22,6 +22,7 @@ import org.mockito.MockedStatic;
 import org.wso2.carbon.identity.core.ServiceURL;
 import org.wso2.carbon.identity.core.ServiceURLBuilder;
 import org.wso2.carbon.identity.core.util.IdentityTenantUtil;
+import org.wso2.identity.webhook.common.event.handler.api.util.ServiceURLCache;
 
 import java.util.Arrays;
 
@@ -86,6 +87,8 @@ public class TestUtils {
 
         mockedStaticServiceURLBuilder = mockStatic(ServiceURLBuilder.class);
         when(ServiceURLBuilder.create()).thenReturn(builder);
+        // Drop the URLs built with a previous mock.
+        ServiceURLCache.getInstance().invalidate();
     }
 
     public static void closeMockedServiceURLBuilder() {
@@ -20,13 +20,13 @@ package org.wso2.identity.webhook.wso2.event.handler.api.builder;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
-import org.wso2.carbon.identity.core.context.IdentityContext;
 import org.wso2.carbon.identity.core.context.model.Flow;
 import org.wso2.carbon.identity.event.IdentityEventConstants;
 import org.wso2.carbon.identity.event.IdentityEventException;
 import org.wso2.carbon.identity.event.publisher.api.model.EventPayload;
 import org.wso2.identity.webhook.common.event.handler.api.builder.CredentialEventPayloadBuilder;
 import org.wso2.identity.webhook.common.event.handler.api.constants.Constants;
+import org.wso2.identity.webhook.common.event.handler.api.model.EventContextSnapshot;
 import org.wso2.identity.webhook.common.event.handler.api.model.EventData;
 import org.wso2.identity.webhook.wso2.event.handler.internal.model.WSO2UserCredentialUpdateEventPayload;
 import org.wso2.identity.webhook.wso2.event.handler.internal.model.common.Organization;
@@ -44,22 +44,20 @@ public class WSO2CredentialEventPayloadBuilder implements CredentialEventPayload
     @Override
     public EventPayload buildCredentialUpdateEvent(EventData eventData) throws IdentityEventException {
 
+        EventContextSnapshot eventContext = WSO2PayloadUtils.getEventContextSnapshot(eventData);
         Map<String, Object> properties = eventData.getEventParams();
-        String rootTenantId = String.valueOf(
-                IdentityContext.getThreadLocalIdentityContext().getRootOrganization().getAssociatedTenantId());
-        String rootTenantDomain = String.valueOf(
-                IdentityContext.getThreadLocalIdentityContext().getRootOrganization().getAssociatedTenantDomain());
-        String accessedTenantDomain = String.valueOf(
-                IdentityContext.getThreadLocalIdentityContext().getOrganization().getOrganizationHandle());
+        String rootTenantId = String.valueOf(eventContext.getRootTenantId());
+        String rootTenantDomain = String.valueOf(eventContext.getRootTenantDomain());
+        String accessedTenantDomain = String.valueOf(eventContext.getOrganizationHandle());
         String userName = String.valueOf(properties.get(IdentityEventConstants.EventProperty.USER_NAME));
         String userStoreDomain = String.valueOf(properties.get(IdentityEventConstants.EventProperty.USER_STORE_DOMAIN));
 
         User user = WSO2PayloadUtils.buildUser(userStoreDomain, userName, accessedTenantDomain);
 
-        Tenant tenant = new Tenant(rootTenantId, rootTenantDomain);
-        UserStore userStore = new UserStore(userStoreDomain);
+        Tenant tenant = WSO2PayloadUtils.buildTenant(rootTenantId, rootTenantDomain);
+        UserStore userStore = WSO2PayloadUtils.buildUserStore(userStoreDomain);
 
-        Flow flow = IdentityContext.getThreadLocalIdentityContext().getCurrentFlow();
+        Flow flow = eventContext.getFlow();
         String action = null;
         String initiatorType = null;
         String credentialType = null;
@@ -72,8 +70,7 @@ public class WSO2CredentialEventPayloadBuilder implements CredentialEventPayload
                 credentialType = flow.getCredentialType().name();
             }
         }
-        Organization organization = WSO2PayloadUtils.buildOrganizationFromIdentityContext(
-                IdentityContext.getThreadLocalIdentityContext());
+        Organization organization = WSO2PayloadUtils.buildOrganization(eventContext);
         user.setOrganization(organization);
 
         return new WSO2UserCredentialUpdateEventPayload.Builder()
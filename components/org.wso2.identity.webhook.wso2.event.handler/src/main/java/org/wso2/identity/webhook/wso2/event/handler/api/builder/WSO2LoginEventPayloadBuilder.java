@@ -22,10 +22,10 @@ import org.wso2.carbon.identity.application.authentication.framework.context.Aut
 import org.wso2.carbon.identity.application.authentication.framework.context.AuthenticationContext;
 import org.wso2.carbon.identity.application.authentication.framework.model.AuthenticatedUser;
 import org.wso2.carbon.identity.application.authentication.framework.util.FrameworkConstants;
-import org.wso2.carbon.identity.core.context.IdentityContext;
 import org.wso2.carbon.identity.event.IdentityEventException;
 import org.wso2.carbon.identity.event.publisher.api.model.EventPayload;
 import org.wso2.identity.webhook.common.event.handler.api.builder.LoginEventPayloadBuilder;
+import org.wso2.identity.webhook.common.event.handler.api.model.EventContextSnapshot;
 import org.wso2.identity.webhook.common.event.handler.api.model.EventData;
 import org.wso2.identity.webhook.wso2.event.handler.internal.constant.Constants;
 import org.wso2.identity.webhook.wso2.event.handler.internal.model.WSO2AuthenticationFailedEventPayload;
@@ -56,6 +56,7 @@ public class WSO2LoginEventPayloadBuilder implements LoginEventPayloadBuilder {
     @Override
     public EventPayload buildAuthenticationSuccessEvent(EventData eventData) throws IdentityEventException {
 
+        EventContextSnapshot eventContext = WSO2PayloadUtils.getEventContextSnapshot(eventData);
         AuthenticationContext authenticationContext = eventData.getAuthenticationContext();
         AuthenticatedUser authenticatedUser = eventData.getAuthenticatedUser();
 
@@ -67,18 +68,15 @@ public class WSO2LoginEventPayloadBuilder implements LoginEventPayloadBuilder {
         WSO2PayloadUtils.populateUserClaims(user, authenticatedUser, eventData.getTenantDomain());
         WSO2PayloadUtils.populateUserIdAndRef(user, authenticatedUser);
 
-        String rootTenantId = String.valueOf(
-                IdentityContext.getThreadLocalIdentityContext().getRootOrganization().getAssociatedTenantId());
-        String rootTenantDomain = String.valueOf(
-                IdentityContext.getThreadLocalIdentityContext().getRootOrganization().getAssociatedTenantDomain());
+        String rootTenantId = String.valueOf(eventContext.getRootTenantId());
+        String rootTenantDomain = String.valueOf(eventContext.getRootTenantDomain());
 
-        Tenant tenant = new Tenant(rootTenantId, rootTenantDomain);
+        Tenant tenant = WSO2PayloadUtils.buildTenant(rootTenantId, rootTenantDomain);
         UserStore userStore = null;
         if (authenticatedUser.getUserStoreDomain() != null) {
-            userStore = new UserStore(authenticatedUser.getUserStoreDomain());
+            userStore = WSO2PayloadUtils.buildUserStore(authenticatedUser.getUserStoreDomain());
         }
-        Organization organization = WSO2PayloadUtils.buildOrganizationFromIdentityContext(
-                IdentityContext.getThreadLocalIdentityContext());
+        Organization organization = WSO2PayloadUtils.buildOrganization(eventContext);
         user.setOrganization(organization);
         Application application = new Application.Builder()
                 .id(authenticationContext.getServiceProviderResourceId())
@@ -97,6 +95,7 @@ public class WSO2LoginEventPayloadBuilder implements LoginEventPayloadBuilder {
     @Override
     public EventPayload buildAuthenticationFailedEvent(EventData eventData) throws IdentityEventException {
 
+        EventContextSnapshot eventContext = WSO2PayloadUtils.getEventContextSnapshot(eventData);
         AuthenticationContext authenticationContext = eventData.getAuthenticationContext();
         AuthenticatedUser authenticatedUser = authenticationContext.getSubject();
 
@@ -105,7 +104,7 @@ public class WSO2LoginEventPayloadBuilder implements LoginEventPayloadBuilder {
 
         if (authenticatedUser != null) {
             if (authenticatedUser.getUserStoreDomain() != null) {
-                userStore = new UserStore(authenticatedUser.getUserStoreDomain());
+                userStore = WSO2PayloadUtils.buildUserStore(authenticatedUser.getUserStoreDomain());
             }
             WSO2PayloadUtils.populateUserIdAndRef(user, authenticatedUser);
         }
@@ -124,18 +123,15 @@ public class WSO2LoginEventPayloadBuilder implements LoginEventPayloadBuilder {
                 usernameClaimOptional.ifPresent(user::addClaim);
             }
         }
-        String rootTenantId = String.valueOf(
-                IdentityContext.getThreadLocalIdentityContext().getRootOrganization().getAssociatedTenantId());
-        String rootTenantDomain = String.valueOf(
-                IdentityContext.getThreadLocalIdentityContext().getRootOrganization().getAssociatedTenantDomain());
+        String rootTenantId = String.valueOf(eventContext.getRootTenantId());
+        String rootTenantDomain = String.valueOf(eventContext.getRootTenantDomain());
 
-        Tenant tenant = new Tenant(rootTenantId, rootTenantDomain);
+        Tenant tenant = WSO2PayloadUtils.buildTenant(rootTenantId, rootTenantDomain);
         Application application = new Application.Builder()
                 .id(authenticationContext.getServiceProviderResourceId())
                 .name(authenticationContext.getServiceProviderName())
                 .build();
-        Organization organization = WSO2PayloadUtils.buildOrganizationFromIdentityContext(
-                IdentityContext.getThreadLocalIdentityContext());
+        Organization organization = WSO2PayloadUtils.buildOrganization(eventContext);
         user.setOrganization(organization);
         return new WSO2AuthenticationFailedEventPayload.Builder()
                 .user(user)
@@ -21,13 +21,13 @@ package org.wso2.identity.webhook.wso2.event.handler.api.builder;
 import org.apache.commons.lang.StringUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
-import org.wso2.carbon.identity.core.context.IdentityContext;
 import org.wso2.carbon.identity.core.context.model.Flow;
 import org.wso2.carbon.identity.event.IdentityEventConstants;
 import org.wso2.carbon.identity.event.IdentityEventException;
 import org.wso2.carbon.identity.event.publisher.api.model.EventPayload;
 import org.wso2.identity.webhook.common.event.handler.api.builder.RegistrationEventPayloadBuilder;
 import org.wso2.identity.webhook.common.event.handler.api.constants.Constants;
+import org.wso2.identity.webhook.common.event.handler.api.model.EventContextSnapshot;
 import org.wso2.identity.webhook.common.event.handler.api.model.EventData;
 import org.wso2.identity.webhook.wso2.event.handler.internal.model.WSO2RegistrationFailureEventPayload;
 import org.wso2.identity.webhook.wso2.event.handler.internal.model.WSO2RegistrationSuccessEventPayload;
@@ -50,16 +50,14 @@ public class WSO2RegistrationEventPayloadBuilder implements RegistrationEventPay
     @Override
     public EventPayload buildRegistrationSuccessEvent(EventData eventData) throws IdentityEventException {
 
+        EventContextSnapshot eventContext = WSO2PayloadUtils.getEventContextSnapshot(eventData);
         Map<String, Object> properties = eventData.getEventParams();
-        String rootTenantId = String.valueOf(
-                IdentityContext.getThreadLocalIdentityContext().getRootOrganization().getAssociatedTenantId());
-        String rootTenantDomain = String.valueOf(
-                IdentityContext.getThreadLocalIdentityContext().getRootOrganization().getAssociatedTenantDomain());
-        String accessedTenantDomain = String.valueOf(
-                IdentityContext.getThreadLocalIdentityContext().getOrganization().getOrganizationHandle());
+        String rootTenantId = String.valueOf(eventContext.getRootTenantId());
+        String rootTenantDomain = String.valueOf(eventContext.getRootTenantDomain());
+        String accessedTenantDomain = String.valueOf(eventContext.getOrganizationHandle());
 
         String userStoreDomainName = WSO2PayloadUtils.resolveUserStoreDomain(properties);
-        UserStore userStore = new UserStore(userStoreDomainName);
+        UserStore userStore = WSO2PayloadUtils.buildUserStore(userStoreDomainName);
 
         User newUser = new User();
         WSO2PayloadUtils.enrichUser(properties, newUser, accessedTenantDomain);
@@ -71,8 +69,8 @@ public class WSO2RegistrationEventPayloadBuilder implements RegistrationEventPay
             newUser = WSO2PayloadUtils.buildUser(userStoreDomainName, userName, accessedTenantDomain);
         }
 
-        Tenant tenant = new Tenant(rootTenantId, rootTenantDomain);
-        Flow flow = IdentityContext.getThreadLocalIdentityContext().getCurrentFlow();
+        Tenant tenant = WSO2PayloadUtils.buildTenant(rootTenantId, rootTenantDomain);
+        Flow flow = eventContext.getFlow();
         String initiatorType = null;
         String action = null;
         if (flow != null) {
@@ -81,8 +79,7 @@ public class WSO2RegistrationEventPayloadBuilder implements RegistrationEventPay
                     .map(Enum::name)
                     .orElse(null);
         }
-        Organization organization = WSO2PayloadUtils.buildOrganizationFromIdentityContext(
-                IdentityContext.getThreadLocalIdentityContext());
+        Organization organization = WSO2PayloadUtils.buildOrganization(eventContext);
         newUser.setOrganization(organization);
 
         return new WSO2RegistrationSuccessEventPayload.Builder()
@@ -104,26 +101,24 @@ public class WSO2RegistrationEventPayloadBuilder implements RegistrationEventPay
     @Override
     public EventPayload buildRegistrationFailureEvent(EventData eventData) throws IdentityEventException {
 
+        EventContextSnapshot eventContext = WSO2PayloadUtils.getEventContextSnapshot(eventData);
         Map<String, Object> properties = eventData.getEventParams();
-        String rootTenantId = String.valueOf(
-                IdentityContext.getThreadLocalIdentityContext().getRootOrganization().getAssociatedTenantId());
-        String rootTenantDomain = String.valueOf(
-                IdentityContext.getThreadLocalIdentityContext().getRootOrganization().getAssociatedTenantDomain());
-        String accessedTenantDomain = String.valueOf(
-                IdentityContext.getThreadLocalIdentityContext().getOrganization().getOrganizationHandle());
+        String rootTenantId = String.valueOf(eventContext.getRootTenantId());
+        String rootTenantDomain = String.valueOf(eventContext.getRootTenantDomain());
+        String accessedTenantDomain = String.valueOf(eventContext.getOrganizationHandle());
 
         String userStoreDomainName = WSO2PayloadUtils.resolveUserStoreDomain(properties);
         UserStore userStore = null;
 
         if (StringUtils.isNotBlank(userStoreDomainName)) {
-            userStore = new UserStore(userStoreDomainName);
+            userStore = WSO2PayloadUtils.buildUserStore(userStoreDomainName);
         }
 
         User newUser = new User();
         WSO2PayloadUtils.enrichUser(properties, newUser, accessedTenantDomain);
 
-        Tenant tenant = new Tenant(rootTenantId, rootTenantDomain);
-        Flow flow = IdentityContext.getThreadLocalIdentityContext().getCurrentFlow();
+        Tenant tenant = WSO2PayloadUtils.buildTenant(rootTenantId, rootTenantDomain);
+        Flow flow = eventContext.getFlow();
         String initiatorType = null;
         String action = null;
         if (flow != null) {
@@ -149,8 +144,7 @@ public class WSO2RegistrationEventPayloadBuilder implements RegistrationEventPay
         }
 
         Reason reason = new Reason(errorMessage, context);
-        Organization organization = WSO2PayloadUtils.buildOrganizationFromIdentityContext(
-                IdentityContext.getThreadLocalIdentityContext());
+        Organization organization = WSO2PayloadUtils.buildOrganization(eventContext);
         newUser.setOrganization(organization);
 
         return new WSO2RegistrationFailureEventPayload.Builder()
@@ -24,11 +24,12 @@ import org.wso2.carbon.identity.application.authentication.framework.context.Aut
 import org.wso2.carbon.identity.application.authentication.framework.exception.session.mgt.SessionManagementException;
 import org.wso2.carbon.identity.application.authentication.framework.model.AuthenticatedUser;
 import org.wso2.carbon.identity.application.authentication.framework.model.UserSession;
-import org.wso2.carbon.identity.core.context.IdentityContext;
 import org.wso2.carbon.identity.event.IdentityEventConstants;
 import org.wso2.carbon.identity.event.IdentityEventException;
 import org.wso2.carbon.identity.event.publisher.api.model.EventPayload;
 import org.wso2.identity.webhook.common.event.handler.api.builder.SessionEventPayloadBuilder;
+import org.wso2.identity.webhook.common.event.handler.api.model.EnrichmentCache;
+import org.wso2.identity.webhook.common.event.handler.api.model.EventContextSnapshot;
 import org.wso2.identity.webhook.common.event.handler.api.model.EventData;
 import org.wso2.identity.webhook.common.event.handler.internal.constant.Constants;
 import org.wso2.identity.webhook.wso2.event.handler.internal.component.WSO2EventHookHandlerDataHolder;
@@ -52,17 +53,20 @@ import java.util.Optional;
 public class WSO2SessionEventPayloadBuilder implements SessionEventPayloadBuilder {
 
     private static final Log LOG = LogFactory.getLog(WSO2SessionEventPayloadBuilder.class);
+    private static final EnrichmentCache.Key<User> USER_KEY = EnrichmentCache.Key.of("wso2.session.user");
+    private static final String USER_SESSION_KEY_PREFIX = "userSession:";
+    private static final String APPLICATION_KEY_PREFIX = "wso2.session.application:";
 
     @Override
     public EventPayload buildSessionEstablishedEvent(EventData eventData) throws IdentityEventException {
 
+        EventContextSnapshot eventContext = WSO2PayloadUtils.getEventContextSnapshot(eventData);
         User user = buildUser(eventData);
-        Tenant tenant = buildTenant();
+        Tenant tenant = WSO2PayloadUtils.buildTenant(eventContext);
         UserStore userStore = buildUserStore(eventData);
         List<Session> sessions = getSessions(eventData);
         Application application = buildApplication(eventData.getAuthenticationContext());
-        Organization organization = WSO2PayloadUtils.buildOrganizationFromIdentityContext(
-                IdentityContext.getThreadLocalIdentityContext());
+        Organization organization = WSO2PayloadUtils.buildOrganization(eventContext);
         user.setOrganization(organization);
 
         return new WSO2SessionCreatedEventPayload.Builder()
@@ -78,13 +82,13 @@ public class WSO2SessionEventPayloadBuilder implements SessionEventPayloadBuilde
     @Override
     public EventPayload buildSessionPresentedEvent(EventData eventData) throws IdentityEventException {
 
+        EventContextSnapshot eventContext = WSO2PayloadUtils.getEventContextSnapshot(eventData);
         User user = buildUser(eventData);
-        Tenant tenant = buildTenant();
+        Tenant tenant = WSO2PayloadUtils.buildTenant(eventContext);
         UserStore userStore = buildUserStore(eventData);
         List<Session> sessions = getSessions(eventData);
         Application application = buildApplication(eventData.getAuthenticationContext());
-        Organization organization = WSO2PayloadUtils.buildOrganizationFromIdentityContext(
-                IdentityContext.getThreadLocalIdentityContext());
+        Organization organization = WSO2PayloadUtils.buildOrganization(eventContext);
         user.setOrganization(organization);
 
         return new WSO2SessionPresentedEventPayload.Builder()
@@ -100,12 +104,12 @@ public class WSO2SessionEventPayloadBuilder implements SessionEventPayloadBuilde
     @Override
     public EventPayload buildSessionRevokedEvent(EventData eventData) throws IdentityEventException {
 
+        EventContextSnapshot eventContext = WSO2PayloadUtils.getEventContextSnapshot(eventData);
         User user = buildUser(eventData);
-        Tenant tenant = buildTenant();
+        Tenant tenant = WSO2PayloadUtils.buildTenant(eventContext);
         UserStore userStore = buildUserStore(eventData);
         List<Session> sessions = getSessions(eventData);
-        Organization organization = WSO2PayloadUtils.buildOrganizationFromIdentityContext(
-                IdentityContext.getThreadLocalIdentityContext());
+        Organization organization = WSO2PayloadUtils.buildOrganization(eventContext);
         user.setOrganization(organization);
 
         return new WSO2SessionRevokedEventPayload.Builder()
@@ -125,6 +129,12 @@ public class WSO2SessionEventPayloadBuilder implements SessionEventPayloadBuilde
 
     private User buildUser(EventData eventData) {
 
+        // The user claims are read from the user store once per event, and shared by all payloads of the event.
+        return EnrichmentCache.get(eventData, USER_KEY, () -> resolveUser(eventData));
+    }
+
+    private User resolveUser(EventData eventData) {
+
         User user = null;
         AuthenticatedUser authenticatedUser = eventData.getAuthenticatedUser();
         if (authenticatedUser != null) {
@@ -141,20 +151,11 @@ public class WSO2SessionEventPayloadBuilder implements SessionEventPayloadBuilde
         return user;
     }
 
-    private Tenant buildTenant() {
-
-        String rootTenantId = String.valueOf(
-                IdentityContext.getThreadLocalIdentityContext().getRootOrganization().getAssociatedTenantId());
-        String rootTenantDomain = String.valueOf(
-                IdentityContext.getThreadLocalIdentityContext().getRootOrganization().getAssociatedTenantDomain());
-        return new Tenant(rootTenantId, rootTenantDomain);
-    }
-
     private UserStore buildUserStore(EventData eventData) {
 
         AuthenticatedUser authenticatedUser = eventData.getAuthenticatedUser();
         if (authenticatedUser != null && authenticatedUser.getUserStoreDomain() != null) {
-            return new UserStore(authenticatedUser.getUserStoreDomain());
+            return WSO2PayloadUtils.buildUserStore(authenticatedUser.getUserStoreDomain());
         }
         return null;
     }
@@ -165,11 +166,11 @@ public class WSO2SessionEventPayloadBuilder implements SessionEventPayloadBuilde
         Map<String, Object> properties = eventData.getProperties();
         if (params.containsKey(Constants.EventDataProperties.SESSION_ID)) {
             String sessionId = params.get(Constants.EventDataProperties.SESSION_ID).toString();
-            return retrieveSessionsById(sessionId);
+            return retrieveSessionsById(eventData, sessionId);
         } else if (properties.containsKey(IdentityEventConstants.EventProperty.SESSION_CONTEXT_ID) &&
                 properties.get(IdentityEventConstants.EventProperty.SESSION_CONTEXT_ID) instanceof String) {
             String sessionId = (String) properties.get(IdentityEventConstants.EventProperty.SESSION_CONTEXT_ID);
-            return retrieveSessionsById(sessionId);
+            return retrieveSessionsById(eventData, sessionId);
         } else if (params.containsKey(IdentityEventConstants.EventProperty.SESSION_IDS)) {
             List<String> sessionIds = params.get(IdentityEventConstants.EventProperty.SESSION_IDS) instanceof List ?
                     (List<String>) params.get(IdentityEventConstants.EventProperty.SESSION_IDS) : null;
@@ -177,46 +178,55 @@ public class WSO2SessionEventPayloadBuilder implements SessionEventPayloadBuilde
                 LOG.debug("Session IDs are not provided in the event data.");
                 return new ArrayList<>();
             }
-            return retrieveSessionsByIds(sessionIds);
+            return retrieveSessionsByIds(eventData, sessionIds);
         }
         return new ArrayList<>();
     }
 
-    private List<Session> retrieveSessionsById(String sessionId) throws IdentityEventException {
+    private List<Session> retrieveSessionsById(EventData eventData, String sessionId) throws IdentityEventException {
+
+        return lookupUserSession(eventData, sessionId).map(userSession -> buildSessionList(eventData, userSession))
+                .orElseGet(ArrayList::new);
+    }
+
+    private Optional<UserSession> lookupUserSession(EventData eventData, String sessionId)
+            throws IdentityEventException {
+
+        return EnrichmentCache.get(eventData, EnrichmentCache.Key.of(USER_SESSION_KEY_PREFIX + sessionId),
+                () -> retrieveUserSession(sessionId));
+    }
+
+    private Optional<UserSession> retrieveUserSession(String sessionId) throws IdentityEventException {
 
         try {
-            Optional<UserSession> userSession = WSO2EventHookHandlerDataHolder.getInstance()
+            return WSO2EventHookHandlerDataHolder.getInstance()
                     .getUserSessionManagementService().getUserSessionBySessionId(sessionId);
-            return userSession.map(this::buildSessionList).orElseGet(ArrayList::new);
         } catch (SessionManagementException e) {
             throw new IdentityEventException(
                     "Error while retrieving session information from User Session Management Service", e);
         }
     }
 
-    private List<Session> retrieveSessionsByIds(List<String> sessionIds) throws IdentityEventException {
+    private List<Session> retrieveSessionsByIds(EventData eventData, List<String> sessionIds)
+            throws IdentityEventException {
 
-        List<Session> sessions = new ArrayList<>();
-        // todo: This call retrieves session data per session and can be optimized to retrieve all sessions
-        //  in a single call. However, the UserSessionManagementService currently does not provide a method
-        //  to retrieve multiple sessions by IDs. Should evaluate impact and optimize accordingly.
-        for (String sessionId : sessionIds) {
-            sessions.addAll(retrieveSessionsById(sessionId));
+        // The UserSessionManagementService retrieves a single session at a time, so the sessions are retrieved
+        // concurrently, within a deadline for the event.
+        List<UserSession> userSessions = WSO2EventHookHandlerDataHolder.getInstance().getSessionFetcher()
+                .fetchSessions(sessionIds, sessionId -> lookupUserSession(eventData, sessionId));
+        List<Session> sessions = new ArrayList<>(userSessions.size());
+        for (UserSession userSession : userSessions) {
+            sessions.addAll(buildSessionList(eventData, userSession));
         }
         return sessions;
     }
 
-    private List<Session> buildSessionList(UserSession userSession) {
+    private List<Session> buildSessionList(EventData eventData, UserSession userSession) {
 
         List<Session> sessions = new ArrayList<>();
         List<Application> applications = new ArrayList<>();
-        userSession.getApplications().forEach(app -> {
-            Application application = new Application.Builder()
-                    .id(app.getAppId())
-                    .name(app.getAppName())
-                    .build();
-            applications.add(application);
-        });
+        userSession.getApplications().forEach(app -> applications.add(getApplication(eventData, app.getAppId(),
+                app.getAppName())));
         Session sessionModel = new Session.Builder()
                 .id(userSession.getSessionId())
                 .loginTime(userSession.getLastAccessTime() != null ?
@@ -227,6 +237,16 @@ public class WSO2SessionEventPayloadBuilder implements SessionEventPayloadBuilde
         return sessions;
     }
 
+    private Application getApplication(EventData eventData, String appId, String appName) {
+
+        // The sessions of a user mostly share the same few applications, so an application is built once per event.
+        return EnrichmentCache.get(eventData, EnrichmentCache.Key.of(APPLICATION_KEY_PREFIX + appId + ":" + appName),
+                () -> new Application.Builder()
+                        .id(appId)
+                        .name(appName)
+                        .build());
+    }
+
     private Application buildApplication(AuthenticationContext authenticationContext) {
 
         if (authenticationContext == null) {
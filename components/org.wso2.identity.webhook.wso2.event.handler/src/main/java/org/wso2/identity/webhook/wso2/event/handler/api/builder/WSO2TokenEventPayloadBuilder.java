@@ -19,17 +19,12 @@
 package org.wso2.identity.webhook.wso2.event.handler.api.builder;
 
 import org.apache.commons.lang.StringUtils;
-import org.apache.commons.logging.Log;
-import org.apache.commons.logging.LogFactory;
-import org.wso2.carbon.identity.application.common.IdentityApplicationManagementException;
-import org.wso2.carbon.identity.application.common.model.ApplicationBasicInfo;
-import org.wso2.carbon.identity.application.common.model.ServiceProvider;
-import org.wso2.carbon.identity.core.context.IdentityContext;
 import org.wso2.carbon.identity.core.context.model.Flow;
 import org.wso2.carbon.identity.event.IdentityEventConstants;
 import org.wso2.carbon.identity.event.IdentityEventException;
 import org.wso2.carbon.identity.event.publisher.api.model.EventPayload;
 import org.wso2.identity.webhook.common.event.handler.api.builder.TokenEventPayloadBuilder;
+import org.wso2.identity.webhook.common.event.handler.api.model.EventContextSnapshot;
 import org.wso2.identity.webhook.common.event.handler.api.model.EventData;
 import org.wso2.identity.webhook.wso2.event.handler.internal.component.WSO2EventHookHandlerDataHolder;
 import org.wso2.identity.webhook.wso2.event.handler.internal.model.WSO2TokenIssuedEventPayload;
@@ -44,16 +39,12 @@ import org.wso2.identity.webhook.wso2.event.handler.internal.util.WSO2PayloadUti
 
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
-import java.util.stream.Collectors;
 
 /**
  * Builder class for creating WSO2 Token Event Payloads.
  */
 public class WSO2TokenEventPayloadBuilder implements TokenEventPayloadBuilder {
 
-    private static final Log LOG = LogFactory.getLog(WSO2TokenEventPayloadBuilder.class);
-
     @Override
     public org.wso2.identity.webhook.common.event.handler.api.constants.Constants.EventSchema getEventSchemaType() {
 
@@ -63,17 +54,17 @@ public class WSO2TokenEventPayloadBuilder implements TokenEventPayloadBuilder {
     @Override
     public EventPayload buildAccessTokenRevokeEvent(EventData eventData) throws IdentityEventException {
 
-        Tenant tenant = WSO2PayloadUtils.buildTenant();
+        EventContextSnapshot eventContext = WSO2PayloadUtils.getEventContextSnapshot(eventData);
+        Tenant tenant = WSO2PayloadUtils.buildTenant(eventContext);
         UserStore userStore = WSO2PayloadUtils.buildUserStore(eventData);
         List<Application> application = buildApplications(eventData);
-        Organization organization = WSO2PayloadUtils.buildOrganizationFromIdentityContext(
-                IdentityContext.getThreadLocalIdentityContext());
+        Organization organization = WSO2PayloadUtils.buildOrganization(eventContext);
         User user = WSO2PayloadUtils.buildUser(eventData);
         if (user != null) {
             user.setOrganization(organization);
         }
 
-        Flow flow = IdentityContext.getThreadLocalIdentityContext().getCurrentFlow();
+        Flow flow = eventContext.getFlow();
         String initiatorType = null;
         String action = null;
         if (flow != null) {
@@ -95,18 +86,18 @@ public class WSO2TokenEventPayloadBuilder implements TokenEventPayloadBuilder {
     @Override
     public EventPayload buildAccessTokenIssueEvent(EventData eventData) throws IdentityEventException {
 
-        Tenant tenant = WSO2PayloadUtils.buildTenant();
+        EventContextSnapshot eventContext = WSO2PayloadUtils.getEventContextSnapshot(eventData);
+        Tenant tenant = WSO2PayloadUtils.buildTenant(eventContext);
         UserStore userStore = WSO2PayloadUtils.buildUserStore(eventData);
         Application application = buildApplication(eventData);
         AccessToken accessToken = buildAccessToken(eventData);
-        Organization organization = WSO2PayloadUtils.buildOrganizationFromIdentityContext(
-                IdentityContext.getThreadLocalIdentityContext());
+        Organization organization = WSO2PayloadUtils.buildOrganization(eventContext);
         User user = WSO2PayloadUtils.buildUser(eventData);
         if (user != null) {
             user.setOrganization(organization);
         }
 
-        Flow flow = IdentityContext.getThreadLocalIdentityContext().getCurrentFlow();
+        Flow flow = eventContext.getFlow();
         String initiatorType = null;
         String action = null;
         if (flow != null) {
@@ -180,65 +171,21 @@ public class WSO2TokenEventPayloadBuilder implements TokenEventPayloadBuilder {
         if (properties.get(IdentityEventConstants.EventProperty.APPLICATION_ID) != null) {
             String applicationResourceId =
                     String.valueOf(properties.get(IdentityEventConstants.EventProperty.APPLICATION_ID));
-            Application application = buildApplicationFromResourceId(eventData, applicationResourceId);
+            Application application = WSO2EventHookHandlerDataHolder.getInstance().getApplicationResolver()
+                    .resolveByResourceId(eventData.getTenantDomain(), applicationResourceId);
             if (application != null) {
                 return List.of(application);
             }
         } else if (properties.get(IdentityEventConstants.EventProperty.CONSUMER_KEYS) instanceof List) {
-            ((List<String>) properties.get(IdentityEventConstants.EventProperty.CONSUMER_KEYS)).stream()
-                    .filter(Objects::nonNull)
-                    .map(consumerKey -> buildApplicationFromConsumerKey(eventData, consumerKey))
-                    .filter(Objects::nonNull)
-                    .collect(Collectors.toList());
-        }
-
-        return null;
-    }
-
-    private Application buildApplicationFromConsumerKey(EventData eventData, String consumerKey) {
-
-        if (eventData == null || StringUtils.isBlank(consumerKey)) {
-            return null;
-        }
-
-        try {
-            ServiceProvider serviceProvider =
-                    WSO2EventHookHandlerDataHolder.getInstance().getApplicationManagementService()
-                            .getServiceProviderByClientId(consumerKey, "oauth2", eventData.getTenantDomain());
-            if (serviceProvider != null) {
-                return new Application.Builder()
-                        .id(serviceProvider.getApplicationResourceId())
-                        .name(serviceProvider.getApplicationName())
-                        .consumerKey(consumerKey)
-                        .build();
+            List<String> consumerKeys =
+                    (List<String>) properties.get(IdentityEventConstants.EventProperty.CONSUMER_KEYS);
+            List<Application> applications = WSO2EventHookHandlerDataHolder.getInstance().getApplicationResolver()
+                    .resolveByConsumerKeys(eventData.getTenantDomain(), consumerKeys);
+            if (!applications.isEmpty()) {
+                return applications;
             }
-        } catch (IdentityApplicationManagementException e) {
-            LOG.debug("Error while retrieving application by consumer key: " + consumerKey, e);
         }
-        return null;
-    }
 
-    private Application buildApplicationFromResourceId(EventData eventData, String resourceId) {
-
-        if (eventData == null || StringUtils.isBlank(resourceId)) {
-            return null;
-        }
-
-        try {
-            ApplicationBasicInfo applicationBasicInfo =
-                    WSO2EventHookHandlerDataHolder.getInstance().getApplicationManagementService()
-                            .getApplicationBasicInfoByResourceId(resourceId, eventData.getTenantDomain());
-
-            if (applicationBasicInfo != null) {
-                return new Application.Builder()
-                        .id(resourceId)
-                        .name(applicationBasicInfo.getApplicationName())
-                        .consumerKey(applicationBasicInfo.getClientId())
-                        .build();
-            }
-        } catch (IdentityApplicationManagementException e) {
-            LOG.debug("Error while retrieving application by resource Id: " + resourceId, e);
-        }
         return null;
     }
 }
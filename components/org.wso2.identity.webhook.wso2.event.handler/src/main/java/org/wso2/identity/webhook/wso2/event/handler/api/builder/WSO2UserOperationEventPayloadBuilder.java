@@ -19,7 +19,6 @@ package org.wso2.identity.webhook.wso2.event.handler.api.builder;
 
 import org.apache.commons.lang.StringUtils;
 import org.wso2.carbon.identity.application.authentication.framework.util.FrameworkConstants;
-import org.wso2.carbon.identity.core.context.IdentityContext;
 import org.wso2.carbon.identity.core.context.model.Flow;
 import org.wso2.carbon.identity.core.util.IdentityUtil;
 import org.wso2.carbon.identity.event.IdentityEventConstants;
@@ -31,7 +30,10 @@ import org.wso2.carbon.user.core.UserCoreConstants;
 import org.wso2.carbon.user.core.common.AbstractUserStoreManager;
 import org.wso2.identity.webhook.common.event.handler.api.builder.UserOperationEventPayloadBuilder;
 import org.wso2.identity.webhook.common.event.handler.api.constants.Constants;
+import org.wso2.identity.webhook.common.event.handler.api.model.EnrichmentCache;
+import org.wso2.identity.webhook.common.event.handler.api.model.EventContextSnapshot;
 import org.wso2.identity.webhook.common.event.handler.api.model.EventData;
+import org.wso2.identity.webhook.wso2.event.handler.internal.component.WSO2EventHookHandlerDataHolder;
 import org.wso2.identity.webhook.wso2.event.handler.internal.model.WSO2UserAccountEventPayload;
 import org.wso2.identity.webhook.wso2.event.handler.internal.model.WSO2UserCreatedEventPayload;
 import org.wso2.identity.webhook.wso2.event.handler.internal.model.WSO2UserGroupUpdateEventPayload;
@@ -57,16 +59,18 @@ import static org.wso2.identity.webhook.wso2.event.handler.internal.constant.Con
  */
 public class WSO2UserOperationEventPayloadBuilder implements UserOperationEventPayloadBuilder {
 
+    private static final String GROUP_KEY_PREFIX = "wso2.userOperation.group:";
+    private static final String[] GROUP_MEMBER_CLAIMS =
+            {FrameworkConstants.USER_ID_CLAIM, FrameworkConstants.EMAIL_ADDRESS_CLAIM};
+
     @Override
     public EventPayload buildUserGroupUpdateEvent(EventData eventData) throws IdentityEventException {
 
+        EventContextSnapshot eventContext = WSO2PayloadUtils.getEventContextSnapshot(eventData);
         Map<String, Object> properties = eventData.getEventParams();
-        String rootTenantId = String.valueOf(
-                IdentityContext.getThreadLocalIdentityContext().getRootOrganization().getAssociatedTenantId());
-        String rootTenantDomain = String.valueOf(
-                IdentityContext.getThreadLocalIdentityContext().getRootOrganization().getAssociatedTenantDomain());
-        String accessedTenantDomain = String.valueOf(
-                IdentityContext.getThreadLocalIdentityContext().getOrganization().getOrganizationHandle());
+        String rootTenantId = String.valueOf(eventContext.getRootTenantId());
+        String rootTenantDomain = String.valueOf(eventContext.getRootTenantDomain());
+        String accessedTenantDomain = String.valueOf(eventContext.getOrganizationHandle());
 
         // todo: should remove retrieving user store manager as a property.
         //  Rather load user store managed from realm service.
@@ -74,17 +78,16 @@ public class WSO2UserOperationEventPayloadBuilder implements UserOperationEventP
         String userStoreDomainName = userStoreManager.getRealmConfiguration()
                 .getUserStoreProperty(UserCoreConstants.RealmConfig.PROPERTY_DOMAIN_NAME);
 
-        Group group = buildGroup(properties, userStoreManager, accessedTenantDomain);
-        UserStore userStore = new UserStore(userStoreDomainName);
+        Group group = buildGroup(eventData, properties, userStoreManager, accessedTenantDomain);
+        UserStore userStore = WSO2PayloadUtils.buildUserStore(userStoreDomainName);
 
-        Tenant tenant = new Tenant(rootTenantId, rootTenantDomain);
-        Flow flow = IdentityContext.getThreadLocalIdentityContext().getCurrentFlow();
+        Tenant tenant = WSO2PayloadUtils.buildTenant(rootTenantId, rootTenantDomain);
+        Flow flow = eventContext.getFlow();
         String initiatorType = null;
         if (flow != null) {
             initiatorType = flow.getInitiatingPersona().name();
         }
-        Organization organization = WSO2PayloadUtils.buildOrganizationFromIdentityContext(
-                IdentityContext.getThreadLocalIdentityContext());
+        Organization organization = WSO2PayloadUtils.buildOrganization(eventContext);
 
         return new WSO2UserGroupUpdateEventPayload.Builder()
                 .initiatorType(initiatorType)
@@ -98,19 +101,17 @@ public class WSO2UserOperationEventPayloadBuilder implements UserOperationEventP
     @Override
     public EventPayload buildUserDeleteEvent(EventData eventData) throws IdentityEventException {
 
+        EventContextSnapshot eventContext = WSO2PayloadUtils.getEventContextSnapshot(eventData);
         Map<String, Object> properties = eventData.getEventParams();
-        String rootTenantId = String.valueOf(
-                IdentityContext.getThreadLocalIdentityContext().getRootOrganization().getAssociatedTenantId());
-        String rootTenantDomain = String.valueOf(
-                IdentityContext.getThreadLocalIdentityContext().getRootOrganization().getAssociatedTenantDomain());
-        String accessedTenantDomain = String.valueOf(
-                IdentityContext.getThreadLocalIdentityContext().getOrganization().getOrganizationHandle());
+        String rootTenantId = String.valueOf(eventContext.getRootTenantId());
+        String rootTenantDomain = String.valueOf(eventContext.getRootTenantDomain());
+        String accessedTenantDomain = String.valueOf(eventContext.getOrganizationHandle());
 
         AbstractUserStoreManager userStoreManager = (AbstractUserStoreManager) properties.get(USER_STORE_MANAGER);
         String userStoreDomainName = userStoreManager.getRealmConfiguration()
                 .getUserStoreProperty(UserCoreConstants.RealmConfig.PROPERTY_DOMAIN_NAME);
 
-        UserStore userStore = new UserStore(userStoreDomainName);
+        UserStore userStore = WSO2PayloadUtils.buildUserStore(userStoreDomainName);
 
         List<UserClaim> userClaims = new ArrayList<>();
 
@@ -139,14 +140,13 @@ public class WSO2UserOperationEventPayloadBuilder implements UserOperationEventP
             deletedUser.setRef(WSO2PayloadUtils.constructFullURLWithEndpoint(SCIM2_USERS_ENDPOINT) + "/" + userId);
             deletedUser.setClaims(userClaims);
 
-            Tenant tenant = new Tenant(rootTenantId, rootTenantDomain);
-            Flow flow = IdentityContext.getThreadLocalIdentityContext().getCurrentFlow();
+            Tenant tenant = WSO2PayloadUtils.buildTenant(rootTenantId, rootTenantDomain);
+            Flow flow = eventContext.getFlow();
             String initiatorType = null;
             if (flow != null) {
                 initiatorType = flow.getInitiatingPersona().name();
             }
-            Organization organization = WSO2PayloadUtils.buildOrganizationFromIdentityContext(
-                    IdentityContext.getThreadLocalIdentityContext());
+            Organization organization = WSO2PayloadUtils.buildOrganization(eventContext);
             deletedUser.setOrganization(organization);
 
             return new WSO2UserAccountEventPayload.Builder()
@@ -169,35 +169,32 @@ public class WSO2UserOperationEventPayloadBuilder implements UserOperationEventP
 
     private EventPayload buildUserAccountEvent(EventData eventData) throws IdentityEventException {
 
+        EventContextSnapshot eventContext = WSO2PayloadUtils.getEventContextSnapshot(eventData);
         Map<String, Object> properties = eventData.getEventParams();
-        String rootTenantId = String.valueOf(
-                IdentityContext.getThreadLocalIdentityContext().getRootOrganization().getAssociatedTenantId());
-        String rootTenantDomain = String.valueOf(
-                IdentityContext.getThreadLocalIdentityContext().getRootOrganization().getAssociatedTenantDomain());
+        String rootTenantId = String.valueOf(eventContext.getRootTenantId());
+        String rootTenantDomain = String.valueOf(eventContext.getRootTenantDomain());
 
         AbstractUserStoreManager userStoreManager = (AbstractUserStoreManager) properties.get(USER_STORE_MANAGER);
         String userStoreDomainName = userStoreManager.getRealmConfiguration()
                 .getUserStoreProperty(UserCoreConstants.RealmConfig.PROPERTY_DOMAIN_NAME);
 
-        UserStore userStore = new UserStore(userStoreDomainName);
+        UserStore userStore = WSO2PayloadUtils.buildUserStore(userStoreDomainName);
 
         String userName =
                 String.valueOf(eventData.getEventParams().get(IdentityEventConstants.EventProperty.USER_NAME));
 
         User user = new User();
-        enrichUser(userStoreManager, userName, user,
-                IdentityContext.getThreadLocalIdentityContext().getOrganization().getOrganizationHandle());
+        enrichUser(userStoreManager, userName, user, eventContext.getOrganizationHandle());
         user.setRef(
                 WSO2PayloadUtils.constructFullURLWithEndpoint(SCIM2_USERS_ENDPOINT) + "/" + user.getId());
 
-        Tenant tenant = new Tenant(rootTenantId, rootTenantDomain);
-        Flow flow = IdentityContext.getThreadLocalIdentityContext().getCurrentFlow();
+        Tenant tenant = WSO2PayloadUtils.buildTenant(rootTenantId, rootTenantDomain);
+        Flow flow = eventContext.getFlow();
         String initiatorType = null;
         if (flow != null) {
             initiatorType = flow.getInitiatingPersona().name();
         }
-        Organization organization = WSO2PayloadUtils.buildOrganizationFromIdentityContext(
-                IdentityContext.getThreadLocalIdentityContext());
+        Organization organization = WSO2PayloadUtils.buildOrganization(eventContext);
         user.setOrganization(organization);
 
         return new WSO2UserAccountEventPayload.Builder()
@@ -210,17 +207,15 @@ public class WSO2UserOperationEventPayloadBuilder implements UserOperationEventP
 
     private EventPayload buildUserEnableEvent(EventData eventData) throws IdentityEventException {
 
+        EventContextSnapshot eventContext = WSO2PayloadUtils.getEventContextSnapshot(eventData);
         Map<String, Object> properties = eventData.getEventParams();
-        String rootTenantId = String.valueOf(
-                IdentityContext.getThreadLocalIdentityContext().getRootOrganization().getAssociatedTenantId());
-        String rootTenantDomain = String.valueOf(
-                IdentityContext.getThreadLocalIdentityContext().getRootOrganization().getAssociatedTenantDomain());
-        String accessedTenantDomain = String.valueOf(
-                IdentityContext.getThreadLocalIdentityContext().getOrganization().getOrganizationHandle());
+        String rootTenantId = String.valueOf(eventContext.getRootTenantId());
+        String rootTenantDomain = String.valueOf(eventContext.getRootTenantDomain());
+        String accessedTenantDomain = String.valueOf(eventContext.getOrganizationHandle());
 
         String userStoreDomainName =
                 String.valueOf(eventData.getEventParams().get(IdentityEventConstants.EventProperty.USER_STORE_DOMAIN));
-        UserStore userStore = new UserStore(userStoreDomainName);
+        UserStore userStore = WSO2PayloadUtils.buildUserStore(userStoreDomainName);
 
         String userId = String.valueOf(eventData.getEventParams().get(IdentityEventConstants.EventProperty.USER_ID));
         User user = new User();
@@ -238,14 +233,13 @@ public class WSO2UserOperationEventPayloadBuilder implements UserOperationEventP
         user.setRef(
                 WSO2PayloadUtils.constructFullURLWithEndpoint(SCIM2_USERS_ENDPOINT) + "/" + user.getId());
 
-        Tenant tenant = new Tenant(rootTenantId, rootTenantDomain);
-        Flow flow = IdentityContext.getThreadLocalIdentityContext().getCurrentFlow();
+        Tenant tenant = WSO2PayloadUtils.buildTenant(rootTenantId, rootTenantDomain);
+        Flow flow = eventContext.getFlow();
         String initiatorType = null;
         if (flow != null) {
             initiatorType = flow.getInitiatingPersona().name();
         }
-        Organization organization = WSO2PayloadUtils.buildOrganizationFromIdentityContext(
-                IdentityContext.getThreadLocalIdentityContext());
+        Organization organization = WSO2PayloadUtils.buildOrganization(eventContext);
         user.setOrganization(organization);
 
         return new WSO2UserAccountEventPayload.Builder()
@@ -266,18 +260,16 @@ public class WSO2UserOperationEventPayloadBuilder implements UserOperationEventP
     @Override
     public EventPayload buildUserProfileUpdateEvent(EventData eventData) throws IdentityEventException {
 
+        EventContextSnapshot eventContext = WSO2PayloadUtils.getEventContextSnapshot(eventData);
         Map<String, Object> properties = eventData.getEventParams();
-        String rootTenantId = String.valueOf(
-                IdentityContext.getThreadLocalIdentityContext().getRootOrganization().getAssociatedTenantId());
-        String rootTenantDomain = String.valueOf(
-                IdentityContext.getThreadLocalIdentityContext().getRootOrganization().getAssociatedTenantDomain());
-        String accessedTenantDomain = String.valueOf(
-                IdentityContext.getThreadLocalIdentityContext().getOrganization().getOrganizationHandle());
+        String rootTenantId = String.valueOf(eventContext.getRootTenantId());
+        String rootTenantDomain = String.valueOf(eventContext.getRootTenantDomain());
+        String accessedTenantDomain = String.valueOf(eventContext.getOrganizationHandle());
         String userStoreDomainName =
                 String.valueOf(properties.get(IdentityEventConstants.EventProperty.USER_STORE_DOMAIN));
         String userId = String.valueOf(properties.get(IdentityEventConstants.EventProperty.USER_ID));
 
-        UserStore userStore = new UserStore(userStoreDomainName);
+        UserStore userStore = WSO2PayloadUtils.buildUserStore(userStoreDomainName);
 
         List<UserClaim> addedClaims =
                 populateClaims(properties, IdentityEventConstants.EventProperty.USER_CLAIMS_ADDED,
@@ -299,9 +291,9 @@ public class WSO2UserOperationEventPayloadBuilder implements UserOperationEventP
         user.setUpdatedClaims(modifiedClaims);
         user.setRemovedClaims(deletedClaims);
 
-        Tenant tenant = new Tenant(rootTenantId, rootTenantDomain);
+        Tenant tenant = WSO2PayloadUtils.buildTenant(rootTenantId, rootTenantDomain);
 
-        Flow flow = IdentityContext.getThreadLocalIdentityContext().getCurrentFlow();
+        Flow flow = eventContext.getFlow();
         String initiatorType = null;
         String action = null;
         if (flow != null) {
@@ -310,8 +302,7 @@ public class WSO2UserOperationEventPayloadBuilder implements UserOperationEventP
                     .map(Enum::name)
                     .orElse(null);
         }
-        Organization organization = WSO2PayloadUtils.buildOrganizationFromIdentityContext(
-                IdentityContext.getThreadLocalIdentityContext());
+        Organization organization = WSO2PayloadUtils.buildOrganization(eventContext);
         user.setOrganization(organization);
 
         return new WSO2UserAccountEventPayload.Builder()
@@ -339,16 +330,14 @@ public class WSO2UserOperationEventPayloadBuilder implements UserOperationEventP
     @Override
     public EventPayload buildUserCreatedEvent(EventData eventData) throws IdentityEventException {
 
+        EventContextSnapshot eventContext = WSO2PayloadUtils.getEventContextSnapshot(eventData);
         Map<String, Object> properties = eventData.getEventParams();
-        String rootTenantId = String.valueOf(
-                IdentityContext.getThreadLocalIdentityContext().getRootOrganization().getAssociatedTenantId());
-        String rootTenantDomain = String.valueOf(
-                IdentityContext.getThreadLocalIdentityContext().getRootOrganization().getAssociatedTenantDomain());
-        String accessedTenantDomain = String.valueOf(
-                IdentityContext.getThreadLocalIdentityContext().getOrganization().getOrganizationHandle());
+        String rootTenantId = String.valueOf(eventContext.getRootTenantId());
+        String rootTenantDomain = String.valueOf(eventContext.getRootTenantDomain());
+        String accessedTenantDomain = String.valueOf(eventContext.getOrganizationHandle());
 
         String userStoreDomainName = WSO2PayloadUtils.resolveUserStoreDomain(properties);
-        UserStore userStore = new UserStore(userStoreDomainName);
+        UserStore userStore = WSO2PayloadUtils.buildUserStore(userStoreDomainName);
 
         User newUser = new User();
         WSO2PayloadUtils.enrichUser(properties, newUser, accessedTenantDomain);
@@ -360,8 +349,8 @@ public class WSO2UserOperationEventPayloadBuilder implements UserOperationEventP
             newUser = WSO2PayloadUtils.buildUser(userStoreDomainName, userName, accessedTenantDomain);
         }
 
-        Tenant tenant = new Tenant(rootTenantId, rootTenantDomain);
-        Flow flow = IdentityContext.getThreadLocalIdentityContext().getCurrentFlow();
+        Tenant tenant = WSO2PayloadUtils.buildTenant(rootTenantId, rootTenantDomain);
+        Flow flow = eventContext.getFlow();
         String initiatorType = null;
         String action = null;
         if (flow != null) {
@@ -370,8 +359,7 @@ public class WSO2UserOperationEventPayloadBuilder implements UserOperationEventP
                     .map(Enum::name)
                     .orElse(null);
         }
-        Organization organization = WSO2PayloadUtils.buildOrganizationFromIdentityContext(
-                IdentityContext.getThreadLocalIdentityContext());
+        Organization organization = WSO2PayloadUtils.buildOrganization(eventContext);
         newUser.setOrganization(organization);
 
         return new WSO2UserCreatedEventPayload.Builder()
@@ -404,15 +392,31 @@ public class WSO2UserOperationEventPayloadBuilder implements UserOperationEventP
     private List<User> buildUserList(AbstractUserStoreManager userStoreManager, Map<String, Object> properties,
                                      String userListPropertyName, String tenantDomain) throws IdentityEventException {
 
-        List<User> users = new ArrayList<>();
-
         String[] domainQualifiedUsernames = (String[]) properties.get(userListPropertyName);
-        if (domainQualifiedUsernames != null) {
-            for (String domainQualifiedUsername : domainQualifiedUsernames) {
-                User user = new User();
-                enrichUser(userStoreManager, domainQualifiedUsername, user, tenantDomain);
-                users.add(user);
+        if (domainQualifiedUsernames == null || domainQualifiedUsernames.length == 0) {
+            return new ArrayList<>();
+        }
+
+        // The id and the email address of all users are read in bulk, instead of two lookups per user.
+        Map<String, Map<String, String>> userClaims;
+        try {
+            userClaims = WSO2EventHookHandlerDataHolder.getInstance().getBulkUserResolver()
+                    .resolveClaims(userStoreManager, domainQualifiedUsernames, GROUP_MEMBER_CLAIMS);
+        } catch (UserStoreException e) {
+            throw new IdentityEventException("Error while extracting user claims for the users of: " +
+                    userListPropertyName, e);
+        }
+
+        List<User> users = new ArrayList<>(domainQualifiedUsernames.length);
+        for (String domainQualifiedUsername : domainQualifiedUsernames) {
+            Map<String, String> claims = userClaims.get(domainQualifiedUsername);
+            User user = new User();
+            if (claims != null) {
+                user.setId(claims.get(FrameworkConstants.USER_ID_CLAIM));
+                WSO2PayloadUtils.generateUserClaim(FrameworkConstants.EMAIL_ADDRESS_CLAIM,
+                        claims.get(FrameworkConstants.EMAIL_ADDRESS_CLAIM), tenantDomain).ifPresent(user::addClaim);
             }
+            users.add(user);
         }
         return users;
     }
@@ -448,17 +452,14 @@ public class WSO2UserOperationEventPayloadBuilder implements UserOperationEventP
         return Constants.EventSchema.WSO2;
     }
 
-    private Group buildGroup(Map<String, Object> properties, AbstractUserStoreManager userStoreManager,
-                             String tenantDomain)
+    private Group buildGroup(EventData eventData, Map<String, Object> properties,
+                             AbstractUserStoreManager userStoreManager, String tenantDomain)
             throws IdentityEventException {
 
         String groupName = String.valueOf(properties.get(IdentityEventConstants.EventProperty.ROLE_NAME));
-        org.wso2.carbon.user.core.common.Group groupFromUserStore;
-        try {
-            groupFromUserStore = userStoreManager.getGroupByGroupName(groupName, null);
-        } catch (org.wso2.carbon.user.core.UserStoreException e) {
-            throw new IdentityEventException("Error while extracting group Id for the group Name: " + groupName, e);
-        }
+        // The group is read from the user store once per event, and shared by all payloads of the event.
+        org.wso2.carbon.user.core.common.Group groupFromUserStore = EnrichmentCache.get(eventData,
+                EnrichmentCache.Key.of(GROUP_KEY_PREFIX + groupName), () -> retrieveGroup(userStoreManager, groupName));
         String groupId = groupFromUserStore.getGroupID();
         String groupLocation = groupFromUserStore.getLocation();
 
@@ -479,6 +480,16 @@ public class WSO2UserOperationEventPayloadBuilder implements UserOperationEventP
         return group;
     }
 
+    private org.wso2.carbon.user.core.common.Group retrieveGroup(AbstractUserStoreManager userStoreManager,
+                                                                String groupName) throws IdentityEventException {
+
+        try {
+            return userStoreManager.getGroupByGroupName(groupName, null);
+        } catch (org.wso2.carbon.user.core.UserStoreException e) {
+            throw new IdentityEventException("Error while extracting group Id for the group Name: " + groupName, e);
+        }
+    }
+
     private UserOperationAction resolveAction(Flow.Name name) {
 
         if (name == null) {
@@ -0,0 +1,293 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.webhook.wso2.event.handler.internal.cache;
+
+import org.wso2.carbon.identity.application.common.IdentityApplicationManagementException;
+import org.wso2.identity.webhook.wso2.event.handler.internal.model.common.Application;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache of the applications the token event payloads are enriched with, by the consumer key or the resource id of
+ * the application.
+ * <p>
+ * Tokens are issued and revoked for the same few applications, so an application is read from the application
+ * management service once and served from the cache for the rest of the token events of the application. Only the
+ * id, the name and the consumer key of an application are cached. An application is invalidated when it is updated or
+ * deleted on this node, and the cached applications expire after a time to live, which bounds how long a change made
+ * on another node is missed. The number of cached applications is bounded.
+ */
+public class ApplicationCache {
+
+    public static final long DEFAULT_TTL_SECONDS = 300;
+    public static final int DEFAULT_MAX_ENTRIES = 5000;
+
+    private final Map<Key, Entry> applications = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private volatile long ttlMillis = TimeUnit.SECONDS.toMillis(DEFAULT_TTL_SECONDS);
+    private volatile int maxEntries = DEFAULT_MAX_ENTRIES;
+
+    /**
+     * Get the application of the given consumer key, loading it if absent or expired.
+     *
+     * @param tenantDomain Tenant domain of the application.
+     * @param consumerKey  Consumer key of the application.
+     * @param loader       Loader of the application.
+     * @return Application, or null if there is no application of the consumer key.
+     * @throws IdentityApplicationManagementException If the application cannot be loaded.
+     */
+    public Application getByConsumerKey(String tenantDomain, String consumerKey, ApplicationLoader loader)
+            throws IdentityApplicationManagementException {
+
+        return get(new Key(tenantDomain, LookupType.CONSUMER_KEY, consumerKey), loader);
+    }
+
+    /**
+     * Get the application of the given resource id, loading it if absent or expired.
+     *
+     * @param tenantDomain Tenant domain of the application.
+     * @param resourceId   Resource id of the application.
+     * @param loader       Loader of the application.
+     * @return Application, or null if there is no application of the resource id.
+     * @throws IdentityApplicationManagementException If the application cannot be loaded.
+     */
+    public Application getByResourceId(String tenantDomain, String resourceId, ApplicationLoader loader)
+            throws IdentityApplicationManagementException {
+
+        return get(new Key(tenantDomain, LookupType.RESOURCE_ID, resourceId), loader);
+    }
+
+    /**
+     * Get the cached application of the given consumer key, without loading it.
+     *
+     * @param tenantDomain Tenant domain of the application.
+     * @param consumerKey  Consumer key of the application.
+     * @return Application, or null if absent or expired.
+     */
+    public Application getCachedByConsumerKey(String tenantDomain, String consumerKey) {
+
+        Entry entry = applications.get(new Key(tenantDomain, LookupType.CONSUMER_KEY, consumerKey));
+        if (isValid(entry)) {
+            hitCount.increment();
+            return entry.application;
+        }
+        return null;
+    }
+
+    /**
+     * Discard the cached application of the given resource id or name in a tenant, whatever it was looked up by.
+     *
+     * @param tenantDomain    Tenant domain of the application.
+     * @param resourceId      Resource id of the application, or null if unknown.
+     * @param applicationName Name of the application, or null if unknown.
+     */
+    public void invalidate(String tenantDomain, String resourceId, String applicationName) {
+
+        generation.incrementAndGet();
+        applications.entrySet().removeIf(application ->
+                Objects.equals(application.getKey().tenantDomain, tenantDomain) &&
+                        application.getValue().matches(resourceId, applicationName));
+    }
+
+    /**
+     * Discard the cached applications of a tenant.
+     *
+     * @param tenantDomain Tenant domain.
+     */
+    public void invalidateTenant(String tenantDomain) {
+
+        generation.incrementAndGet();
+        applications.keySet().removeIf(key -> Objects.equals(key.tenantDomain, tenantDomain));
+    }
+
+    /**
+     * Discard all cached applications.
+     */
+    public void invalidateAll() {
+
+        generation.incrementAndGet();
+        applications.clear();
+    }
+
+    /**
+     * Set the time to live of a cached application.
+     *
+     * @param ttlMillis Time to live in milliseconds. A non-positive value disables caching.
+     */
+    public void setTtl(long ttlMillis) {
+
+        this.ttlMillis = ttlMillis;
+        if (ttlMillis <= 0) {
+            invalidateAll();
+        }
+    }
+
+    public long getTtl() {
+
+        return ttlMillis;
+    }
+
+    /**
+     * Set the maximum number of cached applications.
+     *
+     * @param maxEntries Maximum number of cached applications.
+     */
+    public void setMaxEntries(int maxEntries) {
+
+        this.maxEntries = Math.max(maxEntries, 1);
+    }
+
+    public long getHitCount() {
+
+        return hitCount.sum();
+    }
+
+    public long getMissCount() {
+
+        return missCount.sum();
+    }
+
+    public int size() {
+
+        return applications.size();
+    }
+
+    private Application get(Key key, ApplicationLoader loader) throws IdentityApplicationManagementException {
+
+        Entry entry = applications.get(key);
+        if (isValid(entry)) {
+            hitCount.increment();
+            return entry.application;
+        }
+
+        missCount.increment();
+        long loadedGeneration = generation.get();
+        Application application = loader.load();
+        // An absent application is not cached, so an application created after the lookup is found. Do not keep an
+        // application loaded across an invalidation, it may be stale.
+        if (application != null && ttlMillis > 0 && loadedGeneration == generation.get()) {
+            evictIfFull(key);
+            applications.put(key, new Entry(application, System.currentTimeMillis()));
+        }
+        return application;
+    }
+
+    private void evictIfFull(Key key) {
+
+        if (applications.size() < maxEntries || applications.containsKey(key)) {
+            return;
+        }
+        // Evict an arbitrary application, which is loaded again on the next lookup.
+        Iterator<Key> iterator = applications.keySet().iterator();
+        if (iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    private boolean isValid(Entry entry) {
+
+        return entry != null && System.currentTimeMillis() - entry.cachedTime < ttlMillis;
+    }
+
+    /**
+     * Loader of an application absent from the cache.
+     */
+    @FunctionalInterface
+    public interface ApplicationLoader {
+
+        Application load() throws IdentityApplicationManagementException;
+    }
+
+    /**
+     * How an application is looked up.
+     */
+    private enum LookupType {
+        CONSUMER_KEY,
+        RESOURCE_ID
+    }
+
+    /**
+     * Tenant and lookup of a cached application.
+     */
+    private static final class Key {
+
+        private final String tenantDomain;
+        private final LookupType lookupType;
+        private final String value;
+        private final int hashCode;
+
+        Key(String tenantDomain, LookupType lookupType, String value) {
+
+            this.tenantDomain = tenantDomain;
+            this.lookupType = lookupType;
+            this.value = value;
+            this.hashCode = Objects.hash(tenantDomain, lookupType, value);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return lookupType == key.lookupType && Objects.equals(tenantDomain, key.tenantDomain) &&
+                    Objects.equals(value, key.value);
+        }
+
+        @Override
+        public int hashCode() {
+
+            return hashCode;
+        }
+    }
+
+    /**
+     * Cached application.
+     */
+    private static final class Entry {
+
+        private final Application application;
+        private final long cachedTime;
+
+        Entry(Application application, long cachedTime) {
+
+            this.application = application;
+            this.cachedTime = cachedTime;
+        }
+
+        boolean matches(String resourceId, String applicationName) {
+
+            return (resourceId != null && resourceId.equals(application.getId())) ||
+                    (applicationName != null && applicationName.equals(application.getName()));
+        }
+    }
+}
@@ -0,0 +1,291 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.webhook.wso2.event.handler.internal.cache;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.claim.metadata.mgt.ClaimMetadataManagementService;
+import org.wso2.carbon.identity.claim.metadata.mgt.exception.ClaimMetadataException;
+import org.wso2.carbon.identity.claim.metadata.mgt.model.LocalClaim;
+import org.wso2.carbon.identity.claim.metadata.mgt.util.ClaimConstants;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per tenant cache of the local claim metadata used to build the claims of the event payloads.
+ * <p>
+ * The local claims of a tenant are loaded with a single lookup the first time a claim of the tenant is resolved, and
+ * reduced to the set of the multi-valued claim URIs. The claim metadata of a tenant is served from that set until
+ * the tenant is invalidated, or the entry outlives the configured time to live, so changes of the claim dialects are
+ * picked up without a lookup per claim. The number of cached tenants is bounded.
+ * <p>
+ * Concurrent misses of a tenant share a single load, and a load that is in flight when its tenant is invalidated is
+ * not cached, without affecting the loads of the other tenants.
+ */
+public class ClaimMetadataCache {
+
+    private static final Log log = LogFactory.getLog(ClaimMetadataCache.class);
+    public static final long DEFAULT_TTL_SECONDS = 60;
+    public static final int DEFAULT_MAX_TENANTS = 1000;
+
+    private final Map<String, TenantClaimMetadata> tenantClaimMetadata = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<TenantClaimMetadata>> pendingLoads = new ConcurrentHashMap<>();
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder loadCount = new LongAdder();
+    private final LongAdder loadTimeNanos = new LongAdder();
+    private volatile long ttlMillis = TimeUnit.SECONDS.toMillis(DEFAULT_TTL_SECONDS);
+    private volatile int maxTenants = DEFAULT_MAX_TENANTS;
+
+    /**
+     * Check whether the given local claim is multi-valued in the given tenant, loading the claim metadata of the
+     * tenant from the given service if absent or expired.
+     *
+     * @param claimUri                       Local claim URI.
+     * @param tenantDomain                   Tenant domain.
+     * @param claimMetadataManagementService Claim metadata management service to load the claim metadata from.
+     * @return True if the claim is multi-valued, false if not or if the claim is unknown.
+     * @throws ClaimMetadataException If the claim metadata of the tenant cannot be loaded.
+     */
+    public boolean isMultiValuedClaim(String claimUri, String tenantDomain,
+                                      ClaimMetadataManagementService claimMetadataManagementService)
+            throws ClaimMetadataException {
+
+        TenantClaimMetadata metadata = tenantClaimMetadata.get(tenantDomain);
+        if (isValid(metadata)) {
+            hitCount.increment();
+        } else {
+            missCount.increment();
+            metadata = load(tenantDomain, claimMetadataManagementService);
+        }
+        return metadata.multiValuedClaimUris.contains(claimUri);
+    }
+
+    /**
+     * Discard the cached claim metadata of a tenant. It is loaded again on the next lookup of the tenant.
+     *
+     * @param tenantDomain Tenant domain.
+     */
+    public void invalidate(String tenantDomain) {
+
+        // Remove the pending load first, so that a load in flight does not cache the claim metadata it read.
+        pendingLoads.remove(tenantDomain);
+        tenantClaimMetadata.remove(tenantDomain);
+    }
+
+    /**
+     * Discard the cached claim metadata of all tenants.
+     */
+    public void invalidateAll() {
+
+        pendingLoads.clear();
+        tenantClaimMetadata.clear();
+    }
+
+    /**
+     * Set the time to live of the claim metadata of a tenant.
+     *
+     * @param ttlMillis Time to live in milliseconds. A non-positive value disables expiry.
+     */
+    public void setTtl(long ttlMillis) {
+
+        this.ttlMillis = ttlMillis;
+    }
+
+    public long getTtl() {
+
+        return ttlMillis;
+    }
+
+    /**
+     * Set the maximum number of tenants of which the claim metadata is cached.
+     *
+     * @param maxTenants Maximum number of tenants.
+     */
+    public void setMaxTenants(int maxTenants) {
+
+        this.maxTenants = Math.max(maxTenants, 1);
+    }
+
+    public int getMaxTenants() {
+
+        return maxTenants;
+    }
+
+    public long getHitCount() {
+
+        return hitCount.sum();
+    }
+
+    public long getMissCount() {
+
+        return missCount.sum();
+    }
+
+    public long getLoadCount() {
+
+        return loadCount.sum();
+    }
+
+    /**
+     * Get the ratio of the lookups served from the cache.
+     *
+     * @return Hit ratio between 0 and 1, or 0 if there were no lookups.
+     */
+    public double getHitRatio() {
+
+        long hits = hitCount.sum();
+        long lookups = hits + missCount.sum();
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    /**
+     * Get the total time spent loading the claim metadata of tenants.
+     *
+     * @return Load time in milliseconds.
+     */
+    public long getTotalLoadTime() {
+
+        return TimeUnit.NANOSECONDS.toMillis(loadTimeNanos.sum());
+    }
+
+    public int size() {
+
+        return tenantClaimMetadata.size();
+    }
+
+    private TenantClaimMetadata load(String tenantDomain, ClaimMetadataManagementService claimMetadataManagementService)
+            throws ClaimMetadataException {
+
+        CompletableFuture<TenantClaimMetadata> load = new CompletableFuture<>();
+        CompletableFuture<TenantClaimMetadata> pendingLoad = pendingLoads.putIfAbsent(tenantDomain, load);
+        if (pendingLoad != null) {
+            return awaitLoad(tenantDomain, pendingLoad);
+        }
+        TenantClaimMetadata metadata;
+        try {
+            metadata = loadClaimMetadata(tenantDomain, claimMetadataManagementService);
+        } catch (ClaimMetadataException | RuntimeException e) {
+            pendingLoads.remove(tenantDomain, load);
+            load.completeExceptionally(e);
+            throw e;
+        }
+        // Cache the claim metadata only if the tenant was not invalidated while it was loaded, it may be stale.
+        pendingLoads.computeIfPresent(tenantDomain, (key, currentLoad) -> {
+            if (currentLoad != load) {
+                return currentLoad;
+            }
+            evictIfFull(tenantDomain);
+            tenantClaimMetadata.put(tenantDomain, metadata);
+            return null;
+        });
+        load.complete(metadata);
+        return metadata;
+    }
+
+    private TenantClaimMetadata awaitLoad(String tenantDomain, CompletableFuture<TenantClaimMetadata> pendingLoad)
+            throws ClaimMetadataException {
+
+        try {
+            return pendingLoad.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof ClaimMetadataException) {
+                throw (ClaimMetadataException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new ClaimMetadataException("Error while loading the claim metadata of tenant: " + tenantDomain,
+                    cause);
+        }
+    }
+
+    private TenantClaimMetadata loadClaimMetadata(String tenantDomain,
+                                                  ClaimMetadataManagementService claimMetadataManagementService)
+            throws ClaimMetadataException {
+
+        long startTime = System.nanoTime();
+        List<LocalClaim> localClaims = claimMetadataManagementService.getLocalClaims(tenantDomain);
+        Set<String> multiValuedClaimUris = new HashSet<>();
+        if (localClaims != null) {
+            for (LocalClaim localClaim : localClaims) {
+                if (Boolean.parseBoolean(localClaim.getClaimProperty(ClaimConstants.MULTI_VALUED_PROPERTY))) {
+                    multiValuedClaimUris.add(localClaim.getClaimURI());
+                }
+            }
+        }
+        TenantClaimMetadata metadata = new TenantClaimMetadata(multiValuedClaimUris, System.currentTimeMillis());
+        loadTimeNanos.add(System.nanoTime() - startTime);
+        loadCount.increment();
+        if (log.isDebugEnabled()) {
+            log.debug("Loaded " + multiValuedClaimUris.size() + " multi-valued claims of tenant: " + tenantDomain +
+                    " into the claim metadata cache.");
+        }
+        return metadata;
+    }
+
+    private void evictIfFull(String tenantDomain) {
+
+        if (tenantClaimMetadata.size() < maxTenants || tenantClaimMetadata.containsKey(tenantDomain)) {
+            return;
+        }
+        // Evict an arbitrary tenant, the metadata of which is loaded again on its next lookup.
+        Iterator<String> iterator = tenantClaimMetadata.keySet().iterator();
+        if (iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    private boolean isValid(TenantClaimMetadata metadata) {
+
+        if (metadata == null) {
+            return false;
+        }
+        long ttl = ttlMillis;
+        return ttl <= 0 || System.currentTimeMillis() - metadata.loadedTime < ttl;
+    }
+
+    /**
+     * Claim metadata of a tenant.
+     */
+    private static class TenantClaimMetadata {
+
+        private final Set<String> multiValuedClaimUris;
+        private final long loadedTime;
+
+        TenantClaimMetadata(Set<String> multiValuedClaimUris, long loadedTime) {
+
+            this.multiValuedClaimUris = multiValuedClaimUris.isEmpty() ? Collections.emptySet() :
+                    multiValuedClaimUris;
+            this.loadedTime = loadedTime;
+        }
+    }
+}
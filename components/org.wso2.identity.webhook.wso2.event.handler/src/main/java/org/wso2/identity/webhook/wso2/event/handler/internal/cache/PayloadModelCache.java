@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.webhook.wso2.event.handler.internal.cache;
+
+import org.wso2.identity.webhook.wso2.event.handler.internal.model.common.Organization;
+import org.wso2.identity.webhook.wso2.event.handler.internal.model.common.Tenant;
+import org.wso2.identity.webhook.wso2.event.handler.internal.model.common.UserStore;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache of the immutable tenant, organization and user store models shared by the event payloads.
+ * <p>
+ * The tenant, the organization and the user store of the events of a tenant seldom change, so the payloads of the
+ * events share a single instance of each instead of building new ones per event. The tenants are cached by the tenant
+ * id, the organizations by the organization id and the user stores by the domain name. A cached model differing from
+ * the requested attributes, such as an organization after an update of its name, is replaced by a model of the
+ * requested attributes, so a stale model is never served. The number of cached models of each type is bounded.
+ */
+public class PayloadModelCache {
+
+    public static final int DEFAULT_MAX_ENTRIES = 10000;
+
+    private final Map<String, Tenant> tenants = new ConcurrentHashMap<>();
+    private final Map<String, Organization> organizations = new ConcurrentHashMap<>();
+    private final Map<String, UserStore> userStores = new ConcurrentHashMap<>();
+    private volatile int maxEntries = DEFAULT_MAX_ENTRIES;
+
+    /**
+     * Get the tenant of the given id and domain.
+     *
+     * @param id   Tenant id.
+     * @param name Tenant domain.
+     * @return Tenant.
+     */
+    public Tenant getTenant(String id, String name) {
+
+        if (id == null) {
+            return new Tenant(null, name);
+        }
+        Tenant tenant = tenants.get(id);
+        if (tenant == null || !Objects.equals(tenant.getName(), name)) {
+            tenant = new Tenant(id, name);
+            put(tenants, id, tenant);
+        }
+        return tenant;
+    }
+
+    /**
+     * Get the organization of the given attributes.
+     *
+     * @param id        Organization id.
+     * @param name      Organization name.
+     * @param orgHandle Organization handle.
+     * @param depth     Depth of the organization in the organization hierarchy.
+     * @return Organization.
+     */
+    public Organization getOrganization(String id, String name, String orgHandle, int depth) {
+
+        if (id == null) {
+            return new Organization(null, name, orgHandle, depth);
+        }
+        Organization organization = organizations.get(id);
+        if (organization == null || !Objects.equals(organization.getName(), name) ||
+                !Objects.equals(organization.getOrgHandle(), orgHandle) || organization.getDepth() != depth) {
+            organization = new Organization(id, name, orgHandle, depth);
+            put(organizations, id, organization);
+        }
+        return organization;
+    }
+
+    /**
+     * Get the user store of the given domain name.
+     *
+     * @param name User store domain name.
+     * @return User store.
+     */
+    public UserStore getUserStore(String name) {
+
+        UserStore userStore = userStores.get(name);
+        if (userStore == null) {
+            userStore = new UserStore(name);
+            put(userStores, name, userStore);
+        }
+        return userStore;
+    }
+
+    /**
+     * Discard all cached models.
+     */
+    public void invalidateAll() {
+
+        tenants.clear();
+        organizations.clear();
+        userStores.clear();
+    }
+
+    /**
+     * Set the maximum number of cached models of each type.
+     *
+     * @param maxEntries Maximum number of cached models of each type.
+     */
+    public void setMaxEntries(int maxEntries) {
+
+        this.maxEntries = Math.max(maxEntries, 1);
+    }
+
+    public int size() {
+
+        return tenants.size() + organizations.size() + userStores.size();
+    }
+
+    private <T> void put(Map<String, T> models, String key, T model) {
+
+        if (!models.containsKey(key)) {
+            evictIfFull(models);
+        }
+        models.put(key, model);
+    }
+
+    private <T> void evictIfFull(Map<String, T> models) {
+
+        if (models.size() < maxEntries) {
+            return;
+        }
+        // Evict an arbitrary model, which is built again on the next lookup.
+        Iterator<String> iterator = models.keySet().iterator();
+        if (iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+}
@@ -0,0 +1,438 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.webhook.wso2.event.handler.internal.cache;
+
+import org.apache.commons.lang.StringUtils;
+import org.wso2.carbon.identity.application.authentication.framework.util.FrameworkConstants;
+import org.wso2.carbon.user.api.UserStoreException;
+import org.wso2.carbon.user.api.UserStoreManager;
+import org.wso2.carbon.user.core.UniqueIDUserStoreManager;
+import org.wso2.carbon.user.core.UserCoreConstants;
+import org.wso2.carbon.user.core.util.UserCoreUtil;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.wso2.identity.webhook.wso2.event.handler.internal.constant.Constants.EMAIL_CLAIM_URI;
+import static org.wso2.identity.webhook.wso2.event.handler.internal.constant.Constants.USERNAME_CLAIM_URI;
+
+/**
+ * Short lived cache of the user claims the event payloads are enriched with, such as the id, the username and the
+ * email address of a user.
+ * <p>
+ * The same user often fires several events within a few seconds, such as a token issued, a session created and a
+ * login success event. The claims of a user are read from the user store with a single lookup, either by the user id
+ * or by the domain qualified username, and served from the cache for the rest of the events of the user. The cached
+ * users are kept per tenant, and indexed by their ids and usernames, so that a user changed by a user store operation
+ * is invalidated without scanning the cache. The cached claims expire after a short time to live, and the number of
+ * cached users is bounded.
+ */
+public class UserProjectionCache {
+
+    public static final long DEFAULT_TTL_SECONDS = 30;
+    public static final int DEFAULT_MAX_ENTRIES = 10000;
+
+    /**
+     * Claims read for a user looked up by the domain qualified username.
+     */
+    public static final String[] USERNAME_PROJECTION_CLAIMS =
+            {FrameworkConstants.USER_ID_CLAIM, FrameworkConstants.EMAIL_ADDRESS_CLAIM};
+    /**
+     * Claims read for a user looked up by the user id.
+     */
+    public static final String[] USER_ID_PROJECTION_CLAIMS = {USERNAME_CLAIM_URI, EMAIL_CLAIM_URI};
+
+    private static final String USER_ID_ALIAS_PREFIX = "id:";
+    private static final String USERNAME_ALIAS_PREFIX = "name:";
+
+    private final Map<String, TenantProjections> tenantProjections = new ConcurrentHashMap<>();
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private volatile long ttlMillis = TimeUnit.SECONDS.toMillis(DEFAULT_TTL_SECONDS);
+    private volatile int maxEntries = DEFAULT_MAX_ENTRIES;
+
+    /**
+     * Get the {@link #USERNAME_PROJECTION_CLAIMS} of the user of the given domain qualified username, reading them
+     * from the given user store manager if absent or expired.
+     *
+     * @param tenantDomain            Tenant domain of the user.
+     * @param domainQualifiedUsername Domain qualified username.
+     * @param userStoreManager        User store manager of the user.
+     * @return Claims of the user, without the claims the user does not have.
+     * @throws UserStoreException If the claims cannot be read.
+     */
+    public Map<String, String> getClaimsByUsername(String tenantDomain, String domainQualifiedUsername,
+                                                   UserStoreManager userStoreManager) throws UserStoreException {
+
+        TenantProjections projections = getTenantProjections(tenantDomain);
+        Key key = new Key(LookupType.USERNAME, domainQualifiedUsername);
+        Entry entry = projections.entries.get(key);
+        if (isValid(entry)) {
+            hitCount.increment();
+            return entry.claims;
+        }
+
+        missCount.increment();
+        long loadedGeneration = projections.generation.get();
+        Map<String, String> claims = userStoreManager.getUserClaimValues(domainQualifiedUsername,
+                USERNAME_PROJECTION_CLAIMS, UserCoreConstants.DEFAULT_PROFILE);
+        return put(projections, key, claims, loadedGeneration);
+    }
+
+    /**
+     * Get the {@link #USER_ID_PROJECTION_CLAIMS} of the user of the given id, reading them from the given user store
+     * manager if absent or expired.
+     *
+     * @param tenantDomain     Tenant domain of the user.
+     * @param userId           User id.
+     * @param userStoreManager User store manager of the user.
+     * @return Claims of the user, without the claims the user does not have.
+     * @throws UserStoreException If the claims cannot be read.
+     */
+    public Map<String, String> getClaimsByUserId(String tenantDomain, String userId,
+                                                 UniqueIDUserStoreManager userStoreManager)
+            throws UserStoreException {
+
+        TenantProjections projections = getTenantProjections(tenantDomain);
+        Key key = new Key(LookupType.USER_ID, userId);
+        Entry entry = projections.entries.get(key);
+        if (isValid(entry)) {
+            hitCount.increment();
+            return entry.claims;
+        }
+
+        missCount.increment();
+        long loadedGeneration = projections.generation.get();
+        Map<String, String> claims =
+                userStoreManager.getUserClaimValuesWithID(userId, USER_ID_PROJECTION_CLAIMS, null);
+        return put(projections, key, claims, loadedGeneration);
+    }
+
+    /**
+     * Discard the cached claims of a user of a tenant, whether looked up by the id or by the username.
+     *
+     * @param tenantDomain Tenant domain of the user.
+     * @param userId       User id, or null if unknown.
+     * @param username     Username, with or without the user store domain, or null if unknown.
+     */
+    public void invalidate(String tenantDomain, String userId, String username) {
+
+        if (StringUtils.isBlank(userId) && StringUtils.isBlank(username)) {
+            return;
+        }
+        TenantProjections projections = tenantProjections.get(tenantDomain);
+        if (projections == null) {
+            return;
+        }
+        projections.generation.incrementAndGet();
+        if (StringUtils.isNotBlank(userId)) {
+            invalidateAlias(projections, getUserIdAlias(userId));
+        }
+        if (StringUtils.isNotBlank(username)) {
+            invalidateAlias(projections, getUsernameAlias(username));
+        }
+    }
+
+    /**
+     * Discard the cached claims of all users of a tenant.
+     *
+     * @param tenantDomain Tenant domain.
+     */
+    public void invalidateTenant(String tenantDomain) {
+
+        TenantProjections projections = tenantProjections.remove(tenantDomain);
+        if (projections != null) {
+            // The claims being read for the tenant are put to the discarded projections, and are not served.
+            projections.generation.incrementAndGet();
+        }
+    }
+
+    /**
+     * Discard the cached claims of all users.
+     */
+    public void invalidateAll() {
+
+        for (String tenantDomain : tenantProjections.keySet()) {
+            invalidateTenant(tenantDomain);
+        }
+    }
+
+    /**
+     * Set the time to live of the cached claims of a user.
+     *
+     * @param ttlMillis Time to live in milliseconds. A non-positive value disables caching.
+     */
+    public void setTtl(long ttlMillis) {
+
+        this.ttlMillis = ttlMillis;
+        if (ttlMillis <= 0) {
+            invalidateAll();
+        }
+    }
+
+    public long getTtl() {
+
+        return ttlMillis;
+    }
+
+    /**
+     * Set the maximum number of cached users.
+     *
+     * @param maxEntries Maximum number of cached users.
+     */
+    public void setMaxEntries(int maxEntries) {
+
+        this.maxEntries = Math.max(maxEntries, 1);
+    }
+
+    public long getHitCount() {
+
+        return hitCount.sum();
+    }
+
+    public long getMissCount() {
+
+        return missCount.sum();
+    }
+
+    public int size() {
+
+        int size = 0;
+        for (TenantProjections projections : tenantProjections.values()) {
+            size += projections.entries.size();
+        }
+        return size;
+    }
+
+    private TenantProjections getTenantProjections(String tenantDomain) {
+
+        return tenantProjections.computeIfAbsent(tenantDomain, domain -> new TenantProjections());
+    }
+
+    private Map<String, String> put(TenantProjections projections, Key key, Map<String, String> claims,
+                                    long loadedGeneration) {
+
+        Map<String, String> projection = claims == null || claims.isEmpty() ? Collections.emptyMap() :
+                Collections.unmodifiableMap(new HashMap<>(claims));
+        // Do not keep claims read across an invalidation, they may be stale. Claims are not cached without a TTL.
+        if (ttlMillis > 0 && loadedGeneration == projections.generation.get()) {
+            evictIfFull(projections, key);
+            Entry entry = new Entry(projection, System.currentTimeMillis());
+            Set<String> aliases = getAliases(key, entry);
+            // The user is indexed before it is cached, so an invalidation never misses a cached user.
+            for (String alias : aliases) {
+                projections.addAlias(alias, key);
+            }
+            Entry previousEntry = projections.entries.put(key, entry);
+            if (previousEntry != null) {
+                for (String alias : getAliases(key, previousEntry)) {
+                    if (!aliases.contains(alias)) {
+                        projections.removeAlias(alias, key);
+                    }
+                }
+            }
+        }
+        return projection;
+    }
+
+    private void evictIfFull(TenantProjections projections, Key key) {
+
+        if (projections.entries.containsKey(key) || size() < maxEntries) {
+            return;
+        }
+        // Evict an arbitrary user, preferably of the same tenant, the claims of which are read again on the next
+        // lookup.
+        if (evictAny(projections)) {
+            return;
+        }
+        for (TenantProjections otherProjections : tenantProjections.values()) {
+            if (evictAny(otherProjections)) {
+                return;
+            }
+        }
+    }
+
+    private static boolean evictAny(TenantProjections projections) {
+
+        Iterator<Map.Entry<Key, Entry>> iterator = projections.entries.entrySet().iterator();
+        if (!iterator.hasNext()) {
+            return false;
+        }
+        Map.Entry<Key, Entry> evicted = iterator.next();
+        if (projections.entries.remove(evicted.getKey(), evicted.getValue())) {
+            removeAliases(projections, evicted.getKey(), evicted.getValue());
+        }
+        return true;
+    }
+
+    private static void invalidateAlias(TenantProjections projections, String alias) {
+
+        Set<Key> keys = projections.aliases.remove(alias);
+        if (keys == null) {
+            return;
+        }
+        for (Key key : keys) {
+            Entry entry = projections.entries.remove(key);
+            if (entry != null) {
+                removeAliases(projections, key, entry);
+            }
+        }
+    }
+
+    private static void removeAliases(TenantProjections projections, Key key, Entry entry) {
+
+        for (String alias : getAliases(key, entry)) {
+            projections.removeAlias(alias, key);
+        }
+    }
+
+    /**
+     * Get the ids and usernames a cached user is invalidated by. A user looked up by the username is also matched by
+     * its id claim, and a user looked up by the id is also matched by its username claim.
+     */
+    private static Set<String> getAliases(Key key, Entry entry) {
+
+        Set<String> aliases = new HashSet<>();
+        if (key.user != null) {
+            aliases.add(key.lookupType == LookupType.USER_ID ? getUserIdAlias(key.user) :
+                    getUsernameAlias(key.user));
+        }
+        String cachedUserId = entry.claims.get(FrameworkConstants.USER_ID_CLAIM);
+        if (cachedUserId != null) {
+            aliases.add(getUserIdAlias(cachedUserId));
+        }
+        String cachedUsername = entry.claims.get(USERNAME_CLAIM_URI);
+        if (cachedUsername != null) {
+            aliases.add(getUsernameAlias(cachedUsername));
+        }
+        return aliases;
+    }
+
+    private static String getUserIdAlias(String userId) {
+
+        return USER_ID_ALIAS_PREFIX + userId;
+    }
+
+    private static String getUsernameAlias(String username) {
+
+        return USERNAME_ALIAS_PREFIX + UserCoreUtil.removeDomainFromName(username).toLowerCase(Locale.ENGLISH);
+    }
+
+    private boolean isValid(Entry entry) {
+
+        return entry != null && System.currentTimeMillis() - entry.cachedTime < ttlMillis;
+    }
+
+    /**
+     * How a user is looked up.
+     */
+    private enum LookupType {
+        USERNAME,
+        USER_ID
+    }
+
+    /**
+     * Cached users of a tenant, and the cached users of each id and username of the tenant.
+     */
+    private static final class TenantProjections {
+
+        private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+        // The key sets are only accessed within the atomic operations of the map, or after being removed from it.
+        private final Map<String, Set<Key>> aliases = new ConcurrentHashMap<>();
+        private final AtomicLong generation = new AtomicLong();
+
+        void addAlias(String alias, Key key) {
+
+            aliases.compute(alias, (name, keys) -> {
+                Set<Key> aliasKeys = keys != null ? keys : new HashSet<>();
+                aliasKeys.add(key);
+                return aliasKeys;
+            });
+        }
+
+        void removeAlias(String alias, Key key) {
+
+            aliases.computeIfPresent(alias, (name, keys) -> {
+                keys.remove(key);
+                return keys.isEmpty() ? null : keys;
+            });
+        }
+    }
+
+    /**
+     * Lookup of a cached user of a tenant.
+     */
+    private static final class Key {
+
+        private final LookupType lookupType;
+        private final String user;
+        private final int hashCode;
+
+        Key(LookupType lookupType, String user) {
+
+            this.lookupType = lookupType;
+            this.user = user;
+            this.hashCode = Objects.hash(lookupType, user);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return lookupType == key.lookupType && Objects.equals(user, key.user);
+        }
+
+        @Override
+        public int hashCode() {
+
+            return hashCode;
+        }
+    }
+
+    /**
+     * Cached claims of a user.
+     */
+    private static final class Entry {
+
+        private final Map<String, String> claims;
+        private final long cachedTime;
+
+        Entry(Map<String, String> claims, long cachedTime) {
+
+            this.claims = claims;
+            this.cachedTime = cachedTime;
+        }
+    }
+}
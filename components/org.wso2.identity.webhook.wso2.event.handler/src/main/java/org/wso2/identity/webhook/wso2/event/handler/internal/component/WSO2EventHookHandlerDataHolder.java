@@ -23,6 +23,13 @@ import org.wso2.carbon.identity.application.mgt.ApplicationManagementService;
 import org.wso2.carbon.identity.claim.metadata.mgt.ClaimMetadataManagementService;
 import org.wso2.carbon.identity.organization.management.service.OrganizationManager;
 import org.wso2.carbon.user.core.service.RealmService;
+import org.wso2.identity.webhook.wso2.event.handler.internal.cache.ApplicationCache;
+import org.wso2.identity.webhook.wso2.event.handler.internal.cache.ClaimMetadataCache;
+import org.wso2.identity.webhook.wso2.event.handler.internal.cache.PayloadModelCache;
+import org.wso2.identity.webhook.wso2.event.handler.internal.cache.UserProjectionCache;
+import org.wso2.identity.webhook.wso2.event.handler.internal.util.ApplicationResolver;
+import org.wso2.identity.webhook.wso2.event.handler.internal.util.BulkUserResolver;
+import org.wso2.identity.webhook.wso2.event.handler.internal.util.SessionFetcher;
 
 /**
  * A data holder class to keep the data of the event handler component.
@@ -36,6 +43,13 @@ public class WSO2EventHookHandlerDataHolder {
     private ApplicationManagementService applicationManagementService;
 
     private UserSessionManagementService userSessionManagementService;
+    private final ClaimMetadataCache claimMetadataCache = new ClaimMetadataCache();
+    private final BulkUserResolver bulkUserResolver = new BulkUserResolver();
+    private final UserProjectionCache userProjectionCache = new UserProjectionCache();
+    private final SessionFetcher sessionFetcher = new SessionFetcher();
+    private final ApplicationCache applicationCache = new ApplicationCache();
+    private final ApplicationResolver applicationResolver = new ApplicationResolver();
+    private final PayloadModelCache payloadModelCache = new PayloadModelCache();
 
     private WSO2EventHookHandlerDataHolder() {
 
@@ -84,6 +98,7 @@ public class WSO2EventHookHandlerDataHolder {
     public void setRealmService(RealmService realmService) {
 
         this.realmService = realmService;
+        userProjectionCache.invalidateAll();
     }
 
     /**
@@ -105,6 +120,77 @@ public class WSO2EventHookHandlerDataHolder {
             ClaimMetadataManagementService claimMetadataManagementService) {
 
         this.claimMetadataManagementService = claimMetadataManagementService;
+        claimMetadataCache.invalidateAll();
+    }
+
+    /**
+     * Get the per tenant cache of the local claim metadata.
+     *
+     * @return Claim metadata cache.
+     */
+    public ClaimMetadataCache getClaimMetadataCache() {
+
+        return claimMetadataCache;
+    }
+
+    /**
+     * Get the resolver of the claims of many users, such as the members of a group.
+     *
+     * @return Bulk user resolver.
+     */
+    public BulkUserResolver getBulkUserResolver() {
+
+        return bulkUserResolver;
+    }
+
+    /**
+     * Get the short lived cache of the user claims the event payloads are enriched with.
+     *
+     * @return User projection cache.
+     */
+    public UserProjectionCache getUserProjectionCache() {
+
+        return userProjectionCache;
+    }
+
+    /**
+     * Get the fetcher of the sessions of an event terminating many sessions.
+     *
+     * @return Session fetcher.
+     */
+    public SessionFetcher getSessionFetcher() {
+
+        return sessionFetcher;
+    }
+
+    /**
+     * Get the cache of the applications the token event payloads are enriched with.
+     *
+     * @return Application cache.
+     */
+    public ApplicationCache getApplicationCache() {
+
+        return applicationCache;
+    }
+
+    /**
+     * Get the resolver of the applications the token event payloads are enriched with.
+     *
+     * @return Application resolver.
+     */
+    public ApplicationResolver getApplicationResolver() {
+
+        return applicationResolver;
+    }
+
+    /**
+     * Get the cache of the tenant, organization and user store models shared by the event payloads.
+     *
+     * @return Payload model cache.
+     */
+    public PayloadModelCache getPayloadModelCache() {
+
+        return payloadModelCache;
     }
 
     /**
@@ -146,5 +232,6 @@ public class WSO2EventHookHandlerDataHolder {
     public void setApplicationManagementService(ApplicationManagementService applicationManagementService) {
 
         this.applicationManagementService = applicationManagementService;
+        applicationCache.invalidateAll();
     }
 }
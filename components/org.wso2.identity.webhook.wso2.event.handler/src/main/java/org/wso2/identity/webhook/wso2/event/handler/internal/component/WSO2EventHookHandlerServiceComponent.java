@@ -29,8 +29,10 @@ import org.osgi.service.component.annotations.ReferenceCardinality;
 import org.osgi.service.component.annotations.ReferencePolicy;
 import org.wso2.carbon.identity.application.authentication.framework.UserSessionManagementService;
 import org.wso2.carbon.identity.application.mgt.ApplicationManagementService;
+import org.wso2.carbon.identity.application.mgt.listener.ApplicationMgtListener;
 import org.wso2.carbon.identity.claim.metadata.mgt.ClaimMetadataManagementService;
 import org.wso2.carbon.identity.organization.management.service.OrganizationManager;
+import org.wso2.carbon.user.core.listener.UserOperationEventListener;
 import org.wso2.carbon.user.core.service.RealmService;
 import org.wso2.identity.webhook.common.event.handler.api.builder.TokenEventPayloadBuilder;
 import org.wso2.identity.webhook.common.event.handler.api.service.EventProfileManager;
@@ -40,6 +42,8 @@ import org.wso2.identity.webhook.common.event.handler.api.builder.RegistrationEv
 import org.wso2.identity.webhook.common.event.handler.api.builder.SessionEventPayloadBuilder;
 import org.wso2.identity.webhook.common.event.handler.api.builder.UserOperationEventPayloadBuilder;
 import org.wso2.identity.webhook.wso2.event.handler.api.builder.WSO2TokenEventPayloadBuilder;
+import org.wso2.identity.webhook.wso2.event.handler.internal.listener.ApplicationCacheInvalidationListener;
+import org.wso2.identity.webhook.wso2.event.handler.internal.listener.UserProjectionCacheInvalidationListener;
 import org.wso2.identity.webhook.wso2.event.handler.internal.service.impl.WSO2EventProfileManager;
 import org.wso2.identity.webhook.wso2.event.handler.api.builder.WSO2CredentialEventPayloadBuilder;
 import org.wso2.identity.webhook.wso2.event.handler.api.builder.WSO2LoginEventPayloadBuilder;
@@ -78,6 +82,11 @@ public class WSO2EventHookHandlerServiceComponent {
                     new WSO2RegistrationEventPayloadBuilder(), null);
             context.getBundleContext().registerService(TokenEventPayloadBuilder.class.getName(),
                     new WSO2TokenEventPayloadBuilder(), null);
+
+            context.getBundleContext().registerService(ApplicationMgtListener.class.getName(),
+                    new ApplicationCacheInvalidationListener(), null);
+            context.getBundleContext().registerService(UserOperationEventListener.class.getName(),
+                    new UserProjectionCacheInvalidationListener(), null);
         } catch (Exception e) {
             log.error("Error while activating event handler.", e);
         }
@@ -86,6 +95,9 @@ public class WSO2EventHookHandlerServiceComponent {
     @Deactivate
     protected void deactivate(ComponentContext context) {
 
+        WSO2EventHookHandlerDataHolder.getInstance().getBulkUserResolver().shutdown();
+        WSO2EventHookHandlerDataHolder.getInstance().getSessionFetcher().shutdown();
+        WSO2EventHookHandlerDataHolder.getInstance().getApplicationResolver().shutdown();
         log.debug("WSO2 Event Handler is deactivated.");
     }
 
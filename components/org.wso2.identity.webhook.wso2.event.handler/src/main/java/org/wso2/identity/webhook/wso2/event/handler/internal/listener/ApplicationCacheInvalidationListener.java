@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.webhook.wso2.event.handler.internal.listener;
+
+import org.wso2.carbon.identity.application.common.IdentityApplicationManagementException;
+import org.wso2.carbon.identity.application.common.model.ServiceProvider;
+import org.wso2.carbon.identity.application.mgt.listener.AbstractApplicationMgtListener;
+import org.wso2.identity.webhook.wso2.event.handler.internal.component.WSO2EventHookHandlerDataHolder;
+
+/**
+ * Application management listener discarding the cached applications of the token event payloads when an application
+ * is updated or deleted.
+ */
+public class ApplicationCacheInvalidationListener extends AbstractApplicationMgtListener {
+
+    private static final int DEFAULT_ORDER_ID = 250;
+
+    @Override
+    public int getDefaultOrderId() {
+
+        return DEFAULT_ORDER_ID;
+    }
+
+    @Override
+    public boolean doPostUpdateApplication(ServiceProvider serviceProvider, String tenantDomain, String userName)
+            throws IdentityApplicationManagementException {
+
+        if (serviceProvider != null) {
+            WSO2EventHookHandlerDataHolder.getInstance().getApplicationCache().invalidate(tenantDomain,
+                    serviceProvider.getApplicationResourceId(), serviceProvider.getApplicationName());
+        }
+        return true;
+    }
+
+    @Override
+    public boolean doPreDeleteApplication(String applicationName, String tenantDomain, String userName)
+            throws IdentityApplicationManagementException {
+
+        WSO2EventHookHandlerDataHolder.getInstance().getApplicationCache().invalidate(tenantDomain, null,
+                applicationName);
+        return true;
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.webhook.wso2.event.handler.internal.listener;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.core.AbstractIdentityUserOperationEventListener;
+import org.wso2.carbon.identity.core.util.IdentityCoreConstants;
+import org.wso2.carbon.identity.core.util.IdentityTenantUtil;
+import org.wso2.carbon.user.core.UserStoreException;
+import org.wso2.carbon.user.core.UserStoreManager;
+import org.wso2.identity.webhook.wso2.event.handler.internal.component.WSO2EventHookHandlerDataHolder;
+
+import java.util.Map;
+
+/**
+ * User operation event listener discarding the cached user claims of the event payloads when a user is updated,
+ * locked or deleted.
+ * <p>
+ * The listener runs for every user store operation, whether or not a webhook is subscribed to the event, so the
+ * events fired after the operation never read the claims cached before it. Locking an account updates the account
+ * locked claim of the user, and is handled as a claim update.
+ */
+public class UserProjectionCacheInvalidationListener extends AbstractIdentityUserOperationEventListener {
+
+    private static final Log log = LogFactory.getLog(UserProjectionCacheInvalidationListener.class);
+    private static final int DEFAULT_ORDER_ID = 250;
+
+    @Override
+    public int getExecutionOrderId() {
+
+        int orderId = getOrderId();
+        if (orderId != IdentityCoreConstants.EVENT_LISTENER_ORDER_ID) {
+            return orderId;
+        }
+        return DEFAULT_ORDER_ID;
+    }
+
+    @Override
+    public boolean doPostSetUserClaimValues(String userName, Map<String, String> claims, String profileName,
+                                            UserStoreManager userStoreManager) throws UserStoreException {
+
+        invalidate(null, userName, userStoreManager);
+        return true;
+    }
+
+    @Override
+    public boolean doPostSetUserClaimValue(String userName, UserStoreManager userStoreManager)
+            throws UserStoreException {
+
+        invalidate(null, userName, userStoreManager);
+        return true;
+    }
+
+    @Override
+    public boolean doPostSetUserClaimValuesWithID(String userID, Map<String, String> claims, String profileName,
+                                                  UserStoreManager userStoreManager) throws UserStoreException {
+
+        invalidate(userID, null, userStoreManager);
+        return true;
+    }
+
+    @Override
+    public boolean doPostSetUserClaimValueWithID(String userID, UserStoreManager userStoreManager)
+            throws UserStoreException {
+
+        invalidate(userID, null, userStoreManager);
+        return true;
+    }
+
+    @Override
+    public boolean doPostDeleteUser(String userName, UserStoreManager userStoreManager) throws UserStoreException {
+
+        invalidate(null, userName, userStoreManager);
+        return true;
+    }
+
+    @Override
+    public boolean doPostDeleteUserWithID(String userID, UserStoreManager userStoreManager)
+            throws UserStoreException {
+
+        invalidate(userID, null, userStoreManager);
+        return true;
+    }
+
+    private void invalidate(String userId, String userName, UserStoreManager userStoreManager) {
+
+        if (!isEnable() || userStoreManager == null) {
+            return;
+        }
+        try {
+            String tenantDomain = IdentityTenantUtil.getTenantDomain(userStoreManager.getTenantId());
+            WSO2EventHookHandlerDataHolder.getInstance().getUserProjectionCache()
+                    .invalidate(tenantDomain, userId, userName);
+        } catch (UserStoreException | RuntimeException e) {
+            // The cached claims of the user expire after the time to live of the cache.
+            log.warn("Error while discarding the cached claims of the updated user.", e);
+        }
+    }
+}
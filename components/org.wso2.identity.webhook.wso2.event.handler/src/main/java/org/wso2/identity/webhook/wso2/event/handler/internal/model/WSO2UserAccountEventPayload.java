@@ -18,12 +18,20 @@
 
 package org.wso2.identity.webhook.wso2.event.handler.internal.model;
 
+import org.wso2.carbon.identity.event.publisher.api.model.EventPayload;
+import org.wso2.identity.webhook.common.event.handler.api.model.MergeableEventPayload;
 import org.wso2.identity.webhook.wso2.event.handler.internal.model.common.Organization;
 import org.wso2.identity.webhook.wso2.event.handler.internal.model.common.Tenant;
 import org.wso2.identity.webhook.wso2.event.handler.internal.model.common.User;
+import org.wso2.identity.webhook.wso2.event.handler.internal.model.common.UserClaim;
 import org.wso2.identity.webhook.wso2.event.handler.internal.model.common.UserStore;
 
-public class WSO2UserAccountEventPayload extends WSO2BaseEventPayload {
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class WSO2UserAccountEventPayload extends WSO2BaseEventPayload implements MergeableEventPayload {
 
     private String action;
 
@@ -47,6 +55,71 @@ public class WSO2UserAccountEventPayload extends WSO2BaseEventPayload {
         this.action = builder.action;
     }
 
+    /**
+     * Merge the claim changes of this payload with the claim changes of a later payload of the same user, so the
+     * merged payload describes the net change of the claims. The other fields are taken from the later payload.
+     *
+     * @param laterEventPayload Payload of the later event.
+     * @return Later payload, carrying the merged claim changes.
+     */
+    @Override
+    public EventPayload merge(EventPayload laterEventPayload) {
+
+        if (!(laterEventPayload instanceof WSO2UserAccountEventPayload) || user == null ||
+                ((WSO2UserAccountEventPayload) laterEventPayload).getUser() == null) {
+            return laterEventPayload;
+        }
+        User laterUser = ((WSO2UserAccountEventPayload) laterEventPayload).getUser();
+        Map<String, UserClaim> addedClaims = toClaimMap(user.getAddedClaims());
+        Map<String, UserClaim> updatedClaims = toClaimMap(user.getUpdatedClaims());
+        Map<String, UserClaim> removedClaims = toClaimMap(user.getRemovedClaims());
+
+        for (UserClaim claim : toClaimMap(laterUser.getAddedClaims()).values()) {
+            // A claim removed and added again existed before the first event, so it is updated.
+            if (removedClaims.remove(claim.getUri()) != null) {
+                updatedClaims.put(claim.getUri(), claim);
+            } else {
+                addedClaims.put(claim.getUri(), claim);
+            }
+        }
+        for (UserClaim claim : toClaimMap(laterUser.getUpdatedClaims()).values()) {
+            removedClaims.remove(claim.getUri());
+            if (addedClaims.containsKey(claim.getUri())) {
+                addedClaims.put(claim.getUri(), claim);
+            } else {
+                updatedClaims.put(claim.getUri(), claim);
+            }
+        }
+        for (UserClaim claim : toClaimMap(laterUser.getRemovedClaims()).values()) {
+            // A claim added and removed again did not exist before the first event, so it is not changed.
+            if (addedClaims.remove(claim.getUri()) == null) {
+                updatedClaims.remove(claim.getUri());
+                removedClaims.put(claim.getUri(), claim);
+            }
+        }
+
+        laterUser.setAddedClaims(toClaimList(addedClaims));
+        laterUser.setUpdatedClaims(toClaimList(updatedClaims));
+        laterUser.setRemovedClaims(toClaimList(removedClaims));
+        return laterEventPayload;
+    }
+
+    private static Map<String, UserClaim> toClaimMap(List<UserClaim> claims) {
+
+        Map<String, UserClaim> claimMap = new LinkedHashMap<>();
+        if (claims != null) {
+            for (UserClaim claim : claims) {
+                claimMap.put(claim.getUri(), claim);
+            }
+        }
+        return claimMap;
+    }
+
+    private static List<UserClaim> toClaimList(Map<String, UserClaim> claimMap) {
+
+        return claimMap.isEmpty() ? null : new ArrayList<>(claimMap.values());
+    }
+
     /**
      * Builder class to build WSO2UserDeleteEventPayload.
      */
@@ -18,9 +18,13 @@
 
 package org.wso2.identity.webhook.wso2.event.handler.internal.model.common;
 
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import org.wso2.identity.webhook.wso2.event.handler.internal.serializer.ApplicationSerializer;
+
 /**
  * Application class.
  */
+@JsonSerialize(using = ApplicationSerializer.class)
 public class Application {
 
     private String id;
@@ -18,9 +18,13 @@
 
 package org.wso2.identity.webhook.wso2.event.handler.internal.model.common;
 
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import org.wso2.identity.webhook.wso2.event.handler.internal.serializer.OrganizationSerializer;
+
 /**
  * Organization class.
  */
+@JsonSerialize(using = OrganizationSerializer.class)
 public class Organization {
 
     private final String id;
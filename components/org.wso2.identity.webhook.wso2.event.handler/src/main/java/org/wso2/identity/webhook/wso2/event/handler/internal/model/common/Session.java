@@ -18,12 +18,16 @@
 
 package org.wso2.identity.webhook.wso2.event.handler.internal.model.common;
 
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import org.wso2.identity.webhook.wso2.event.handler.internal.serializer.SessionSerializer;
+
 import java.util.Date;
 import java.util.List;
 
 /**
  * This class represents a session.
  */
+@JsonSerialize(using = SessionSerializer.class)
 public class Session {
 
     private final String id;
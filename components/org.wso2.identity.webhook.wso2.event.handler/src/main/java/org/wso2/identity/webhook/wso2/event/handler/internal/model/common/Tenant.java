@@ -18,9 +18,13 @@
 
 package org.wso2.identity.webhook.wso2.event.handler.internal.model.common;
 
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import org.wso2.identity.webhook.wso2.event.handler.internal.serializer.TenantSerializer;
+
 /**
  * Tenant class representing a tenant in the system.
  */
+@JsonSerialize(using = TenantSerializer.class)
 public class Tenant {
 
     private final String id;
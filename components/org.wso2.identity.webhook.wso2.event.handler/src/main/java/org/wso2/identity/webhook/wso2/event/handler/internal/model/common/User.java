@@ -18,20 +18,26 @@
 
 package org.wso2.identity.webhook.wso2.event.handler.internal.model.common;
 
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import org.wso2.identity.webhook.wso2.event.handler.internal.serializer.UserSerializer;
+
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
  * User class.
  */
+@JsonSerialize(using = UserSerializer.class)
 public class User {
 
     private String id;
     private List<UserClaim> claims;
     private Organization organization;
     private String ref;
-    private List<String> groups = new ArrayList<>();
-    private List<String> roles = new ArrayList<>();
+    // Most users of the events have no groups or roles, so the lists are only allocated when one is added.
+    private List<String> groups;
+    private List<String> roles;
     private List<UserClaim> additionalClaims;
     private List<UserClaim> addedClaims;
     private List<UserClaim> updatedClaims;
@@ -39,7 +45,7 @@ public class User {
 
     public List<String> getGroups() {
 
-        return groups;
+        return groups != null ? groups : Collections.emptyList();
     }
 
     public void setGroups(List<String> groups) {
@@ -69,12 +75,15 @@ public class User {
 
     public void addGroup(String group) {
 
+        if (this.groups == null) {
+            this.groups = new ArrayList<>();
+        }
         this.groups.add(group);
     }
 
     public List<String> getRoles() {
 
-        return roles;
+        return roles != null ? roles : Collections.emptyList();
     }
 
     public void setRoles(List<String> roles) {
@@ -84,6 +93,9 @@ public class User {
 
     public void addRole(String role) {
 
+        if (this.roles == null) {
+            this.roles = new ArrayList<>();
+        }
         this.roles.add(role);
     }
 
@@ -18,16 +18,20 @@
 
 package org.wso2.identity.webhook.wso2.event.handler.internal.model.common;
 
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import org.wso2.identity.webhook.wso2.event.handler.internal.serializer.UserStoreSerializer;
+
 import java.nio.charset.StandardCharsets;
 import java.util.Base64;
 
 /**
  * User store class.
  */
+@JsonSerialize(using = UserStoreSerializer.class)
 public class UserStore {
 
-    private String id;
-    private String name;
+    private final String id;
+    private final String name;
 
     public UserStore(String name) {
 
@@ -40,18 +44,8 @@ public class UserStore {
         return id;
     }
 
-    public void setId(String id) {
-
-        this.id = id;
-    }
-
     public String getName() {
 
         return name;
     }
-
-    public void setName(String name) {
-
-        this.name = name;
-    }
 }
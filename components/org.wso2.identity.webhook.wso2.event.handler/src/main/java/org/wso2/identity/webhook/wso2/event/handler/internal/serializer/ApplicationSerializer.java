@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.webhook.wso2.event.handler.internal.serializer;
+
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import org.wso2.identity.webhook.wso2.event.handler.internal.model.common.Application;
+
+import java.io.IOException;
+
+/**
+ * Serializer of {@link Application}.
+ */
+public class ApplicationSerializer extends ModelSerializer<Application> {
+
+    private static final long serialVersionUID = 1L;
+    private static final SerializableString ID = new SerializedString("id");
+    private static final SerializableString NAME = new SerializedString("name");
+    private static final SerializableString CONSUMER_KEY = new SerializedString("consumerKey");
+
+    public ApplicationSerializer() {
+
+        super(Application.class);
+    }
+
+    @Override
+    protected void writeFields(Application application, FieldWriter writer) throws IOException {
+
+        writer.writeString(ID, application.getId());
+        writer.writeString(NAME, application.getName());
+        writer.writeString(CONSUMER_KEY, application.getConsumerKey());
+    }
+}
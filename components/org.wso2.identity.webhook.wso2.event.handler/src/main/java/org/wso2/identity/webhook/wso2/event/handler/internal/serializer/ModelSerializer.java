@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.webhook.wso2.event.handler.internal.serializer;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Base of the hand written Jackson serializers of the payload models.
+ * <p>
+ * The payload models are serialized by the event publishers with their own object mappers. A model annotated with a
+ * subclass of this serializer is written field by field with precomputed field names, instead of through the bean
+ * properties Jackson introspects from the getters. The fields are the ones of the getters of the model, and a null or
+ * empty field is left out as the default property inclusion of the object mapper would, so the output is the same.
+ *
+ * @param <T> Type of the serialized model.
+ */
+public abstract class ModelSerializer<T> extends StdSerializer<T> {
+
+    private static final long serialVersionUID = 1L;
+
+    protected ModelSerializer(Class<T> type) {
+
+        super(type);
+    }
+
+    @Override
+    public void serialize(T value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+
+        gen.writeStartObject(value);
+        writeFields(value, new FieldWriter(gen, provider, inclusionOf(provider)));
+        gen.writeEndObject();
+    }
+
+    /**
+     * Write the fields of the given model.
+     *
+     * @param value  Model.
+     * @param writer Writer of the fields.
+     * @throws IOException If a field cannot be written.
+     */
+    protected abstract void writeFields(T value, FieldWriter writer) throws IOException;
+
+    private JsonInclude.Include inclusionOf(SerializerProvider provider) {
+
+        JsonInclude.Value inclusion = provider.getConfig().getDefaultPropertyInclusion(handledType());
+        return inclusion != null ? inclusion.getValueInclusion() : JsonInclude.Include.ALWAYS;
+    }
+
+    /**
+     * Writer of the fields of a model, leaving out the fields excluded by the property inclusion of the object mapper.
+     */
+    protected static final class FieldWriter {
+
+        private final JsonGenerator gen;
+        private final SerializerProvider provider;
+        private final JsonInclude.Include inclusion;
+
+        FieldWriter(JsonGenerator gen, SerializerProvider provider, JsonInclude.Include inclusion) {
+
+            this.gen = gen;
+            this.provider = provider;
+            this.inclusion = inclusion;
+        }
+
+        public void writeString(SerializableString name, String value) throws IOException {
+
+            if (isIncluded(value, value != null && value.isEmpty())) {
+                gen.writeFieldName(name);
+                gen.writeString(value);
+            }
+        }
+
+        public void writeNumber(SerializableString name, int value) throws IOException {
+
+            if (inclusion != JsonInclude.Include.NON_DEFAULT || value != 0) {
+                gen.writeFieldName(name);
+                gen.writeNumber(value);
+            }
+        }
+
+        public void writeStrings(SerializableString name, List<String> values) throws IOException {
+
+            if (isIncluded(values, values != null && values.isEmpty())) {
+                gen.writeFieldName(name);
+                if (values == null) {
+                    gen.writeNull();
+                    return;
+                }
+                gen.writeStartArray(values, values.size());
+                for (String value : values) {
+                    gen.writeString(value);
+                }
+                gen.writeEndArray();
+            }
+        }
+
+        public void writeObject(SerializableString name, Object value) throws IOException {
+
+            boolean empty = value instanceof Collection && ((Collection<?>) value).isEmpty();
+            if (isIncluded(value, empty)) {
+                gen.writeFieldName(name);
+                provider.defaultSerializeValue(value, gen);
+            }
+        }
+
+        public void writeDate(SerializableString name, Date value) throws IOException {
+
+            if (isIncluded(value, false)) {
+                gen.writeFieldName(name);
+                if (value == null) {
+                    gen.writeNull();
+                } else {
+                    provider.defaultSerializeDateValue(value, gen);
+                }
+            }
+        }
+
+        private boolean isIncluded(Object value, boolean empty) {
+
+            switch (inclusion) {
+                case ALWAYS:
+                case USE_DEFAULTS:
+                    return true;
+                case NON_NULL:
+                case NON_ABSENT:
+                    return value != null;
+                default:
+                    return value != null && !empty;
+            }
+        }
+    }
+}
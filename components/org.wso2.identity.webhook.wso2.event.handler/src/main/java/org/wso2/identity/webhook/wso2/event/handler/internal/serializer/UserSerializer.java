@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.webhook.wso2.event.handler.internal.serializer;
+
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import org.wso2.identity.webhook.wso2.event.handler.internal.model.common.User;
+
+import java.io.IOException;
+
+/**
+ * Serializer of {@link User}.
+ */
+public class UserSerializer extends ModelSerializer<User> {
+
+    private static final long serialVersionUID = 1L;
+    private static final SerializableString ID = new SerializedString("id");
+    private static final SerializableString CLAIMS = new SerializedString("claims");
+    private static final SerializableString ORGANIZATION = new SerializedString("organization");
+    private static final SerializableString REF = new SerializedString("ref");
+    private static final SerializableString GROUPS = new SerializedString("groups");
+    private static final SerializableString ROLES = new SerializedString("roles");
+    private static final SerializableString ADDITIONAL_CLAIMS = new SerializedString("additionalClaims");
+    private static final SerializableString ADDED_CLAIMS = new SerializedString("addedClaims");
+    private static final SerializableString UPDATED_CLAIMS = new SerializedString("updatedClaims");
+    private static final SerializableString REMOVED_CLAIMS = new SerializedString("removedClaims");
+
+    public UserSerializer() {
+
+        super(User.class);
+    }
+
+    @Override
+    protected void writeFields(User user, FieldWriter writer) throws IOException {
+
+        writer.writeString(ID, user.getId());
+        writer.writeObject(CLAIMS, user.getClaims());
+        writer.writeObject(ORGANIZATION, user.getOrganization());
+        writer.writeString(REF, user.getRef());
+        writer.writeStrings(GROUPS, user.getGroups());
+        writer.writeStrings(ROLES, user.getRoles());
+        writer.writeObject(ADDITIONAL_CLAIMS, user.getAdditionalClaims());
+        writer.writeObject(ADDED_CLAIMS, user.getAddedClaims());
+        writer.writeObject(UPDATED_CLAIMS, user.getUpdatedClaims());
+        writer.writeObject(REMOVED_CLAIMS, user.getRemovedClaims());
+    }
+}
@@ -24,6 +24,8 @@ import org.wso2.carbon.identity.event.IdentityEventConstants;
 import org.wso2.identity.webhook.common.event.handler.api.service.EventProfileManager;
 import org.wso2.identity.webhook.common.event.handler.api.model.EventMetadata;
 
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Objects;
 
 import static org.wso2.identity.webhook.common.event.handler.api.constants.Constants.Channel.CREDENTIAL_CHANGE_CHANNEL;
@@ -54,6 +56,62 @@ import static org.wso2.identity.webhook.common.event.handler.api.constants.Const
  */
 public class WSO2EventProfileManager implements EventProfileManager {
 
+    /**
+     * Metadata resolved for the events not supported by the WSO2 event profile.
+     */
+    private static final EventMetadata UNSUPPORTED_EVENT_METADATA = buildEventMetadata(null, null);
+
+    private static final Map<String, EventMetadata> EVENT_METADATA = new HashMap<>();
+
+    /*
+    Flows an event must be triggered in to be supported, for the events triggered by more than one flow.
+    Event.POST_ADD_NEW_PASSWORD + Flow.Name.CREDENTIAL_RESET:
+        Triggered when a user resets their password, either:
+            After an admin-enforced password reset, or
+            Through the "Forgot Password" flow.
+     */
+    private static final Map<String, Flow.Name> REQUIRED_FLOWS = new HashMap<>();
+
+    static {
+        addEventMetadata(LOGIN_CHANNEL, LOGIN_SUCCESS_EVENT, IdentityEventConstants.Event.AUTHENTICATION_SUCCESS);
+        addEventMetadata(LOGIN_CHANNEL, LOGIN_FAILURE_EVENT, IdentityEventConstants.Event.AUTHENTICATION_STEP_FAILURE);
+        addEventMetadata(SESSION_CHANNEL, SESSION_REVOKED_EVENT, IdentityEventConstants.Event.SESSION_TERMINATE_V2);
+        addEventMetadata(SESSION_CHANNEL, SESSION_PRESENTED_EVENT, IdentityEventConstants.Event.SESSION_UPDATE,
+                IdentityEventConstants.Event.SESSION_EXTENSION);
+        addEventMetadata(SESSION_CHANNEL, SESSION_CREATED_EVENT, IdentityEventConstants.Event.SESSION_CREATE);
+        addEventMetadata(USER_OPERATION_CHANNEL, POST_UPDATE_USER_LIST_OF_ROLE_EVENT,
+                IdentityEventConstants.Event.POST_UPDATE_USER_LIST_OF_ROLE);
+        addEventMetadata(USER_OPERATION_CHANNEL, POST_DELETE_USER_EVENT, IdentityEventConstants.Event.POST_DELETE_USER);
+        addEventMetadata(USER_OPERATION_CHANNEL, POST_UNLOCK_ACCOUNT_EVENT,
+                IdentityEventConstants.Event.POST_UNLOCK_ACCOUNT);
+        addEventMetadata(USER_OPERATION_CHANNEL, POST_LOCK_ACCOUNT_EVENT,
+                IdentityEventConstants.Event.POST_LOCK_ACCOUNT);
+        addEventMetadata(USER_OPERATION_CHANNEL, POST_USER_PROFILE_UPDATED_EVENT,
+                IdentityEventConstants.Event.POST_USER_PROFILE_UPDATE);
+        addEventMetadata(USER_OPERATION_CHANNEL, POST_ACCOUNT_ENABLE_EVENT,
+                IdentityEventConstants.Event.POST_ENABLE_ACCOUNT);
+        addEventMetadata(USER_OPERATION_CHANNEL, POST_ACCOUNT_DISABLE_EVENT,
+                IdentityEventConstants.Event.POST_DISABLE_ACCOUNT);
+        /*
+        Event.POST_UPDATE_CREDENTIAL_BY_SCIM:
+            Triggered when:
+                A user resets their password via the My Account portal, or
+                An admin resets the user's password via the Console.
+         */
+        addEventMetadata(CREDENTIAL_CHANGE_CHANNEL, POST_UPDATE_USER_CREDENTIAL,
+                IdentityEventConstants.Event.POST_ADD_NEW_PASSWORD,
+                IdentityEventConstants.Event.POST_UPDATE_CREDENTIAL_BY_SCIM);
+        REQUIRED_FLOWS.put(IdentityEventConstants.Event.POST_ADD_NEW_PASSWORD, Flow.Name.CREDENTIAL_RESET);
+        /*
+        POST_ADD_USER resolves to the user operation event rather than the registration event, since user creation
+        occurs before registration, and both are triggered by the same event.
+        // TODO this issue is due to sequence utility access of metadata.
+         */
+        addEventMetadata(USER_OPERATION_CHANNEL, POST_USER_CREATED_EVENT, IdentityEventConstants.Event.POST_ADD_USER);
+        addEventMetadata(TOKEN_CHANNEL, TOKEN_ISSUED_EVENT, IdentityEventConstants.Event.POST_ISSUE_ACCESS_TOKEN_V2);
+        addEventMetadata(TOKEN_CHANNEL, TOKEN_REVOKED_EVENT, IdentityEventConstants.Event.TOKEN_REVOKED);
+    }
+
     @Override
     public EventMetadata resolveEventMetadata(String event) {
 
@@ -62,102 +120,37 @@ public class WSO2EventProfileManager implements EventProfileManager {
 
     private EventMetadata resolveEventHandlerKey(String eventName) {
 
-        String event = null;
-        String channel = null;
-
-        if (!isBulkOperation()) {
-            if (Objects.requireNonNull(eventName).equals(
-                    IdentityEventConstants.Event.AUTHENTICATION_SUCCESS)) {
-                channel = LOGIN_CHANNEL;
-                event = LOGIN_SUCCESS_EVENT;
-            } else if (IdentityEventConstants.Event.AUTHENTICATION_STEP_FAILURE.equals(eventName)) {
-                channel = LOGIN_CHANNEL;
-                event = LOGIN_FAILURE_EVENT;
-            } else if (IdentityEventConstants.Event.SESSION_TERMINATE_V2.equals(eventName)) {
-                channel = SESSION_CHANNEL;
-                event = SESSION_REVOKED_EVENT;
-            } else if (IdentityEventConstants.Event.SESSION_UPDATE.equals(eventName) ||
-                    IdentityEventConstants.Event.SESSION_EXTENSION.equals(eventName)) {
-                channel = SESSION_CHANNEL;
-                event = SESSION_PRESENTED_EVENT;
-            } else if (IdentityEventConstants.Event.SESSION_CREATE.equals(eventName)) {
-                channel = SESSION_CHANNEL;
-                event = SESSION_CREATED_EVENT;
-            } else if (IdentityEventConstants.Event.POST_UPDATE_USER_LIST_OF_ROLE.equals(eventName)) {
-                channel = USER_OPERATION_CHANNEL;
-                event = POST_UPDATE_USER_LIST_OF_ROLE_EVENT;
-            } else if (IdentityEventConstants.Event.POST_DELETE_USER.equals(eventName)) {
-                channel = USER_OPERATION_CHANNEL;
-                event = POST_DELETE_USER_EVENT;
-            } else if (IdentityEventConstants.Event.POST_UNLOCK_ACCOUNT.equals(eventName)) {
-                channel = USER_OPERATION_CHANNEL;
-                event = POST_UNLOCK_ACCOUNT_EVENT;
-            } else if (IdentityEventConstants.Event.POST_LOCK_ACCOUNT.equals(eventName)) {
-                channel = USER_OPERATION_CHANNEL;
-                event = POST_LOCK_ACCOUNT_EVENT;
-            } else if (IdentityEventConstants.Event.POST_USER_PROFILE_UPDATE.equals(eventName)) {
-                channel = USER_OPERATION_CHANNEL;
-                event = POST_USER_PROFILE_UPDATED_EVENT;
-            } else if (IdentityEventConstants.Event.POST_ENABLE_ACCOUNT.equals(eventName)) {
-                channel = USER_OPERATION_CHANNEL;
-                event = POST_ACCOUNT_ENABLE_EVENT;
-            } else if (IdentityEventConstants.Event.POST_DISABLE_ACCOUNT.equals(eventName)) {
-                channel = USER_OPERATION_CHANNEL;
-                event = POST_ACCOUNT_DISABLE_EVENT;
-            } else if (isCredentialUpdateFlow(eventName)) {
-                channel = CREDENTIAL_CHANGE_CHANNEL;
-                event = POST_UPDATE_USER_CREDENTIAL;
-            } else if (IdentityEventConstants.Event.POST_ADD_USER.equals(eventName)) {
-                /*
-                The user operation check must always precede the registration check, since user creation occurs before
-                registration, and both events are triggered by the same event: POST_ADD_USER.
-                // TODO this issue is due to sequence utility access of metadata.
-                 */
-                channel = USER_OPERATION_CHANNEL;
-                event = POST_USER_CREATED_EVENT;
-            } else if (IdentityEventConstants.Event.POST_ISSUE_ACCESS_TOKEN_V2.equals(eventName)) {
-                channel = TOKEN_CHANNEL;
-                event = TOKEN_ISSUED_EVENT;
-            } else if (IdentityEventConstants.Event.TOKEN_REVOKED.equals(eventName)) {
-                channel = TOKEN_CHANNEL;
-                event = TOKEN_REVOKED_EVENT;
-            }
+        EventMetadata eventMetadata = EVENT_METADATA.get(Objects.requireNonNull(eventName));
+        if (eventMetadata == null) {
+            return UNSUPPORTED_EVENT_METADATA;
         }
-        return EventMetadata.builder()
-                .event(String.valueOf(event))
-                .channel(String.valueOf(channel))
-                .eventProfile(WSO2.name())
-                .build();
-    }
-
-    private boolean isBulkOperation() {
 
         Flow flow = IdentityContext.getThreadLocalIdentityContext().getCurrentFlow();
         Flow.Name flowName = (flow != null) ? flow.getName() : null;
-
-        return Flow.Name.BULK_RESOURCE_UPDATE.equals(flowName);
+        if (Flow.Name.BULK_RESOURCE_UPDATE.equals(flowName)) {
+            return UNSUPPORTED_EVENT_METADATA;
+        }
+        Flow.Name requiredFlowName = REQUIRED_FLOWS.get(eventName);
+        if (requiredFlowName != null && !requiredFlowName.equals(flowName)) {
+            return UNSUPPORTED_EVENT_METADATA;
+        }
+        return eventMetadata;
     }
 
-    private boolean isCredentialUpdateFlow(String eventName) {
-
-        /*
-        Event.POST_ADD_NEW_PASSWORD + Flow.Name.CREDENTIAL_RESET:
-            Triggered when a user resets their password, either:
-                After an admin-enforced password reset, or
-                Through the "Forgot Password" flow.
+    private static void addEventMetadata(String channel, String event, String... eventNames) {
 
-        Event.POST_UPDATE_CREDENTIAL_BY_SCIM:
-            Triggered when:
-                A user resets their password via the My Account portal, or
-                An admin resets the user's password via the Console.
-         */
-        if (IdentityEventConstants.Event.POST_ADD_NEW_PASSWORD.equals(eventName)) {
-            Flow flow = IdentityContext.getThreadLocalIdentityContext().getCurrentFlow();
-            Flow.Name flowName = (flow != null) ? flow.getName() : null;
-
-            return Flow.Name.CREDENTIAL_RESET.equals(flowName);
+        EventMetadata eventMetadata = buildEventMetadata(channel, event);
+        for (String eventName : eventNames) {
+            EVENT_METADATA.put(eventName, eventMetadata);
         }
+    }
+
+    private static EventMetadata buildEventMetadata(String channel, String event) {
 
-        return IdentityEventConstants.Event.POST_UPDATE_CREDENTIAL_BY_SCIM.equals(eventName);
+        return EventMetadata.builder()
+                .event(event)
+                .channel(channel)
+                .eventProfile(WSO2.name())
+                .build();
     }
 }
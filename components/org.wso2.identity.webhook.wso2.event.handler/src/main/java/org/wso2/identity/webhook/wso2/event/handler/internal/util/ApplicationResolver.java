@@ -0,0 +1,256 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.webhook.wso2.event.handler.internal.util;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.context.PrivilegedCarbonContext;
+import org.wso2.carbon.identity.application.common.IdentityApplicationManagementException;
+import org.wso2.carbon.identity.application.common.model.ApplicationBasicInfo;
+import org.wso2.carbon.identity.application.common.model.ServiceProvider;
+import org.wso2.identity.webhook.wso2.event.handler.internal.cache.ApplicationCache;
+import org.wso2.identity.webhook.wso2.event.handler.internal.component.WSO2EventHookHandlerDataHolder;
+import org.wso2.identity.webhook.wso2.event.handler.internal.model.common.Application;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Resolver of the applications the token event payloads are enriched with.
+ * <p>
+ * The applications are served from the {@link ApplicationCache}, and read from the application management service
+ * if absent. The application management service reads a single application at a time, so the absent applications of
+ * a revocation of the tokens of many consumer keys are read concurrently on a bounded pool of threads. A single
+ * absent application, or a parallelism of one, is read on the calling thread. An application that cannot be read is
+ * left out.
+ */
+public class ApplicationResolver {
+
+    private static final Log log = LogFactory.getLog(ApplicationResolver.class);
+    public static final int DEFAULT_PARALLELISM = 4;
+    private static final String OAUTH2_INBOUND_TYPE = "oauth2";
+    private static final String THREAD_NAME_PREFIX = "WebhookApplicationResolver-";
+
+    private volatile int parallelism = DEFAULT_PARALLELISM;
+    private ExecutorService executorService;
+
+    /**
+     * Resolve the application of the given resource id.
+     *
+     * @param tenantDomain Tenant domain of the application.
+     * @param resourceId   Resource id of the application.
+     * @return Application, or null if not found or it cannot be read.
+     */
+    public Application resolveByResourceId(String tenantDomain, String resourceId) {
+
+        if (StringUtils.isBlank(resourceId)) {
+            return null;
+        }
+        try {
+            return getApplicationCache().getByResourceId(tenantDomain, resourceId,
+                    () -> readByResourceId(tenantDomain, resourceId));
+        } catch (IdentityApplicationManagementException e) {
+            log.debug("Error while retrieving application by resource Id: " + resourceId, e);
+            return null;
+        }
+    }
+
+    /**
+     * Resolve the application of the given consumer key.
+     *
+     * @param tenantDomain Tenant domain of the application.
+     * @param consumerKey  Consumer key of the application.
+     * @return Application, or null if not found or it cannot be read.
+     */
+    public Application resolveByConsumerKey(String tenantDomain, String consumerKey) {
+
+        if (StringUtils.isBlank(consumerKey)) {
+            return null;
+        }
+        try {
+            return getApplicationCache().getByConsumerKey(tenantDomain, consumerKey,
+                    () -> readByConsumerKey(tenantDomain, consumerKey));
+        } catch (IdentityApplicationManagementException e) {
+            log.debug("Error while retrieving application by consumer key: " + consumerKey, e);
+            return null;
+        }
+    }
+
+    /**
+     * Resolve the applications of the given consumer keys.
+     *
+     * @param tenantDomain Tenant domain of the applications.
+     * @param consumerKeys Consumer keys of the applications.
+     * @return Found applications, in the order of the given consumer keys, once per consumer key.
+     */
+    public List<Application> resolveByConsumerKeys(String tenantDomain, List<String> consumerKeys) {
+
+        // Applications of the consumer keys, of which the ones absent from the cache are read below.
+        Map<String, Application> applications = new LinkedHashMap<>();
+        List<String> absentConsumerKeys = new ArrayList<>();
+        for (String consumerKey : consumerKeys) {
+            if (StringUtils.isBlank(consumerKey) || applications.containsKey(consumerKey)) {
+                continue;
+            }
+            Application application = getApplicationCache().getCachedByConsumerKey(tenantDomain, consumerKey);
+            applications.put(consumerKey, application);
+            if (application == null) {
+                absentConsumerKeys.add(consumerKey);
+            }
+        }
+
+        ExecutorService executor = absentConsumerKeys.size() > 1 ? getExecutorService() : null;
+        if (executor == null) {
+            for (String consumerKey : absentConsumerKeys) {
+                applications.put(consumerKey, resolveByConsumerKey(tenantDomain, consumerKey));
+            }
+        } else {
+            readConcurrently(executor, tenantDomain, absentConsumerKeys, applications);
+        }
+
+        List<Application> resolvedApplications = new ArrayList<>(applications.size());
+        for (Application application : applications.values()) {
+            if (application != null) {
+                resolvedApplications.add(application);
+            }
+        }
+        return resolvedApplications;
+    }
+
+    /**
+     * Set the maximum number of applications read at the same time. A parallelism of one reads the applications on
+     * the calling thread.
+     *
+     * @param parallelism Parallelism.
+     */
+    public synchronized void setParallelism(int parallelism) {
+
+        int newParallelism = Math.max(parallelism, 1);
+        if (newParallelism != this.parallelism) {
+            shutdown();
+            this.parallelism = newParallelism;
+        }
+    }
+
+    public int getParallelism() {
+
+        return parallelism;
+    }
+
+    /**
+     * Stop the threads reading the applications concurrently. They are started again on the next concurrent read.
+     */
+    public synchronized void shutdown() {
+
+        if (executorService != null) {
+            executorService.shutdown();
+            executorService = null;
+        }
+    }
+
+    private void readConcurrently(ExecutorService executor, String tenantDomain, List<String> consumerKeys,
+                                  Map<String, Application> applications) {
+
+        String carbonTenantDomain = PrivilegedCarbonContext.getThreadLocalCarbonContext().getTenantDomain();
+        int carbonTenantId = PrivilegedCarbonContext.getThreadLocalCarbonContext().getTenantId();
+        List<Future<Application>> futures = new ArrayList<>(consumerKeys.size());
+        for (String consumerKey : consumerKeys) {
+            futures.add(executor.submit(() -> {
+                PrivilegedCarbonContext.startTenantFlow();
+                try {
+                    PrivilegedCarbonContext.getThreadLocalCarbonContext().setTenantDomain(carbonTenantDomain);
+                    PrivilegedCarbonContext.getThreadLocalCarbonContext().setTenantId(carbonTenantId);
+                    return resolveByConsumerKey(tenantDomain, consumerKey);
+                } finally {
+                    PrivilegedCarbonContext.endTenantFlow();
+                }
+            }));
+        }
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                applications.put(consumerKeys.get(i), futures.get(i).get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                log.debug("Error while retrieving application by consumer key: " + consumerKeys.get(i), e);
+            }
+        }
+    }
+
+    private Application readByConsumerKey(String tenantDomain, String consumerKey)
+            throws IdentityApplicationManagementException {
+
+        ServiceProvider serviceProvider = WSO2EventHookHandlerDataHolder.getInstance()
+                .getApplicationManagementService()
+                .getServiceProviderByClientId(consumerKey, OAUTH2_INBOUND_TYPE, tenantDomain);
+        if (serviceProvider == null) {
+            return null;
+        }
+        return new Application.Builder()
+                .id(serviceProvider.getApplicationResourceId())
+                .name(serviceProvider.getApplicationName())
+                .consumerKey(consumerKey)
+                .build();
+    }
+
+    private Application readByResourceId(String tenantDomain, String resourceId)
+            throws IdentityApplicationManagementException {
+
+        ApplicationBasicInfo applicationBasicInfo = WSO2EventHookHandlerDataHolder.getInstance()
+                .getApplicationManagementService().getApplicationBasicInfoByResourceId(resourceId, tenantDomain);
+        if (applicationBasicInfo == null) {
+            return null;
+        }
+        return new Application.Builder()
+                .id(resourceId)
+                .name(applicationBasicInfo.getApplicationName())
+                .consumerKey(applicationBasicInfo.getClientId())
+                .build();
+    }
+
+    private ApplicationCache getApplicationCache() {
+
+        return WSO2EventHookHandlerDataHolder.getInstance().getApplicationCache();
+    }
+
+    private synchronized ExecutorService getExecutorService() {
+
+        if (parallelism <= 1) {
+            return null;
+        }
+        if (executorService == null) {
+            AtomicInteger threadCount = new AtomicInteger();
+            executorService = Executors.newFixedThreadPool(parallelism, runnable -> {
+                Thread thread = new Thread(runnable, THREAD_NAME_PREFIX + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return executorService;
+    }
+}
@@ -0,0 +1,270 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.webhook.wso2.event.handler.internal.util;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.context.PrivilegedCarbonContext;
+import org.wso2.carbon.user.api.UserStoreException;
+import org.wso2.carbon.user.core.UserCoreConstants;
+import org.wso2.carbon.user.core.common.AbstractUserStoreManager;
+import org.wso2.carbon.user.core.model.UserClaimSearchEntry;
+import org.wso2.carbon.user.core.util.UserCoreUtil;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Resolver of the claims of many users of a user store, such as the members added to or removed from a group.
+ * <p>
+ * The users are grouped by their user store domain and split into chunks, and the claims of a chunk are read with a
+ * single multi-user lookup of the user store manager instead of a lookup per user and claim. The chunks are read on
+ * the calling thread, or on a bounded pool of threads if the parallelism is more than one. The claims of a user left
+ * out of the multi-user lookup, or of a chunk the user store fails to read in bulk, are read with single lookups.
+ */
+public class BulkUserResolver {
+
+    private static final Log log = LogFactory.getLog(BulkUserResolver.class);
+    public static final int DEFAULT_CHUNK_SIZE = 500;
+    public static final int DEFAULT_PARALLELISM = 1;
+    private static final String THREAD_NAME_PREFIX = "WebhookBulkUserResolver-";
+
+    private volatile int chunkSize = DEFAULT_CHUNK_SIZE;
+    private volatile int parallelism = DEFAULT_PARALLELISM;
+    private ExecutorService executorService;
+
+    /**
+     * Resolve the given claims of the given users.
+     *
+     * @param userStoreManager         User store manager of the users.
+     * @param domainQualifiedUsernames Domain qualified usernames.
+     * @param claimUris                Claim URIs to resolve.
+     * @return Claims of each user, by the domain qualified username.
+     * @throws UserStoreException If the claims of a user cannot be read.
+     */
+    public Map<String, Map<String, String>> resolveClaims(AbstractUserStoreManager userStoreManager,
+                                                          String[] domainQualifiedUsernames, String[] claimUris)
+            throws UserStoreException {
+
+        if (domainQualifiedUsernames == null || domainQualifiedUsernames.length == 0) {
+            return Collections.emptyMap();
+        }
+
+        List<String[]> chunks = splitIntoChunks(domainQualifiedUsernames);
+        List<Map<String, Map<String, String>>> chunkClaims = readChunks(userStoreManager, chunks, claimUris);
+
+        Map<String, Map<String, String>> userClaims = new HashMap<>(domainQualifiedUsernames.length * 2);
+        for (int i = 0; i < chunks.size(); i++) {
+            Map<String, Map<String, String>> claimsOfChunk = chunkClaims.get(i);
+            for (String domainQualifiedUsername : chunks.get(i)) {
+                Map<String, String> claims = claimsOfChunk.get(UserCoreUtil.removeDomainFromName(
+                        domainQualifiedUsername));
+                if (claims == null) {
+                    claims = readClaims(userStoreManager, domainQualifiedUsername, claimUris);
+                }
+                userClaims.put(domainQualifiedUsername, claims);
+            }
+        }
+        return userClaims;
+    }
+
+    /**
+     * Set the maximum number of users read with a single multi-user lookup.
+     *
+     * @param chunkSize Chunk size.
+     */
+    public void setChunkSize(int chunkSize) {
+
+        this.chunkSize = Math.max(chunkSize, 1);
+    }
+
+    public int getChunkSize() {
+
+        return chunkSize;
+    }
+
+    /**
+     * Set the maximum number of chunks read at the same time. A parallelism of one reads the chunks on the calling
+     * thread.
+     *
+     * @param parallelism Parallelism.
+     */
+    public synchronized void setParallelism(int parallelism) {
+
+        int newParallelism = Math.max(parallelism, 1);
+        if (newParallelism != this.parallelism) {
+            shutdown();
+            this.parallelism = newParallelism;
+        }
+    }
+
+    public int getParallelism() {
+
+        return parallelism;
+    }
+
+    /**
+     * Stop the threads reading the chunks in parallel. They are started again on the next parallel read.
+     */
+    public synchronized void shutdown() {
+
+        if (executorService != null) {
+            executorService.shutdown();
+            executorService = null;
+        }
+    }
+
+    private List<String[]> splitIntoChunks(String[] domainQualifiedUsernames) {
+
+        // A multi-user lookup reads the users of a single user store, so the chunks are split by the domain.
+        Map<String, List<String>> usernamesByDomain = new LinkedHashMap<>();
+        for (String domainQualifiedUsername : domainQualifiedUsernames) {
+            usernamesByDomain.computeIfAbsent(UserCoreUtil.extractDomainFromName(domainQualifiedUsername),
+                    domain -> new ArrayList<>()).add(domainQualifiedUsername);
+        }
+
+        int size = chunkSize;
+        List<String[]> chunks = new ArrayList<>();
+        for (List<String> usernames : usernamesByDomain.values()) {
+            for (int start = 0; start < usernames.size(); start += size) {
+                chunks.add(usernames.subList(start, Math.min(start + size, usernames.size())).toArray(new String[0]));
+            }
+        }
+        return chunks;
+    }
+
+    private List<Map<String, Map<String, String>>> readChunks(AbstractUserStoreManager userStoreManager,
+                                                              List<String[]> chunks, String[] claimUris) {
+
+        List<Map<String, Map<String, String>>> chunkClaims = new ArrayList<>(chunks.size());
+        ExecutorService executor = chunks.size() > 1 ? getExecutorService() : null;
+        if (executor == null) {
+            for (String[] chunk : chunks) {
+                chunkClaims.add(readChunk(userStoreManager, chunk, claimUris));
+            }
+            return chunkClaims;
+        }
+
+        String tenantDomain = PrivilegedCarbonContext.getThreadLocalCarbonContext().getTenantDomain();
+        int tenantId = PrivilegedCarbonContext.getThreadLocalCarbonContext().getTenantId();
+        List<Future<Map<String, Map<String, String>>>> futures = new ArrayList<>(chunks.size());
+        for (String[] chunk : chunks) {
+            futures.add(executor.submit(() -> {
+                PrivilegedCarbonContext.startTenantFlow();
+                try {
+                    PrivilegedCarbonContext.getThreadLocalCarbonContext().setTenantDomain(tenantDomain);
+                    PrivilegedCarbonContext.getThreadLocalCarbonContext().setTenantId(tenantId);
+                    return readChunk(userStoreManager, chunk, claimUris);
+                } finally {
+                    PrivilegedCarbonContext.endTenantFlow();
+                }
+            }));
+        }
+        for (Future<Map<String, Map<String, String>>> future : futures) {
+            try {
+                chunkClaims.add(future.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                chunkClaims.add(Collections.emptyMap());
+            } catch (ExecutionException e) {
+                log.debug("Error while reading a chunk of users in parallel.", e);
+                chunkClaims.add(Collections.emptyMap());
+            }
+        }
+        return chunkClaims;
+    }
+
+    /**
+     * Read the claims of a chunk of users of the same user store with a single multi-user lookup.
+     *
+     * @return Claims of each read user, by the username without the domain. Empty if the chunk cannot be read in bulk.
+     */
+    private Map<String, Map<String, String>> readChunk(AbstractUserStoreManager userStoreManager, String[] chunk,
+                                                       String[] claimUris) {
+
+        UserClaimSearchEntry[] entries;
+        try {
+            entries = userStoreManager.getUsersClaimValues(chunk, claimUris, UserCoreConstants.DEFAULT_PROFILE);
+        } catch (UserStoreException | RuntimeException e) {
+            // Some user stores do not support multi-user lookups, so the users are read with single lookups.
+            if (log.isDebugEnabled()) {
+                log.debug("Error while reading the claims of " + chunk.length + " users in bulk. " +
+                        "Falling back to reading the users one by one.", e);
+            }
+            return Collections.emptyMap();
+        }
+        if (entries == null) {
+            return Collections.emptyMap();
+        }
+
+        Map<String, Map<String, String>> claimsByUsername = new HashMap<>(entries.length * 2);
+        for (UserClaimSearchEntry entry : entries) {
+            if (entry != null && entry.getUserName() != null) {
+                Map<String, String> claims = entry.getClaims();
+                claimsByUsername.put(UserCoreUtil.removeDomainFromName(entry.getUserName()),
+                        claims != null ? claims : Collections.emptyMap());
+            }
+        }
+        return claimsByUsername;
+    }
+
+    private Map<String, String> readClaims(AbstractUserStoreManager userStoreManager, String domainQualifiedUsername,
+                                           String[] claimUris) throws UserStoreException {
+
+        Map<String, String> claims = new HashMap<>();
+        for (String claimUri : claimUris) {
+            String claimValue = userStoreManager.getUserClaimValue(domainQualifiedUsername, claimUri,
+                    UserCoreConstants.DEFAULT_PROFILE);
+            if (claimValue != null) {
+                claims.put(claimUri, claimValue);
+            }
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Read the claims " + Arrays.toString(claimUris) + " of the user: " + domainQualifiedUsername +
+                    " with single lookups.");
+        }
+        return claims;
+    }
+
+    private synchronized ExecutorService getExecutorService() {
+
+        if (parallelism <= 1) {
+            return null;
+        }
+        if (executorService == null) {
+            AtomicInteger threadCount = new AtomicInteger();
+            executorService = Executors.newFixedThreadPool(parallelism, runnable -> {
+                Thread thread = new Thread(runnable, THREAD_NAME_PREFIX + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return executorService;
+    }
+}
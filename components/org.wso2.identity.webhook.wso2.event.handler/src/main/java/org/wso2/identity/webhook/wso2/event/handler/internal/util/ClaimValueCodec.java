@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.webhook.wso2.event.handler.internal.util;
+
+import org.wso2.carbon.identity.application.authentication.framework.util.FrameworkUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Codec of multi-valued claim values, which are stored as a single string joined by the multi attribute separator.
+ * <p>
+ * The separator is resolved on each decode, and the splitter of a separator is built once and reused while the
+ * separator stays the same. Values are split on the literal separator without a regular expression, with the same
+ * result as {@link String#split(String)} on the quoted separator.
+ */
+public class ClaimValueCodec {
+
+    static final String DEFAULT_MULTI_ATTRIBUTE_SEPARATOR = ",";
+    private static final int MAX_CACHED_SEPARATORS = 16;
+    private static final String[] EMPTY_VALUES = new String[0];
+
+    private static final Map<String, Splitter> splitters = new ConcurrentHashMap<>();
+    private static volatile Splitter lastSplitter = new Splitter(DEFAULT_MULTI_ATTRIBUTE_SEPARATOR);
+
+    private ClaimValueCodec() {
+
+    }
+
+    /**
+     * Split a multi-valued claim value by the multi attribute separator of the current tenant.
+     *
+     * @param claimValue Claim value.
+     * @return Values of the claim, without the trailing empty values.
+     */
+    public static String[] decode(String claimValue) {
+
+        String separator = FrameworkUtils.getMultiAttributeSeparator();
+        return decode(claimValue, separator != null ? separator : DEFAULT_MULTI_ATTRIBUTE_SEPARATOR);
+    }
+
+    /**
+     * Split a multi-valued claim value by the given separator.
+     *
+     * @param claimValue Claim value.
+     * @param separator  Multi attribute separator.
+     * @return Values of the claim, without the trailing empty values.
+     */
+    public static String[] decode(String claimValue, String separator) {
+
+        if (claimValue == null || claimValue.isEmpty()) {
+            return EMPTY_VALUES;
+        }
+        return getSplitter(separator).split(claimValue);
+    }
+
+    private static Splitter getSplitter(String separator) {
+
+        Splitter splitter = lastSplitter;
+        if (splitter.separator.equals(separator)) {
+            return splitter;
+        }
+        splitter = splitters.get(separator);
+        if (splitter == null) {
+            if (splitters.size() >= MAX_CACHED_SEPARATORS) {
+                splitters.clear();
+            }
+            splitter = splitters.computeIfAbsent(separator, Splitter::new);
+        }
+        lastSplitter = splitter;
+        return splitter;
+    }
+
+    /**
+     * Splitter of values joined by a separator.
+     */
+    private static class Splitter {
+
+        private final String separator;
+        // Only used for an empty separator, which splits the value into its characters.
+        private final Pattern pattern;
+
+        Splitter(String separator) {
+
+            this.separator = separator;
+            this.pattern = separator.isEmpty() ? Pattern.compile(Pattern.quote(separator)) : null;
+        }
+
+        String[] split(String value) {
+
+            if (pattern != null) {
+                return pattern.split(value);
+            }
+            int index = value.indexOf(separator);
+            if (index < 0) {
+                return new String[]{value};
+            }
+            List<String> values = new ArrayList<>();
+            int start = 0;
+            while (index >= 0) {
+                values.add(value.substring(start, index));
+                start = index + separator.length();
+                index = value.indexOf(separator, start);
+            }
+            values.add(value.substring(start));
+
+            // Drop the trailing empty values, as String#split does.
+            int size = values.size();
+            while (size > 0 && values.get(size - 1).isEmpty()) {
+                size--;
+            }
+            return values.subList(0, size).toArray(new String[size]);
+        }
+    }
+}
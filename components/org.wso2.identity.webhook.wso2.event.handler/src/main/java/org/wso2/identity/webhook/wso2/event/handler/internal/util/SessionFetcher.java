@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.webhook.wso2.event.handler.internal.util;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.context.PrivilegedCarbonContext;
+import org.wso2.carbon.identity.application.authentication.framework.model.UserSession;
+import org.wso2.carbon.identity.event.IdentityEventException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fetcher of the sessions of an event terminating many sessions, such as the termination of all sessions of a user.
+ * <p>
+ * The user session management service looks up a single session at a time, so the sessions are looked up
+ * concurrently on a bounded pool of threads instead of one after the other. The lookups of an event share a deadline,
+ * and the sessions not looked up by the deadline are looked up on the calling thread, so an event never lists only a
+ * part of its sessions. A single session, or a parallelism of one, is looked up on the calling thread.
+ */
+public class SessionFetcher {
+
+    private static final Log log = LogFactory.getLog(SessionFetcher.class);
+    public static final int DEFAULT_PARALLELISM = 4;
+    public static final long DEFAULT_DEADLINE_MILLIS = 10000;
+    private static final String THREAD_NAME_PREFIX = "WebhookSessionFetcher-";
+
+    private volatile int parallelism = DEFAULT_PARALLELISM;
+    private volatile long deadlineMillis = DEFAULT_DEADLINE_MILLIS;
+    private ExecutorService executorService;
+
+    /**
+     * Look up the sessions of the given ids.
+     *
+     * @param sessionIds    Session ids.
+     * @param sessionLookup Lookup of a single session.
+     * @return Found sessions, in the order of the given ids.
+     * @throws IdentityEventException If a session lookup fails.
+     */
+    public List<UserSession> fetchSessions(List<String> sessionIds, SessionLookup sessionLookup)
+            throws IdentityEventException {
+
+        List<UserSession> userSessions = new ArrayList<>(sessionIds.size());
+        ExecutorService executor = sessionIds.size() > 1 ? getExecutorService() : null;
+        if (executor == null) {
+            for (String sessionId : sessionIds) {
+                sessionLookup.lookup(sessionId).ifPresent(userSessions::add);
+            }
+            return userSessions;
+        }
+
+        String tenantDomain = PrivilegedCarbonContext.getThreadLocalCarbonContext().getTenantDomain();
+        int tenantId = PrivilegedCarbonContext.getThreadLocalCarbonContext().getTenantId();
+        List<Future<Optional<UserSession>>> futures = new ArrayList<>(sessionIds.size());
+        for (String sessionId : sessionIds) {
+            futures.add(executor.submit(() -> {
+                PrivilegedCarbonContext.startTenantFlow();
+                try {
+                    PrivilegedCarbonContext.getThreadLocalCarbonContext().setTenantDomain(tenantDomain);
+                    PrivilegedCarbonContext.getThreadLocalCarbonContext().setTenantId(tenantId);
+                    return sessionLookup.lookup(sessionId);
+                } finally {
+                    PrivilegedCarbonContext.endTenantFlow();
+                }
+            }));
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(deadlineMillis);
+        int lateLookups = 0;
+        try {
+            for (int i = 0; i < futures.size(); i++) {
+                Future<Optional<UserSession>> future = futures.get(i);
+                Optional<UserSession> userSession;
+                try {
+                    userSession = future.get(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+                } catch (TimeoutException | CancellationException e) {
+                    future.cancel(true);
+                    lateLookups++;
+                    userSession = sessionLookup.lookup(sessionIds.get(i));
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    if (cause instanceof IdentityEventException) {
+                        throw (IdentityEventException) cause;
+                    }
+                    throw new IdentityEventException("Error while retrieving session information.", cause);
+                }
+                userSession.ifPresent(userSessions::add);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdentityEventException("Interrupted while retrieving session information.", e);
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+        }
+
+        if (lateLookups > 0) {
+            log.warn(lateLookups + " of " + sessionIds.size() + " sessions were not retrieved within " +
+                    deadlineMillis + " ms, and were retrieved on the calling thread.");
+        }
+        return userSessions;
+    }
+
+    /**
+     * Set the maximum number of sessions looked up at the same time. A parallelism of one looks up the sessions on
+     * the calling thread.
+     *
+     * @param parallelism Parallelism.
+     */
+    public synchronized void setParallelism(int parallelism) {
+
+        int newParallelism = Math.max(parallelism, 1);
+        if (newParallelism != this.parallelism) {
+            shutdown();
+            this.parallelism = newParallelism;
+        }
+    }
+
+    public int getParallelism() {
+
+        return parallelism;
+    }
+
+    /**
+     * Set the time the sessions of an event are looked up concurrently within, after which the remaining sessions are
+     * looked up on the calling thread.
+     *
+     * @param deadlineMillis Deadline in milliseconds.
+     */
+    public void setDeadline(long deadlineMillis) {
+
+        this.deadlineMillis = Math.max(deadlineMillis, 0);
+    }
+
+    public long getDeadline() {
+
+        return deadlineMillis;
+    }
+
+    /**
+     * Stop the threads looking up the sessions. They are started again on the next concurrent lookup.
+     */
+    public synchronized void shutdown() {
+
+        if (executorService != null) {
+            executorService.shutdownNow();
+            executorService = null;
+        }
+    }
+
+    private synchronized ExecutorService getExecutorService() {
+
+        if (parallelism <= 1) {
+            return null;
+        }
+        if (executorService == null) {
+            AtomicInteger threadCount = new AtomicInteger();
+            executorService = Executors.newFixedThreadPool(parallelism, runnable -> {
+                Thread thread = new Thread(runnable, THREAD_NAME_PREFIX + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return executorService;
+    }
+
+    /**
+     * Lookup of a single session.
+     */
+    @FunctionalInterface
+    public interface SessionLookup {
+
+        Optional<UserSession> lookup(String sessionId) throws IdentityEventException;
+    }
+}
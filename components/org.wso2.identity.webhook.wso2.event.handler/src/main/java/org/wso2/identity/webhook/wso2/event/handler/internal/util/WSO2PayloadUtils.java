@@ -24,7 +24,6 @@ import org.apache.commons.logging.LogFactory;
 import org.wso2.carbon.identity.application.authentication.framework.exception.UserIdNotFoundException;
 import org.wso2.carbon.identity.application.authentication.framework.model.AuthenticatedUser;
 import org.wso2.carbon.identity.application.authentication.framework.util.FrameworkConstants;
-import org.wso2.carbon.identity.application.authentication.framework.util.FrameworkUtils;
 import org.wso2.carbon.identity.application.common.model.ClaimMapping;
 import org.wso2.carbon.identity.claim.metadata.mgt.ClaimMetadataManagementService;
 import org.wso2.carbon.identity.claim.metadata.mgt.exception.ClaimMetadataException;
@@ -44,7 +43,10 @@ import org.wso2.carbon.user.core.UniqueIDUserStoreManager;
 import org.wso2.carbon.user.core.UserCoreConstants;
 import org.wso2.carbon.user.core.common.AbstractUserStoreManager;
 import org.wso2.carbon.user.core.service.RealmService;
+import org.wso2.identity.webhook.common.event.handler.api.model.EventContextSnapshot;
 import org.wso2.identity.webhook.common.event.handler.api.model.EventData;
+import org.wso2.identity.webhook.common.event.handler.api.util.ServiceURLCache;
+import org.wso2.identity.webhook.wso2.event.handler.internal.cache.PayloadModelCache;
 import org.wso2.identity.webhook.wso2.event.handler.internal.component.WSO2EventHookHandlerDataHolder;
 import org.wso2.identity.webhook.wso2.event.handler.internal.constant.Constants;
 import org.wso2.identity.webhook.wso2.event.handler.internal.model.common.Organization;
@@ -58,12 +60,10 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.regex.Pattern;
 
 import static org.wso2.carbon.identity.application.authentication.framework.util.FrameworkConstants.USERNAME_CLAIM;
 import static org.wso2.carbon.identity.event.IdentityEventConstants.EventProperty.USER_STORE_MANAGER;
 import static org.wso2.identity.webhook.wso2.event.handler.internal.constant.Constants.CREATED_CLAIM;
-import static org.wso2.identity.webhook.wso2.event.handler.internal.constant.Constants.EMAIL_CLAIM_URI;
 import static org.wso2.identity.webhook.wso2.event.handler.internal.constant.Constants.LOCATION_CLAIM;
 import static org.wso2.identity.webhook.wso2.event.handler.internal.constant.Constants.MODIFIED_CLAIM;
 import static org.wso2.identity.webhook.wso2.event.handler.internal.constant.Constants.RESOURCE_TYPE_CLAIM;
@@ -74,6 +74,7 @@ import static org.wso2.identity.webhook.wso2.event.handler.internal.constant.Con
 public class WSO2PayloadUtils {
 
     private static final Log log = LogFactory.getLog(WSO2PayloadUtils.class);
+    private static final String ENDPOINT_URL_NAME_PREFIX = "wso2.endpoint:";
 
     public static void populateUserClaims(User user, AuthenticatedUser authenticatedUser, String tenantDomain) {
 
@@ -123,9 +124,10 @@ public class WSO2PayloadUtils {
 
         Map<String, String> claimValues;
         try {
-            claimValues = ((UniqueIDUserStoreManager) userStoreManager).getUserClaimValuesWithID(
-                    userId, new String[] {USERNAME_CLAIM_URI, EMAIL_CLAIM_URI}, null);
-        } catch (org.wso2.carbon.user.core.UserStoreException e) {
+            // The username and the email address are read once for the events the user fires within a short time.
+            claimValues = WSO2EventHookHandlerDataHolder.getInstance().getUserProjectionCache()
+                    .getClaimsByUserId(tenantDomain, userId, (UniqueIDUserStoreManager) userStoreManager);
+        } catch (UserStoreException e) {
             log.error("Error while retrieving user claims for user: " + userId + " in tenant: " + tenantDomain, e);
             return;
         }
@@ -277,14 +279,8 @@ public class WSO2PayloadUtils {
         // todo: if the expectation of this method is to build the user name claim for the request payload,
         //  handling multi attribute values is redundant.
 
-        String multiAttributeSeparator = FrameworkUtils.getMultiAttributeSeparator();
-        if (multiAttributeSeparator == null) {
-            multiAttributeSeparator = ","; // default fallback
-        }
-
         if (isMultiValuedClaim(claimKey, tenantDomain)) {
-            userClaimBuilder.value(StringUtils.isBlank(claimValue) ? new String[] {} :
-                    claimValue.split(Pattern.quote(multiAttributeSeparator)));
+            userClaimBuilder.value(ClaimValueCodec.decode(claimValue));
         } else {
             userClaimBuilder.value(claimValue);
         }
@@ -298,6 +294,10 @@ public class WSO2PayloadUtils {
                 WSO2EventHookHandlerDataHolder.getInstance().getClaimMetadataManagementService();
 
         try {
+            if (tenantDomain != null) {
+                return WSO2EventHookHandlerDataHolder.getInstance().getClaimMetadataCache()
+                        .isMultiValuedClaim(claimUri, tenantDomain, claimMetadataManagementService);
+            }
             Optional<LocalClaim>
                     localClaim = claimMetadataManagementService.getLocalClaim(claimUri, tenantDomain);
 
@@ -315,15 +315,12 @@ public class WSO2PayloadUtils {
                                   String tenantDomain)
             throws IdentityEventException {
 
-        String userId;
         try {
-            userId = userStoreManager.getUserClaimValue(domainQualifiedUserName, FrameworkConstants.USER_ID_CLAIM,
-                    UserCoreConstants.DEFAULT_PROFILE);
-            user.setId(userId);
+            Map<String, String> claimValues = WSO2EventHookHandlerDataHolder.getInstance().getUserProjectionCache()
+                    .getClaimsByUsername(tenantDomain, domainQualifiedUserName, userStoreManager);
+            user.setId(claimValues.get(FrameworkConstants.USER_ID_CLAIM));
 
-            String emailAddress =
-                    userStoreManager.getUserClaimValue(domainQualifiedUserName, FrameworkConstants.EMAIL_ADDRESS_CLAIM,
-                            UserCoreConstants.DEFAULT_PROFILE);
+            String emailAddress = claimValues.get(FrameworkConstants.EMAIL_ADDRESS_CLAIM);
             Optional<UserClaim> emailAddressUserClaimOptional =
                     generateUserClaim(FrameworkConstants.EMAIL_ADDRESS_CLAIM, emailAddress,
                             tenantDomain);
@@ -414,19 +411,38 @@ public class WSO2PayloadUtils {
         }
     }
 
+    /**
+     * Construct the full URL of the given endpoint in the tenant and the organization of the current thread. The URL is
+     * cached per root tenant domain, sub organization and endpoint, the same as the issuer URL of the security event
+     * tokens, so that the URLs of the same endpoint are not built per event.
+     *
+     * @param endpoint Endpoint path.
+     * @return Full URL of the endpoint.
+     */
     public static String constructFullURLWithEndpoint(String endpoint) {
 
         if (endpoint == null) {
             throw new IllegalArgumentException("Endpoint cannot be null.");
         }
-        endpoint = constructBaseURL() + endpoint;
-        return endpoint;
+        try {
+            String url = ServiceURLCache.getInstance().getURL(EventContextSnapshot.capture(),
+                    ENDPOINT_URL_NAME_PREFIX + endpoint, () -> {
+                        String baseURL = constructBaseURL();
+                        return baseURL != null ? baseURL + endpoint : null;
+                    });
+            if (url != null) {
+                return url;
+            }
+        } catch (URLBuilderException e) {
+            log.debug("Error occurred while building the URL of the endpoint: " + endpoint, e);
+        }
+        return constructBaseURL() + endpoint;
     }
 
     public static Organization buildOrganizationFromIdentityContext(IdentityContext identityContext) {
 
         if (identityContext.getOrganization() != null) {
-            return new Organization(
+            return getPayloadModelCache().getOrganization(
                     identityContext.getOrganization().getId(),
                     identityContext.getOrganization().getName(),
                     identityContext.getOrganization().getOrganizationHandle(),
@@ -436,6 +452,39 @@ public class WSO2PayloadUtils {
         return null;
     }
 
+    /**
+     * Build the organization from the given event context snapshot.
+     *
+     * @param eventContext Event context snapshot.
+     * @return Organization, or null if the event is not fired in an organization.
+     */
+    public static Organization buildOrganization(EventContextSnapshot eventContext) {
+
+        org.wso2.carbon.identity.core.context.model.Organization organization = eventContext.getOrganization();
+        if (organization != null) {
+            return getPayloadModelCache().getOrganization(
+                    organization.getId(),
+                    organization.getName(),
+                    organization.getOrganizationHandle(),
+                    organization.getDepth()
+            );
+        }
+        return null;
+    }
+
+    /**
+     * Get the event context snapshot captured with the event data. If the event data does not carry a snapshot, the
+     * context of the current thread is captured.
+     *
+     * @param eventData Event data.
+     * @return Event context snapshot.
+     */
+    public static EventContextSnapshot getEventContextSnapshot(EventData eventData) {
+
+        EventContextSnapshot eventContext = eventData != null ? eventData.getEventContextSnapshot() : null;
+        return eventContext != null ? eventContext : EventContextSnapshot.capture();
+    }
+
     private static String constructBaseURL() {
 
         try {
@@ -487,7 +536,7 @@ public class WSO2PayloadUtils {
         if (userStoreDomainName == null) return null;
 
         if (StringUtils.isNotBlank(userStoreDomainName)) {
-            return new UserStore(userStoreDomainName);
+            return buildUserStore(userStoreDomainName);
         }
 
         return null;
@@ -524,18 +573,16 @@ public class WSO2PayloadUtils {
 
         try {
             String domainQualifiedUserName = userStoreDomain + "/" + userName;
+            // The id and the email address are read once for the events the user fires within a short time.
+            Map<String, String> claimValues = WSO2EventHookHandlerDataHolder.getInstance().getUserProjectionCache()
+                    .getClaimsByUsername(eventData.getTenantDomain(), domainQualifiedUserName, userStoreManager);
 
             if (StringUtils.isBlank(eventData.getUserId())) {
-                String userId =
-                        userStoreManager.getUserClaimValue(domainQualifiedUserName, FrameworkConstants.USER_ID_CLAIM,
-                                UserCoreConstants.DEFAULT_PROFILE);
-                user.setId(userId);
+                user.setId(claimValues.get(FrameworkConstants.USER_ID_CLAIM));
             }
             user.setRef(constructFullURLWithEndpoint(SCIM2_USERS_ENDPOINT) + "/" + user.getId());
 
-            String emailAddress =
-                    userStoreManager.getUserClaimValue(domainQualifiedUserName, FrameworkConstants.EMAIL_ADDRESS_CLAIM,
-                            UserCoreConstants.DEFAULT_PROFILE);
+            String emailAddress = claimValues.get(FrameworkConstants.EMAIL_ADDRESS_CLAIM);
 
             Optional<UserClaim> emailAddressUserClaimOptional =
                     generateUserClaim(FrameworkConstants.EMAIL_ADDRESS_CLAIM, emailAddress,
@@ -565,6 +612,46 @@ public class WSO2PayloadUtils {
         String rootTenantDomain = String.valueOf(
                 IdentityContext.getThreadLocalIdentityContext().getRootOrganization().getAssociatedTenantDomain());
 
-        return new Tenant(rootTenantId, rootTenantDomain);
+        return buildTenant(rootTenantId, rootTenantDomain);
+    }
+
+    /**
+     * Build the root tenant from the given event context snapshot.
+     *
+     * @param eventContext Event context snapshot.
+     * @return Root tenant.
+     */
+    public static Tenant buildTenant(EventContextSnapshot eventContext) {
+
+        return buildTenant(String.valueOf(eventContext.getRootTenantId()),
+                String.valueOf(eventContext.getRootTenantDomain()));
+    }
+
+    /**
+     * Get the tenant of the given id and domain, shared by the payloads of the events of the tenant.
+     *
+     * @param tenantId     Tenant id.
+     * @param tenantDomain Tenant domain.
+     * @return Tenant.
+     */
+    public static Tenant buildTenant(String tenantId, String tenantDomain) {
+
+        return getPayloadModelCache().getTenant(tenantId, tenantDomain);
+    }
+
+    /**
+     * Get the user store of the given domain name, shared by the payloads of the events of the user store.
+     *
+     * @param userStoreDomainName User store domain name.
+     * @return User store.
+     */
+    public static UserStore buildUserStore(String userStoreDomainName) {
+
+        return getPayloadModelCache().getUserStore(userStoreDomainName);
+    }
+
+    private static PayloadModelCache getPayloadModelCache() {
+
+        return WSO2EventHookHandlerDataHolder.getInstance().getPayloadModelCache();
     }
 }
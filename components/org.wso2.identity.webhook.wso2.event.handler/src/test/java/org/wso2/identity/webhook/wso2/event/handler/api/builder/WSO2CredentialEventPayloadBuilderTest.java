@@ -202,10 +202,11 @@ public class WSO2CredentialEventPayloadBuilderTest {
 
         mockUserStoreManager();
         try {
-            when(userStoreManagerMock.getUserClaimValue(eq(DOMAIN_QUALIFIED_TEST_USER_NAME),
-                    eq(FrameworkConstants.EMAIL_ADDRESS_CLAIM), any())).thenReturn(TEST_USER_EMAIL);
-            when(userStoreManagerMock.getUserClaimValue(eq(DOMAIN_QUALIFIED_TEST_USER_NAME),
-                    eq(FrameworkConstants.USER_ID_CLAIM), any())).thenReturn(TEST_USER_ID);
+            Map<String, String> userClaims = new HashMap<>();
+            userClaims.put(FrameworkConstants.EMAIL_ADDRESS_CLAIM, TEST_USER_EMAIL);
+            userClaims.put(FrameworkConstants.USER_ID_CLAIM, TEST_USER_ID);
+            when(userStoreManagerMock.getUserClaimValues(eq(DOMAIN_QUALIFIED_TEST_USER_NAME), any(String[].class),
+                    any())).thenReturn(userClaims);
         } catch (org.wso2.carbon.user.api.UserStoreException e) {
             log.error("Error while getting user claim value.", e);
         }
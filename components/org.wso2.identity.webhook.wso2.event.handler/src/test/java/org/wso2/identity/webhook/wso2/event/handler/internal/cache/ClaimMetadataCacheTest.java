@@ -0,0 +1,210 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.webhook.wso2.event.handler.internal.cache;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.claim.metadata.mgt.ClaimMetadataManagementService;
+import org.wso2.carbon.identity.claim.metadata.mgt.exception.ClaimMetadataException;
+import org.wso2.carbon.identity.claim.metadata.mgt.model.LocalClaim;
+import org.wso2.carbon.identity.claim.metadata.mgt.util.ClaimConstants;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Test class for ClaimMetadataCache.
+ */
+public class ClaimMetadataCacheTest {
+
+    private static final String TENANT_DOMAIN = "myorg";
+    private static final String ROLES_CLAIM = "http://wso2.org/claims/roles";
+    private static final String EMAIL_CLAIM = "http://wso2.org/claims/emailaddress";
+
+    private ClaimMetadataCache claimMetadataCache;
+    private ClaimMetadataManagementService claimMetadataManagementService;
+    private List<LocalClaim> localClaims;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+
+        claimMetadataCache = new ClaimMetadataCache();
+        claimMetadataManagementService = mock(ClaimMetadataManagementService.class);
+        LocalClaim rolesClaim = mock(LocalClaim.class);
+        when(rolesClaim.getClaimURI()).thenReturn(ROLES_CLAIM);
+        when(rolesClaim.getClaimProperty(ClaimConstants.MULTI_VALUED_PROPERTY)).thenReturn("true");
+        LocalClaim emailClaim = mock(LocalClaim.class);
+        when(emailClaim.getClaimURI()).thenReturn(EMAIL_CLAIM);
+        localClaims = Arrays.asList(rolesClaim, emailClaim);
+        when(claimMetadataManagementService.getLocalClaims(anyString())).thenReturn(localClaims);
+    }
+
+    @Test
+    public void testClaimMetadataIsLoadedOncePerTenant() throws Exception {
+
+        assertTrue(claimMetadataCache.isMultiValuedClaim(ROLES_CLAIM, TENANT_DOMAIN, claimMetadataManagementService));
+        assertFalse(claimMetadataCache.isMultiValuedClaim(EMAIL_CLAIM, TENANT_DOMAIN, claimMetadataManagementService));
+        assertFalse(claimMetadataCache.isMultiValuedClaim("http://wso2.org/claims/unknown", TENANT_DOMAIN,
+                claimMetadataManagementService));
+        assertTrue(claimMetadataCache.isMultiValuedClaim(ROLES_CLAIM, "other", claimMetadataManagementService));
+
+        verify(claimMetadataManagementService, times(1)).getLocalClaims(TENANT_DOMAIN);
+        verify(claimMetadataManagementService, times(1)).getLocalClaims("other");
+        assertEquals(claimMetadataCache.getHitCount(), 2);
+        assertEquals(claimMetadataCache.getMissCount(), 2);
+        assertEquals(claimMetadataCache.getLoadCount(), 2);
+        assertEquals(claimMetadataCache.getHitRatio(), 0.5);
+    }
+
+    @Test
+    public void testInvalidatedTenantIsLoadedAgain() throws Exception {
+
+        claimMetadataCache.isMultiValuedClaim(ROLES_CLAIM, TENANT_DOMAIN, claimMetadataManagementService);
+        when(claimMetadataManagementService.getLocalClaims(TENANT_DOMAIN)).thenReturn(Collections.emptyList());
+
+        claimMetadataCache.invalidate(TENANT_DOMAIN);
+
+        assertFalse(claimMetadataCache.isMultiValuedClaim(ROLES_CLAIM, TENANT_DOMAIN, claimMetadataManagementService));
+        verify(claimMetadataManagementService, times(2)).getLocalClaims(TENANT_DOMAIN);
+    }
+
+    @Test
+    public void testNumberOfCachedTenantsIsBounded() throws Exception {
+
+        claimMetadataCache.setMaxTenants(2);
+        for (int i = 0; i < 5; i++) {
+            claimMetadataCache.isMultiValuedClaim(ROLES_CLAIM, "tenant" + i, claimMetadataManagementService);
+        }
+
+        assertEquals(claimMetadataCache.size(), 2);
+    }
+
+    @Test(expectedExceptions = ClaimMetadataException.class)
+    public void testLoadFailureIsNotCached() throws Exception {
+
+        when(claimMetadataManagementService.getLocalClaims(TENANT_DOMAIN))
+                .thenThrow(new ClaimMetadataException("error"));
+
+        try {
+            claimMetadataCache.isMultiValuedClaim(ROLES_CLAIM, TENANT_DOMAIN, claimMetadataManagementService);
+        } finally {
+            assertEquals(claimMetadataCache.size(), 0);
+        }
+    }
+
+    @Test
+    public void testConcurrentMissesOfTenantShareSingleLoad() throws Exception {
+
+        CountDownLatch loadStarted = new CountDownLatch(1);
+        CountDownLatch releaseLoad = new CountDownLatch(1);
+        blockLoadOfTenant(loadStarted, releaseLoad);
+        AtomicBoolean isMultiValued = new AtomicBoolean();
+        Thread loader = startLookup(ROLES_CLAIM, isMultiValued);
+        assertTrue(loadStarted.await(5, TimeUnit.SECONDS));
+        AtomicBoolean isWaiterMultiValued = new AtomicBoolean();
+        Thread waiter = startLookup(ROLES_CLAIM, isWaiterMultiValued);
+        awaitWaiting(waiter);
+
+        releaseLoad.countDown();
+        loader.join(5000);
+        waiter.join(5000);
+
+        assertTrue(isMultiValued.get());
+        assertTrue(isWaiterMultiValued.get());
+        verify(claimMetadataManagementService, times(1)).getLocalClaims(TENANT_DOMAIN);
+        assertEquals(claimMetadataCache.getMissCount(), 2);
+        assertEquals(claimMetadataCache.getLoadCount(), 1);
+    }
+
+    @Test
+    public void testInvalidationDiscardsOnlyInFlightLoadOfItsTenant() throws Exception {
+
+        CountDownLatch loadStarted = new CountDownLatch(1);
+        CountDownLatch releaseLoad = new CountDownLatch(1);
+        blockLoadOfTenant(loadStarted, releaseLoad);
+        Thread loader = startLookup(ROLES_CLAIM, new AtomicBoolean());
+        assertTrue(loadStarted.await(5, TimeUnit.SECONDS));
+
+        claimMetadataCache.invalidate("other");
+        releaseLoad.countDown();
+        loader.join(5000);
+
+        assertEquals(claimMetadataCache.size(), 1);
+        assertTrue(claimMetadataCache.isMultiValuedClaim(ROLES_CLAIM, TENANT_DOMAIN, claimMetadataManagementService));
+        verify(claimMetadataManagementService, times(1)).getLocalClaims(TENANT_DOMAIN);
+
+        claimMetadataCache.invalidate(TENANT_DOMAIN);
+        CountDownLatch reloadStarted = new CountDownLatch(1);
+        CountDownLatch releaseReload = new CountDownLatch(1);
+        blockLoadOfTenant(reloadStarted, releaseReload);
+        Thread reloader = startLookup(ROLES_CLAIM, new AtomicBoolean());
+        assertTrue(reloadStarted.await(5, TimeUnit.SECONDS));
+
+        claimMetadataCache.invalidate(TENANT_DOMAIN);
+        releaseReload.countDown();
+        reloader.join(5000);
+
+        assertEquals(claimMetadataCache.size(), 0);
+    }
+
+    private void blockLoadOfTenant(CountDownLatch loadStarted, CountDownLatch releaseLoad) throws Exception {
+
+        when(claimMetadataManagementService.getLocalClaims(TENANT_DOMAIN)).thenAnswer(invocation -> {
+            loadStarted.countDown();
+            releaseLoad.await(5, TimeUnit.SECONDS);
+            return localClaims;
+        });
+    }
+
+    private Thread startLookup(String claimUri, AtomicBoolean isMultiValued) {
+
+        Thread thread = new Thread(() -> {
+            try {
+                isMultiValued.set(claimMetadataCache.isMultiValuedClaim(claimUri, TENANT_DOMAIN,
+                        claimMetadataManagementService));
+            } catch (ClaimMetadataException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        thread.start();
+        return thread;
+    }
+
+    private void awaitWaiting(Thread thread) throws InterruptedException {
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (thread.getState() != Thread.State.WAITING && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(thread.getState(), Thread.State.WAITING);
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.webhook.wso2.event.handler.internal.cache;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.identity.webhook.wso2.event.handler.internal.model.common.Organization;
+import org.wso2.identity.webhook.wso2.event.handler.internal.model.common.Tenant;
+import org.wso2.identity.webhook.wso2.event.handler.internal.model.common.UserStore;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
+
+/**
+ * Test class for PayloadModelCache.
+ */
+public class PayloadModelCacheTest {
+
+    private PayloadModelCache payloadModelCache;
+
+    @BeforeMethod
+    public void setUp() {
+
+        payloadModelCache = new PayloadModelCache();
+    }
+
+    @Test
+    public void testModelsAreShared() {
+
+        Tenant tenant = payloadModelCache.getTenant("1", "myorg");
+        Organization organization = payloadModelCache.getOrganization("org-id", "My Org", "myorg", 0);
+        UserStore userStore = payloadModelCache.getUserStore("PRIMARY");
+
+        assertSame(payloadModelCache.getTenant("1", "myorg"), tenant);
+        assertSame(payloadModelCache.getOrganization("org-id", "My Org", "myorg", 0), organization);
+        assertSame(payloadModelCache.getUserStore("PRIMARY"), userStore);
+        assertEquals(userStore.getId(), "UFJJTUFSWQ==");
+        assertEquals(payloadModelCache.size(), 3);
+    }
+
+    @Test
+    public void testUpdatedOrganizationReplacesTheCachedOne() {
+
+        Organization organization = payloadModelCache.getOrganization("org-id", "My Org", "myorg", 0);
+        Organization renamedOrganization = payloadModelCache.getOrganization("org-id", "Renamed Org", "myorg", 0);
+
+        assertNotSame(renamedOrganization, organization);
+        assertEquals(renamedOrganization.getName(), "Renamed Org");
+        assertSame(payloadModelCache.getOrganization("org-id", "Renamed Org", "myorg", 0), renamedOrganization);
+        assertEquals(payloadModelCache.size(), 1);
+    }
+
+    @Test
+    public void testNumberOfCachedModelsIsBounded() {
+
+        payloadModelCache.setMaxEntries(2);
+        for (int i = 0; i < 5; i++) {
+            payloadModelCache.getTenant(String.valueOf(i), "tenant" + i);
+        }
+
+        assertEquals(payloadModelCache.size(), 2);
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.webhook.wso2.event.handler.internal.cache;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.application.authentication.framework.util.FrameworkConstants;
+import org.wso2.carbon.user.core.UniqueIDUserStoreManager;
+import org.wso2.carbon.user.core.UserCoreConstants;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.wso2.identity.webhook.wso2.event.handler.internal.constant.Constants.EMAIL_CLAIM_URI;
+import static org.wso2.identity.webhook.wso2.event.handler.internal.constant.Constants.USERNAME_CLAIM_URI;
+
+/**
+ * Test class for UserProjectionCache.
+ */
+public class UserProjectionCacheTest {
+
+    private static final String TENANT_DOMAIN = "myorg";
+    private static final String USERNAME = "PRIMARY/alice";
+    private static final String USER_ID = "alice-id";
+    private static final String EMAIL = "alice@example.com";
+
+    private UserProjectionCache userProjectionCache;
+    private UniqueIDUserStoreManager userStoreManager;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+
+        userProjectionCache = new UserProjectionCache();
+        userStoreManager = mock(UniqueIDUserStoreManager.class);
+
+        Map<String, String> claimsByUsername = new HashMap<>();
+        claimsByUsername.put(FrameworkConstants.USER_ID_CLAIM, USER_ID);
+        claimsByUsername.put(FrameworkConstants.EMAIL_ADDRESS_CLAIM, EMAIL);
+        when(userStoreManager.getUserClaimValues(USERNAME, UserProjectionCache.USERNAME_PROJECTION_CLAIMS,
+                UserCoreConstants.DEFAULT_PROFILE)).thenReturn(claimsByUsername);
+
+        Map<String, String> claimsByUserId = new HashMap<>();
+        claimsByUserId.put(USERNAME_CLAIM_URI, "alice");
+        claimsByUserId.put(EMAIL_CLAIM_URI, EMAIL);
+        when(userStoreManager.getUserClaimValuesWithID(USER_ID, UserProjectionCache.USER_ID_PROJECTION_CLAIMS, null))
+                .thenReturn(claimsByUserId);
+    }
+
+    @Test
+    public void testClaimsAreReadOncePerUser() throws Exception {
+
+        for (int i = 0; i < 3; i++) {
+            Map<String, String> claims = userProjectionCache.getClaimsByUsername(TENANT_DOMAIN, USERNAME,
+                    userStoreManager);
+            assertEquals(claims.get(FrameworkConstants.USER_ID_CLAIM), USER_ID);
+            assertEquals(claims.get(FrameworkConstants.EMAIL_ADDRESS_CLAIM), EMAIL);
+        }
+
+        verify(userStoreManager, times(1)).getUserClaimValues(any(), any(String[].class), any());
+        assertEquals(userProjectionCache.getHitCount(), 2);
+        assertEquals(userProjectionCache.getMissCount(), 1);
+    }
+
+    @Test
+    public void testUsersOfDifferentTenantsAreCachedSeparately() throws Exception {
+
+        userProjectionCache.getClaimsByUsername(TENANT_DOMAIN, USERNAME, userStoreManager);
+        userProjectionCache.getClaimsByUsername("other", USERNAME, userStoreManager);
+
+        verify(userStoreManager, times(2)).getUserClaimValues(any(), any(String[].class), any());
+        assertEquals(userProjectionCache.size(), 2);
+    }
+
+    @Test
+    public void testUserIsInvalidatedByIdAndUsername() throws Exception {
+
+        userProjectionCache.getClaimsByUsername(TENANT_DOMAIN, USERNAME, userStoreManager);
+        userProjectionCache.getClaimsByUserId(TENANT_DOMAIN, USER_ID, userStoreManager);
+        assertEquals(userProjectionCache.size(), 2);
+
+        // The user looked up by the username is matched by its id claim.
+        userProjectionCache.invalidate(TENANT_DOMAIN, USER_ID, null);
+        assertEquals(userProjectionCache.size(), 0);
+
+        userProjectionCache.getClaimsByUsername(TENANT_DOMAIN, USERNAME, userStoreManager);
+        userProjectionCache.getClaimsByUserId(TENANT_DOMAIN, USER_ID, userStoreManager);
+
+        // The user looked up by the id is matched by its username claim.
+        userProjectionCache.invalidate(TENANT_DOMAIN, null, "alice");
+        assertEquals(userProjectionCache.size(), 0);
+    }
+
+    @Test
+    public void testUserIsInvalidatedOnlyInItsTenant() throws Exception {
+
+        userProjectionCache.getClaimsByUserId(TENANT_DOMAIN, USER_ID, userStoreManager);
+        userProjectionCache.getClaimsByUserId("other", USER_ID, userStoreManager);
+
+        userProjectionCache.invalidate("other", USER_ID, "PRIMARY/Alice");
+        assertEquals(userProjectionCache.size(), 1);
+
+        userProjectionCache.getClaimsByUserId(TENANT_DOMAIN, USER_ID, userStoreManager);
+        verify(userStoreManager, times(2)).getUserClaimValuesWithID(any(), any(String[].class), any());
+    }
+
+    @Test
+    public void testUserIsReadAgainAfterInvalidation() throws Exception {
+
+        userProjectionCache.getClaimsByUserId(TENANT_DOMAIN, USER_ID, userStoreManager);
+        userProjectionCache.invalidate(TENANT_DOMAIN, null, "PRIMARY/Alice");
+        userProjectionCache.getClaimsByUserId(TENANT_DOMAIN, USER_ID, userStoreManager);
+
+        verify(userStoreManager, times(2)).getUserClaimValuesWithID(any(), any(String[].class), any());
+        assertEquals(userProjectionCache.size(), 1);
+    }
+
+    @Test
+    public void testClaimsAreNotCachedWithoutTtl() throws Exception {
+
+        userProjectionCache.setTtl(0);
+
+        userProjectionCache.getClaimsByUserId(TENANT_DOMAIN, USER_ID, userStoreManager);
+        userProjectionCache.getClaimsByUserId(TENANT_DOMAIN, USER_ID, userStoreManager);
+
+        verify(userStoreManager, times(2)).getUserClaimValuesWithID(any(), any(String[].class), any());
+        assertEquals(userProjectionCache.size(), 0);
+    }
+
+    @Test
+    public void testNumberOfCachedUsersIsBounded() throws Exception {
+
+        userProjectionCache.setMaxEntries(2);
+        for (int i = 0; i < 5; i++) {
+            userProjectionCache.getClaimsByUsername("tenant" + i, USERNAME, userStoreManager);
+        }
+
+        assertEquals(userProjectionCache.size(), 2);
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.webhook.wso2.event.handler.internal.serializer;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+import org.wso2.identity.webhook.wso2.event.handler.internal.model.common.Application;
+import org.wso2.identity.webhook.wso2.event.handler.internal.model.common.Organization;
+import org.wso2.identity.webhook.wso2.event.handler.internal.model.common.Session;
+import org.wso2.identity.webhook.wso2.event.handler.internal.model.common.Tenant;
+import org.wso2.identity.webhook.wso2.event.handler.internal.model.common.User;
+import org.wso2.identity.webhook.wso2.event.handler.internal.model.common.UserClaim;
+import org.wso2.identity.webhook.wso2.event.handler.internal.model.common.UserStore;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+
+import static org.testng.Assert.assertEquals;
+
+/**
+ * Test class for the serializers of the payload models, comparing them with the reflective serialization.
+ */
+public class ModelSerializerTest {
+
+    @DataProvider(name = "inclusions")
+    public Object[][] inclusions() {
+
+        return new Object[][]{
+                {JsonInclude.Include.ALWAYS},
+                {JsonInclude.Include.NON_NULL},
+                {JsonInclude.Include.NON_EMPTY}
+        };
+    }
+
+    @Test(dataProvider = "inclusions")
+    public void testModelsAreSerializedAsReflectively(JsonInclude.Include inclusion) throws Exception {
+
+        ObjectMapper objectMapper = JsonMapper.builder()
+                .serializationInclusion(inclusion)
+                .build();
+        // Without annotations, the models are serialized through the bean properties introspected from the getters.
+        ObjectMapper reflectiveObjectMapper = JsonMapper.builder()
+                .serializationInclusion(inclusion)
+                .disable(MapperFeature.USE_ANNOTATIONS)
+                .build();
+
+        for (Object model : Arrays.asList(buildUser(), buildSession(), new Tenant("1", "myorg"),
+                new UserStore("PRIMARY"), new Organization("org-id", "My Org", "myorg", 0), new User())) {
+            JsonNode serialized = objectMapper.readTree(objectMapper.writeValueAsBytes(model));
+            JsonNode reflectivelySerialized = reflectiveObjectMapper.readTree(
+                    reflectiveObjectMapper.writeValueAsBytes(model));
+            assertEquals(serialized, reflectivelySerialized, model.getClass().getSimpleName());
+        }
+    }
+
+    private User buildUser() {
+
+        User user = new User();
+        user.setId("user-id");
+        user.setRef("https://localhost:9443/scim2/Users/user-id");
+        user.setOrganization(new Organization("org-id", "My Org", "myorg", 1));
+        user.addGroup("admins");
+        user.setClaims(Arrays.asList(
+                new UserClaim.Builder().uri("http://wso2.org/claims/emailaddress").value("alice@example.com").build(),
+                new UserClaim.Builder().uri("http://wso2.org/claims/emailAddresses")
+                        .value(new String[]{"alice@example.com", "alice@example.org"}).build(),
+                new UserClaim.Builder().uri("http://wso2.org/claims/nickname").build()));
+        user.setRemovedClaims(Collections.emptyList());
+        return user;
+    }
+
+    private Session buildSession() {
+
+        return new Session.Builder()
+                .id("session-id")
+                .loginTime(new Date(1700000000000L))
+                .applications(Arrays.asList(
+                        new Application.Builder().id("app-id").name("My App").consumerKey("consumer-key").build(),
+                        new Application.Builder().id("console-id").name("Console").build()))
+                .build();
+    }
+}
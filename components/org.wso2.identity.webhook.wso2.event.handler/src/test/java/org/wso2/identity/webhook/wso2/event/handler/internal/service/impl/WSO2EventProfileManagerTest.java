@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.webhook.wso2.event.handler.internal.service.impl;
+
+import org.mockito.MockedStatic;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.core.context.IdentityContext;
+import org.wso2.carbon.identity.core.context.model.Flow;
+import org.wso2.carbon.identity.event.IdentityEventConstants;
+import org.wso2.identity.webhook.common.event.handler.api.model.EventMetadata;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.wso2.identity.webhook.common.event.handler.api.constants.Constants.Channel.CREDENTIAL_CHANGE_CHANNEL;
+import static org.wso2.identity.webhook.common.event.handler.api.constants.Constants.Channel.SESSION_CHANNEL;
+import static org.wso2.identity.webhook.common.event.handler.api.constants.Constants.Event.POST_UPDATE_USER_CREDENTIAL;
+import static org.wso2.identity.webhook.common.event.handler.api.constants.Constants.Event.SESSION_PRESENTED_EVENT;
+import static org.wso2.identity.webhook.common.event.handler.api.constants.Constants.EventSchema.WSO2;
+
+/**
+ * Test class for WSO2EventProfileManager.
+ */
+public class WSO2EventProfileManagerTest {
+
+    private final WSO2EventProfileManager eventProfileManager = new WSO2EventProfileManager();
+    private MockedStatic<IdentityContext> identityContextMockedStatic;
+    private IdentityContext identityContext;
+
+    @BeforeMethod
+    public void setUp() {
+
+        identityContext = mock(IdentityContext.class);
+        identityContextMockedStatic = mockStatic(IdentityContext.class);
+        identityContextMockedStatic.when(IdentityContext::getThreadLocalIdentityContext).thenReturn(identityContext);
+    }
+
+    @AfterMethod
+    public void tearDown() {
+
+        identityContextMockedStatic.close();
+    }
+
+    @Test
+    public void testEventMetadataIsSharedByEventsOfTheSameMetadata() {
+
+        EventMetadata sessionUpdateMetadata =
+                eventProfileManager.resolveEventMetadata(IdentityEventConstants.Event.SESSION_UPDATE);
+
+        assertEquals(sessionUpdateMetadata.getChannel(), SESSION_CHANNEL);
+        assertEquals(sessionUpdateMetadata.getEvent(), SESSION_PRESENTED_EVENT);
+        assertEquals(sessionUpdateMetadata.getEventProfile(), WSO2.name());
+        assertSame(eventProfileManager.resolveEventMetadata(IdentityEventConstants.Event.SESSION_EXTENSION),
+                sessionUpdateMetadata);
+    }
+
+    @Test
+    public void testUnsupportedEventsResolveToSharedMetadata() {
+
+        EventMetadata unsupportedMetadata =
+                eventProfileManager.resolveEventMetadata(IdentityEventConstants.Event.PRE_ADD_USER);
+
+        assertNull(unsupportedMetadata.getChannel());
+        assertNull(unsupportedMetadata.getEvent());
+        assertEquals(unsupportedMetadata.getEventProfile(), WSO2.name());
+        assertSame(eventProfileManager.resolveEventMetadata(IdentityEventConstants.Event.PRE_DELETE_USER),
+                unsupportedMetadata);
+    }
+
+    @Test
+    public void testEventsOfBulkFlowsAreNotSupported() {
+
+        mockFlow(Flow.Name.BULK_RESOURCE_UPDATE);
+
+        assertNull(eventProfileManager.resolveEventMetadata(IdentityEventConstants.Event.POST_ADD_USER).getEvent());
+    }
+
+    @Test
+    public void testNewPasswordIsCredentialUpdateOnlyInCredentialResetFlow() {
+
+        mockFlow(Flow.Name.INVITE);
+        assertNull(eventProfileManager.resolveEventMetadata(IdentityEventConstants.Event.POST_ADD_NEW_PASSWORD)
+                .getEvent());
+
+        mockFlow(Flow.Name.CREDENTIAL_RESET);
+        EventMetadata eventMetadata =
+                eventProfileManager.resolveEventMetadata(IdentityEventConstants.Event.POST_ADD_NEW_PASSWORD);
+        assertEquals(eventMetadata.getChannel(), CREDENTIAL_CHANGE_CHANNEL);
+        assertEquals(eventMetadata.getEvent(), POST_UPDATE_USER_CREDENTIAL);
+    }
+
+    private void mockFlow(Flow.Name flowName) {
+
+        Flow flow = mock(Flow.class);
+        when(flow.getName()).thenReturn(flowName);
+        when(identityContext.getCurrentFlow()).thenReturn(flow);
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.webhook.wso2.event.handler.internal.util;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.context.PrivilegedCarbonContext;
+import org.wso2.carbon.identity.application.common.IdentityApplicationManagementException;
+import org.wso2.carbon.identity.application.common.model.ApplicationBasicInfo;
+import org.wso2.carbon.identity.application.common.model.ServiceProvider;
+import org.wso2.carbon.identity.application.mgt.ApplicationManagementService;
+import org.wso2.identity.webhook.wso2.event.handler.internal.component.WSO2EventHookHandlerDataHolder;
+import org.wso2.identity.webhook.wso2.event.handler.internal.listener.ApplicationCacheInvalidationListener;
+import org.wso2.identity.webhook.wso2.event.handler.internal.model.common.Application;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+
+/**
+ * Test class for ApplicationResolver.
+ */
+public class ApplicationResolverTest {
+
+    private static final String TENANT_DOMAIN = "myorg";
+    private static final String OAUTH2 = "oauth2";
+
+    private ApplicationResolver applicationResolver;
+    private ApplicationManagementService applicationManagementService;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+
+        CommonTestUtils.initPrivilegedCarbonContext();
+        applicationResolver = new ApplicationResolver();
+        applicationManagementService = mock(ApplicationManagementService.class);
+        WSO2EventHookHandlerDataHolder.getInstance().setApplicationManagementService(applicationManagementService);
+
+        for (String name : Arrays.asList("app1", "app2", "app3")) {
+            ServiceProvider serviceProvider = mock(ServiceProvider.class);
+            when(serviceProvider.getApplicationResourceId()).thenReturn(name + "-id");
+            when(serviceProvider.getApplicationName()).thenReturn(name);
+            when(applicationManagementService.getServiceProviderByClientId(name + "-key", OAUTH2, TENANT_DOMAIN))
+                    .thenReturn(serviceProvider);
+        }
+    }
+
+    @AfterMethod
+    public void tearDown() {
+
+        applicationResolver.shutdown();
+        WSO2EventHookHandlerDataHolder.getInstance().setApplicationManagementService(null);
+        PrivilegedCarbonContext.endTenantFlow();
+    }
+
+    @Test
+    public void testApplicationsOfConsumerKeysAreResolvedInOrder() throws Exception {
+
+        List<Application> applications = applicationResolver.resolveByConsumerKeys(TENANT_DOMAIN,
+                Arrays.asList("app3-key", "app1-key", "unknown-key", "app2-key", "app1-key"));
+
+        assertEquals(applications.size(), 3);
+        assertEquals(applications.get(0).getId(), "app3-id");
+        assertEquals(applications.get(1).getId(), "app1-id");
+        assertEquals(applications.get(2).getId(), "app2-id");
+        assertEquals(applications.get(1).getConsumerKey(), "app1-key");
+        verify(applicationManagementService, times(1))
+                .getServiceProviderByClientId("app1-key", OAUTH2, TENANT_DOMAIN);
+    }
+
+    @Test
+    public void testApplicationsAreReadOnce() throws Exception {
+
+        applicationResolver.setParallelism(1);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(applicationResolver.resolveByConsumerKey(TENANT_DOMAIN, "app1-key").getName(), "app1");
+            assertEquals(applicationResolver.resolveByConsumerKeys(TENANT_DOMAIN,
+                    Arrays.asList("app1-key", "app2-key")).size(), 2);
+        }
+
+        verify(applicationManagementService, times(1))
+                .getServiceProviderByClientId("app1-key", OAUTH2, TENANT_DOMAIN);
+        verify(applicationManagementService, times(1))
+                .getServiceProviderByClientId("app2-key", OAUTH2, TENANT_DOMAIN);
+    }
+
+    @Test
+    public void testApplicationOfResourceIdIsReadAgainAfterUpdate() throws Exception {
+
+        ApplicationBasicInfo applicationBasicInfo = mock(ApplicationBasicInfo.class);
+        when(applicationBasicInfo.getApplicationName()).thenReturn("app1");
+        when(applicationBasicInfo.getClientId()).thenReturn("app1-key");
+        when(applicationManagementService.getApplicationBasicInfoByResourceId("app1-id", TENANT_DOMAIN))
+                .thenReturn(applicationBasicInfo);
+
+        Application application = applicationResolver.resolveByResourceId(TENANT_DOMAIN, "app1-id");
+        assertEquals(application.getName(), "app1");
+        assertEquals(application.getConsumerKey(), "app1-key");
+        applicationResolver.resolveByConsumerKey(TENANT_DOMAIN, "app1-key");
+
+        ServiceProvider serviceProvider = mock(ServiceProvider.class);
+        when(serviceProvider.getApplicationResourceId()).thenReturn("app1-id");
+        when(serviceProvider.getApplicationName()).thenReturn("renamed-app1");
+        new ApplicationCacheInvalidationListener().doPostUpdateApplication(serviceProvider, TENANT_DOMAIN, "admin");
+        assertEquals(WSO2EventHookHandlerDataHolder.getInstance().getApplicationCache().size(), 0);
+
+        applicationResolver.resolveByResourceId(TENANT_DOMAIN, "app1-id");
+        verify(applicationManagementService, times(2)).getApplicationBasicInfoByResourceId("app1-id", TENANT_DOMAIN);
+    }
+
+    @Test
+    public void testApplicationThatCannotBeReadIsLeftOut() throws Exception {
+
+        when(applicationManagementService.getServiceProviderByClientId("broken-key", OAUTH2, TENANT_DOMAIN))
+                .thenThrow(new IdentityApplicationManagementException("Error."));
+
+        assertNull(applicationResolver.resolveByConsumerKey(TENANT_DOMAIN, "broken-key"));
+        List<Application> applications = applicationResolver.resolveByConsumerKeys(TENANT_DOMAIN,
+                Arrays.asList("broken-key", "app1-key"));
+        assertEquals(applications.size(), 1);
+        assertEquals(applications.get(0).getId(), "app1-id");
+        // An application that cannot be read is not cached.
+        verify(applicationManagementService, times(2))
+                .getServiceProviderByClientId("broken-key", OAUTH2, TENANT_DOMAIN);
+    }
+}
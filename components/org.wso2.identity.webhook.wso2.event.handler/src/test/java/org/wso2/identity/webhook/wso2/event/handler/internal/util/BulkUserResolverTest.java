@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.webhook.wso2.event.handler.internal.util;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.context.PrivilegedCarbonContext;
+import org.wso2.carbon.identity.application.authentication.framework.util.FrameworkConstants;
+import org.wso2.carbon.user.core.UserCoreConstants;
+import org.wso2.carbon.user.core.UserStoreException;
+import org.wso2.carbon.user.core.common.AbstractUserStoreManager;
+import org.wso2.carbon.user.core.model.UserClaimSearchEntry;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+
+/**
+ * Test class for BulkUserResolver.
+ */
+public class BulkUserResolverTest {
+
+    private static final String[] CLAIMS = {FrameworkConstants.USER_ID_CLAIM, FrameworkConstants.EMAIL_ADDRESS_CLAIM};
+    private static final String ALICE = "PRIMARY/alice";
+    private static final String BOB = "PRIMARY/bob";
+
+    private BulkUserResolver bulkUserResolver;
+    private AbstractUserStoreManager userStoreManager;
+
+    @BeforeMethod
+    public void setUp() {
+
+        bulkUserResolver = new BulkUserResolver();
+        userStoreManager = mock(AbstractUserStoreManager.class);
+    }
+
+    @AfterMethod
+    public void tearDown() {
+
+        bulkUserResolver.shutdown();
+    }
+
+    @Test
+    public void testUsersAreReadWithASingleLookup() throws Exception {
+
+        when(userStoreManager.getUsersClaimValues(any(String[].class), eq(CLAIMS),
+                eq(UserCoreConstants.DEFAULT_PROFILE)))
+                .thenReturn(new UserClaimSearchEntry[]{entry("alice", "alice-id"), entry("bob", "bob-id")});
+
+        Map<String, Map<String, String>> userClaims =
+                bulkUserResolver.resolveClaims(userStoreManager, new String[]{ALICE, BOB}, CLAIMS);
+
+        assertEquals(userClaims.get(ALICE).get(FrameworkConstants.USER_ID_CLAIM), "alice-id");
+        assertEquals(userClaims.get(BOB).get(FrameworkConstants.USER_ID_CLAIM), "bob-id");
+        verify(userStoreManager, times(1)).getUsersClaimValues(any(String[].class), eq(CLAIMS), anyString());
+        verify(userStoreManager, never()).getUserClaimValue(anyString(), anyString(), anyString());
+    }
+
+    @Test
+    public void testUsersLeftOutOfTheBulkLookupAreReadOneByOne() throws Exception {
+
+        when(userStoreManager.getUsersClaimValues(any(String[].class), eq(CLAIMS), anyString()))
+                .thenReturn(new UserClaimSearchEntry[]{entry("alice", "alice-id")});
+        when(userStoreManager.getUserClaimValue(BOB, FrameworkConstants.USER_ID_CLAIM,
+                UserCoreConstants.DEFAULT_PROFILE)).thenReturn("bob-id");
+
+        Map<String, Map<String, String>> userClaims =
+                bulkUserResolver.resolveClaims(userStoreManager, new String[]{ALICE, BOB}, CLAIMS);
+
+        assertEquals(userClaims.get(ALICE).get(FrameworkConstants.USER_ID_CLAIM), "alice-id");
+        assertEquals(userClaims.get(BOB).get(FrameworkConstants.USER_ID_CLAIM), "bob-id");
+        verify(userStoreManager, never()).getUserClaimValue(eq(ALICE), anyString(), anyString());
+    }
+
+    @Test
+    public void testUsersAreReadOneByOneIfTheBulkLookupFails() throws Exception {
+
+        when(userStoreManager.getUsersClaimValues(any(String[].class), eq(CLAIMS), anyString()))
+                .thenThrow(new UserStoreException("Not supported."));
+        when(userStoreManager.getUserClaimValue(ALICE, FrameworkConstants.USER_ID_CLAIM,
+                UserCoreConstants.DEFAULT_PROFILE)).thenReturn("alice-id");
+
+        Map<String, Map<String, String>> userClaims =
+                bulkUserResolver.resolveClaims(userStoreManager, new String[]{ALICE}, CLAIMS);
+
+        assertEquals(userClaims.get(ALICE).get(FrameworkConstants.USER_ID_CLAIM), "alice-id");
+    }
+
+    @Test
+    public void testUsersAreReadInChunksOfTheSameDomain() throws Exception {
+
+        CommonTestUtils.initPrivilegedCarbonContext();
+        bulkUserResolver.setChunkSize(2);
+        bulkUserResolver.setParallelism(2);
+        when(userStoreManager.getUsersClaimValues(any(String[].class), eq(CLAIMS), anyString()))
+                .thenReturn(new UserClaimSearchEntry[0]);
+
+        try {
+            bulkUserResolver.resolveClaims(userStoreManager,
+                    new String[]{ALICE, "SECONDARY/carol", BOB, "PRIMARY/dave", "PRIMARY/erin"}, CLAIMS);
+        } finally {
+            PrivilegedCarbonContext.endTenantFlow();
+        }
+
+        verify(userStoreManager).getUsersClaimValues(eq(new String[]{ALICE, BOB}), eq(CLAIMS), anyString());
+        verify(userStoreManager).getUsersClaimValues(eq(new String[]{"PRIMARY/dave", "PRIMARY/erin"}), eq(CLAIMS),
+                anyString());
+        verify(userStoreManager).getUsersClaimValues(eq(new String[]{"SECONDARY/carol"}), eq(CLAIMS), anyString());
+    }
+
+    private UserClaimSearchEntry entry(String username, String userId) {
+
+        Map<String, String> claims = new HashMap<>();
+        claims.put(FrameworkConstants.USER_ID_CLAIM, userId);
+        UserClaimSearchEntry entry = mock(UserClaimSearchEntry.class);
+        when(entry.getUserName()).thenReturn(username);
+        when(entry.getClaims()).thenReturn(claims);
+        return entry;
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.webhook.wso2.event.handler.internal.util;
+
+import org.mockito.MockedStatic;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.application.authentication.framework.util.FrameworkUtils;
+
+import java.util.regex.Pattern;
+
+import static org.mockito.Mockito.mockStatic;
+import static org.testng.Assert.assertEquals;
+
+/**
+ * Test class for ClaimValueCodec.
+ */
+public class ClaimValueCodecTest {
+
+    @DataProvider(name = "claimValueProvider")
+    public Object[][] claimValueProvider() {
+
+        return new Object[][]{
+                {"admin,manager,everyone", ","},
+                {"admin", ","},
+                {",admin,,manager,,", ","},
+                {",,", ","},
+                {"admin||manager|everyone", "||"},
+                {"admin.manager", "."},
+                {"a+b", ""}
+        };
+    }
+
+    @Test(dataProvider = "claimValueProvider")
+    public void testDecodeMatchesSplitOnQuotedSeparator(String claimValue, String separator) {
+
+        assertEquals(ClaimValueCodec.decode(claimValue, separator), claimValue.split(Pattern.quote(separator)));
+    }
+
+    @Test
+    public void testDecodeUsesMultiAttributeSeparator() {
+
+        try (MockedStatic<FrameworkUtils> frameworkUtils = mockStatic(FrameworkUtils.class)) {
+            frameworkUtils.when(FrameworkUtils::getMultiAttributeSeparator).thenReturn(";");
+            assertEquals(ClaimValueCodec.decode("admin;manager"), new String[]{"admin", "manager"});
+
+            frameworkUtils.when(FrameworkUtils::getMultiAttributeSeparator).thenReturn(null);
+            assertEquals(ClaimValueCodec.decode("admin,manager"), new String[]{"admin", "manager"});
+        }
+    }
+}
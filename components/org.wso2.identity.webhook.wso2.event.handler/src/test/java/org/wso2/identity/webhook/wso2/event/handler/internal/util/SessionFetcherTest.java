@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.identity.webhook.wso2.event.handler.internal.util;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.context.PrivilegedCarbonContext;
+import org.wso2.carbon.identity.application.authentication.framework.model.UserSession;
+import org.wso2.carbon.identity.event.IdentityEventException;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+
+/**
+ * Test class for SessionFetcher.
+ */
+public class SessionFetcherTest {
+
+    private static final List<String> SESSION_IDS = Arrays.asList("session-1", "session-2", "session-3");
+
+    private SessionFetcher sessionFetcher;
+    private Map<String, UserSession> userSessionsById;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+
+        CommonTestUtils.initPrivilegedCarbonContext();
+        sessionFetcher = new SessionFetcher();
+        // The sessions are mocked upfront, as the lookups run on the threads of the fetcher.
+        userSessionsById = new HashMap<>();
+        for (String sessionId : SESSION_IDS) {
+            UserSession userSession = mock(UserSession.class);
+            when(userSession.getSessionId()).thenReturn(sessionId);
+            userSessionsById.put(sessionId, userSession);
+        }
+    }
+
+    @AfterMethod
+    public void tearDown() {
+
+        sessionFetcher.shutdown();
+        PrivilegedCarbonContext.endTenantFlow();
+    }
+
+    @Test
+    public void testSessionsAreFetchedConcurrentlyInOrder() throws Exception {
+
+        // Each lookup waits for all the others, so the sessions are only fetched if looked up concurrently.
+        sessionFetcher.setParallelism(SESSION_IDS.size());
+        CountDownLatch lookups = new CountDownLatch(SESSION_IDS.size());
+
+        List<UserSession> userSessions = sessionFetcher.fetchSessions(SESSION_IDS, sessionId -> {
+            lookups.countDown();
+            try {
+                lookups.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return Optional.of(userSession(sessionId));
+        });
+
+        assertEquals(lookups.getCount(), 0);
+        assertEquals(userSessions.size(), SESSION_IDS.size());
+        for (int i = 0; i < SESSION_IDS.size(); i++) {
+            assertEquals(userSessions.get(i).getSessionId(), SESSION_IDS.get(i));
+        }
+    }
+
+    @Test
+    public void testMissingSessionsAreLeftOut() throws Exception {
+
+        List<UserSession> userSessions = sessionFetcher.fetchSessions(SESSION_IDS, sessionId ->
+                "session-2".equals(sessionId) ? Optional.empty() : Optional.of(userSession(sessionId)));
+
+        assertEquals(userSessions.size(), 2);
+        assertEquals(userSessions.get(0).getSessionId(), "session-1");
+        assertEquals(userSessions.get(1).getSessionId(), "session-3");
+    }
+
+    @Test
+    public void testSessionsNotFetchedWithinTheDeadlineAreFetchedOnTheCallingThread() throws Exception {
+
+        sessionFetcher.setDeadline(200);
+        Thread callingThread = Thread.currentThread();
+        CountDownLatch release = new CountDownLatch(1);
+
+        try {
+            // The lookup of the last session only completes on the calling thread.
+            List<UserSession> userSessions = sessionFetcher.fetchSessions(SESSION_IDS, sessionId -> {
+                if ("session-3".equals(sessionId) && Thread.currentThread() != callingThread) {
+                    try {
+                        release.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return Optional.of(userSession(sessionId));
+            });
+
+            assertEquals(userSessions.size(), SESSION_IDS.size());
+            for (int i = 0; i < SESSION_IDS.size(); i++) {
+                assertEquals(userSessions.get(i).getSessionId(), SESSION_IDS.get(i));
+            }
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test(expectedExceptions = IdentityEventException.class)
+    public void testLookupErrorIsPropagated() throws Exception {
+
+        sessionFetcher.fetchSessions(SESSION_IDS, sessionId -> {
+            throw new IdentityEventException("Error while retrieving session information.");
+        });
+    }
+
+    @Test
+    public void testSessionsAreFetchedOnTheCallingThreadWithoutParallelism() throws Exception {
+
+        sessionFetcher.setParallelism(1);
+        Thread callingThread = Thread.currentThread();
+
+        List<UserSession> userSessions = sessionFetcher.fetchSessions(SESSION_IDS, sessionId -> {
+            assertEquals(Thread.currentThread(), callingThread);
+            return Optional.of(userSession(sessionId));
+        });
+
+        assertEquals(userSessions.size(), SESSION_IDS.size());
+    }
+
+    private UserSession userSession(String sessionId) {
+
+        return userSessionsById.get(sessionId);
+    }
+}